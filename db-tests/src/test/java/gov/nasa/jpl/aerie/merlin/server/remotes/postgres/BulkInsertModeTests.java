@@ -0,0 +1,248 @@
+package gov.nasa.jpl.aerie.merlin.server.remotes.postgres;
+
+import gov.nasa.jpl.aerie.database.DatabaseTestHelper;
+import gov.nasa.jpl.aerie.merlin.driver.engine.EventRecord;
+import gov.nasa.jpl.aerie.merlin.driver.engine.ProfileSegment;
+import gov.nasa.jpl.aerie.merlin.driver.timeline.EventGraph;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+import gov.nasa.jpl.aerie.merlin.protocol.types.ValueSchema;
+import gov.nasa.jpl.aerie.types.Timestamp;
+import org.apache.commons.lang3.tuple.Pair;
+import org.intellij.lang.annotations.Language;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static gov.nasa.jpl.aerie.merlin.driver.json.SerializedValueJsonParser.serializedValueP;
+import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.HOURS;
+import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.MICROSECONDS;
+import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.MINUTES;
+import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Results written with {@link BulkInsertMode#COPY} must read back exactly as those written with
+ * {@link BulkInsertMode#BATCH}, including intervals longer than a day, which the two modes compute differently.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BulkInsertModeTests {
+  private static final Timestamp simulationStart = Timestamp.fromString("2020-01-01T00:00:00Z");
+
+  private DatabaseTestHelper helper;
+  private Connection connection;
+
+  @BeforeAll
+  void beforeAll() throws SQLException, IOException, InterruptedException {
+    helper = new DatabaseTestHelper("aerie_bulk_insert_test", "Bulk Insert Mode Tests");
+    connection = helper.connection();
+  }
+
+  @AfterAll
+  void afterAll() throws SQLException, IOException, InterruptedException {
+    helper.close();
+  }
+
+  @Test
+  void copiedProfileSegmentsMatchBatchedProfileSegments() throws SQLException {
+    final var segments = List.<ProfileSegment<Optional<SerializedValue>>>of(
+        new ProfileSegment<>(Duration.of(90, MINUTES), Optional.of(SerializedValue.of("on"))),
+        new ProfileSegment<>(Duration.of(1, MICROSECONDS), Optional.empty()),
+        new ProfileSegment<>(Duration.of(30, HOURS), Optional.of(SerializedValue.of(Map.of(
+            "nested", SerializedValue.of(List.of(SerializedValue.of(1.5), SerializedValue.NULL)),
+            "text", SerializedValue.of("\"quoted\" é"))))),
+        new ProfileSegment<>(Duration.ZERO, Optional.of(SerializedValue.of(true))));
+
+    final var batched = postProfileSegments(BulkInsertMode.BATCH, segments);
+    final var copied = postProfileSegments(BulkInsertMode.COPY, segments);
+
+    assertEquals(segments.size(), batched.size());
+    assertEquals(batched, copied);
+  }
+
+  @Test
+  void copiedEventsMatchBatchedEvents() throws SQLException {
+    final var eventPoints = new LinkedHashMap<Duration, List<EventGraph<EventRecord>>>();
+    eventPoints.put(Duration.ZERO, List.of(
+        EventGraph.sequentially(
+            EventGraph.atom(new EventRecord(1, Optional.empty(), SerializedValue.of(1))),
+            EventGraph.concurrently(
+                EventGraph.atom(new EventRecord(2, Optional.of(0L), SerializedValue.of("left"))),
+                EventGraph.atom(new EventRecord(2, Optional.of(1L), SerializedValue.of("right"))))),
+        EventGraph.atom(new EventRecord(1, Optional.empty(), SerializedValue.of(2)))));
+    eventPoints.put(Duration.of(36, HOURS).plus(Duration.of(5, SECONDS)), List.of(
+        EventGraph.atom(new EventRecord(2, Optional.of(1L), SerializedValue.of(Map.of("k", SerializedValue.NULL))))));
+
+    final var batched = insertEvents(BulkInsertMode.BATCH, eventPoints);
+    final var copied = insertEvents(BulkInsertMode.COPY, eventPoints);
+
+    assertEquals(5, batched.size());
+    assertEquals(batched, copied);
+  }
+
+  @Test
+  void copiedSpansMatchBatchedSpans() throws SQLException {
+    final var start = simulationStart.toInstant();
+    final var spans = new LinkedHashMap<Long, SpanRecord>();
+    spans.put(0L, new SpanRecord(
+        "Parent",
+        start.plusSeconds(60),
+        Optional.of(Duration.of(50, HOURS)),
+        Optional.empty(),
+        List.of(1L, 2L),
+        new ActivityAttributesRecord(
+            Optional.of(7L),
+            Map.of("power", SerializedValue.of(2.5)),
+            Optional.of(SerializedValue.of(Map.of())))));
+    spans.put(1L, new SpanRecord(
+        "Child",
+        start.plusSeconds(26 * 60 * 60).plusNanos(1_000),
+        Optional.of(Duration.of(1, MICROSECONDS)),
+        Optional.of(0L),
+        List.of(),
+        new ActivityAttributesRecord(Optional.empty(), Map.of(), Optional.empty())));
+    spans.put(2L, new SpanRecord(
+        "Unfinished",
+        start.plusSeconds(3 * 24 * 60 * 60),
+        Optional.empty(),
+        Optional.of(0L),
+        List.of(),
+        new ActivityAttributesRecord(Optional.empty(), Map.of("name", SerializedValue.of("x")), Optional.empty())));
+
+    final var batched = postSpans(BulkInsertMode.BATCH, spans);
+    final var copied = postSpans(BulkInsertMode.COPY, spans);
+
+    assertEquals(spans.size(), batched.size());
+    assertEquals(batched, copied);
+  }
+
+  private List<List<String>> postProfileSegments(
+      final BulkInsertMode mode,
+      final List<ProfileSegment<Optional<SerializedValue>>> segments
+  ) throws SQLException {
+    final var datasetId = allocateDataset();
+    final var profile = new ProfileRecord(
+        insertProfile(datasetId),
+        datasetId,
+        "/profile",
+        Pair.of("discrete", ValueSchema.STRING),
+        Duration.of(32, HOURS));
+
+    try (final var action = new PostProfileSegmentsAction(connection, mode)) {
+      action.apply(datasetId, profile, segments, serializedValueP);
+    }
+
+    return readRows(
+        """
+        select start_offset, dynamics, is_gap
+        from merlin.profile_segment
+        where dataset_id = %d
+        order by start_offset
+        """.formatted(datasetId),
+        3);
+  }
+
+  private List<List<String>> insertEvents(
+      final BulkInsertMode mode,
+      final Map<Duration, List<EventGraph<EventRecord>>> eventPoints
+  ) throws SQLException {
+    final var datasetId = allocateDataset();
+    insertTopic(datasetId, 1);
+    insertTopic(datasetId, 2);
+
+    try (final var action = new InsertSimulationEventsAction(connection, mode)) {
+      action.apply(datasetId, eventPoints, simulationStart);
+    }
+
+    return readRows(
+        """
+        select real_time, transaction_index, causal_time, topic_index, value, span_id
+        from merlin.event
+        where dataset_id = %d
+        order by real_time, transaction_index, causal_time
+        """.formatted(datasetId),
+        6);
+  }
+
+  private List<List<String>> postSpans(final BulkInsertMode mode, final Map<Long, SpanRecord> spans)
+  throws SQLException
+  {
+    final var datasetId = allocateDataset();
+
+    try (final var action = new PostSpansAction(connection, mode)) {
+      action.apply(datasetId, spans, simulationStart);
+    }
+
+    return readRows(
+        """
+        select span_id, parent_id, start_offset, duration, type, attributes
+        from merlin.span
+        where dataset_id = %d
+        order by span_id
+        """.formatted(datasetId),
+        6);
+  }
+
+  /** Read every row of a query, with each column in its textual form, so values compare as the database shows them. */
+  private List<List<String>> readRows(final @Language("SQL") String sql, final int columns) throws SQLException {
+    final var rows = new ArrayList<List<String>>();
+    try (final var statement = connection.createStatement(); final var res = statement.executeQuery(sql)) {
+      while (res.next()) {
+        final var row = new ArrayList<String>(columns);
+        for (var i = 1; i <= columns; i++) row.add(res.getString(i));
+        rows.add(row);
+      }
+    }
+    return rows;
+  }
+
+  private int allocateDataset() throws SQLException {
+    try (final var statement = connection.createStatement();
+         final var res = statement.executeQuery(
+             //language=sql
+             """
+             INSERT INTO merlin.dataset
+             DEFAULT VALUES
+             RETURNING id;
+             """)) {
+      assertTrue(res.next());
+      return res.getInt("id");
+    }
+  }
+
+  private int insertProfile(final int datasetId) throws SQLException {
+    try (final var statement = connection.createStatement();
+         final var res = statement.executeQuery(
+             //language=sql
+             """
+             INSERT INTO merlin.profile(dataset_id, name, type, duration)
+             VALUES (%d, '/profile', '{}', '32 hours')
+             RETURNING id;
+             """.formatted(datasetId))) {
+      assertTrue(res.next());
+      return res.getInt("id");
+    }
+  }
+
+  private void insertTopic(final int datasetId, final int topicIndex) throws SQLException {
+    try (final var statement = connection.createStatement()) {
+      statement.executeUpdate(
+          //language=sql
+          """
+          INSERT INTO merlin.topic (dataset_id, topic_index, name, value_schema)
+          VALUES (%d, %d, 'topic', '{}');
+          """.formatted(datasetId, topicIndex));
+    }
+  }
+}
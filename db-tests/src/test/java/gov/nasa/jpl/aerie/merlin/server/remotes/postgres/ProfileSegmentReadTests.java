@@ -0,0 +1,238 @@
+package gov.nasa.jpl.aerie.merlin.server.remotes.postgres;
+
+import gov.nasa.jpl.aerie.database.DatabaseTestHelper;
+import gov.nasa.jpl.aerie.json.JsonParser;
+import gov.nasa.jpl.aerie.merlin.driver.engine.ProfileSegment;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.RealDynamics;
+import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+import gov.nasa.jpl.aerie.merlin.protocol.types.ValueSchema;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static gov.nasa.jpl.aerie.merlin.driver.json.SerializedValueJsonParser.serializedValueP;
+import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.HOURS;
+import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.MICROSECONDS;
+import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.MINUTES;
+import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.SECONDS;
+import static gov.nasa.jpl.aerie.merlin.server.http.ProfileParsers.realDynamicsP;
+import static gov.nasa.jpl.aerie.merlin.server.remotes.postgres.PostgresParsers.getJsonColumn;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Profile segments read with their start offsets in microseconds, and real dynamics decomposed by the database,
+ * must match those read with ISO-8601 offsets and JSON dynamics, as they were read before.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ProfileSegmentReadTests {
+  private static final Duration profileDuration = Duration.of(32, HOURS);
+
+  /** Segments with sub-second and multi-day offsets, values whose decimal forms are inexact, and gaps. */
+  private static final List<ProfileSegment<Optional<RealDynamics>>> realSegments = List.of(
+      new ProfileSegment<>(Duration.of(1, MICROSECONDS), Optional.of(RealDynamics.linear(0.1, 1.0 / 3))),
+      new ProfileSegment<>(Duration.of(90, MINUTES).plus(Duration.of(7, MICROSECONDS)), Optional.empty()),
+      new ProfileSegment<>(Duration.of(25, HOURS), Optional.of(RealDynamics.linear(-2.5e10, 1e-7))),
+      new ProfileSegment<>(Duration.of(999_999, MICROSECONDS), Optional.of(RealDynamics.constant(Double.MAX_VALUE))),
+      new ProfileSegment<>(Duration.of(2, SECONDS), Optional.empty()),
+      new ProfileSegment<>(Duration.of(1, HOURS), Optional.of(RealDynamics.linear(-0.0, Math.PI))));
+
+  private static final List<ProfileSegment<Optional<SerializedValue>>> discreteSegments = List.of(
+      new ProfileSegment<>(Duration.of(90, MINUTES), Optional.of(SerializedValue.of("on"))),
+      new ProfileSegment<>(Duration.of(1, MICROSECONDS), Optional.empty()),
+      new ProfileSegment<>(Duration.of(30, HOURS), Optional.of(SerializedValue.of(Map.of(
+          "nested", SerializedValue.of(List.of(SerializedValue.of(1.5), SerializedValue.NULL)),
+          "text", SerializedValue.of("\"quoted\" é"))))),
+      new ProfileSegment<>(Duration.of(3, SECONDS).plus(Duration.of(1, MICROSECONDS)), Optional.of(SerializedValue.of(true))));
+
+  private DatabaseTestHelper helper;
+  private Connection connection;
+
+  @BeforeAll
+  void beforeAll() throws SQLException, IOException, InterruptedException {
+    helper = new DatabaseTestHelper("aerie_profile_segment_read_test", "Profile Segment Read Tests");
+    connection = helper.connection();
+  }
+
+  @AfterAll
+  void afterAll() throws SQLException, IOException, InterruptedException {
+    helper.close();
+  }
+
+  @Test
+  void realSegmentsMatchJsonSegments() throws SQLException {
+    final var profile = postProfile("real", realSegments, realDynamicsP);
+
+    final List<ProfileSegment<Optional<RealDynamics>>> segments;
+    try (final var action = new GetRealProfileSegmentsAction(connection)) {
+      segments = action.get(profile.datasetId(), profile.id(), profileDuration);
+    }
+
+    assertEquals(readAsJson(profile, realDynamicsP), segments);
+    assertEquals(realSegments.subList(0, realSegments.size() - 1), segments.subList(0, segments.size() - 1));
+  }
+
+  @Test
+  void discreteSegmentsMatchIso8601Segments() throws SQLException {
+    final var profile = postProfile("discrete", discreteSegments, serializedValueP);
+
+    final List<ProfileSegment<Optional<SerializedValue>>> segments;
+    try (final var action = new GetProfileSegmentsAction(connection)) {
+      segments = action.get(profile.datasetId(), profile.id(), profileDuration, serializedValueP);
+    }
+
+    assertEquals(readAsJson(profile, serializedValueP), segments);
+    assertEquals(discreteSegments.subList(0, discreteSegments.size() - 1), segments.subList(0, segments.size() - 1));
+  }
+
+  @Test
+  void windowedSegmentsMatchIso8601Segments() throws SQLException {
+    final var real = postProfile("real", realSegments, realDynamicsP);
+    final var discrete = postProfile("discrete", discreteSegments, serializedValueP);
+    final var realExpected = readAsJson(real, realDynamicsP);
+    final var discreteExpected = readAsJson(discrete, serializedValueP);
+
+    final var windows = List.of(
+        Pair.of(Duration.ZERO, profileDuration),
+        Pair.of(Duration.of(1, MICROSECONDS), Duration.of(2, MICROSECONDS)),
+        Pair.of(Duration.of(1, HOURS), Duration.of(26, HOURS).plus(Duration.of(7, MICROSECONDS))),
+        Pair.of(Duration.of(90, MINUTES).plus(Duration.of(1, MICROSECONDS)), Duration.of(31, HOURS)),
+        Pair.of(Duration.of(30, HOURS), profileDuration));
+
+    try (final var action = new GetProfileSegmentsInWindowAction(connection)) {
+      for (final var window : windows) {
+        assertEquals(
+            inWindow(realExpected, window.getLeft(), window.getRight()),
+            action.get(real.datasetId(), real.id(), profileDuration, window.getLeft(), window.getRight(), realDynamicsP),
+            "real profile in window " + window);
+        assertEquals(
+            inWindow(discreteExpected, window.getLeft(), window.getRight()),
+            action.get(discrete.datasetId(), discrete.id(), profileDuration, window.getLeft(), window.getRight(), serializedValueP),
+            "discrete profile in window " + window);
+      }
+    }
+  }
+
+  private <Dynamics> ProfileRecord postProfile(
+      final String type,
+      final List<ProfileSegment<Optional<Dynamics>>> segments,
+      final JsonParser<Dynamics> dynamicsP
+  ) throws SQLException {
+    final var datasetId = allocateDataset();
+    final var profile = new ProfileRecord(
+        insertProfile(datasetId),
+        datasetId,
+        "/profile",
+        Pair.of(type, ValueSchema.STRING),
+        profileDuration);
+
+    try (final var action = new PostProfileSegmentsAction(connection, BulkInsertMode.BATCH)) {
+      action.apply(datasetId, profile, segments, dynamicsP);
+    }
+    return profile;
+  }
+
+  /** Read a profile's segments as they were read before: with ISO-8601 start offsets, and every dynamics parsed from JSON. */
+  private <Dynamics> List<ProfileSegment<Optional<Dynamics>>> readAsJson(
+      final ProfileRecord profile,
+      final JsonParser<Dynamics> dynamicsP
+  ) throws SQLException {
+    final var offsets = new ArrayList<Duration>();
+    final var dynamics = new ArrayList<Optional<Dynamics>>();
+
+    PreparedStatements.setIntervalStyle(connection, PreparedStatements.PGIntervalStyle.ISO8601);
+    try (final var statement = connection.prepareStatement(
+        //language=sql
+        """
+        select seg.start_offset, seg.dynamics, seg.is_gap
+        from merlin.profile_segment as seg
+        where seg.dataset_id = ? and seg.profile_id = ?
+        order by seg.start_offset asc
+        """)) {
+      statement.setLong(1, profile.datasetId());
+      statement.setLong(2, profile.id());
+      try (final var res = statement.executeQuery()) {
+        while (res.next()) {
+          offsets.add(PostgresParsers.parseDurationISO8601(res.getString(1)));
+          dynamics.add(res.getBoolean("is_gap")
+              ? Optional.empty()
+              : Optional.of(getJsonColumn(res, "dynamics", dynamicsP).getSuccessOrThrow()));
+        }
+      }
+    } finally {
+      PreparedStatements.setIntervalStyle(connection, PreparedStatements.PGIntervalStyle.Postgres);
+    }
+
+    final var segments = new ArrayList<ProfileSegment<Optional<Dynamics>>>(offsets.size());
+    for (var i = 0; i < offsets.size(); i++) {
+      final var end = (i + 1 < offsets.size()) ? offsets.get(i + 1) : profileDuration;
+      segments.add(new ProfileSegment<>(end.minus(offsets.get(i)), dynamics.get(i)));
+    }
+    return segments;
+  }
+
+  /**
+   * The segment in effect at the start of a window and every segment beginning within it, with the offset of the first,
+   * as {@link GetProfileSegmentsInWindowAction} gets them. The last segment is taken to end with the profile.
+   */
+  private static <Dynamics> Pair<Duration, List<ProfileSegment<Optional<Dynamics>>>> inWindow(
+      final List<ProfileSegment<Optional<Dynamics>>> segments,
+      final Duration windowStart,
+      final Duration windowEnd
+  ) {
+    final var offsets = new ArrayList<Duration>(segments.size());
+    var offset = Duration.ZERO;
+    for (final var segment : segments) {
+      offsets.add(offset);
+      offset = offset.plus(segment.extent());
+    }
+
+    var first = 0;
+    while (first + 1 < offsets.size() && offsets.get(first + 1).noLongerThan(windowStart)) first++;
+    var last = first;
+    while (last + 1 < offsets.size() && offsets.get(last + 1).shorterThan(windowEnd)) last++;
+
+    final var selected = new ArrayList<>(segments.subList(first, last));
+    selected.add(new ProfileSegment<>(profileDuration.minus(offsets.get(last)), segments.get(last).dynamics()));
+    return Pair.of(offsets.get(first), selected);
+  }
+
+  private int allocateDataset() throws SQLException {
+    try (final var statement = connection.createStatement();
+         final var res = statement.executeQuery(
+             //language=sql
+             """
+             INSERT INTO merlin.dataset
+             DEFAULT VALUES
+             RETURNING id;
+             """)) {
+      assertTrue(res.next());
+      return res.getInt("id");
+    }
+  }
+
+  private int insertProfile(final int datasetId) throws SQLException {
+    try (final var statement = connection.createStatement();
+         final var res = statement.executeQuery(
+             //language=sql
+             """
+             INSERT INTO merlin.profile(dataset_id, name, type, duration)
+             VALUES (%d, '/profile', '{}', '32 hours')
+             RETURNING id;
+             """.formatted(datasetId))) {
+      assertTrue(res.next());
+      return res.getInt("id");
+    }
+  }
+}
@@ -0,0 +1,5 @@
+drop trigger notify_validation_workers_on_update on merlin.activity_directive_validations;
+drop trigger notify_validation_workers_on_insert on merlin.activity_directive_validations;
+drop function merlin.notify_validation_workers();
+
+call migrations.mark_migration_rolled_back('11');
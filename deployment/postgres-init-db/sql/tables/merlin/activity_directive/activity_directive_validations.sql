@@ -25,3 +25,33 @@ comment on column merlin.activity_directive_validations.last_modified_arguments_
   'The time at which these argument validations were last modified.';
 comment on column merlin.activity_directive_validations.validations is e''
   'The argument validations extracted from an activity directive.';
+
+-- Directive validation NOTIFY triggers
+-- These triggers NOTIFY LISTEN(ing) merlin server clients of directives awaiting validation.
+-- They fire once per statement, so that a large import wakes the validation worker only once.
+
+create function merlin.notify_validation_workers()
+returns trigger
+security definer
+language plpgsql as $$
+begin
+  if exists(select from pending_validations where status = 'pending') then
+    perform pg_notify('activity_directive_validation', '');
+  end if;
+  return null;
+end$$;
+
+comment on function merlin.notify_validation_workers() is e''
+  'Notifies listening validation workers when a statement leaves directives awaiting validation.';
+
+create trigger notify_validation_workers_on_insert
+  after insert on merlin.activity_directive_validations
+  referencing new table as pending_validations
+  for each statement
+  execute function merlin.notify_validation_workers();
+
+create trigger notify_validation_workers_on_update
+  after update on merlin.activity_directive_validations
+  referencing new table as pending_validations
+  for each statement
+  execute function merlin.notify_validation_workers();
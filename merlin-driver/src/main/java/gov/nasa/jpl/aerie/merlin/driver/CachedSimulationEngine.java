@@ -24,7 +24,15 @@ public record CachedSimulationEngine(
   }
 
   public static CachedSimulationEngine empty(final MissionModel<?> missionModel, final Instant simulationStartTime) {
-    final SimulationEngine engine = new SimulationEngine(missionModel.getInitialCells());
+    return empty(missionModel, simulationStartTime, SimulationEngine.Options.DEFAULT);
+  }
+
+  public static CachedSimulationEngine empty(
+      final MissionModel<?> missionModel,
+      final Instant simulationStartTime,
+      final SimulationEngine.Options engineOptions)
+  {
+    final SimulationEngine engine = new SimulationEngine(missionModel.getInitialCells(), engineOptions);
 
     // Specify a topic on which tasks can log the activity they're associated with.
     final var activityTopic = new Topic<ActivityDirectiveId>();
@@ -17,6 +17,24 @@ import java.time.Instant;
 import java.util.jar.JarFile;
 
 public final class MissionModelLoader {
+    /**
+     * A mission model's type, together with the class loader holding its classes.
+     *
+     * The model type may be used to instantiate any number of mission models until this is closed,
+     * after which its classes may no longer be loaded.
+     */
+    public record LoadedModelType(
+        URLClassLoader classLoader,
+        MerlinPlugin plugin,
+        ModelType<?, ?> modelType,
+        DirectiveTypeRegistry<?> registry
+    ) implements AutoCloseable {
+        @Override
+        public void close() throws IOException {
+            this.classLoader.close();
+        }
+    }
+
     public static ModelType<?, ?> loadModelType(final Path path, final String name, final String version)
     throws MissionModelLoadException
     {
@@ -38,6 +56,34 @@ public final class MissionModelLoader {
         return loadMissionModel(planStart, missionModelConfig, modelType, builder);
     }
 
+    /** Load a mission model's type along with its class loader, so that the type may be reused and later unloaded. */
+    public static LoadedModelType loadModelTypeWithClassLoader(final Path path, final String name, final String version)
+    throws MissionModelLoadException
+    {
+        final var classLoader = new URLClassLoader(new URL[] {missionModelPathToUrl(path)});
+        try {
+            final var service = loadMissionModelProvider(classLoader, path, name, version);
+            final var modelType = service.getModelType();
+            return new LoadedModelType(classLoader, service, modelType, DirectiveTypeRegistry.extract(modelType));
+        } catch (final MissionModelLoadException | RuntimeException ex) {
+            try {
+                classLoader.close();
+            } catch (final IOException closeEx) {
+                ex.addSuppressed(closeEx);
+            }
+            throw ex;
+        }
+    }
+
+    /** Instantiate a mission model from a previously-loaded model type. */
+    public static MissionModel<?> loadMissionModel(
+        final Instant planStart,
+        final SerializedValue missionModelConfig,
+        final ModelType<?, ?> modelType)
+    {
+        return loadMissionModel(planStart, missionModelConfig, modelType, new MissionModelBuilder());
+    }
+
     private static <Config, Model>
     MissionModel<Model> loadMissionModel(
         final Instant planStart,
@@ -60,14 +106,23 @@ public final class MissionModelLoader {
 
     public static MerlinPlugin loadMissionModelProvider(final Path path, final String name, final String version)
     throws MissionModelLoadException
+    {
+        // Construct a ClassLoader with access to classes in the mission model location.
+        final var classLoader = new URLClassLoader(new URL[] {missionModelPathToUrl(path)});
+        return loadMissionModelProvider(classLoader, path, name, version);
+    }
+
+    private static MerlinPlugin loadMissionModelProvider(
+        final ClassLoader classLoader,
+        final Path path,
+        final String name,
+        final String version)
+    throws MissionModelLoadException
     {
         // Look for a MerlinPlugin implementor in the mission model. For correctness, we're assuming there's
         // only one matching MerlinMissionModel in any given mission model.
         final var className = getImplementingClassName(path, name, version);
 
-        // Construct a ClassLoader with access to classes in the mission model location.
-        final var classLoader = new URLClassLoader(new URL[] {missionModelPathToUrl(path)});
-
         try {
             final var pluginClass$ = classLoader.loadClass(className);
             if (!MerlinPlugin.class.isAssignableFrom(pluginClass$)) {
@@ -2,7 +2,9 @@ package gov.nasa.jpl.aerie.merlin.driver;
 
 import gov.nasa.jpl.aerie.merlin.driver.engine.SimulationEngine;
 import gov.nasa.jpl.aerie.merlin.driver.engine.SpanException;
+import gov.nasa.jpl.aerie.merlin.driver.engine.SpanId;
 import gov.nasa.jpl.aerie.merlin.driver.resources.InMemorySimulationResourceManager;
+import gov.nasa.jpl.aerie.merlin.driver.resources.ResourceUpdatePipeline;
 import gov.nasa.jpl.aerie.merlin.driver.resources.SimulationResourceManager;
 import gov.nasa.jpl.aerie.merlin.protocol.driver.Topic;
 import gov.nasa.jpl.aerie.merlin.protocol.model.Task;
@@ -25,6 +27,9 @@ import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 public final class SimulationDriver {
+  /** The number of steps' worth of resource samples that may await serialization before the engine is held back. */
+  private static final int RESOURCE_PIPELINE_CAPACITY = 256;
+
   public static <Model> SimulationResults simulate(
       final MissionModel<Model> missionModel,
       final Map<ActivityDirectiveId, ActivityDirective> schedule,
@@ -57,7 +62,35 @@ public final class SimulationDriver {
       final Consumer<Duration> simulationExtentConsumer,
       final SimulationResourceManager resourceManager
   ) {
-    try (final var engine = new SimulationEngine(missionModel.getInitialCells())) {
+    return simulate(
+        missionModel,
+        schedule,
+        simulationStartTime,
+        simulationDuration,
+        planStartTime,
+        planDuration,
+        simulationCanceled,
+        simulationExtentConsumer,
+        resourceManager,
+        SimulationEngine.Options.DEFAULT);
+  }
+
+  public static <Model> SimulationResults simulate(
+      final MissionModel<Model> missionModel,
+      final Map<ActivityDirectiveId, ActivityDirective> schedule,
+      final Instant simulationStartTime,
+      final Duration simulationDuration,
+      final Instant planStartTime,
+      final Duration planDuration,
+      final Supplier<Boolean> simulationCanceled,
+      final Consumer<Duration> simulationExtentConsumer,
+      final SimulationResourceManager resourceManager,
+      final SimulationEngine.Options engineOptions
+  ) {
+    try (final var engine = new SimulationEngine(missionModel.getInitialCells(), engineOptions);
+         final var pipeline = engineOptions.deferResourceSerialization()
+             ? new ResourceUpdatePipeline(resourceManager, RESOURCE_PIPELINE_CAPACITY)
+             : null) {
 
       /* The current real time. */
       simulationExtentConsumer.accept(Duration.ZERO);
@@ -103,12 +136,18 @@ public final class SimulationDriver {
             case SimulationEngine.Status.NoJobs noJobs: break engineLoop;
             case SimulationEngine.Status.AtDuration atDuration: break engineLoop;
             case SimulationEngine.Status.Nominal nominal:
-              resourceManager.acceptUpdates(nominal.elapsedTime(), nominal.realResourceUpdates(), nominal.dynamicResourceUpdates());
+              if (pipeline != null) {
+                pipeline.accept(nominal.elapsedTime(), nominal.resourceSamples());
+              } else {
+                resourceManager.acceptUpdates(nominal.elapsedTime(), nominal.realResourceUpdates(), nominal.dynamicResourceUpdates());
+              }
               break;
           }
           simulationExtentConsumer.accept(engine.getElapsedTime());
         }
 
+        if (pipeline != null) pipeline.flush();
+
       } catch (SpanException ex) {
         // Swallowing the spanException as the internal `spanId` is not user meaningful info.
         final var topics = missionModel.getTopics();
@@ -127,10 +166,22 @@ public final class SimulationDriver {
       }
 
       final var topics = missionModel.getTopics();
+      engineOptions.metrics().simulationFinished(span -> activityTypeOf(engine, activityTopic, topics, span));
       return engine.computeResults(simulationStartTime, activityTopic, topics, resourceManager);
     }
   }
 
+  /** Find the type of the innermost activity containing the given span, if any. */
+  private static String activityTypeOf(
+      final SimulationEngine engine,
+      final Topic<ActivityDirectiveId> activityTopic,
+      final Iterable<MissionModel.SerializableTopic<?>> topics,
+      final SpanId span
+  ) {
+    final var stack = engine.getDirectiveDetailsFromSpan(activityTopic, topics, span).activityStackTrace();
+    return (stack.isEmpty()) ? null : stack.getLast().getTypeName();
+  }
+
   // This method is used as a helper method for executing unit tests
   public static <Model, Return>
   void simulateTask(final MissionModel<Model> missionModel, final TaskFactory<Return> task) {
@@ -0,0 +1,252 @@
+package gov.nasa.jpl.aerie.merlin.driver;
+
+import gov.nasa.jpl.aerie.merlin.driver.engine.ConditionId;
+import gov.nasa.jpl.aerie.merlin.driver.engine.EngineMetricsListener;
+import gov.nasa.jpl.aerie.merlin.driver.engine.ResourceId;
+import gov.nasa.jpl.aerie.merlin.driver.engine.SimulationEngine;
+import gov.nasa.jpl.aerie.merlin.driver.engine.SpanId;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Accumulates the measurements reported by a {@link SimulationEngine} over the course of a simulation,
+ * so that the model resources, conditions, and activities dominating its runtime can be identified.
+ */
+public final class SimulationMetrics implements EngineMetricsListener {
+  /** The number of entries listed in each section of a formatted report. */
+  private static final int REPORT_LIMIT = 20;
+
+  private static final String NO_ACTIVITY = "(no activity)";
+
+  private long batches = 0;
+  private long jobs = 0;
+  private long largestBatch = 0;
+  private long batchNanos = 0;
+  private final Map<String, Long> jobsByKind = new TreeMap<>();
+
+  private final Map<SpanId, Accumulator> taskStepsBySpan = new HashMap<>();
+  private final Map<ConditionId, Accumulator> conditionEvaluations = new HashMap<>();
+  private final Map<ConditionId, SpanId> conditionSpans = new HashMap<>();
+  private final Map<ResourceId, Long> resourceSamples = new HashMap<>();
+  private final Map<ResourceId, Long> droppedResourceSamples = new HashMap<>();
+
+  private long cellCatchUps = 0;
+  private long catchUpCommits = 0;
+  private long longestCatchUp = 0;
+
+  /** The activity type of every span seen so far, once simulation has finished. */
+  private final Map<SpanId, String> activityTypes = new HashMap<>();
+
+  public record Timing(long count, long wallNanos) {}
+
+  public record ConditionTiming(ConditionId condition, String activityType, Timing timing) {}
+
+  public record Report(
+      long batches,
+      long jobs,
+      long largestBatch,
+      long batchNanos,
+      Map<String, Long> jobsByKind,
+      Map<String, Timing> taskStepsByActivityType,
+      Map<String, Timing> conditionEvaluationsByActivityType,
+      List<ConditionTiming> conditionEvaluations,
+      Map<String, Long> resourceSamples,
+      Map<String, Long> droppedResourceSamples,
+      long cellCatchUps,
+      long catchUpCommits,
+      long longestCatchUp
+  ) {
+    /** Render this report as human-readable text, listing only the most significant entries of each section. */
+    public String format() {
+      final var builder = new StringBuilder();
+      builder.append("Simulation engine metrics\n");
+      builder.append("  batches: %d (jobs: %d, largest: %d, wall time: %s)\n"
+          .formatted(this.batches, this.jobs, this.largestBatch, formatNanos(this.batchNanos)));
+      builder.append("  jobs by kind: %s\n".formatted(this.jobsByKind));
+      builder.append("  cell catch-ups: %d (commits applied: %d, longest: %d)\n"
+          .formatted(this.cellCatchUps, this.catchUpCommits, this.longestCatchUp));
+
+      builder.append("  task steps by activity type:\n");
+      formatTimings(builder, this.taskStepsByActivityType);
+
+      builder.append("  condition evaluations by activity type:\n");
+      formatTimings(builder, this.conditionEvaluationsByActivityType);
+
+      builder.append("  most expensive conditions:\n");
+      for (final var entry : this.conditionEvaluations.subList(0, Math.min(REPORT_LIMIT, this.conditionEvaluations.size()))) {
+        builder.append("    %s (%s): %d evaluations, %s\n".formatted(
+            entry.condition().id(),
+            entry.activityType(),
+            entry.timing().count(),
+            formatNanos(entry.timing().wallNanos())));
+      }
+
+      builder.append("  resource samples:\n");
+      formatCounts(builder, this.resourceSamples, this.droppedResourceSamples);
+
+      return builder.toString();
+    }
+
+    private static void formatTimings(final StringBuilder builder, final Map<String, Timing> timings) {
+      timings.entrySet().stream().limit(REPORT_LIMIT).forEach(entry -> builder.append("    %s: %d, %s\n".formatted(
+          entry.getKey(),
+          entry.getValue().count(),
+          formatNanos(entry.getValue().wallNanos()))));
+    }
+
+    private static void formatCounts(final StringBuilder builder, final Map<String, Long> counts, final Map<String, Long> dropped) {
+      counts.entrySet().stream().limit(REPORT_LIMIT).forEach(entry -> builder.append("    %s: %d (dropped: %d)\n".formatted(
+          entry.getKey(),
+          entry.getValue(),
+          dropped.getOrDefault(entry.getKey(), 0L))));
+    }
+
+    private static String formatNanos(final long nanos) {
+      return "%.3f ms".formatted(nanos / 1_000_000.0);
+    }
+  }
+
+  @Override
+  public synchronized void batchPerformed(
+      final Duration offsetFromStart,
+      final Collection<SimulationEngine.JobId> jobs,
+      final long wallNanos)
+  {
+    this.batches += 1;
+    this.jobs += jobs.size();
+    this.largestBatch = Math.max(this.largestBatch, jobs.size());
+    this.batchNanos += wallNanos;
+
+    for (final var job : jobs) {
+      final var kind = switch (job) {
+        case SimulationEngine.JobId.TaskJobId $ -> "task";
+        case SimulationEngine.JobId.SignalJobId $ -> "signal";
+        case SimulationEngine.JobId.ConditionJobId $ -> "condition";
+        case SimulationEngine.JobId.ResourceJobId $ -> "resource";
+      };
+      this.jobsByKind.merge(kind, 1L, Long::sum);
+    }
+  }
+
+  @Override
+  public synchronized void taskStepped(final SpanId span, final long wallNanos) {
+    this.taskStepsBySpan.computeIfAbsent(span, $ -> new Accumulator()).add(wallNanos);
+  }
+
+  @Override
+  public synchronized void conditionEvaluated(final ConditionId condition, final SpanId waitingSpan, final long wallNanos) {
+    this.conditionEvaluations.computeIfAbsent(condition, $ -> new Accumulator()).add(wallNanos);
+    if (waitingSpan != null) this.conditionSpans.putIfAbsent(condition, waitingSpan);
+  }
+
+  @Override
+  public synchronized void resourceSampled(final ResourceId resource) {
+    this.resourceSamples.merge(resource, 1L, Long::sum);
+  }
+
+  @Override
+  public synchronized void resourceSampleDropped(final ResourceId resource) {
+    this.droppedResourceSamples.merge(resource, 1L, Long::sum);
+  }
+
+  @Override
+  public synchronized void cellCaughtUp(final int commits) {
+    this.cellCatchUps += 1;
+    this.catchUpCommits += commits;
+    this.longestCatchUp = Math.max(this.longestCatchUp, commits);
+  }
+
+  @Override
+  public synchronized void simulationFinished(final Function<SpanId, String> activityTypeOfSpan) {
+    for (final var span : this.taskStepsBySpan.keySet()) this.resolveActivityType(span, activityTypeOfSpan);
+    for (final var span : this.conditionSpans.values()) this.resolveActivityType(span, activityTypeOfSpan);
+  }
+
+  private void resolveActivityType(final SpanId span, final Function<SpanId, String> activityTypeOfSpan) {
+    this.activityTypes.computeIfAbsent(span, $ -> {
+      final var type = activityTypeOfSpan.apply(span);
+      return (type != null) ? type : NO_ACTIVITY;
+    });
+  }
+
+  /** Summarize the measurements taken so far. Entries within each section are ordered from most to least costly. */
+  public synchronized Report report() {
+    final var taskSteps = new HashMap<String, Accumulator>();
+    this.taskStepsBySpan.forEach((span, timing) -> taskSteps
+        .computeIfAbsent(this.activityTypeOf(span), $ -> new Accumulator())
+        .addAll(timing));
+
+    final var conditionsByType = new HashMap<String, Accumulator>();
+    final var conditions = this.conditionEvaluations.entrySet().stream()
+        .map(entry -> {
+          final var type = this.activityTypeOf(this.conditionSpans.get(entry.getKey()));
+          conditionsByType.computeIfAbsent(type, $ -> new Accumulator()).addAll(entry.getValue());
+          return new ConditionTiming(entry.getKey(), type, entry.getValue().toTiming());
+        })
+        .sorted(Comparator.comparingLong((ConditionTiming c) -> c.timing().wallNanos()).reversed())
+        .toList();
+
+    return new Report(
+        this.batches,
+        this.jobs,
+        this.largestBatch,
+        this.batchNanos,
+        Map.copyOf(this.jobsByKind),
+        sortTimings(taskSteps),
+        sortTimings(conditionsByType),
+        conditions,
+        sortCounts(this.resourceSamples),
+        sortCounts(this.droppedResourceSamples),
+        this.cellCatchUps,
+        this.catchUpCommits,
+        this.longestCatchUp);
+  }
+
+  private String activityTypeOf(final SpanId span) {
+    if (span == null) return NO_ACTIVITY;
+    return this.activityTypes.getOrDefault(span, NO_ACTIVITY);
+  }
+
+  private static Map<String, Timing> sortTimings(final Map<String, Accumulator> timings) {
+    final var sorted = new LinkedHashMap<String, Timing>();
+    timings.entrySet().stream()
+        .sorted(Comparator.comparingLong((Map.Entry<String, Accumulator> e) -> e.getValue().wallNanos).reversed())
+        .forEach(entry -> sorted.put(entry.getKey(), entry.getValue().toTiming()));
+    return sorted;
+  }
+
+  private static Map<String, Long> sortCounts(final Map<ResourceId, Long> counts) {
+    final var sorted = new LinkedHashMap<String, Long>();
+    counts.entrySet().stream()
+        .sorted(Map.Entry.<ResourceId, Long>comparingByValue().reversed())
+        .forEach(entry -> sorted.put(entry.getKey().id(), entry.getValue()));
+    return sorted;
+  }
+
+  private static final class Accumulator {
+    private long count = 0;
+    private long wallNanos = 0;
+
+    public void add(final long wallNanos) {
+      this.count += 1;
+      this.wallNanos += wallNanos;
+    }
+
+    public void addAll(final Accumulator other) {
+      this.count += other.count;
+      this.wallNanos += other.wallNanos;
+    }
+
+    public Timing toTiming() {
+      return new Timing(this.count, this.wallNanos);
+    }
+  }
+}
@@ -0,0 +1,46 @@
+package gov.nasa.jpl.aerie.merlin.driver.engine;
+
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+
+import java.util.Collection;
+import java.util.function.Function;
+
+/**
+ * Receives measurements of the work performed by a {@link SimulationEngine}.
+ *
+ * When the engine performs jobs in parallel, every method other than {@link #batchPerformed} may be called from several
+ * threads at once. Listeners should return quickly, as they are called from the simulation's innermost loops.
+ */
+public interface EngineMetricsListener {
+  /** A listener which ignores every measurement. */
+  EngineMetricsListener NONE = new EngineMetricsListener() {};
+
+  /** A batch of jobs was performed at the given time, taking the given wall-clock time overall. */
+  default void batchPerformed(Duration offsetFromStart, Collection<SimulationEngine.JobId> jobs, long wallNanos) {}
+
+  /** A task belonging to the given span was stepped, taking the given wall-clock time. */
+  default void taskStepped(SpanId span, long wallNanos) {}
+
+  /**
+   * A condition was re-evaluated on behalf of a task belonging to the given span, taking the given wall-clock time.
+   * The span is null if no task is waiting on the condition.
+   */
+  default void conditionEvaluated(ConditionId condition, SpanId waitingSpan, long wallNanos) {}
+
+  /** A resource was sampled. */
+  default void resourceSampled(ResourceId resource) {}
+
+  /** A sample of a resource was dropped for being the same as its previous sample. */
+  default void resourceSampleDropped(ResourceId resource) {}
+
+  /** A cell was caught up to the present by applying the given number of commits. */
+  default void cellCaughtUp(int commits) {}
+
+  /**
+   * Simulation has finished, and no more measurements will be reported.
+   *
+   * @param activityTypeOfSpan Names the type of the innermost activity containing a span, or `null` for spans
+   *   outside of any activity (such as daemon tasks). It is only valid for the duration of this call.
+   */
+  default void simulationFinished(Function<SpanId, String> activityTypeOfSpan) {}
+}
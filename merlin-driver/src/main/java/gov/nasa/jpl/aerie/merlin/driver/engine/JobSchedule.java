@@ -1,76 +1,195 @@
 package gov.nasa.jpl.aerie.merlin.driver.engine;
 
 import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
+import java.util.LinkedHashSet;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.ConcurrentSkipListMap;
 
+/**
+ * A time-ordered queue of jobs, each scheduled at most once.
+ *
+ * Jobs are kept in an indexed binary min-heap ordered by (time, priority, sequence), where the sequence number records
+ * the order in which jobs were scheduled. The heap stores its keys in primitive arrays, and each job's position in the
+ * heap is tracked so that it can be rescheduled or unscheduled in logarithmic time.
+ */
 public final class JobSchedule<JobRef, TimeRef extends SchedulingInstant> {
-  /** The scheduled time for each upcoming job. */
-  private final Map<JobRef, TimeRef> scheduledJobs = new HashMap<>();
+  private static final int INITIAL_CAPACITY = 64;
+
+  /** The offset from the start of simulation (in microseconds) of each job in the heap. */
+  private long[] times;
+  /** The priority of each job in the heap among jobs at the same time. */
+  private byte[] priorities;
+  /** The order in which each job in the heap was scheduled, to break ties between jobs with the same time. */
+  private long[] sequence;
+  /** The jobs in the heap. */
+  private Object[] jobs;
+  private int size = 0;
+  private long nextSequence = 0;
+
+  /** The position in the heap of each scheduled job. */
+  @DerivedFrom("jobs")
+  private final Object2IntOpenHashMap<JobRef> positions;
+
+  public JobSchedule() {
+    this.times = new long[INITIAL_CAPACITY];
+    this.priorities = new byte[INITIAL_CAPACITY];
+    this.sequence = new long[INITIAL_CAPACITY];
+    this.jobs = new Object[INITIAL_CAPACITY];
+    this.positions = new Object2IntOpenHashMap<>();
+    this.positions.defaultReturnValue(-1);
+  }
 
-  /** A time-ordered queue of all tasks whose resumption time is concretely known. */
-  @DerivedFrom("scheduledJobs")
-  private final ConcurrentSkipListMap<TimeRef, Set<JobRef>> queue = new ConcurrentSkipListMap<>();
+  private JobSchedule(final JobSchedule<JobRef, TimeRef> other) {
+    this.times = other.times.clone();
+    this.priorities = other.priorities.clone();
+    this.sequence = other.sequence.clone();
+    this.jobs = other.jobs.clone();
+    this.size = other.size;
+    this.nextSequence = other.nextSequence;
+    this.positions = new Object2IntOpenHashMap<>(other.positions);
+    this.positions.defaultReturnValue(-1);
+  }
 
   public void schedule(final JobRef job, final TimeRef time) {
-    final var oldTime = this.scheduledJobs.put(job, time);
+    final var micros = time.offsetFromStart().in(Duration.MICROSECOND);
+    final var priority = (byte) time.priority().ordinal();
+
+    var index = this.positions.getInt(job);
+    if (index < 0) {
+      if (this.size == this.jobs.length) this.grow();
+      index = this.size++;
+      this.jobs[index] = job;
+    }
 
-    if (oldTime != null) removeJobFromQueue(oldTime, job);
+    this.times[index] = micros;
+    this.priorities[index] = priority;
+    this.sequence[index] = this.nextSequence++;
+    this.positions.put(job, index);
 
-    this.queue.computeIfAbsent(time, $ -> new HashSet<>()).add(job);
+    this.siftDown(this.siftUp(index));
   }
 
   public void unschedule(final JobRef job) {
-    final var oldTime = this.scheduledJobs.remove(job);
-    if (oldTime != null) removeJobFromQueue(oldTime, job);
-  }
-
-  private void removeJobFromQueue(TimeRef time, JobRef job) {
-    var jobsAtOldTime = this.queue.get(time);
-    jobsAtOldTime.remove(job);
-    if (jobsAtOldTime.isEmpty()) {
-      this.queue.remove(time);
-    }
+    final var index = this.positions.removeInt(job);
+    if (index >= 0) this.removeAt(index);
   }
 
   public Batch<JobRef> extractNextJobs(final Duration maximumTime) {
-    if (this.queue.isEmpty()) return new Batch<>(maximumTime, Collections.emptySet());
+    if (this.size == 0) return new Batch<>(maximumTime, Collections.emptySet());
 
-    final var time = this.queue.firstKey();
-    if (time.project().longerThan(maximumTime)) {
+    final var time = this.times[0];
+    if (time > maximumTime.in(Duration.MICROSECOND)) {
       return new Batch<>(maximumTime, Collections.emptySet());
     }
 
     // Ready all tasks at the soonest task time.
-    final var entry = this.queue.pollFirstEntry();
-    entry.getValue().forEach(this.scheduledJobs::remove);
-    return new Batch<>(entry.getKey().project(), entry.getValue());
+    final var priority = this.priorities[0];
+    final var batch = new LinkedHashSet<JobRef>();
+    while (this.size > 0 && this.times[0] == time && this.priorities[0] == priority) {
+      final var job = this.jobAt(0);
+      this.positions.removeInt(job);
+      this.removeAt(0);
+      batch.add(job);
+    }
+    return new Batch<>(Duration.of(time, Duration.MICROSECOND), batch);
   }
 
   public void clear() {
-    this.scheduledJobs.clear();
-    this.queue.clear();
+    Arrays.fill(this.jobs, 0, this.size, null);
+    this.size = 0;
+    this.positions.clear();
   }
 
   public Optional<Duration> peekNextTime() {
-    if(this.queue.isEmpty()) return Optional.empty();
-    return Optional.ofNullable(this.queue.firstKey()).map(SchedulingInstant::offsetFromStart);
+    if (this.size == 0) return Optional.empty();
+    return Optional.of(Duration.of(this.times[0], Duration.MICROSECOND));
   }
 
   public record Batch<JobRef>(Duration offsetFromStart, Set<JobRef> jobs) {}
 
   public JobSchedule<JobRef, TimeRef> duplicate() {
-    final JobSchedule<JobRef, TimeRef> jobSchedule = new JobSchedule<>();
-    for (final var entry : this.queue.entrySet()) {
-      jobSchedule.queue.put(entry.getKey(), new HashSet<>(entry.getValue()));
+    return new JobSchedule<>(this);
+  }
+
+  private void removeAt(final int index) {
+    final var last = --this.size;
+    if (index != last) {
+      this.move(last, index);
+      this.jobs[last] = null;
+      this.siftDown(this.siftUp(index));
+    } else {
+      this.jobs[last] = null;
+    }
+  }
+
+  private int siftUp(int index) {
+    while (index > 0) {
+      final var parent = (index - 1) >>> 1;
+      if (!this.precedes(index, parent)) break;
+      this.swap(index, parent);
+      index = parent;
     }
-    jobSchedule.scheduledJobs.putAll(this.scheduledJobs);
-    return jobSchedule;
+    return index;
+  }
+
+  private void siftDown(int index) {
+    while (true) {
+      final var left = 2 * index + 1;
+      if (left >= this.size) break;
+
+      final var right = left + 1;
+      final var child = (right < this.size && this.precedes(right, left)) ? right : left;
+      if (!this.precedes(child, index)) break;
+
+      this.swap(index, child);
+      index = child;
+    }
+  }
+
+  private boolean precedes(final int a, final int b) {
+    if (this.times[a] != this.times[b]) return this.times[a] < this.times[b];
+    if (this.priorities[a] != this.priorities[b]) return this.priorities[a] < this.priorities[b];
+    return this.sequence[a] < this.sequence[b];
+  }
+
+  private void swap(final int a, final int b) {
+    final var time = this.times[a];
+    final var priority = this.priorities[a];
+    final var order = this.sequence[a];
+    final var job = this.jobs[a];
+
+    this.move(b, a);
+
+    this.times[b] = time;
+    this.priorities[b] = priority;
+    this.sequence[b] = order;
+    this.jobs[b] = job;
+    this.positions.put(this.jobAt(b), b);
+  }
+
+  private void move(final int from, final int to) {
+    this.times[to] = this.times[from];
+    this.priorities[to] = this.priorities[from];
+    this.sequence[to] = this.sequence[from];
+    this.jobs[to] = this.jobs[from];
+    this.positions.put(this.jobAt(to), to);
+  }
+
+  private void grow() {
+    final var capacity = 2 * this.jobs.length;
+    this.times = Arrays.copyOf(this.times, capacity);
+    this.priorities = Arrays.copyOf(this.priorities, capacity);
+    this.sequence = Arrays.copyOf(this.sequence, capacity);
+    this.jobs = Arrays.copyOf(this.jobs, capacity);
+  }
+
+  // SAFETY: Only JobRefs are ever inserted into `jobs`.
+  @SuppressWarnings("unchecked")
+  private JobRef jobAt(final int index) {
+    return (JobRef) this.jobs[index];
   }
 }
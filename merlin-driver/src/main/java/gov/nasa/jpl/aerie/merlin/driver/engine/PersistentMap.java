@@ -0,0 +1,482 @@
+package gov.nasa.jpl.aerie.merlin.driver.engine;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A map which can be duplicated in constant time by sharing its structure with the duplicate.
+ *
+ * Entries are held in two persistent tries: a hash trie indexing them by key, and a trie indexing them by the position
+ * at which their keys were inserted. Updating a shared trie copies only the path leading to the updated entry, so after
+ * being duplicated, each map only pays for the entries it changes. Nodes created by a map since it was last duplicated
+ * belong to that map alone, and are updated in place.
+ *
+ * Iteration follows insertion order, as with a {@link LinkedHashMap}: replacing the value of a key keeps its position,
+ * but a key which is removed and then put again moves to the end. The views of a map are backed by the map, and their
+ * iterators fail fast if the map is structurally modified other than through them. Null keys and values are not
+ * supported.
+ */
+public final class PersistentMap<K, V> extends AbstractMap<K, V> {
+  private static final int BITS = 5;
+  private static final int WIDTH = 1 << BITS;
+  private static final int MASK = WIDTH - 1;
+  /** The greatest shift at which some bits of a 32-bit hash remain to be consumed. */
+  private static final int MAX_HASH_SHIFT = 30;
+
+  /** An entry of the map. Slots are immutable, so that both tries (and any number of maps) can share them. */
+  private record Slot(Object key, Object value, int hash, int position) {}
+
+  /** A node of the hash trie, holding a slot or subtrie for each hash fragment present in its bitmap. */
+  private static final class HashNode {
+    private final Object owner;
+    private int bitmap;
+    private Object[] children;
+
+    HashNode(final Object owner, final int bitmap, final Object[] children) {
+      this.owner = owner;
+      this.bitmap = bitmap;
+      this.children = children;
+    }
+  }
+
+  /** A node of the hash trie holding slots whose keys have the same hash. */
+  private record CollisionNode(Slot[] slots) {}
+
+  /** A node of the order trie, holding a slot (at the bottom level) or subtrie for each present position fragment. */
+  private static final class OrderNode {
+    private final Object owner;
+    private final Object[] children;
+    private int count;
+
+    OrderNode(final Object owner) {
+      this.owner = owner;
+      this.children = new Object[WIDTH];
+      this.count = 0;
+    }
+
+    OrderNode(final Object owner, final OrderNode other) {
+      this.owner = owner;
+      this.children = other.children.clone();
+      this.count = other.count;
+    }
+  }
+
+  /** Identifies the nodes this map may update in place. It is replaced whenever the map is duplicated. */
+  private Object owner = new Object();
+  private HashNode index;
+  private OrderNode order;
+  /** The shift of the topmost level of the order trie. */
+  private int orderShift;
+  private int nextPosition;
+  private int size;
+  private int modCount = 0;
+
+  public PersistentMap() {
+    this.clear();
+  }
+
+  private PersistentMap(
+      final HashNode index,
+      final OrderNode order,
+      final int orderShift,
+      final int nextPosition,
+      final int size)
+  {
+    this.index = index;
+    this.order = order;
+    this.orderShift = orderShift;
+    this.nextPosition = nextPosition;
+    this.size = size;
+  }
+
+  public PersistentMap<K, V> duplicate() {
+    // Neither map may update the nodes they now share.
+    this.owner = new Object();
+    return new PersistentMap<>(this.index, this.order, this.orderShift, this.nextPosition, this.size);
+  }
+
+  @Override
+  public V get(final Object key) {
+    final var slot = this.find(key);
+    return (slot != null) ? cast(slot.value()) : null;
+  }
+
+  @Override
+  public boolean containsKey(final Object key) {
+    return (this.find(key) != null);
+  }
+
+  @Override
+  public V put(final K key, final V value) {
+    Objects.requireNonNull(key);
+    Objects.requireNonNull(value);
+
+    final var previous = this.find(key);
+    final Slot slot;
+    if (previous != null) {
+      slot = new Slot(previous.key(), value, previous.hash(), previous.position());
+    } else {
+      if (this.nextPosition == Integer.MAX_VALUE) this.compact();
+      slot = new Slot(key, value, hash(key), this.nextPosition++);
+      this.size += 1;
+      this.modCount += 1;
+    }
+
+    this.index = this.assoc(this.index, 0, slot);
+    this.insertInOrder(slot);
+
+    return (previous != null) ? cast(previous.value()) : null;
+  }
+
+  @Override
+  public V remove(final Object key) {
+    final var previous = this.find(key);
+    if (previous == null) return null;
+
+    final var index = (HashNode) this.dissoc(this.index, 0, previous.hash(), previous.key());
+    this.index = (index != null) ? index : new HashNode(this.owner, 0, new Object[0]);
+    this.order = this.removeFromOrder(this.order, this.orderShift, previous.position());
+    this.size -= 1;
+    this.modCount += 1;
+
+    return cast(previous.value());
+  }
+
+  @Override
+  public void clear() {
+    this.index = new HashNode(this.owner, 0, new Object[0]);
+    this.order = null;
+    this.orderShift = 0;
+    this.nextPosition = 0;
+    this.size = 0;
+    this.modCount += 1;
+  }
+
+  @Override
+  public int size() {
+    return this.size;
+  }
+
+  @Override
+  public Set<Entry<K, V>> entrySet() {
+    return new AbstractSet<>() {
+      @Override
+      public Iterator<Entry<K, V>> iterator() {
+        return new EntryIterator();
+      }
+
+      @Override
+      public int size() {
+        return PersistentMap.this.size;
+      }
+
+      @Override
+      public boolean contains(final Object o) {
+        if (!(o instanceof Entry<?, ?> entry)) return false;
+        final var slot = PersistentMap.this.find(entry.getKey());
+        return (slot != null && slot.value().equals(entry.getValue()));
+      }
+
+      @Override
+      public boolean remove(final Object o) {
+        if (!this.contains(o)) return false;
+        PersistentMap.this.remove(((Entry<?, ?>) o).getKey());
+        return true;
+      }
+
+      @Override
+      public void clear() {
+        PersistentMap.this.clear();
+      }
+    };
+  }
+
+  private final class EntryIterator implements Iterator<Entry<K, V>> {
+    /** The path from the root of the order trie to the node being traversed, and the next child of each to visit. */
+    private final OrderNode[] nodes;
+    private final int[] indices;
+    private int depth;
+
+    private Slot next;
+    private Slot last = null;
+    private int expectedModCount = PersistentMap.this.modCount;
+
+    EntryIterator() {
+      this.nodes = new OrderNode[PersistentMap.this.orderShift / BITS + 1];
+      this.indices = new int[this.nodes.length];
+      this.nodes[0] = PersistentMap.this.order;
+      this.depth = (PersistentMap.this.order != null) ? 0 : -1;
+      this.advance();
+    }
+
+    private void advance() {
+      this.next = null;
+      while (this.depth >= 0) {
+        if (this.indices[this.depth] == WIDTH) {
+          this.depth -= 1;
+          continue;
+        }
+
+        final var child = this.nodes[this.depth].children[this.indices[this.depth]++];
+        if (child instanceof Slot slot) {
+          this.next = slot;
+          return;
+        } else if (child instanceof OrderNode node) {
+          this.depth += 1;
+          this.nodes[this.depth] = node;
+          this.indices[this.depth] = 0;
+        }
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return (this.next != null);
+    }
+
+    @Override
+    public Entry<K, V> next() {
+      if (PersistentMap.this.modCount != this.expectedModCount) throw new ConcurrentModificationException();
+      if (this.next == null) throw new NoSuchElementException();
+
+      this.last = this.next;
+      this.advance();
+      return new WriteThroughEntry(cast(this.last.key()), cast(this.last.value()));
+    }
+
+    @Override
+    public void remove() {
+      if (this.last == null) throw new IllegalStateException();
+      if (PersistentMap.this.modCount != this.expectedModCount) throw new ConcurrentModificationException();
+
+      PersistentMap.this.remove(this.last.key());
+      this.last = null;
+      this.expectedModCount = PersistentMap.this.modCount;
+    }
+  }
+
+  private final class WriteThroughEntry extends SimpleEntry<K, V> {
+    WriteThroughEntry(final K key, final V value) {
+      super(key, value);
+    }
+
+    @Override
+    public V setValue(final V value) {
+      PersistentMap.this.put(this.getKey(), value);
+      return super.setValue(value);
+    }
+  }
+
+  private Slot find(final Object key) {
+    if (key == null) return null;
+
+    final var hash = hash(key);
+    Object node = this.index;
+    for (var shift = 0; ; shift += BITS) {
+      if (node instanceof HashNode n) {
+        final var bit = 1 << fragment(hash, shift);
+        if ((n.bitmap & bit) == 0) return null;
+        node = n.children[Integer.bitCount(n.bitmap & (bit - 1))];
+      } else if (node instanceof Slot s) {
+        return (s.hash() == hash && s.key().equals(key)) ? s : null;
+      } else {
+        for (final var s : ((CollisionNode) node).slots()) {
+          if (s.key().equals(key)) return s;
+        }
+        return null;
+      }
+    }
+  }
+
+  /** Put a slot into the hash trie, replacing any slot for the same key. */
+  private HashNode assoc(final HashNode node, final int shift, final Slot slot) {
+    final var bit = 1 << fragment(slot.hash(), shift);
+    final var i = Integer.bitCount(node.bitmap & (bit - 1));
+
+    if ((node.bitmap & bit) == 0) {
+      final var children = new Object[node.children.length + 1];
+      System.arraycopy(node.children, 0, children, 0, i);
+      children[i] = slot;
+      System.arraycopy(node.children, i, children, i + 1, node.children.length - i);
+      return this.edit(node, node.bitmap | bit, children);
+    }
+
+    final var child = node.children[i];
+    final Object replacement;
+    if (child instanceof Slot s) {
+      replacement = (s.hash() == slot.hash() && s.key().equals(slot.key())) ? slot : this.join(s, slot, shift + BITS);
+    } else if (child instanceof HashNode n) {
+      replacement = this.assoc(n, shift + BITS, slot);
+    } else {
+      replacement = assoc((CollisionNode) child, slot);
+    }
+    return this.setChild(node, i, replacement);
+  }
+
+  private static CollisionNode assoc(final CollisionNode node, final Slot slot) {
+    final var slots = node.slots();
+    for (var i = 0; i < slots.length; i += 1) {
+      if (!slots[i].key().equals(slot.key())) continue;
+
+      final var replaced = slots.clone();
+      replaced[i] = slot;
+      return new CollisionNode(replaced);
+    }
+
+    final var extended = new Slot[slots.length + 1];
+    System.arraycopy(slots, 0, extended, 0, slots.length);
+    extended[slots.length] = slot;
+    return new CollisionNode(extended);
+  }
+
+  /** Build the smallest subtrie holding two slots for different keys. */
+  private Object join(final Slot a, final Slot b, final int shift) {
+    if (shift > MAX_HASH_SHIFT) return new CollisionNode(new Slot[] {a, b});
+
+    final var fragmentA = fragment(a.hash(), shift);
+    final var fragmentB = fragment(b.hash(), shift);
+    if (fragmentA == fragmentB) {
+      return new HashNode(this.owner, 1 << fragmentA, new Object[] {this.join(a, b, shift + BITS)});
+    } else {
+      final var children = (fragmentA < fragmentB) ? new Object[] {a, b} : new Object[] {b, a};
+      return new HashNode(this.owner, (1 << fragmentA) | (1 << fragmentB), children);
+    }
+  }
+
+  /**
+   * Remove a key known to be present from the hash trie.
+   *
+   * Returns the replacement for the given node: null if it is left empty, or its last slot if it is left with nothing
+   * else (unless it is the root), so that the trie never holds a chain of nodes leading to a single slot.
+   */
+  private Object dissoc(final HashNode node, final int shift, final int hash, final Object key) {
+    final var bit = 1 << fragment(hash, shift);
+    final var i = Integer.bitCount(node.bitmap & (bit - 1));
+
+    final var child = node.children[i];
+    final Object replacement;
+    if (child instanceof Slot) {
+      replacement = null;
+    } else if (child instanceof HashNode n) {
+      replacement = this.dissoc(n, shift + BITS, hash, key);
+    } else {
+      replacement = dissoc((CollisionNode) child, key);
+    }
+
+    if (replacement != null) {
+      if (shift > 0 && node.children.length == 1 && replacement instanceof Slot) return replacement;
+      return this.setChild(node, i, replacement);
+    }
+
+    if (node.children.length == 1) return null;
+    if (shift > 0 && node.children.length == 2 && node.children[1 - i] instanceof Slot other) return other;
+
+    final var children = new Object[node.children.length - 1];
+    System.arraycopy(node.children, 0, children, 0, i);
+    System.arraycopy(node.children, i + 1, children, i, node.children.length - i - 1);
+    return this.edit(node, node.bitmap & ~bit, children);
+  }
+
+  private static Object dissoc(final CollisionNode node, final Object key) {
+    final var slots = node.slots();
+    final var remaining = new Slot[slots.length - 1];
+    var j = 0;
+    for (final var slot : slots) {
+      if (!slot.key().equals(key)) remaining[j++] = slot;
+    }
+    return (remaining.length == 1) ? remaining[0] : new CollisionNode(remaining);
+  }
+
+  private HashNode edit(final HashNode node, final int bitmap, final Object[] children) {
+    if (node.owner != this.owner) return new HashNode(this.owner, bitmap, children);
+
+    node.bitmap = bitmap;
+    node.children = children;
+    return node;
+  }
+
+  private HashNode setChild(final HashNode node, final int i, final Object child) {
+    if (node.owner != this.owner) {
+      final var children = node.children.clone();
+      children[i] = child;
+      return new HashNode(this.owner, node.bitmap, children);
+    }
+
+    node.children[i] = child;
+    return node;
+  }
+
+  /** Put a slot into the order trie at its position, replacing any slot already there. */
+  private void insertInOrder(final Slot slot) {
+    // Add levels above the root until the trie spans the slot's position.
+    while (this.orderShift < MAX_HASH_SHIFT && (slot.position() >>> (this.orderShift + BITS)) != 0) {
+      if (this.order != null) {
+        final var root = new OrderNode(this.owner);
+        root.children[0] = this.order;
+        root.count = 1;
+        this.order = root;
+      }
+      this.orderShift += BITS;
+    }
+
+    this.order = this.insertInOrder(this.order, this.orderShift, slot);
+  }
+
+  private OrderNode insertInOrder(final OrderNode node, final int shift, final Slot slot) {
+    final var node$ = (node == null) ? new OrderNode(this.owner) : this.editable(node);
+    final var i = (slot.position() >>> shift) & MASK;
+
+    final var child = node$.children[i];
+    if (child == null) node$.count += 1;
+    node$.children[i] = (shift == 0) ? slot : this.insertInOrder((OrderNode) child, shift - BITS, slot);
+    return node$;
+  }
+
+  /** Remove the slot at a position known to be occupied, returning null in place of any node left empty. */
+  private OrderNode removeFromOrder(final OrderNode node, final int shift, final int position) {
+    final var node$ = this.editable(node);
+    final var i = (position >>> shift) & MASK;
+
+    final var replacement = (shift == 0)
+        ? null
+        : this.removeFromOrder((OrderNode) node$.children[i], shift - BITS, position);
+    if (replacement == null) node$.count -= 1;
+    node$.children[i] = replacement;
+    return (node$.count > 0) ? node$ : null;
+  }
+
+  private OrderNode editable(final OrderNode node) {
+    return (node.owner == this.owner) ? node : new OrderNode(this.owner, node);
+  }
+
+  /** Renumber the positions of all entries from zero, once positions run out. */
+  private void compact() {
+    final var entries = new LinkedHashMap<>(this);
+    final var modCount = this.modCount;
+    this.clear();
+    this.putAll(entries);
+    this.modCount = modCount + 1;
+  }
+
+  private static int hash(final Object key) {
+    final var h = key.hashCode();
+    return h ^ (h >>> 16);
+  }
+
+  private static int fragment(final int hash, final int shift) {
+    return (hash >>> shift) & MASK;
+  }
+
+  // SAFETY: Every key and value in every slot was inserted as a K and V respectively.
+  @SuppressWarnings("unchecked")
+  private static <T> T cast(final Object value) {
+    return (T) value;
+  }
+}
@@ -0,0 +1,87 @@
+package gov.nasa.jpl.aerie.merlin.driver.engine;
+
+import gov.nasa.jpl.aerie.merlin.protocol.types.RealDynamics;
+import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+import gov.nasa.jpl.aerie.merlin.protocol.types.ValueSchema;
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The resource samples taken during one step of a simulation.
+ *
+ * Samples of resources with immutable dynamics may be handed over before they have been serialized, in which case
+ * they are serialized on first access, on whichever thread makes it. This lets serialization happen off of the
+ * simulation's critical path.
+ */
+public final class ResourceSamples {
+  private List<SimulationEngine.ResourceUpdates.ResourceUpdate<?>> pending;
+  private Map<String, Pair<ValueSchema, RealDynamics>> realResourceUpdates;
+  private Map<String, Pair<ValueSchema, SerializedValue>> dynamicResourceUpdates;
+
+  private ResourceSamples(
+      final List<SimulationEngine.ResourceUpdates.ResourceUpdate<?>> pending,
+      final Map<String, Pair<ValueSchema, RealDynamics>> realResourceUpdates,
+      final Map<String, Pair<ValueSchema, SerializedValue>> dynamicResourceUpdates
+  ) {
+    this.pending = pending;
+    this.realResourceUpdates = realResourceUpdates;
+    this.dynamicResourceUpdates = dynamicResourceUpdates;
+  }
+
+  public static ResourceSamples serialized(
+      final Map<String, Pair<ValueSchema, RealDynamics>> realResourceUpdates,
+      final Map<String, Pair<ValueSchema, SerializedValue>> dynamicResourceUpdates
+  ) {
+    return new ResourceSamples(null, realResourceUpdates, dynamicResourceUpdates);
+  }
+
+  /**
+   * Defer serialization of the given updates, alongside samples that have already been serialized.
+   *
+   * @throws IllegalArgumentException If any of the deferred updates is of a resource whose dynamics may be mutated.
+   */
+  public static ResourceSamples deferred(
+      final Map<String, Pair<ValueSchema, RealDynamics>> realResourceUpdates,
+      final Map<String, Pair<ValueSchema, SerializedValue>> dynamicResourceUpdates,
+      final List<SimulationEngine.ResourceUpdates.ResourceUpdate<?>> pending
+  ) {
+    for (final var update : pending) {
+      if (!update.resource().hasImmutableDynamics()) throw new IllegalArgumentException(
+          "Cannot defer serialization of resource %s, whose dynamics may be mutated".formatted(update.resourceId().id()));
+    }
+    return new ResourceSamples(pending, realResourceUpdates, dynamicResourceUpdates);
+  }
+
+  public synchronized Map<String, Pair<ValueSchema, RealDynamics>> realResourceUpdates() {
+    this.serialize();
+    return this.realResourceUpdates;
+  }
+
+  public synchronized Map<String, Pair<ValueSchema, SerializedValue>> dynamicResourceUpdates() {
+    this.serialize();
+    return this.dynamicResourceUpdates;
+  }
+
+  private void serialize() {
+    if (this.pending == null) return;
+
+    final var realResourceUpdates = new HashMap<>(this.realResourceUpdates);
+    final var dynamicResourceUpdates = new HashMap<>(this.dynamicResourceUpdates);
+    for (final var update : this.pending) {
+      final var name = update.resourceId().id();
+      final var schema = update.resource().getOutputType().getSchema();
+
+      switch (update.resource().getType()) {
+        case "real" -> realResourceUpdates.put(name, Pair.of(schema, SimulationEngine.extractRealDynamics(update)));
+        case "discrete" -> dynamicResourceUpdates.put(name, Pair.of(schema, SimulationEngine.extractDiscreteDynamics(update)));
+      }
+    }
+
+    this.realResourceUpdates = realResourceUpdates;
+    this.dynamicResourceUpdates = dynamicResourceUpdates;
+    this.pending = null;
+  }
+}
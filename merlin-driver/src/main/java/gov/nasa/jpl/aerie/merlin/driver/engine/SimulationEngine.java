@@ -29,7 +29,6 @@ import gov.nasa.jpl.aerie.merlin.protocol.types.ValueSchema;
 import gov.nasa.jpl.aerie.types.ActivityDirectiveId;
 import gov.nasa.jpl.aerie.types.SerializedActivity;
 import org.apache.commons.lang3.mutable.Mutable;
-import org.apache.commons.lang3.mutable.MutableInt;
 import org.apache.commons.lang3.mutable.MutableObject;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.commons.lang3.tuple.Triple;
@@ -41,6 +40,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -49,10 +49,13 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -64,90 +67,207 @@ public final class SimulationEngine implements AutoCloseable {
   /** The set of all jobs waiting for time to pass. */
   private final JobSchedule<JobId, SchedulingInstant> scheduledJobs;
   /** The set of all jobs waiting on a condition. */
-  private final Map<ConditionId, TaskId> waitingTasks;
+  private final PersistentMap<ConditionId, TaskId> waitingTasks;
   /** The set of all tasks blocked on some number of subtasks. */
-  private final Map<TaskId, MutableInt> blockedTasks;
+  private final PersistentMap<TaskId, Integer> blockedTasks;
   /** The set of conditions depending on a given set of topics. */
   private final Subscriptions<Topic<?>, ConditionId> waitingConditions;
   /** The set of queries depending on a given set of topics. */
   private final Subscriptions<Topic<?>, ResourceId> waitingResources;
 
   /** The execution state for every task. */
-  private final Map<TaskId, ExecutionState<?>> tasks;
+  private final PersistentMap<TaskId, ExecutionState<?>> tasks;
+  /** The generation of the tasks this engine has created, or duplicated from those of the engine it came from. */
+  private final TaskGeneration generation;
+  /** The number of entries in `tasks` belonging to each generation, including those inherited from other engines. */
+  private final Map<TaskGeneration, Integer> tasksPerGeneration;
   /** The getter for each tracked condition. */
-  private final Map<ConditionId, Condition> conditions;
+  private final PersistentMap<ConditionId, Condition> conditions;
   /** The profiling state for each tracked resource. */
-  private final Map<ResourceId, Resource<?>> resources;
+  private final PersistentMap<ResourceId, Resource<?>> resources;
 
   /** Tasks that have been scheduled, but not started */
-  private final Map<TaskId, Duration> unstartedTasks;
+  private final PersistentMap<TaskId, Duration> unstartedTasks;
 
   /** The set of all spans of work contributed to by modeled tasks. */
-  private final Map<SpanId, Span> spans;
+  private final PersistentMap<SpanId, Span> spans;
   /** A count of the direct contributors to each span, including child spans and tasks. */
-  private final Map<SpanId, MutableInt> spanContributorCount;
-
-  /** A thread pool that modeled tasks can use to keep track of their state between steps. */
-  private final ExecutorService executor;
+  private final PersistentMap<SpanId, Integer> spanContributorCount;
+
+  /** Per-span information extracted from the committed events, once it has first been requested. */
+  private SpanInfo spanInfo = null;
+  /** The trait with which `spanInfo` is extracted from the committed events. */
+  private SpanInfo.Trait spanInfoTrait = null;
+  /** The position in the timeline up to which `spanInfo` has been extracted. */
+  private Iterator<TemporalEventSource.TimePoint> spanInfoCursor = null;
+
+  /** A thread pool that modeled tasks can use to keep track of their state between steps, shared with duplicates. */
+  private final SharedExecutor executor;
+
+  /** Settings controlling how this engine performs its work. */
+  private final Options options;
+  /** A thread pool on which the jobs of a batch are performed, if jobs may be performed in parallel. */
+  private final SharedExecutor jobExecutor;
+  /** Guards the engine's bookkeeping against jobs performed on different threads within the same batch. */
+  private final Object stateLock = new Object();
+
+  /** The root span of every span with a parent, if topic dependencies are recorded. */
+  private final PersistentMap<SpanId, SpanId> rootSpans;
+  /** The topics read by the tasks (and the conditions they wait on) under each root span, if recorded. */
+  private final PersistentMap<SpanId, Set<Topic<?>>> topicsReadBySpan;
+  /** The topics emitted to by the tasks under each root span, if recorded. */
+  private final PersistentMap<SpanId, Set<Topic<?>>> topicsWrittenBySpan;
+  /** The resources whose profiles have been computed from each topic, if recorded. */
+  private final PersistentMap<Topic<?>, Set<String>> resourcesByTopic;
+
+  /** The most recently reported sample of each resource, if unchanged samples are being dropped. */
+  private final PersistentMap<ResourceId, ResourceSample> lastResourceSamples;
+  /** The number of resource samples dropped for being identical to the previous sample of the same resource. */
+  private long droppedResourceSamples = 0;
 
   /* The top-level simulation timeline. */
   private final TemporalEventSource timeline;
-  private final TemporalEventSource referenceTimeline;
+  /** The frozen timelines of the engines this one was duplicated from, or null if it was not duplicated. */
+  private final TimelineHistory referenceTimeline;
   private final LiveCells cells;
   private Duration elapsedTime;
 
+  /**
+   * Settings controlling how a {@link SimulationEngine} performs its work.
+   *
+   * @param jobParallelism The number of jobs in a batch that may be performed simultaneously.
+   *   Jobs within a batch are concurrent by construction, so they are each performed against their own
+   *   {@link TaskFrame}, and their effects (including any jobs they schedule or spans they open) are merged in the
+   *   same order that a serial engine would have merged them. Duplicates of an engine share its pool of job threads.
+   *   Mission models simulated with a parallelism greater than 1 must not share mutable state outside of cells.
+   * @param dropUnchangedResourceSamples Whether to omit resource samples whose dynamics are the same as the previous
+   *   sample of the same resource. Discrete dynamics are compared with `equals` before serialization (if they are
+   *   distinct objects), and by their serialized form otherwise, so they must not be mutated after being sampled.
+   *   Real samples are only omitted if they have the same rate as the previous sample, and an initial value exactly
+   *   equal to the previous sample's value at the time of the new sample.
+   * @param deferResourceSerialization Whether to leave resource samples unserialized until they are first consumed,
+   *   so that they can be serialized on another thread. Only samples of resources that declare their dynamics
+   *   immutable (see {@link Resource#hasImmutableDynamics()}) are deferred; others are serialized as they are sampled.
+   *   Samples are always serialized eagerly when dropping unchanged samples, which needs their serialized form.
+   * @param recordTopicDependencies Whether to record which topics are read and emitted to under each root span, and
+   *   which topics each resource is computed from. See {@link #getTopicDependencies()}.
+   * @param metrics A listener to be told about the work the engine performs, for profiling.
+   */
+  public record Options(
+      int jobParallelism,
+      boolean dropUnchangedResourceSamples,
+      boolean deferResourceSerialization,
+      boolean recordTopicDependencies,
+      EngineMetricsListener metrics
+  ) {
+    public static final Options DEFAULT = new Options(1, false, false, false, EngineMetricsListener.NONE);
+
+    public Options {
+      if (jobParallelism < 1) throw new IllegalArgumentException(
+          "Job parallelism must be positive, but was %d".formatted(jobParallelism));
+      Objects.requireNonNull(metrics);
+    }
+
+    public Options withMetrics(final EngineMetricsListener metrics) {
+      return new Options(
+          this.jobParallelism,
+          this.dropUnchangedResourceSamples,
+          this.deferResourceSerialization,
+          this.recordTopicDependencies,
+          metrics);
+    }
+
+    public Options withTopicDependencies(final boolean recordTopicDependencies) {
+      return new Options(
+          this.jobParallelism,
+          this.dropUnchangedResourceSamples,
+          this.deferResourceSerialization,
+          recordTopicDependencies,
+          this.metrics);
+    }
+  }
+
   public SimulationEngine(LiveCells initialCells) {
+    this(initialCells, Options.DEFAULT);
+  }
+
+  public SimulationEngine(LiveCells initialCells, Options options) {
     timeline = new TemporalEventSource();
-    referenceTimeline = new TemporalEventSource();
+    referenceTimeline = null;
     cells = new LiveCells(timeline, initialCells);
     elapsedTime = Duration.ZERO;
 
     scheduledJobs = new JobSchedule<>();
-    waitingTasks = new LinkedHashMap<>();
-    blockedTasks = new LinkedHashMap<>();
+    waitingTasks = new PersistentMap<>();
+    blockedTasks = new PersistentMap<>();
     waitingConditions = new Subscriptions<>();
     waitingResources = new Subscriptions<>();
-    tasks = new LinkedHashMap<>();
-    conditions = new LinkedHashMap<>();
-    resources = new LinkedHashMap<>();
-    unstartedTasks = new LinkedHashMap<>();
-    spans = new LinkedHashMap<>();
-    spanContributorCount = new LinkedHashMap<>();
-    executor = Executors.newVirtualThreadPerTaskExecutor();
+    tasks = new PersistentMap<>();
+    generation = new TaskGeneration();
+    tasksPerGeneration = new HashMap<>();
+    conditions = new PersistentMap<>();
+    resources = new PersistentMap<>();
+    unstartedTasks = new PersistentMap<>();
+    spans = new PersistentMap<>();
+    spanContributorCount = new PersistentMap<>();
+    executor = new SharedExecutor(Executors::newVirtualThreadPerTaskExecutor);
+    this.options = options;
+    jobExecutor = (options.jobParallelism() > 1)
+        ? new SharedExecutor(() -> Executors.newFixedThreadPool(
+            options.jobParallelism(),
+            Thread.ofPlatform().daemon().factory()))
+        : null;
+    lastResourceSamples = new PersistentMap<>();
+    rootSpans = new PersistentMap<>();
+    topicsReadBySpan = new PersistentMap<>();
+    topicsWrittenBySpan = new PersistentMap<>();
+    resourcesByTopic = new PersistentMap<>();
+    if (options.metrics() != EngineMetricsListener.NONE) timeline.setCatchUpListener(options.metrics()::cellCaughtUp);
   }
 
-  private SimulationEngine(SimulationEngine other) {
+  private SimulationEngine(SimulationEngine other, Options options) {
     other.timeline.freeze();
-    other.referenceTimeline.freeze();
     other.cells.freeze();
 
     elapsedTime = other.elapsedTime;
 
     timeline = new TemporalEventSource();
     cells = new LiveCells(timeline, other.cells);
-    referenceTimeline = other.combineTimeline();
-
-    // New Executor allows other SimulationEngine to be closed
-    executor = Executors.newVirtualThreadPerTaskExecutor();
+    referenceTimeline = new TimelineHistory(other.referenceTimeline, other.timeline);
+
+    // Tasks inherited from the other engine keep running on its executor, so it must outlive both engines.
+    executor = other.executor.acquire();
+    this.options = options;
+    jobExecutor = (other.jobExecutor != null) ? other.jobExecutor.acquire() : null;
+    lastResourceSamples = other.lastResourceSamples.duplicate();
+    rootSpans = other.rootSpans.duplicate();
+    topicsReadBySpan = other.topicsReadBySpan.duplicate();
+    topicsWrittenBySpan = other.topicsWrittenBySpan.duplicate();
+    resourcesByTopic = other.resourcesByTopic.duplicate();
+    droppedResourceSamples = other.droppedResourceSamples;
+    if (options.metrics() != EngineMetricsListener.NONE) timeline.setCatchUpListener(options.metrics()::cellCaughtUp);
     scheduledJobs = other.scheduledJobs.duplicate();
-    waitingTasks = new LinkedHashMap<>(other.waitingTasks);
-    blockedTasks = new LinkedHashMap<>();
-    for (final var entry : other.blockedTasks.entrySet()) {
-      blockedTasks.put(entry.getKey(), new MutableInt(entry.getValue()));
-    }
+    waitingTasks = other.waitingTasks.duplicate();
+    blockedTasks = other.blockedTasks.duplicate();
     waitingConditions = other.waitingConditions.duplicate();
     waitingResources = other.waitingResources.duplicate();
-    tasks = new LinkedHashMap<>();
-    for (final var entry : other.tasks.entrySet()) {
-      tasks.put(entry.getKey(), entry.getValue().duplicate(executor));
-    }
-    conditions = new LinkedHashMap<>(other.conditions);
-    resources = new LinkedHashMap<>(other.resources);
-    unstartedTasks = new LinkedHashMap<>(other.unstartedTasks);
-    spans = new LinkedHashMap<>(other.spans);
-    spanContributorCount = new LinkedHashMap<>();
-    for (final var entry : other.spanContributorCount.entrySet()) {
-      spanContributorCount.put(entry.getKey(), new MutableInt(entry.getValue().getValue()));
+    // Task states evolve in place, but the other engine is frozen, so we only need our own copy of a task to step it.
+    tasks = other.tasks.duplicate();
+    generation = new TaskGeneration();
+    tasksPerGeneration = new HashMap<>(other.tasksPerGeneration);
+    tasksPerGeneration.keySet().forEach(TaskGeneration::acquire);
+    conditions = other.conditions.duplicate();
+    resources = other.resources.duplicate();
+    unstartedTasks = other.unstartedTasks.duplicate();
+    spans = other.spans.duplicate();
+    spanContributorCount = other.spanContributorCount.duplicate();
+
+    // The other engine's span info covers its whole timeline, which is exactly our reference timeline.
+    if (other.spanInfo != null) {
+      other.extendSpanInfo(other.spanInfoCursor);
+      spanInfo = other.spanInfo.duplicate();
+      spanInfoTrait = other.spanInfoTrait;
+      spanInfoCursor = timeline.iterator();
     }
   }
 
@@ -178,11 +298,15 @@ public final class SimulationEngine implements AutoCloseable {
   public sealed interface Status {
     record NoJobs() implements Status {}
     record AtDuration() implements Status{}
-    record Nominal(
-        Duration elapsedTime,
-        Map<String, Pair<ValueSchema, RealDynamics>> realResourceUpdates,
-        Map<String, Pair<ValueSchema, SerializedValue>> dynamicResourceUpdates
-    ) implements Status {}
+    record Nominal(Duration elapsedTime, ResourceSamples resourceSamples) implements Status {
+      public Map<String, Pair<ValueSchema, RealDynamics>> realResourceUpdates() {
+        return this.resourceSamples.realResourceUpdates();
+      }
+
+      public Map<String, Pair<ValueSchema, SerializedValue>> dynamicResourceUpdates() {
+        return this.resourceSamples.dynamicResourceUpdates();
+      }
+    }
   }
 
   public Duration getElapsedTime() {
@@ -209,36 +333,125 @@ public final class SimulationEngine implements AutoCloseable {
     if (batch.jobs().isEmpty()) return new Status.NoJobs();
 
     // Run the jobs in this batch.
+    final var batchStart = System.nanoTime();
     final var results = this.performJobs(batch.jobs(), cells, elapsedTime, simulationDuration);
+    this.options.metrics().batchPerformed(elapsedTime, batch.jobs(), System.nanoTime() - batchStart);
     for (final var commit : results.commits()) {
       timeline.add(commit);
     }
+    if (this.spanInfo != null) this.extendSpanInfo(this.spanInfoCursor);
     if (results.error.isPresent()) {
       throw results.error.get();
     }
 
+    // Leave serialization to whoever consumes these samples, unless we need the serialized form ourselves,
+    // or the model may yet mutate the sampled dynamics.
+    final var deferSerialization =
+        this.options.deferResourceSerialization() && !this.options.dropUnchangedResourceSamples();
+    final var deferredResourceUpdates = new ArrayList<ResourceUpdates.ResourceUpdate<?>>();
+
     // Serialize the resources updated in this batch
     final var realResourceUpdates = new HashMap<String, Pair<ValueSchema, RealDynamics>>();
     final var dynamicResourceUpdates = new HashMap<String, Pair<ValueSchema, SerializedValue>>();
 
     for (final var update : results.resourceUpdates.updates()) {
+      if (deferSerialization && update.resource().hasImmutableDynamics()) {
+        deferredResourceUpdates.add(update);
+        continue;
+      }
+
       final var name = update.resourceId().id();
       final var schema = update.resource().getOutputType().getSchema();
 
+      // Avoid serializing dynamics we can already tell are the same as the last ones we reported.
+      if (this.hasUnchangedDynamics(update)) {
+        this.recordDroppedSample(update.resourceId());
+        continue;
+      }
+
       switch (update.resource.getType()) {
-        case "real" -> realResourceUpdates.put(name, Pair.of(schema, SimulationEngine.extractRealDynamics(update)));
-        case "discrete" -> dynamicResourceUpdates.put(
-            name,
-            Pair.of(
-                schema,
-                SimulationEngine.extractDiscreteDynamics(update)));
+        case "real" -> {
+          final var dynamics = SimulationEngine.extractRealDynamics(update);
+          if (this.isContinuedRealSample(update, dynamics)) continue;
+          realResourceUpdates.put(name, Pair.of(schema, dynamics));
+        }
+        case "discrete" -> {
+          final var dynamics = SimulationEngine.extractDiscreteDynamics(update);
+          if (this.isRepeatedSample(update, dynamics)) continue;
+          dynamicResourceUpdates.put(name, Pair.of(schema, dynamics));
+        }
       }
     }
 
-    return new Status.Nominal(elapsedTime, realResourceUpdates, dynamicResourceUpdates);
+    if (!deferredResourceUpdates.isEmpty()) {
+      return new Status.Nominal(
+          elapsedTime,
+          ResourceSamples.deferred(realResourceUpdates, dynamicResourceUpdates, deferredResourceUpdates));
+    }
+    return new Status.Nominal(elapsedTime, ResourceSamples.serialized(realResourceUpdates, dynamicResourceUpdates));
   }
 
-  private static <Dynamics> RealDynamics extractRealDynamics(final ResourceUpdates.ResourceUpdate<Dynamics> update) {
+  /** A sample of a resource, both as produced by the model and as serialized by the engine, and when it was taken. */
+  private record ResourceSample(Object dynamics, Object serializedDynamics, Duration time) {}
+
+  private boolean hasUnchangedDynamics(final ResourceUpdates.ResourceUpdate<?> update) {
+    if (!this.options.dropUnchangedResourceSamples()) return false;
+    // Real dynamics describe the resource relative to the time they were sampled, so equal dynamics sampled at
+    // different times may describe different behavior. See `isContinuedRealSample`.
+    if (update.resource().getType().equals("real")) return false;
+
+    final var previous = this.lastResourceSamples.get(update.resourceId());
+    final var dynamics = update.update().dynamics();
+
+    // If the model handed us the same object again, it may have been mutated since, so we can't trust `equals`.
+    return (previous != null && previous.dynamics() != dynamics && Objects.equals(previous.dynamics(), dynamics));
+  }
+
+  private boolean isRepeatedSample(final ResourceUpdates.ResourceUpdate<?> update, final Object serializedDynamics) {
+    if (!this.options.dropUnchangedResourceSamples()) return false;
+
+    final var previous = this.lastResourceSamples.put(
+        update.resourceId(),
+        new ResourceSample(update.update().dynamics(), serializedDynamics, update.update().startOffset()));
+    if (previous == null || !previous.serializedDynamics().equals(serializedDynamics)) return false;
+
+    this.recordDroppedSample(update.resourceId());
+    return true;
+  }
+
+  /**
+   * Whether a real sample describes exactly the same behavior as the last one reported for its resource, that is,
+   * whether it has the same rate, and an initial value equal to that of the last sample continued up to now.
+   * The last reported sample stays the reference for later samples, since it is the one the profile holds.
+   */
+  private boolean isContinuedRealSample(final ResourceUpdates.ResourceUpdate<?> update, final RealDynamics dynamics) {
+    if (!this.options.dropUnchangedResourceSamples()) return false;
+
+    final var time = update.update().startOffset();
+    final var previous = this.lastResourceSamples.get(update.resourceId());
+    if (previous != null && previous.serializedDynamics() instanceof RealDynamics reported) {
+      final var elapsed = time.minus(previous.time()).ratioOver(Duration.SECONDS);
+      if (dynamics.rate == reported.rate && dynamics.initial == reported.initial + reported.rate * elapsed) {
+        this.recordDroppedSample(update.resourceId());
+        return true;
+      }
+    }
+
+    this.lastResourceSamples.put(update.resourceId(), new ResourceSample(update.update().dynamics(), dynamics, time));
+    return false;
+  }
+
+  private void recordDroppedSample(final ResourceId resource) {
+    this.droppedResourceSamples += 1;
+    this.options.metrics().resourceSampleDropped(resource);
+  }
+
+  /** The number of resource samples omitted for being the same as the previous sample of the same resource. */
+  public long getDroppedResourceSampleCount() {
+    return this.droppedResourceSamples;
+  }
+
+  static <Dynamics> RealDynamics extractRealDynamics(final ResourceUpdates.ResourceUpdate<Dynamics> update) {
     final var resource = update.resource;
     final var dynamics = update.update.dynamics();
 
@@ -249,7 +462,7 @@ public final class SimulationEngine implements AutoCloseable {
     return RealDynamics.linear(initial, rate);
   }
 
-  private static <Dynamics> SerializedValue extractDiscreteDynamics(final ResourceUpdates.ResourceUpdate<Dynamics> update) {
+  static <Dynamics> SerializedValue extractDiscreteDynamics(final ResourceUpdates.ResourceUpdate<Dynamics> update) {
     return update.resource.getOutputType().serialize(update.update.dynamics());
   }
 
@@ -263,8 +476,8 @@ public final class SimulationEngine implements AutoCloseable {
     this.spans.put(span, new Span(Optional.empty(), startTime, Optional.empty()));
 
     final var task = TaskId.generate();
-    this.spanContributorCount.put(span, new MutableInt(1));
-    this.tasks.put(task, new ExecutionState<>(span, Optional.empty(), state.create(this.executor)));
+    this.spanContributorCount.put(span, 1);
+    this.putTask(task, new ExecutionState<>(span, Optional.empty(), state.create(this.executor.executor), this.generation));
     this.scheduledJobs.schedule(JobId.forTask(task), SubInstant.Tasks.at(startTime));
 
     this.unstartedTasks.put(task, startTime);
@@ -285,17 +498,19 @@ public final class SimulationEngine implements AutoCloseable {
   /** Schedules any conditions or resources dependent on the given topic to be re-checked at the given time. */
   public void invalidateTopic(final Topic<?> topic, final Duration invalidationTime) {
     if (this.closed) throw new IllegalStateException("Cannot invalidate topic on closed simulation engine");
-    final var resources = this.waitingResources.invalidateTopic(topic);
-    for (final var resource : resources) {
-      this.scheduledJobs.schedule(JobId.forResource(resource), SubInstant.Resources.at(invalidationTime));
-    }
+    synchronized (this.stateLock) {
+      final var resources = this.waitingResources.invalidateTopic(topic);
+      for (final var resource : resources) {
+        this.scheduledJobs.schedule(JobId.forResource(resource), SubInstant.Resources.at(invalidationTime));
+      }
 
-    final var conditions = this.waitingConditions.invalidateTopic(topic);
-    for (final var condition : conditions) {
-      // If we were going to signal tasks on this condition, well, don't do that.
-      // Schedule the condition to be rechecked ASAP.
-      this.scheduledJobs.unschedule(JobId.forSignal(condition));
-      this.scheduledJobs.schedule(JobId.forCondition(condition), SubInstant.Conditions.at(invalidationTime));
+      final var conditions = this.waitingConditions.invalidateTopic(topic);
+      for (final var condition : conditions) {
+        // If we were going to signal tasks on this condition, well, don't do that.
+        // Schedule the condition to be rechecked ASAP.
+        this.scheduledJobs.unschedule(JobId.forSignal(condition));
+        this.scheduledJobs.schedule(JobId.forCondition(condition), SubInstant.Conditions.at(invalidationTime));
+      }
     }
   }
 
@@ -367,6 +582,10 @@ public final class SimulationEngine implements AutoCloseable {
       final Duration maximumTime
   ) throws SpanException {
     if (this.closed) throw new IllegalStateException("Cannot perform jobs on closed simulation engine");
+    if (this.jobExecutor != null && jobs.size() > 1) {
+      return this.performJobsInParallel(jobs, context, currentTime, maximumTime);
+    }
+
     var tip = EventGraph.<Event>empty();
     Mutable<Optional<Throwable>> exception = new MutableObject<>(Optional.empty());
     final var resourceUpdates = new ResourceUpdates();
@@ -386,6 +605,90 @@ public final class SimulationEngine implements AutoCloseable {
     return new StepResult(List.of(tip), resourceUpdates, Optional.empty());
   }
 
+  /**
+   * The outcome of performing a single job of a batch, to be merged with those of its sibling jobs.
+   *
+   * @param bookkeeping The changes the job made to the engine's bookkeeping, in the order it made them.
+   */
+  private record JobResult(
+      EventGraph<Event> events,
+      ResourceUpdates resourceUpdates,
+      List<Runnable> bookkeeping,
+      Optional<Throwable> error
+  ) {
+    static JobResult failed(final Throwable error) {
+      return new JobResult(EventGraph.empty(), new ResourceUpdates(), List.of(), Optional.of(error));
+    }
+  }
+
+  /**
+   * Performs a collection of tasks on the job thread pool, then merges their results in iteration order.
+   *
+   * Each job runs against its own {@link TaskFrame} branching off of the shared context. Any change a job makes to the
+   * engine's bookkeeping is buffered in its result and applied as the result is merged, so that jobs are scheduled,
+   * conditions subscribed and spans created in the same order as a serial engine would have, however the jobs are
+   * interleaved. Only the task set (guarded by `stateLock`) is updated as a job runs, since a job goes on to step the
+   * tasks it spawns.
+   */
+  private StepResult performJobsInParallel(
+      final Collection<JobId> jobs,
+      final LiveCells context,
+      final Duration currentTime,
+      final Duration maximumTime
+  ) {
+    final var pending = new ArrayList<Future<JobResult>>(jobs.size());
+    for (final var job$ : jobs) {
+      pending.add(this.jobExecutor.executor.submit(() -> {
+        final var resourceUpdates = new ResourceUpdates();
+        final var bookkeeping = new ArrayList<Runnable>();
+        final Mutable<Optional<Throwable>> exception = new MutableObject<>(Optional.empty());
+        final var events = TaskFrame.run(job$, context, (job, frame) -> {
+          try {
+            this.performJob(job, frame, currentTime, maximumTime, resourceUpdates, bookkeeping::add);
+          } catch (Throwable ex) {
+            exception.setValue(Optional.of(ex));
+          }
+        });
+        return new JobResult(events, resourceUpdates, bookkeeping, exception.getValue());
+      }));
+    }
+
+    // Wait for every job before merging, so that no job is still running while we apply their bookkeeping.
+    final var results = new ArrayList<JobResult>(pending.size());
+    for (final var future : pending) {
+      results.add(awaitJob(future));
+    }
+
+    // Merge in iteration order, stopping at the first failed job just as a serial engine would have.
+    var tip = EventGraph.<Event>empty();
+    final var resourceUpdates = new ResourceUpdates();
+    for (final var result : results) {
+      tip = EventGraph.concurrently(tip, result.events());
+      resourceUpdates.updates().addAll(result.resourceUpdates().updates());
+      try {
+        result.bookkeeping().forEach(Runnable::run);
+      } catch (Throwable ex) {
+        return new StepResult(List.of(tip), resourceUpdates, Optional.of(ex));
+      }
+
+      if (result.error().isPresent()) {
+        return new StepResult(List.of(tip), resourceUpdates, result.error());
+      }
+    }
+    return new StepResult(List.of(tip), resourceUpdates, Optional.empty());
+  }
+
+  private static JobResult awaitJob(final Future<JobResult> future) {
+    try {
+      return future.get();
+    } catch (final ExecutionException ex) {
+      return JobResult.failed(ex.getCause());
+    } catch (final InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      return JobResult.failed(ex);
+    }
+  }
+
   /** Performs a single job. */
   public void performJob(
       final JobId job,
@@ -393,12 +696,29 @@ public final class SimulationEngine implements AutoCloseable {
       final Duration currentTime,
       final Duration maximumTime,
       final ResourceUpdates resourceUpdates
+  ) throws SpanException {
+    this.performJob(job, frame, currentTime, maximumTime, resourceUpdates, Runnable::run);
+  }
+
+  /**
+   * Performs a single job, handing each change to the engine's bookkeeping to the given sink.
+   *
+   * The sink may defer the changes, so no part of the job may depend on the bookkeeping it has handed off,
+   * except for the task set, which is always updated immediately.
+   */
+  private void performJob(
+      final JobId job,
+      final TaskFrame<JobId> frame,
+      final Duration currentTime,
+      final Duration maximumTime,
+      final ResourceUpdates resourceUpdates,
+      final Consumer<Runnable> bookkeeping
   ) throws SpanException {
     switch (job) {
-      case JobId.TaskJobId j -> this.stepTask(j.id(), frame, currentTime);
-      case JobId.SignalJobId j -> this.stepTask(this.waitingTasks.remove(j.id()), frame, currentTime);
-      case JobId.ConditionJobId j -> this.updateCondition(j.id(), frame, currentTime, maximumTime);
-      case JobId.ResourceJobId j -> this.updateResource(j.id(), frame, currentTime, resourceUpdates);
+      case JobId.TaskJobId j -> this.stepTask(j.id(), frame, currentTime, bookkeeping);
+      case JobId.SignalJobId j -> this.stepTask(this.removeWaitingTask(j.id()), frame, currentTime, bookkeeping);
+      case JobId.ConditionJobId j -> this.updateCondition(j.id(), frame, currentTime, maximumTime, bookkeeping);
+      case JobId.ResourceJobId j -> this.updateResource(j.id(), frame, currentTime, resourceUpdates, bookkeeping);
       case null -> throw new IllegalArgumentException("Unexpected null value for JobId");
       default -> throw new IllegalArgumentException("Unexpected subtype of %s: %s".formatted(
           JobId.class,
@@ -409,13 +729,72 @@ public final class SimulationEngine implements AutoCloseable {
   /** Perform the next step of a modeled task. */
   public void stepTask(final TaskId task, final TaskFrame<JobId> frame, final Duration currentTime)
   throws SpanException {
+    this.stepTask(task, frame, currentTime, Runnable::run);
+  }
+
+  private void stepTask(
+      final TaskId task,
+      final TaskFrame<JobId> frame,
+      final Duration currentTime,
+      final Consumer<Runnable> bookkeeping
+  ) throws SpanException {
     if (this.closed) throw new IllegalStateException("Cannot step task on closed simulation engine");
-    this.unstartedTasks.remove(task);
     // The handler for the next status of the task is responsible
     //   for putting an updated state back into the task set.
-    var state = this.tasks.remove(task);
+    final var state = this.takeTask(task);
+    bookkeeping.accept(() -> this.unstartedTasks.remove(task));
+
+    stepEffectModel(task, state, frame, currentTime, bookkeeping);
+  }
+
+  /** Remove a task from the task set in order to step it, first duplicating it if it came from another engine. */
+  private ExecutionState<?> takeTask(final TaskId task) {
+    final ExecutionState<?> state;
+    synchronized (this.stateLock) {
+      state = this.tasks.get(task);
+    }
+
+    final var ownState = (state.generation() == this.generation)
+        ? state
+        : state.duplicate(this.executor.executor, this.generation);
+    this.dropTask(task);
+    return ownState;
+  }
 
-    stepEffectModel(task, state, frame, currentTime);
+  /** Remove a task from the task set, letting go of its generation if no other task of ours belongs to it. */
+  private void dropTask(final TaskId task) {
+    final TaskGeneration abandoned;
+    synchronized (this.stateLock) {
+      final var state = this.tasks.remove(task);
+      if (state == null) return;
+
+      final var generation = state.generation();
+      final var count = this.tasksPerGeneration.get(generation) - 1;
+      if (count > 0) {
+        this.tasksPerGeneration.put(generation, count);
+        abandoned = null;
+      } else {
+        this.tasksPerGeneration.remove(generation);
+        abandoned = (generation != this.generation) ? generation : null;
+      }
+    }
+
+    // Releasing a generation may release its tasks, which can block on their threads, so don't hold the lock.
+    if (abandoned != null) abandoned.release();
+  }
+
+  private TaskId removeWaitingTask(final ConditionId condition) {
+    synchronized (this.stateLock) {
+      return this.waitingTasks.remove(condition);
+    }
+  }
+
+  private void putTask(final TaskId task, final ExecutionState<?> state) {
+    synchronized (this.stateLock) {
+      final var previous = this.tasks.put(task, state);
+      if (previous != null) throw new IllegalStateException("Task %s is already in the task set".formatted(task));
+      this.tasksPerGeneration.merge(state.generation(), 1, Integer::sum);
+    }
   }
 
   /** Make progress in a task by stepping its associated effect model forward. */
@@ -423,27 +802,55 @@ public final class SimulationEngine implements AutoCloseable {
       final TaskId task,
       final ExecutionState<Output> progress,
       final TaskFrame<JobId> frame,
-      final Duration currentTime
+      final Duration currentTime,
+      final Consumer<Runnable> bookkeeping
   ) throws SpanException {
     // Step the modeling state forward.
-    final var scheduler = new EngineScheduler(currentTime, progress.span(), progress.caller(), frame);
+    final var scheduler = new EngineScheduler(currentTime, progress.span(), progress.caller(), frame, bookkeeping);
     final TaskStatus<Output> status;
+    final var measured = (this.options.metrics() != EngineMetricsListener.NONE);
+    final var stepStart = measured ? System.nanoTime() : 0;
     try {
       status = progress.state().step(scheduler);
     } catch (Throwable ex) {
       throw new SpanException(scheduler.span, ex);
+    } finally {
+      if (measured) this.options.metrics().taskStepped(progress.span(), System.nanoTime() - stepStart);
     }
     // TODO: Report which topics this activity wrote to at this point in time. This is useful insight for any user.
     // TODO: Report which cells this activity read from at this point in time. This is useful insight for any user.
 
-    // Based on the task's return status, update its execution state and schedule its resumption.
+    if (this.options.recordTopicDependencies()) {
+      bookkeeping.accept(() -> {
+        final var root = this.rootSpans.getOrDefault(scheduler.span, scheduler.span);
+        recordAll(this.topicsReadBySpan, root, scheduler.topicsRead);
+        recordAll(this.topicsWrittenBySpan, root, scheduler.topicsWritten);
+      });
+    }
+    this.updateExecutionState(task, progress, scheduler, status, frame, currentTime, bookkeeping);
+  }
+
+  /** Based on a task's return status, update its execution state and schedule its resumption. */
+  private <Output> void updateExecutionState(
+      final TaskId task,
+      final ExecutionState<Output> progress,
+      final EngineScheduler scheduler,
+      final TaskStatus<Output> status,
+      final TaskFrame<JobId> frame,
+      final Duration currentTime,
+      final Consumer<Runnable> bookkeeping
+  ) {
     switch (status) {
-      case TaskStatus.Completed<Output> s -> {
+      case TaskStatus.Completed<Output> s -> bookkeeping.accept(() -> {
         // Propagate completion up the span hierarchy.
         // TERMINATION: The span hierarchy is a finite tree, so eventually we find a parentless span.
         var span = scheduler.span;
         while (true) {
-          if (this.spanContributorCount.get(span).decrementAndGet() > 0) break;
+          final var contributors = this.spanContributorCount.get(span) - 1;
+          if (contributors > 0) {
+            this.spanContributorCount.put(span, contributors);
+            break;
+          }
           this.spanContributorCount.remove(span);
 
           this.spans.compute(span, (_id, $) -> $.close(currentTime));
@@ -456,86 +863,135 @@ public final class SimulationEngine implements AutoCloseable {
 
         // Notify any blocked caller of our completion.
         progress.caller().ifPresent($ -> {
-          if (this.blockedTasks.get($).decrementAndGet() == 0) {
+          final var blockers = this.blockedTasks.get($) - 1;
+          if (blockers > 0) {
+            this.blockedTasks.put($, blockers);
+          } else {
             this.blockedTasks.remove($);
             this.scheduledJobs.schedule(JobId.forTask($), SubInstant.Tasks.at(currentTime));
           }
         });
-      }
+      });
 
       case TaskStatus.Delayed<Output> s -> {
         if (s.delay().isNegative()) throw new IllegalArgumentException("Cannot schedule a task in the past");
 
-        this.tasks.put(task, progress.continueWith(s.continuation()));
-        this.scheduledJobs.schedule(JobId.forTask(task), SubInstant.Tasks.at(currentTime.plus(s.delay())));
+        this.putTask(task, progress.continueWith(s.continuation()));
+        bookkeeping.accept(() -> this.scheduledJobs.schedule(
+            JobId.forTask(task),
+            SubInstant.Tasks.at(currentTime.plus(s.delay()))));
       }
 
       case TaskStatus.CallingTask<Output> s -> {
         // Prepare a span for the child task.
-        final var childSpan = switch (s.childSpan()) {
-          case Parent -> scheduler.span;
-
-          case Fresh -> {
-            final var freshSpan = SpanId.generate();
-            SimulationEngine.this.spans.put(
-                freshSpan,
-                new Span(Optional.of(scheduler.span), currentTime, Optional.empty()));
-            SimulationEngine.this.spanContributorCount.put(freshSpan, new MutableInt(1));
-            yield freshSpan;
-          }
-        };
+        final var childSpan = this.createSpan(s.childSpan(), scheduler.span, currentTime, bookkeeping);
 
         // Spawn the child task.
         final var childTask = TaskId.generate();
-        SimulationEngine.this.spanContributorCount.get(scheduler.span).increment();
-        SimulationEngine.this.tasks.put(
+        bookkeeping.accept(() -> this.spanContributorCount.merge(scheduler.span, 1, Integer::sum));
+        this.putTask(
             childTask,
             new ExecutionState<>(
                 childSpan,
                 Optional.of(task),
-                s.child().create(this.executor)));
+                s.child().create(this.executor.executor),
+                this.generation));
         frame.signal(JobId.forTask(childTask));
 
         // Arrange for the parent task to resume.... later.
-        SimulationEngine.this.blockedTasks.put(task, new MutableInt(1));
-        this.tasks.put(task, progress.continueWith(s.continuation()));
+        bookkeeping.accept(() -> this.blockedTasks.put(task, 1));
+        this.putTask(task, progress.continueWith(s.continuation()));
       }
 
       case TaskStatus.AwaitingCondition<Output> s -> {
         final var condition = ConditionId.generate();
-        this.conditions.put(condition, s.condition());
-        this.scheduledJobs.schedule(JobId.forCondition(condition), SubInstant.Conditions.at(currentTime));
+        bookkeeping.accept(() -> {
+          this.conditions.put(condition, s.condition());
+          this.scheduledJobs.schedule(JobId.forCondition(condition), SubInstant.Conditions.at(currentTime));
+        });
 
-        this.tasks.put(task, progress.continueWith(s.continuation()));
-        this.waitingTasks.put(condition, task);
+        this.putTask(task, progress.continueWith(s.continuation()));
+        bookkeeping.accept(() -> this.waitingTasks.put(condition, task));
       }
     }
   }
 
+  /** Get the span in which a child of the given span runs, creating a fresh one if asked to. */
+  private SpanId createSpan(
+      final InSpan inSpan,
+      final SpanId parent,
+      final Duration startOffset,
+      final Consumer<Runnable> bookkeeping
+  ) {
+    return switch (inSpan) {
+      case Parent -> parent;
+
+      case Fresh -> {
+        final var freshSpan = SpanId.generate();
+        bookkeeping.accept(() -> {
+          this.spans.put(freshSpan, new Span(Optional.of(parent), startOffset, Optional.empty()));
+          this.spanContributorCount.put(freshSpan, 1);
+          this.recordRootSpan(freshSpan, parent);
+        });
+        yield freshSpan;
+      }
+    };
+  }
+
   /** Determine when a condition is next true, and schedule a signal to be raised at that time. */
   public void updateCondition(
       final ConditionId condition,
       final TaskFrame<JobId> frame,
       final Duration currentTime,
       final Duration horizonTime
+  ) {
+    this.updateCondition(condition, frame, currentTime, horizonTime, Runnable::run);
+  }
+
+  private void updateCondition(
+      final ConditionId condition,
+      final TaskFrame<JobId> frame,
+      final Duration currentTime,
+      final Duration horizonTime,
+      final Consumer<Runnable> bookkeeping
   ) {
     if (this.closed) throw new IllegalStateException("Cannot update condition on closed simulation engine");
+    // Conditions are evaluated far more often than anything else, so only look up their span when someone needs it.
+    final var measured = (this.options.metrics() != EngineMetricsListener.NONE);
+    final Condition predicate;
+    final SpanId waitingSpan;
+    synchronized (this.stateLock) {
+      predicate = this.conditions.get(condition);
+      if (measured || this.options.recordTopicDependencies()) {
+        final var waitingTask = this.tasks.get(this.waitingTasks.get(condition));
+        waitingSpan = (waitingTask != null) ? waitingTask.span() : null;
+      } else {
+        waitingSpan = null;
+      }
+    }
+
     final var querier = new EngineQuerier(frame);
-    final var prediction = this.conditions
-        .get(condition)
+    final var evaluationStart = measured ? System.nanoTime() : 0;
+    final var prediction = predicate
         .nextSatisfied(querier, horizonTime.minus(currentTime))
         .map(currentTime::plus);
-
-    this.waitingConditions.subscribeQuery(condition, querier.referencedTopics);
+    if (measured) this.options.metrics().conditionEvaluated(condition, waitingSpan, System.nanoTime() - evaluationStart);
 
     final var expiry = querier.expiry.map(currentTime::plus);
-    if (prediction.isPresent() && (expiry.isEmpty() || prediction.get().shorterThan(expiry.get()))) {
-      this.scheduledJobs.schedule(JobId.forSignal(condition), SubInstant.Tasks.at(prediction.get()));
-    } else {
-      // Try checking again later -- where "later" is in some non-zero amount of time!
-      final var nextCheckTime = Duration.max(expiry.orElse(horizonTime), currentTime.plus(Duration.EPSILON));
-      this.scheduledJobs.schedule(JobId.forCondition(condition), SubInstant.Conditions.at(nextCheckTime));
-    }
+    bookkeeping.accept(() -> {
+      this.waitingConditions.subscribeQuery(condition, querier.referencedTopics);
+      if (this.options.recordTopicDependencies() && waitingSpan != null) {
+        recordAll(this.topicsReadBySpan, this.rootSpans.getOrDefault(waitingSpan, waitingSpan), querier.referencedTopics);
+      }
+
+      if (prediction.isPresent() && (expiry.isEmpty() || prediction.get().shorterThan(expiry.get()))) {
+        this.scheduledJobs.schedule(JobId.forSignal(condition), SubInstant.Tasks.at(prediction.get()));
+      } else {
+        // Try checking again later -- where "later" is in some non-zero amount of time!
+        final var nextCheckTime = Duration.max(expiry.orElse(horizonTime), currentTime.plus(Duration.EPSILON));
+        this.scheduledJobs.schedule(JobId.forCondition(condition), SubInstant.Conditions.at(nextCheckTime));
+      }
+    });
   }
 
   /** Get the current behavior of a given resource and accumulate it into the resource's profile. */
@@ -544,33 +1000,64 @@ public final class SimulationEngine implements AutoCloseable {
       final TaskFrame<JobId> frame,
       final Duration currentTime,
       final ResourceUpdates resourceUpdates) {
+    this.updateResource(resourceId, frame, currentTime, resourceUpdates, Runnable::run);
+  }
+
+  private void updateResource(
+      final ResourceId resourceId,
+      final TaskFrame<JobId> frame,
+      final Duration currentTime,
+      final ResourceUpdates resourceUpdates,
+      final Consumer<Runnable> bookkeeping
+  ) {
     if (this.closed) throw new IllegalStateException("Cannot update resource on closed simulation engine");
+    final Resource<?> resource;
+    synchronized (this.stateLock) {
+      resource = this.resources.get(resourceId);
+    }
+
     final var querier = new EngineQuerier(frame);
     resourceUpdates.add(new ResourceUpdates.ResourceUpdate<>(
         querier,
         currentTime,
         resourceId,
-        this.resources.get(resourceId)));
-
-    this.waitingResources.subscribeQuery(resourceId, querier.referencedTopics);
+        resource));
+    this.options.metrics().resourceSampled(resourceId);
 
     final var expiry = querier.expiry.map(currentTime::plus);
-    if (expiry.isPresent()) {
-      this.scheduledJobs.schedule(JobId.forResource(resourceId), SubInstant.Resources.at(expiry.get()));
-    }
+    bookkeeping.accept(() -> {
+      this.waitingResources.subscribeQuery(resourceId, querier.referencedTopics);
+      if (this.options.recordTopicDependencies()) {
+        for (final var topic : querier.referencedTopics) {
+          recordAll(this.resourcesByTopic, topic, List.of(resourceId.id()));
+        }
+      }
+
+      if (expiry.isPresent()) {
+        this.scheduledJobs.schedule(JobId.forResource(resourceId), SubInstant.Resources.at(expiry.get()));
+      }
+    });
   }
 
   /** Resets all tasks (freeing any held resources). The engine should not be used after being closed. */
   @Override
   public void close() {
+    if (this.closed) return;
     cells.freeze();
     timeline.freeze();
 
+    // Our own tasks may still be shared with our duplicates, so leave it to our generation to release them.
+    final var ownTasks = new ArrayList<Task<?>>();
     for (final var task : this.tasks.values()) {
-      task.state().release();
+      if (task.generation() == this.generation) ownTasks.add(task.state());
+    }
+    this.generation.retire(ownTasks);
+    for (final var generation : this.tasksPerGeneration.keySet()) {
+      if (generation != this.generation) generation.release();
     }
 
-    this.executor.shutdownNow();
+    this.executor.release();
+    if (this.jobExecutor != null) this.jobExecutor.release();
     this.closed = true;
   }
 
@@ -578,19 +1065,23 @@ public final class SimulationEngine implements AutoCloseable {
     if (this.closed) throw new IllegalStateException("Cannot unschedule jobs on closed simulation engine");
     for (final var taskId : new ArrayList<>(this.tasks.keySet())) {
       if (this.unstartedTasks.containsKey(taskId) && this.unstartedTasks.get(taskId).longerThan(duration)) {
-        this.tasks.remove(taskId);
+        this.dropTask(taskId);
         this.scheduledJobs.unschedule(JobId.forTask(taskId));
       }
     }
   }
 
   private record SpanInfo(
-      Map<SpanId, ActivityDirectiveId> spanToPlannedDirective,
-      Map<SpanId, SerializedActivity> input,
-      Map<SpanId, SerializedValue> output
+      PersistentMap<SpanId, ActivityDirectiveId> spanToPlannedDirective,
+      PersistentMap<SpanId, SerializedActivity> input,
+      PersistentMap<SpanId, SerializedValue> output
   ) {
     public SpanInfo() {
-      this(new HashMap<>(), new HashMap<>(), new HashMap<>());
+      this(new PersistentMap<>(), new PersistentMap<>(), new PersistentMap<>());
+    }
+
+    public SpanInfo duplicate() {
+      return new SpanInfo(this.spanToPlannedDirective.duplicate(), this.input.duplicate(), this.output.duplicate());
     }
 
     public boolean isActivity(final SpanId id) {
@@ -687,7 +1178,7 @@ public final class SimulationEngine implements AutoCloseable {
       final SpanId spanId
   ) {
     // Collect per-span information from the event graph.
-    final var spanInfo = computeSpanInfo(activityTopic, serializableTopics, this.timeline);
+    final var spanInfo = computeSpanInfo(activityTopic, serializableTopics);
 
     // Identify the nearest ancestor directive by walking up the parent
     // span tree. Save the activity trace along the way
@@ -716,21 +1207,38 @@ public final class SimulationEngine implements AutoCloseable {
       Map<ActivityInstanceId, UnfinishedActivity> unfinishedActivities
   ) {}
 
+  /**
+   * Collect per-span information from the event graph.
+   *
+   * The information is maintained incrementally, so that each call only has to account for events committed since the
+   * previous call. Requesting it for a different set of topics starts over from the beginning of the timeline.
+   */
   private SpanInfo computeSpanInfo(
       final Topic<ActivityDirectiveId> activityTopic,
-      final Iterable<SerializableTopic<?>> serializableTopics,
-      final TemporalEventSource timeline
+      final Iterable<SerializableTopic<?>> serializableTopics
   ) {
-    // Collect per-span information from the event graph.
-    final var spanInfo = new SpanInfo();
+    if (this.spanInfo == null
+        || this.spanInfoTrait.activityTopic() != activityTopic
+        || this.spanInfoTrait.topics() != serializableTopics)
+    {
+      this.spanInfo = new SpanInfo();
+      this.spanInfoTrait = new SpanInfo.Trait(serializableTopics, activityTopic);
+      for (final var segment : this.referenceTimelines()) {
+        this.extendSpanInfo(segment.iterator());
+      }
+      this.spanInfoCursor = this.timeline.iterator();
+    }
+
+    this.extendSpanInfo(this.spanInfoCursor);
+    return this.spanInfo;
+  }
 
-    for (final var point : timeline) {
-      if (!(point instanceof TemporalEventSource.TimePoint.Commit p)) continue;
+  private void extendSpanInfo(final Iterator<TemporalEventSource.TimePoint> points) {
+    while (points.hasNext()) {
+      if (!(points.next() instanceof TemporalEventSource.TimePoint.Commit p)) continue;
 
-      final var trait = new SpanInfo.Trait(serializableTopics, activityTopic);
-      p.events().evaluate(trait, trait::atom).accept(spanInfo);
+      p.events().evaluate(this.spanInfoTrait, this.spanInfoTrait::atom).accept(this.spanInfo);
     }
-    return spanInfo;
   }
 
   public SimulationActivityExtract computeActivitySimulationResults(
@@ -740,7 +1248,7 @@ public final class SimulationEngine implements AutoCloseable {
   ) {
     return computeActivitySimulationResults(
         startTime,
-        computeSpanInfo(activityTopic, serializableTopics, combineTimeline())
+        computeSpanInfo(activityTopic, serializableTopics)
     );
   }
 
@@ -785,7 +1293,8 @@ public final class SimulationEngine implements AutoCloseable {
       final SpanInfo spanInfo
   ) {
     // Identify the nearest ancestor *activity* (excluding intermediate anonymous tasks).
-    final var activityParents = new HashMap<SpanId, SpanId>();
+    // Follow span order, so that the children of each activity are listed in the order they were started.
+    final var activityParents = new LinkedHashMap<SpanId, SpanId>();
     final var activityDirectiveIds = spanToActivityDirectiveId(spanInfo);
     this.spans.forEach((span, state) -> {
       if (!spanInfo.isActivity(span)) return;
@@ -922,7 +1431,7 @@ public final class SimulationEngine implements AutoCloseable {
   ) {
     final var combinedTimeline = this.combineTimeline();
     // Collect per-task information from the event graph.
-    final var spanInfo = computeSpanInfo(activityTopic, serializableTopics, combinedTimeline);
+    final var spanInfo = computeSpanInfo(activityTopic, serializableTopics);
 
     // Extract profiles for every resource.
     final var resourceProfiles = resourceManager.computeProfiles(elapsedTime);
@@ -965,7 +1474,7 @@ public final class SimulationEngine implements AutoCloseable {
   ) {
     final var combinedTimeline = this.combineTimeline();
     // Collect per-task information from the event graph.
-    final var spanInfo = computeSpanInfo(activityTopic, serializableTopics, combinedTimeline);
+    final var spanInfo = computeSpanInfo(activityTopic, serializableTopics);
 
     // Extract profiles for every resource.
     final var resourceProfiles = resourceManager.computeProfiles(elapsedTime, resourceNames);
@@ -1050,17 +1559,26 @@ public final class SimulationEngine implements AutoCloseable {
     private final SpanId span;
     private final Optional<TaskId> caller;
     private final TaskFrame<JobId> frame;
+    private final Consumer<Runnable> bookkeeping;
+    /** The topics read and emitted to during this step, if topic dependencies are recorded. */
+    private final Set<Topic<?>> topicsRead;
+    private final Set<Topic<?>> topicsWritten;
 
     public EngineScheduler(
         final Duration currentTime,
         final SpanId span,
         final Optional<TaskId> caller,
-        final TaskFrame<JobId> frame)
+        final TaskFrame<JobId> frame,
+        final Consumer<Runnable> bookkeeping)
     {
       this.currentTime = Objects.requireNonNull(currentTime);
       this.span = Objects.requireNonNull(span);
       this.caller = Objects.requireNonNull(caller);
       this.frame = Objects.requireNonNull(frame);
+      this.bookkeeping = Objects.requireNonNull(bookkeeping);
+      final var record = SimulationEngine.this.options.recordTopicDependencies();
+      this.topicsRead = record ? new HashSet<>() : null;
+      this.topicsWritten = record ? new HashSet<>() : null;
     }
 
     @Override
@@ -1068,6 +1586,7 @@ public final class SimulationEngine implements AutoCloseable {
       // SAFETY: The only queries the model should have are those provided by us (e.g. via MissionModelBuilder).
       @SuppressWarnings("unchecked")
       final var query = ((EngineCellId<?, State>) token);
+      if (this.topicsRead != null) this.topicsRead.add(query.topic());
 
       // TODO: Cache the return value (until the next emit or until the task yields) to avoid unnecessary copies
       //  if the same state is requested multiple times in a row.
@@ -1079,35 +1598,31 @@ public final class SimulationEngine implements AutoCloseable {
     public <EventType> void emit(final EventType event, final Topic<EventType> topic) {
       // Append this event to the timeline.
       this.frame.emit(Event.create(topic, event, this.span));
+      if (this.topicsWritten != null) this.topicsWritten.add(topic);
 
-      SimulationEngine.this.invalidateTopic(topic, this.currentTime);
+      this.bookkeeping.accept(() -> SimulationEngine.this.invalidateTopic(topic, this.currentTime));
     }
 
     @Override
     public void spawn(final InSpan inSpan, final TaskFactory<?> state) {
+      final var childTask = TaskId.generate();
+
       // Prepare a span for the child task
-      final var childSpan = switch (inSpan) {
-        case Parent -> this.span;
-
-        case Fresh -> {
-          final var freshSpan = SpanId.generate();
-          SimulationEngine.this.spans.put(freshSpan, new Span(Optional.of(this.span), currentTime, Optional.empty()));
-          SimulationEngine.this.spanContributorCount.put(freshSpan, new MutableInt(1));
-          yield freshSpan;
-        }
-      };
+      final var childSpan = SimulationEngine.this.createSpan(inSpan, this.span, this.currentTime, this.bookkeeping);
 
-      final var childTask = TaskId.generate();
-      SimulationEngine.this.spanContributorCount.get(this.span).increment();
-      SimulationEngine.this.tasks.put(
+      this.bookkeeping.accept(() -> {
+        SimulationEngine.this.spanContributorCount.merge(this.span, 1, Integer::sum);
+        this.caller.ifPresent($ -> SimulationEngine.this.blockedTasks.merge($, 1, Integer::sum));
+      });
+      SimulationEngine.this.putTask(
           childTask,
           new ExecutionState<>(
               childSpan,
               this.caller,
-              state.create(SimulationEngine.this.executor)));
-      this.frame.signal(JobId.forTask(childTask));
+              state.create(SimulationEngine.this.executor.executor),
+              SimulationEngine.this.generation));
 
-      this.caller.ifPresent($ -> SimulationEngine.this.blockedTasks.get($).increment());
+      this.frame.signal(JobId.forTask(childTask));
     }
   }
 
@@ -1142,14 +1657,90 @@ public final class SimulationEngine implements AutoCloseable {
     }
   }
 
+  /** An executor shared by an engine and its duplicates, shut down once the last of them is closed. */
+  private static final class SharedExecutor {
+    private final Supplier<ExecutorService> factory;
+    private final ExecutorService executor;
+    private int users = 1;
+
+    SharedExecutor(final Supplier<ExecutorService> factory) {
+      this.factory = factory;
+      this.executor = factory.get();
+    }
+
+    /** Register another user of this executor, or start a new executor if every previous user has closed. */
+    synchronized SharedExecutor acquire() {
+      if (this.users == 0) return new SharedExecutor(this.factory);
+      this.users += 1;
+      return this;
+    }
+
+    synchronized void release() {
+      this.users -= 1;
+      if (this.users == 0) this.executor.shutdownNow();
+    }
+  }
+
+  /**
+   * The tasks created by one engine, which its duplicates share until they step them.
+   *
+   * An engine is frozen once duplicated, so its tasks never step again, and a duplicate can take its own copy of
+   * a task just before stepping it. The tasks of a generation are released once the engine that created them has
+   * closed, and no other engine still holds any of them.
+   */
+  private static final class TaskGeneration {
+    private int users = 1;
+    private List<Task<?>> tasks = List.of();
+
+    synchronized void acquire() {
+      this.users += 1;
+    }
+
+    /** Let go of the creating engine's hold on this generation, handing over the tasks it still held. */
+    void retire(final List<Task<?>> tasks) {
+      synchronized (this) {
+        this.tasks = tasks;
+      }
+      this.release();
+    }
+
+    void release() {
+      final List<Task<?>> tasks;
+      synchronized (this) {
+        this.users -= 1;
+        if (this.users > 0) return;
+
+        tasks = this.tasks;
+        this.tasks = List.of();
+      }
+
+      for (final var task : tasks) task.release();
+    }
+  }
+
   /** The state of an executing task. */
-  private record ExecutionState<Output>(SpanId span, Optional<TaskId> caller, Task<Output> state) {
+  private record ExecutionState<Output>(
+      SpanId span,
+      Optional<TaskId> caller,
+      Task<Output> state,
+      TaskGeneration generation
+  ) {
     public ExecutionState<Output> continueWith(final Task<Output> newState) {
-      return new ExecutionState<>(this.span, this.caller, newState);
+      return new ExecutionState<>(this.span, this.caller, newState, this.generation);
+    }
+
+    public ExecutionState<Output> duplicate(final Executor executor, final TaskGeneration generation) {
+      return new ExecutionState<>(span, caller, state.duplicate(executor), generation);
     }
+  }
 
-    public ExecutionState<Output> duplicate(Executor executor) {
-      return new ExecutionState<>(span, caller, state.duplicate(executor));
+  /** A timeline frozen by duplicating an engine, preceded by those of the engines it was itself duplicated from. */
+  private record TimelineHistory(TimelineHistory earlier, TemporalEventSource latest) {
+    /** The timelines of this history, from the earliest to the latest. */
+    List<TemporalEventSource> segments() {
+      final var segments = new ArrayList<TemporalEventSource>();
+      for (var history = this; history != null; history = history.earlier()) segments.add(history.latest());
+      return segments.reversed();
     }
   }
 
@@ -1175,7 +1766,64 @@ public final class SimulationEngine implements AutoCloseable {
   }
 
   public SimulationEngine duplicate() {
-    return new SimulationEngine(this);
+    return new SimulationEngine(this, this.options);
+  }
+
+  /**
+   * A duplicate of this engine which reports its work to the given listener, and not to this engine's.
+   * Duplicates of the returned engine report to the given listener too.
+   */
+  public SimulationEngine duplicate(final EngineMetricsListener metrics) {
+    return new SimulationEngine(this, this.options.withMetrics(metrics));
+  }
+
+  /**
+   * The topics read and emitted to under each root span, and the resources computed from each topic.
+   *
+   * A root span is one without a parent, such as the span of a directive or of the daemon tasks; the topics of a root
+   * span include those of every span descending from it. Topics are accumulated over the whole history of the engine,
+   * including that of any engine it was duplicated from.
+   *
+   * @param topicsRead The topics read by the tasks under each root span, or by the conditions they waited on.
+   * @param topicsWritten The topics emitted to by the tasks under each root span.
+   * @param resourcesByTopic The names of the resources whose profiles were computed by reading each topic.
+   */
+  public record TopicDependencies(
+      Map<SpanId, Set<Topic<?>>> topicsRead,
+      Map<SpanId, Set<Topic<?>>> topicsWritten,
+      Map<Topic<?>, Set<String>> resourcesByTopic
+  ) {}
+
+  public boolean recordsTopicDependencies() {
+    return this.options.recordTopicDependencies();
+  }
+
+  /** Get the topic dependencies observed so far. The engine must have been created to record them. */
+  public TopicDependencies getTopicDependencies() {
+    if (!this.options.recordTopicDependencies()) {
+      throw new IllegalStateException("Topic dependencies are not recorded by this simulation engine");
+    }
+    synchronized (this.stateLock) {
+      return new TopicDependencies(
+          Map.copyOf(this.topicsReadBySpan),
+          Map.copyOf(this.topicsWrittenBySpan),
+          Map.copyOf(this.resourcesByTopic));
+    }
+  }
+
+  private void recordRootSpan(final SpanId span, final SpanId parent) {
+    if (!this.options.recordTopicDependencies()) return;
+    this.rootSpans.put(span, this.rootSpans.getOrDefault(parent, parent));
+  }
+
+  /** Add the given values to the set recorded for a key. Recorded sets are never mutated, as engines share them. */
+  private static <K, V> void recordAll(final PersistentMap<K, Set<V>> map, final K key, final Collection<V> values) {
+    final var recorded = map.getOrDefault(key, Set.of());
+    if (recorded.containsAll(values)) return;
+
+    final var updated = new HashSet<>(recorded);
+    updated.addAll(values);
+    map.put(key, Collections.unmodifiableSet(updated));
   }
 
   public Optional<Duration> peekNextTime() {
@@ -1187,21 +1835,21 @@ public final class SimulationEngine implements AutoCloseable {
    */
   public TemporalEventSource combineTimeline() {
     final TemporalEventSource combinedTimeline = new TemporalEventSource();
-    for (final var timePoint : referenceTimeline.points()) {
-      if (timePoint instanceof TemporalEventSource.TimePoint.Delta t) {
-        combinedTimeline.add(t.delta());
-      } else if (timePoint instanceof TemporalEventSource.TimePoint.Commit t) {
-        combinedTimeline.add(t.events());
-      }
-    }
-
-    for (final var timePoint : timeline) {
-      if (timePoint instanceof TemporalEventSource.TimePoint.Delta t) {
-        combinedTimeline.add(t.delta());
-      } else if (timePoint instanceof TemporalEventSource.TimePoint.Commit t) {
-        combinedTimeline.add(t.events());
+    final var segments = new ArrayList<>(this.referenceTimelines());
+    segments.add(this.timeline);
+    for (final var segment : segments) {
+      for (final var timePoint : segment) {
+        if (timePoint instanceof TemporalEventSource.TimePoint.Delta t) {
+          combinedTimeline.add(t.delta());
+        } else if (timePoint instanceof TemporalEventSource.TimePoint.Commit t) {
+          combinedTimeline.add(t.events());
+        }
       }
     }
     return combinedTimeline;
   }
+
+  private List<TemporalEventSource> referenceTimelines() {
+    return (this.referenceTimeline != null) ? this.referenceTimeline.segments() : List.of();
+  }
 }
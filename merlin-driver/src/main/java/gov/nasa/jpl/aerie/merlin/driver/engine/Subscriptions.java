@@ -1,63 +1,181 @@
 package gov.nasa.jpl.aerie.merlin.driver.engine;
 
-import java.util.Collections;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+
+import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Set;
 
+/**
+ * An index of the queries that must be re-evaluated when a topic is invalidated.
+ *
+ * Every subscribed query is given an integer id, and every subscription records the generation of its query at the
+ * time it was made. Unsubscribing (or resubscribing) a query only advances its generation, leaving its entries in
+ * the index in place; entries from an old generation are skipped when a topic is invalidated, and are periodically
+ * swept away as new entries are added. Invalidating a topic therefore costs time proportional only to the number of
+ * entries recorded against that topic, rather than to every topic of every query affected.
+ */
 public final class Subscriptions<TopicRef, QueryRef> {
-  /** The set of topics depended upon by a given query. */
-  private final Map<QueryRef, Set<TopicRef>> topicsByQuery = new HashMap<>();
+  /** The smallest size at which an index entry list is swept of stale entries. */
+  private static final int MIN_SWEEP_SIZE = 8;
+
+  /** The id of every currently-subscribed query. */
+  private final Object2IntOpenHashMap<QueryRef> queryIds;
+  /** The query holding each id, or null if the id is not in use. */
+  private final ObjectArrayList<QueryRef> queries;
+  /** The current generation of each id. Only entries made at an id's current generation are live. */
+  private final IntArrayList generations;
+  /** Ids no longer held by any query, to be reused before allocating new ones. */
+  private final IntArrayList freeIds;
+
+  /** An index of query subscriptions by topic, possibly including stale entries. */
+  @DerivedFrom("queries")
+  private final Map<TopicRef, Entries> entriesByTopic;
+
+  /** The subscriptions made against a single topic, each encoded as a query id and generation. */
+  private static final class Entries {
+    private final LongArrayList entries;
+    /** The size beyond which stale entries will be swept out of `entries`. */
+    private int sweepSize;
+
+    public Entries() {
+      this(new LongArrayList(), MIN_SWEEP_SIZE);
+    }
+
+    private Entries(final LongArrayList entries, final int sweepSize) {
+      this.entries = entries;
+      this.sweepSize = sweepSize;
+    }
+  }
+
+  public Subscriptions() {
+    this.queryIds = new Object2IntOpenHashMap<>();
+    this.queryIds.defaultReturnValue(-1);
+    this.queries = new ObjectArrayList<>();
+    this.generations = new IntArrayList();
+    this.freeIds = new IntArrayList();
+    this.entriesByTopic = new HashMap<>();
+  }
 
-  /** An index of queries by subscribed topic. */
-  @DerivedFrom("topicsByQuery")
-  private final Map<TopicRef, Set<QueryRef>> queriesByTopic = new HashMap<>();
+  private Subscriptions(final Subscriptions<TopicRef, QueryRef> other) {
+    this.queryIds = new Object2IntOpenHashMap<>(other.queryIds);
+    this.queryIds.defaultReturnValue(-1);
+    this.queries = new ObjectArrayList<>(other.queries);
+    this.generations = new IntArrayList(other.generations);
+    this.freeIds = new IntArrayList(other.freeIds);
+    this.entriesByTopic = new HashMap<>(other.entriesByTopic.size());
+    for (final var entry : other.entriesByTopic.entrySet()) {
+      final var entries = entry.getValue();
+      this.entriesByTopic.put(entry.getKey(), new Entries(new LongArrayList(entries.entries), entries.sweepSize));
+    }
+  }
 
-  // This method takes ownership of `topics`; the set should not be referenced after calling this method.
+  /** Subscribe a query to the given topics, replacing any topics it was previously subscribed to. */
   public void subscribeQuery(final QueryRef query, final Set<TopicRef> topics) {
-    this.topicsByQuery.put(query, topics);
+    var id = this.queryIds.getInt(query);
+    if (id < 0) {
+      id = this.allocateId(query);
+    } else {
+      // Any entries recorded by this query's previous subscription are now stale.
+      this.generations.set(id, this.generations.getInt(id) + 1);
+    }
 
+    final var entry = encode(id, this.generations.getInt(id));
     for (final var topic : topics) {
-      this.queriesByTopic.computeIfAbsent(topic, $ -> new HashSet<>()).add(query);
+      final var entries = this.entriesByTopic.computeIfAbsent(topic, $ -> new Entries());
+      if (entries.entries.size() >= entries.sweepSize) this.sweep(entries);
+      entries.entries.add(entry);
     }
   }
 
   public void unsubscribeQuery(final QueryRef query) {
-    final var topics = this.topicsByQuery.remove(query);
+    final var id = this.queryIds.removeInt(query);
+    if (id >= 0) this.releaseId(id);
+  }
 
-    for (final var topic : topics) {
-      final var queries = this.queriesByTopic.get(topic);
-      if (queries == null) continue;
+  /** Unsubscribe and return every query subscribed to the given topic, in the order they were subscribed. */
+  public List<QueryRef> invalidateTopic(final TopicRef topic) {
+    final var entries = this.entriesByTopic.remove(topic);
+    if (entries == null) return List.of();
 
-      queries.remove(query);
-      if (queries.isEmpty()) this.queriesByTopic.remove(topic);
+    final var invalidated = new ArrayList<QueryRef>();
+    for (var i = 0; i < entries.entries.size(); i += 1) {
+      final var entry = entries.entries.getLong(i);
+      if (!this.isLive(entry)) continue;
+
+      final var id = idOf(entry);
+      final var query = this.queries.get(id);
+      this.queryIds.removeInt(query);
+      this.releaseId(id);
+      invalidated.add(query);
     }
+    return invalidated;
   }
 
-  public Set<QueryRef> invalidateTopic(final TopicRef topic) {
-    final var queries = Optional
-        .ofNullable(this.queriesByTopic.remove(topic))
-        .orElseGet(Collections::emptySet);
+  public void clear() {
+    this.queryIds.clear();
+    this.queries.clear();
+    this.generations.clear();
+    this.freeIds.clear();
+    this.entriesByTopic.clear();
+  }
 
-    for (final var query : queries) unsubscribeQuery(query);
+  public Subscriptions<TopicRef, QueryRef> duplicate() {
+    return new Subscriptions<>(this);
+  }
 
-    return queries;
+  private int allocateId(final QueryRef query) {
+    final int id;
+    if (!this.freeIds.isEmpty()) {
+      id = this.freeIds.popInt();
+      this.queries.set(id, query);
+    } else {
+      id = this.queries.size();
+      this.queries.add(query);
+      this.generations.add(0);
+    }
+    this.queryIds.put(query, id);
+    return id;
   }
 
-  public void clear() {
-    this.topicsByQuery.clear();
-    this.queriesByTopic.clear();
+  private void releaseId(final int id) {
+    // Advancing the generation ensures that entries made under this id are stale, even once the id is reused.
+    this.generations.set(id, this.generations.getInt(id) + 1);
+    this.queries.set(id, null);
+    this.freeIds.add(id);
   }
 
-  public Subscriptions<TopicRef, QueryRef> duplicate() {
-    final Subscriptions<TopicRef, QueryRef> subscriptions = new Subscriptions<>();
-    for (final var entry : this.topicsByQuery.entrySet()) {
-      final var query = entry.getKey();
-      final var topics = entry.getValue();
-      subscriptions.subscribeQuery(query, new HashSet<>(topics));
+  private boolean isLive(final long entry) {
+    final var id = idOf(entry);
+    return (this.queries.get(id) != null && this.generations.getInt(id) == generationOf(entry));
+  }
+
+  /** Remove every stale entry, and wait until the list has doubled in size before sweeping it again. */
+  private void sweep(final Entries entries) {
+    final var list = entries.entries;
+    var size = 0;
+    for (var i = 0; i < list.size(); i += 1) {
+      final var entry = list.getLong(i);
+      if (this.isLive(entry)) list.set(size++, entry);
     }
-    return subscriptions;
+    list.size(size);
+    entries.sweepSize = Math.max(MIN_SWEEP_SIZE, 2 * size);
+  }
+
+  private static long encode(final int id, final int generation) {
+    return ((long) id << 32) | (generation & 0xFFFF_FFFFL);
+  }
+
+  private static int idOf(final long entry) {
+    return (int) (entry >>> 32);
+  }
+
+  private static int generationOf(final long entry) {
+    return (int) entry;
   }
 }
@@ -0,0 +1,131 @@
+package gov.nasa.jpl.aerie.merlin.driver.resources;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Hands streamed resource profiles to another streamer on a dedicated thread,
+ * so that writing one chunk of profiles overlaps with simulating the next.
+ *
+ * At most `capacity` chunks may be waiting at any time, in addition to the one being written;
+ * beyond that, streaming another chunk blocks until the writer catches up.
+ * A failure to write a chunk is raised by the next call to {@link #accept} or {@link #flush},
+ * and any chunks streamed after it are discarded.
+ */
+public final class AsyncProfileStreamer implements ResourceProfileStreamer, AutoCloseable {
+  /** By default, one chunk may be filled by the simulation while the previous one is written. */
+  private static final int DEFAULT_CAPACITY = 1;
+
+  private sealed interface Item {
+    record Chunk(ResourceProfiles profiles) implements Item {}
+    record Flush(CountDownLatch done) implements Item {}
+    record Stop() implements Item {}
+  }
+
+  private final ResourceProfileStreamer streamer;
+  private final BlockingQueue<Item> queue;
+  private final Thread thread;
+
+  /** The first failure raised while writing profiles. */
+  private volatile Throwable failure = null;
+  private boolean closed = false;
+
+  public AsyncProfileStreamer(final ResourceProfileStreamer streamer) {
+    this(streamer, DEFAULT_CAPACITY);
+  }
+
+  public AsyncProfileStreamer(final ResourceProfileStreamer streamer, final int capacity) {
+    if (capacity < 1) throw new IllegalArgumentException(
+        "Streamer capacity must be positive, but was %d".formatted(capacity));
+
+    this.streamer = streamer;
+    this.queue = new ArrayBlockingQueue<>(capacity);
+    this.thread = new Thread(this::run, "async-profile-streamer");
+    this.thread.setDaemon(true);
+    this.thread.start();
+  }
+
+  /** Submit a chunk of profiles to be written, blocking while the maximum number of chunks are waiting. */
+  @Override
+  public void accept(final ResourceProfiles profiles) {
+    if (this.closed) throw new IllegalStateException("Cannot stream profiles to a closed streamer");
+    this.rethrowFailure();
+
+    try {
+      this.queue.put(new Item.Chunk(profiles));
+    } catch (final InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while streaming resource profiles", ex);
+    }
+  }
+
+  /** Wait until every chunk submitted so far has been written, raising any failure to write them. */
+  @Override
+  public void flush() {
+    if (this.closed) throw new IllegalStateException("Cannot flush a closed streamer");
+
+    try {
+      final var done = new CountDownLatch(1);
+      this.queue.put(new Item.Flush(done));
+      done.await();
+    } catch (final InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while flushing resource profiles", ex);
+    }
+
+    this.rethrowFailure();
+  }
+
+  /** Write any chunks still waiting, then stop the writing thread. */
+  @Override
+  public void close() {
+    if (this.closed) return;
+    this.closed = true;
+
+    try {
+      this.queue.put(new Item.Stop());
+      this.thread.join();
+    } catch (final InterruptedException ex) {
+      this.thread.interrupt();
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void rethrowFailure() {
+    final var failure = this.failure;
+    if (failure != null) throw new RuntimeException("Failed to stream resource profiles", failure);
+  }
+
+  private void run() {
+    try {
+      while (true) {
+        switch (this.queue.take()) {
+          case Item.Chunk item -> {
+            if (this.failure != null) continue;
+            try {
+              this.streamer.accept(item.profiles());
+            } catch (final Throwable ex) {
+              this.failure = ex;
+            }
+          }
+          case Item.Flush item -> {
+            if (this.failure == null) {
+              try {
+                this.streamer.flush();
+              } catch (final Throwable ex) {
+                this.failure = ex;
+              }
+            }
+            item.done().countDown();
+          }
+          case Item.Stop item -> {
+            return;
+          }
+        }
+      }
+    } catch (final InterruptedException ex) {
+      // The streamer is being torn down; any chunks still waiting are abandoned.
+    }
+  }
+}
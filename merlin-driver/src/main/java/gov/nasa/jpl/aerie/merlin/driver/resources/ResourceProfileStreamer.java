@@ -0,0 +1,16 @@
+package gov.nasa.jpl.aerie.merlin.driver.resources;
+
+import java.util.function.Consumer;
+
+/**
+ * Writes out the chunks of resource profiles streamed by a {@link StreamingSimulationResourceManager}.
+ */
+@FunctionalInterface
+public interface ResourceProfileStreamer extends Consumer<ResourceProfiles> {
+  /**
+   * Wait until every chunk accepted so far has been written, raising any failure to write them.
+   *
+   * Streamers that write each chunk before returning from {@link #accept} need not do anything.
+   */
+  default void flush() {}
+}
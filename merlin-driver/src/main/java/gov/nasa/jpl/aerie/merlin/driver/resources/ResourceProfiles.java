@@ -1,11 +1,67 @@
 package gov.nasa.jpl.aerie.merlin.driver.resources;
 
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
 import gov.nasa.jpl.aerie.merlin.protocol.types.RealDynamics;
 import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+import gov.nasa.jpl.aerie.merlin.protocol.types.ValueSchema;
+import org.apache.commons.lang3.tuple.Pair;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
 
 public record ResourceProfiles(
       Map<String, ResourceProfile<RealDynamics>> realProfiles,
       Map<String, ResourceProfile<SerializedValue>> discreteProfiles
-) {}
+) {
+  /**
+   * Give these profiles to a resource manager as the updates that would have produced them, in order of time,
+   * so that the manager holds the same profiles as if it had received those updates during simulation.
+   */
+  public void replayInto(final SimulationResourceManager resourceManager) {
+    // A resource may change more than once at the same time, but only once per batch of updates,
+    // so the updates at each time are split into as many batches as any one resource needs.
+    final var updates = new TreeMap<Duration, List<Updates>>();
+    for (final var entry : this.realProfiles.entrySet()) {
+      collect(updates, entry.getKey(), entry.getValue(), Updates::real);
+    }
+    for (final var entry : this.discreteProfiles.entrySet()) {
+      collect(updates, entry.getKey(), entry.getValue(), Updates::discrete);
+    }
+
+    for (final var entry : updates.entrySet()) {
+      for (final var batch : entry.getValue()) {
+        resourceManager.acceptUpdates(entry.getKey(), batch.real(), batch.discrete());
+      }
+    }
+  }
+
+  private static <Dynamics> void collect(
+      final TreeMap<Duration, List<Updates>> updates,
+      final String name,
+      final ResourceProfile<Dynamics> profile,
+      final Function<Updates, Map<String, Pair<ValueSchema, Dynamics>>> batchUpdates)
+  {
+    var start = Duration.ZERO;
+    Duration previousStart = null;
+    var index = 0;
+    for (final var segment : profile.segments()) {
+      index = (start.equals(previousStart)) ? index + 1 : 0;
+
+      final var batches = updates.computeIfAbsent(start, $ -> new ArrayList<>());
+      while (batches.size() <= index) batches.add(new Updates(new HashMap<>(), new HashMap<>()));
+      batchUpdates.apply(batches.get(index)).put(name, Pair.of(profile.schema(), segment.dynamics()));
+
+      previousStart = start;
+      start = start.plus(segment.extent());
+    }
+  }
+
+  private record Updates(
+      Map<String, Pair<ValueSchema, RealDynamics>> real,
+      Map<String, Pair<ValueSchema, SerializedValue>> discrete
+  ) {}
+}
@@ -0,0 +1,107 @@
+package gov.nasa.jpl.aerie.merlin.driver.resources;
+
+import gov.nasa.jpl.aerie.merlin.driver.engine.ResourceSamples;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Hands resource samples to a {@link SimulationResourceManager} from a dedicated thread,
+ * so that the samples are serialized and accepted off of the simulation's critical path.
+ *
+ * At most `capacity` steps' worth of samples may be waiting at any time; beyond that, submitting more samples blocks
+ * until the resource manager catches up. The resource manager must not be used by anyone else until the pipeline has
+ * been flushed.
+ */
+public final class ResourceUpdatePipeline implements AutoCloseable {
+  private sealed interface Item {
+    record Samples(Duration elapsedTime, ResourceSamples samples) implements Item {}
+    record Flush(CountDownLatch done) implements Item {}
+    record Stop() implements Item {}
+  }
+
+  private final SimulationResourceManager resourceManager;
+  private final BlockingQueue<Item> queue;
+  private final Thread thread;
+
+  /** The first failure raised while accepting samples. Once set, any later samples are discarded. */
+  private volatile Throwable failure = null;
+  private boolean closed = false;
+
+  public ResourceUpdatePipeline(final SimulationResourceManager resourceManager, final int capacity) {
+    if (capacity < 1) throw new IllegalArgumentException(
+        "Pipeline capacity must be positive, but was %d".formatted(capacity));
+
+    this.resourceManager = resourceManager;
+    this.queue = new ArrayBlockingQueue<>(capacity);
+    this.thread = new Thread(this::run, "resource-update-pipeline");
+    this.thread.setDaemon(true);
+    this.thread.start();
+  }
+
+  /** Submit the samples taken at the given time, blocking while the pipeline is full. */
+  public void accept(final Duration elapsedTime, final ResourceSamples samples) throws Throwable {
+    if (this.closed) throw new IllegalStateException("Cannot submit samples to a closed pipeline");
+    this.rethrowFailure();
+
+    this.queue.put(new Item.Samples(elapsedTime, samples));
+  }
+
+  /** Wait until every sample submitted so far has been accepted by the resource manager. */
+  public void flush() throws Throwable {
+    if (this.closed) throw new IllegalStateException("Cannot flush a closed pipeline");
+
+    final var done = new CountDownLatch(1);
+    this.queue.put(new Item.Flush(done));
+    done.await();
+
+    this.rethrowFailure();
+  }
+
+  @Override
+  public void close() {
+    if (this.closed) return;
+    this.closed = true;
+
+    try {
+      this.queue.put(new Item.Stop());
+      this.thread.join();
+    } catch (final InterruptedException ex) {
+      this.thread.interrupt();
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void rethrowFailure() throws Throwable {
+    final var failure = this.failure;
+    if (failure != null) throw failure;
+  }
+
+  private void run() {
+    try {
+      while (true) {
+        switch (this.queue.take()) {
+          case Item.Samples item -> {
+            if (this.failure != null) continue;
+            try {
+              this.resourceManager.acceptUpdates(
+                  item.elapsedTime(),
+                  item.samples().realResourceUpdates(),
+                  item.samples().dynamicResourceUpdates());
+            } catch (final Throwable ex) {
+              this.failure = ex;
+            }
+          }
+          case Item.Flush item -> item.done().countDown();
+          case Item.Stop item -> {
+            return;
+          }
+        }
+      }
+    } catch (final InterruptedException ex) {
+      // The pipeline is being torn down; any samples still waiting are abandoned.
+    }
+  }
+}
@@ -11,17 +11,16 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
-import java.util.function.Consumer;
 
 /**
  * A variant of a SimulationResourceManager that streams resources as needed in order to conserve memory.
- * The way it streams resources is determined by the Consumer passed to it during construction
+ * The way it streams resources is determined by the streamer passed to it during construction
  */
 public class StreamingSimulationResourceManager implements SimulationResourceManager {
   private final HashMap<String, ResourceSegments<RealDynamics>> realResourceSegments;
   private final HashMap<String, ResourceSegments<SerializedValue>> discreteResourceSegments;
 
-  private final Consumer<ResourceProfiles> streamer;
+  private final ResourceProfileStreamer streamer;
 
   private Duration lastReceivedTime;
 
@@ -31,11 +30,11 @@ public class StreamingSimulationResourceManager implements SimulationResourceMan
   private static final int DEFAULT_THRESHOLD = 1024;
   private final int threshold;
 
-  public StreamingSimulationResourceManager(final Consumer<ResourceProfiles> streamer) {
+  public StreamingSimulationResourceManager(final ResourceProfileStreamer streamer) {
     this(streamer, DEFAULT_THRESHOLD);
   }
 
-  public StreamingSimulationResourceManager(final Consumer<ResourceProfiles> streamer, int threshold) {
+  public StreamingSimulationResourceManager(final ResourceProfileStreamer streamer, int threshold) {
     realResourceSegments = new HashMap<>();
     discreteResourceSegments = new HashMap<>();
     this.threshold = threshold;
@@ -82,6 +81,9 @@ public class StreamingSimulationResourceManager implements SimulationResourceMan
     }
 
     streamer.accept(profiles);
+
+    // Simulation results must not be reported until every segment has actually been written.
+    streamer.flush();
     return profiles;
   }
 
@@ -12,10 +12,16 @@ import java.util.Set;
 public final class Cell<State> {
   private final GenericCell<?, State> inner;
   private final State state;
+  private final Topic<?>[] topics;
 
   private <Effect> Cell(final GenericCell<Effect, State> inner, final State state) {
+    this(inner, state, inner.selector.topics());
+  }
+
+  private <Effect> Cell(final GenericCell<Effect, State> inner, final State state, final Topic<?>[] topics) {
     this.inner = inner;
     this.state = state;
+    this.topics = topics;
   }
 
   public <Effect> Cell(
@@ -28,7 +34,7 @@ public final class Cell<State> {
   }
 
   public Cell<State> duplicate() {
-    return new Cell<>(this.inner, this.inner.cellType.duplicate(this.state));
+    return new Cell<>(this.inner, this.inner.cellType.duplicate(this.state), this.topics);
   }
 
   public void step(final Duration delta) {
@@ -55,6 +61,11 @@ public final class Cell<State> {
     return this.inner.cellType.duplicate(this.state);
   }
 
+  /** The topics whose events may affect this cell. The returned array must not be modified. */
+  public Topic<?>[] getTopics() {
+    return this.topics;
+  }
+
   public boolean isInterestedIn(final Set<Topic<?>> topics) {
     return this.inner.selector.matchesAny(topics);
   }
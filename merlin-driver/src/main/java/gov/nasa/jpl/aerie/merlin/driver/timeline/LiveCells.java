@@ -30,12 +30,14 @@ public final class LiveCells {
     return getCell(query).flatMap(Cell::getExpiry);
   }
 
-  public <State> void put(final Query<State> query, final Cell<State> cell) {
+  public synchronized <State> void put(final Query<State> query, final Cell<State> cell) {
     // SAFETY: The query and cell share the same State type parameter.
     this.cells.put(query, new LiveCell<>(cell, this.source.cursor()));
   }
 
-  private <State> Optional<Cell<State>> getCell(final Query<State> query) {
+  // Jobs performed in parallel may share a common ancestor, so catching a cell up must be exclusive.
+  // Locks are only ever taken from child to parent, so this cannot deadlock.
+  private synchronized <State> Optional<Cell<State>> getCell(final Query<State> query) {
     // First, check if we have this cell already.
     {
       // SAFETY: By the invariant, if there is an entry for this query, it is of type Cell<State>.
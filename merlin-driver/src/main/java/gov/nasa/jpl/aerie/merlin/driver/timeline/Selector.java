@@ -43,6 +43,12 @@ public record Selector<Effect>(SelectorRow<?, Effect>... rows) {
     return false;
   }
 
+  public Topic<?>[] topics() {
+    final var topics = new Topic<?>[this.rows.length];
+    for (var i = 0; i < this.rows.length; i += 1) topics[i] = this.rows[i].topic;
+    return topics;
+  }
+
   public record SelectorRow<EventType, Effect>(Topic<EventType> topic, Function<EventType, Effect> transform) {
     public Optional<Effect> select(final Event event$) {
       return event$.extract(this.topic, this.transform);
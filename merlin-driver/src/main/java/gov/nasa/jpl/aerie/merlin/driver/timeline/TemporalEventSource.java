@@ -1,26 +1,82 @@
 package gov.nasa.jpl.aerie.merlin.driver.timeline;
 
+import gov.nasa.jpl.aerie.merlin.driver.engine.DerivedFrom;
 import gov.nasa.jpl.aerie.merlin.driver.engine.SlabList;
 import gov.nasa.jpl.aerie.merlin.protocol.driver.Topic;
 import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
-import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
 
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Iterator;
-import java.util.Set;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+public final class TemporalEventSource implements EventSource, Iterable<TemporalEventSource.TimePoint> {
+  private final SlabList<TimePoint> points;
+
+  /** Every commit on this timeline, in order. */
+  @DerivedFrom("points")
+  private final List<TimePoint.Commit> commits = new ArrayList<>();
+  /** The time elapsed (in microseconds) before each commit on this timeline. */
+  @DerivedFrom("points")
+  private final LongArrayList commitOffsets = new LongArrayList();
+  /** A dense id for every topic seen on this timeline, whether in a commit or by a cell catching up. */
+  private final Reference2IntOpenHashMap<Topic<?>> topicIds = new Reference2IntOpenHashMap<>();
+  /** The (increasing) indices into `commits` of every commit containing an event on a given topic, by topic id. */
+  @DerivedFrom("points")
+  private final List<IntArrayList> commitsByTopic = new ArrayList<>();
+  /** The total time elapsed (in microseconds) over this timeline. */
+  @DerivedFrom("points")
+  private long elapsedMicros = 0;
+
+  /** Told how many commits were applied each time a cell is caught up, if anyone is listening. */
+  private IntConsumer catchUpListener = null;
 
-public record TemporalEventSource(SlabList<TimePoint> points) implements EventSource, Iterable<TemporalEventSource.TimePoint> {
   public TemporalEventSource() {
-    this(new SlabList<>());
+    this.points = new SlabList<>();
+    this.topicIds.defaultReturnValue(-1);
+  }
+
+  public SlabList<TimePoint> points() {
+    return this.points;
+  }
+
+  /** Report the number of commits applied each time a cell reading from this timeline is caught up. */
+  public void setCatchUpListener(final IntConsumer listener) {
+    this.catchUpListener = listener;
   }
 
   public void add(final Duration delta) {
     if (delta.isZero()) return;
     this.points.append(new TimePoint.Delta(delta));
+    this.elapsedMicros = Math.addExact(this.elapsedMicros, delta.in(Duration.MICROSECOND));
   }
 
   public void add(final EventGraph<Event> graph) {
     if (graph instanceof EventGraph.Empty) return;
-    this.points.append(new TimePoint.Commit(graph, extractTopics(graph)));
+    final var commit = new TimePoint.Commit(graph, this.extractTopics(graph));
+    this.points.append(commit);
+
+    final var index = this.commits.size();
+    this.commits.add(commit);
+    this.commitOffsets.add(this.elapsedMicros);
+    for (var id = commit.topics().nextSetBit(0); id >= 0; id = commit.topics().nextSetBit(id + 1)) {
+      this.commitsByTopic.get(id).add(index);
+    }
+  }
+
+  /** Get the dense id of the given topic on this timeline, assigning it one if it has none yet. */
+  private int topicId(final Topic<?> topic) {
+    var id = this.topicIds.getInt(topic);
+    if (id < 0) {
+      id = this.commitsByTopic.size();
+      this.topicIds.put(topic, id);
+      this.commitsByTopic.add(new IntArrayList());
+    }
+    return id;
   }
 
   @Override
@@ -33,48 +89,125 @@ public record TemporalEventSource(SlabList<TimePoint> points) implements EventSo
     return new TemporalCursor();
   }
 
+  /**
+   * A cursor which catches a cell up by visiting only the commits on topics the cell is interested in,
+   * stepping the cell over the total time elapsed between them.
+   */
   public final class TemporalCursor implements Cursor {
-    private final SlabList<TimePoint>.SlabIterator iterator = TemporalEventSource.this.points.iterator();
+    /** The index of the next commit this cursor has not yet observed. */
+    private int nextCommit = 0;
+    /** The time (in microseconds) up to which this cursor has stepped its cell. */
+    private long offsetMicros = 0;
+    /** The ids of the topics this cursor's cell is interested in, once it has been stepped up. */
+    private int[] topicIds = null;
 
     private TemporalCursor() {}
 
     @Override
     public void stepUp(final Cell<?> cell) {
-      while (this.iterator.hasNext()) {
-        final var point = this.iterator.next();
+      final var end = TemporalEventSource.this.commits.size();
+      // A cursor only ever steps up the one cell it was created for, so its topics can be resolved just once.
+      if (this.topicIds == null) {
+        final var topics = cell.getTopics();
+        this.topicIds = new int[topics.length];
+        for (var i = 0; i < topics.length; i += 1) this.topicIds[i] = TemporalEventSource.this.topicId(topics[i]);
+      }
 
-        if (point instanceof TimePoint.Delta p) {
-          cell.step(p.delta());
-        } else if (point instanceof TimePoint.Commit p) {
-          if (cell.isInterestedIn(p.topics())) cell.apply(p.events());
+      if (this.nextCommit < end) {
+        final int applied;
+        if (this.topicIds.length == 1) {
+          // Bail out as fast as possible if we're in a trivial (and incredibly common) case.
+          final var indices = TemporalEventSource.this.commitsByTopic.get(this.topicIds[0]);
+          final var start = lowerBound(indices, this.nextCommit);
+          for (var i = start; i < indices.size(); i += 1) {
+            applyCommit(cell, indices.getInt(i));
+          }
+          applied = indices.size() - start;
         } else {
-          throw new IllegalStateException();
+          applied = applyCommits(cell, end);
         }
+        this.nextCommit = end;
+
+        final var listener = TemporalEventSource.this.catchUpListener;
+        if (listener != null) listener.accept(applied);
+      }
+
+      stepTo(cell, TemporalEventSource.this.elapsedMicros);
+    }
+
+    // Merge the per-topic commit indices, so that commits are applied in timeline order and at most once each.
+    private int applyCommits(final Cell<?> cell, final int end) {
+      final var count = this.topicIds.length;
+      final var indices = new IntArrayList[count];
+      final var positions = new int[count];
+      for (var i = 0; i < count; i += 1) {
+        indices[i] = TemporalEventSource.this.commitsByTopic.get(this.topicIds[i]);
+        positions[i] = lowerBound(indices[i], this.nextCommit);
       }
+
+      var applied = 0;
+      while (true) {
+        var next = end;
+        for (var i = 0; i < count; i += 1) {
+          if (positions[i] >= indices[i].size()) continue;
+          next = Math.min(next, indices[i].getInt(positions[i]));
+        }
+        if (next == end) return applied;
+
+        for (var i = 0; i < count; i += 1) {
+          if (positions[i] >= indices[i].size()) continue;
+          if (indices[i].getInt(positions[i]) == next) positions[i] += 1;
+        }
+
+        applyCommit(cell, next);
+        applied += 1;
+      }
+    }
+
+    private void applyCommit(final Cell<?> cell, final int index) {
+      stepTo(cell, TemporalEventSource.this.commitOffsets.getLong(index));
+      cell.apply(TemporalEventSource.this.commits.get(index).events());
+    }
+
+    private void stepTo(final Cell<?> cell, final long offsetMicros) {
+      if (offsetMicros == this.offsetMicros) return;
+      cell.step(Duration.of(offsetMicros - this.offsetMicros, Duration.MICROSECOND));
+      this.offsetMicros = offsetMicros;
+    }
+  }
+
+  /** Find the position of the first index no smaller than the given commit index. */
+  private static int lowerBound(final IntArrayList indices, final int commit) {
+    var low = 0;
+    var high = indices.size();
+    while (low < high) {
+      final var mid = (low + high) >>> 1;
+      if (indices.getInt(mid) < commit) low = mid + 1;
+      else high = mid;
     }
+    return low;
   }
 
 
-  private static Set<Topic<?>> extractTopics(final EventGraph<Event> graph) {
-    final var set = new ReferenceOpenHashSet<Topic<?>>();
-    extractTopics(set, graph);
-    set.trim();
+  private BitSet extractTopics(final EventGraph<Event> graph) {
+    final var set = new BitSet(this.commitsByTopic.size());
+    this.extractTopics(set, graph);
     return set;
   }
 
-  private static void extractTopics(final Set<Topic<?>> accumulator, EventGraph<Event> graph) {
+  private void extractTopics(final BitSet accumulator, EventGraph<Event> graph) {
     while (true) {
       if (graph instanceof EventGraph.Empty) {
         // There are no events here!
         return;
       } else if (graph instanceof EventGraph.Atom<Event> g) {
-        accumulator.add(g.atom().topic());
+        accumulator.set(this.topicId(g.atom().topic()));
         return;
       } else if (graph instanceof EventGraph.Sequentially<Event> g) {
-        extractTopics(accumulator, g.prefix());
+        this.extractTopics(accumulator, g.prefix());
         graph = g.suffix();
       } else if (graph instanceof EventGraph.Concurrently<Event> g) {
-        extractTopics(accumulator, g.left());
+        this.extractTopics(accumulator, g.left());
         graph = g.right();
       } else {
         throw new IllegalArgumentException();
@@ -84,7 +217,8 @@ public record TemporalEventSource(SlabList<TimePoint> points) implements EventSo
 
   public sealed interface TimePoint {
     record Delta(Duration delta) implements TimePoint {}
-    record Commit(EventGraph<Event> events, Set<Topic<?>> topics) implements TimePoint {}
+    /** A set of events, along with the ids (on the timeline holding it) of the topics they occur on. */
+    record Commit(EventGraph<Event> events, BitSet topics) implements TimePoint {}
   }
 
   public void freeze() {
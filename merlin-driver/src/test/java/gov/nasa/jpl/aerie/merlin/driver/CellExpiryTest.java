@@ -1,6 +1,12 @@
 package gov.nasa.jpl.aerie.merlin.driver;
 
+import gov.nasa.jpl.aerie.merlin.driver.engine.EngineMetricsListener;
 import gov.nasa.jpl.aerie.merlin.driver.engine.ProfileSegment;
+import gov.nasa.jpl.aerie.merlin.driver.engine.SimulationEngine;
+import gov.nasa.jpl.aerie.merlin.driver.resources.InMemorySimulationResourceManager;
+import gov.nasa.jpl.aerie.merlin.driver.resources.ResourceProfiles;
+import gov.nasa.jpl.aerie.merlin.driver.resources.SimulationResourceManager;
+import gov.nasa.jpl.aerie.merlin.protocol.driver.CellId;
 import gov.nasa.jpl.aerie.merlin.protocol.driver.Querier;
 import gov.nasa.jpl.aerie.merlin.protocol.driver.Topic;
 import gov.nasa.jpl.aerie.merlin.protocol.model.CellType;
@@ -8,8 +14,10 @@ import gov.nasa.jpl.aerie.merlin.protocol.model.EffectTrait;
 import gov.nasa.jpl.aerie.merlin.protocol.model.OutputType;
 import gov.nasa.jpl.aerie.merlin.protocol.model.Resource;
 import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.RealDynamics;
 import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
 import gov.nasa.jpl.aerie.merlin.protocol.types.ValueSchema;
+import org.apache.commons.lang3.tuple.Pair;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
@@ -17,6 +25,9 @@ import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.DoubleFunction;
+import java.util.function.Function;
 
 import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.MILLISECONDS;
 import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.duration;
@@ -61,6 +72,223 @@ public final class CellExpiryTest {
     assertEquals(expected, actual);
   }
 
+  @Test
+  @DisplayName("Re-queried resource samples are dropped when unchanged, if requested")
+  public void testUnchangedResourceSamplesAreDropped() {
+    final var model = makeModel("/key", "value", MILLISECONDS.times(500));
+
+    final var now = Instant.now();
+    final var results = SimulationDriver.simulate(
+        model,
+        Map.of(),
+        now,
+        Duration.SECONDS.times(5),
+        now,
+        Duration.SECONDS.times(5),
+        () -> false,
+        $ -> {},
+        new InMemorySimulationResourceManager(),
+        new SimulationEngine.Options(1, true, false, false, EngineMetricsListener.NONE));
+
+    final var actual = results.discreteProfiles.get("/key").segments();
+    final var expected = List.of(new ProfileSegment<>(Duration.SECONDS.times(5), SerializedValue.of("value")));
+
+    assertEquals(expected, actual);
+  }
+
+  @Test
+  @DisplayName("Re-queried real samples are kept when they restart the resource's trajectory")
+  public void testRestartedRealResourceSamplesAreKept() {
+    // Every sample starts back at zero, so the resource's value drops at every re-query despite equal dynamics.
+    final var model = makeRealModel("/clock", MILLISECONDS.times(500), $ -> RealDynamics.linear(0, 1));
+
+    final var expected = simulate(model, SimulationEngine.Options.DEFAULT);
+    final var actual = simulate(model, new SimulationEngine.Options(1, true, false, false, EngineMetricsListener.NONE));
+
+    assertEquals(11, actual.realProfiles.get("/clock").segments().size());
+    assertEquals(expected.realProfiles, actual.realProfiles);
+  }
+
+  @Test
+  @DisplayName("Re-queried real samples are dropped when they continue the previous sample")
+  public void testContinuedRealResourceSamplesAreDropped() {
+    final var model = makeRealModel("/clock", MILLISECONDS.times(500), elapsed -> RealDynamics.linear(elapsed, 1));
+
+    final var actual = simulate(model, new SimulationEngine.Options(1, true, false, false, EngineMetricsListener.NONE));
+    final var expected = List.of(new ProfileSegment<>(Duration.SECONDS.times(5), RealDynamics.linear(0, 1)));
+
+    assertEquals(expected, actual.realProfiles.get("/clock").segments());
+  }
+
+  @Test
+  @DisplayName("Resource samples serialized off the engine thread match those serialized inline")
+  public void testDeferredSerializationMatchesInlineSerialization() {
+    final var model = makeModel("/key", "value", MILLISECONDS.times(500));
+
+    final var now = Instant.now();
+    final var expected = SimulationDriver.simulate(
+        model,
+        Map.of(),
+        now,
+        Duration.SECONDS.times(5),
+        now,
+        Duration.SECONDS.times(5),
+        () -> false);
+    final var actual = SimulationDriver.simulate(
+        model,
+        Map.of(),
+        now,
+        Duration.SECONDS.times(5),
+        now,
+        Duration.SECONDS.times(5),
+        () -> false,
+        $ -> {},
+        new InMemorySimulationResourceManager(),
+        new SimulationEngine.Options(1, false, true, false, EngineMetricsListener.NONE));
+
+    assertEquals(expected.discreteProfiles, actual.discreteProfiles);
+    assertEquals(expected.realProfiles, actual.realProfiles);
+  }
+
+  @Test
+  @DisplayName("Samples of resources with mutable dynamics are serialized as they are sampled, even if deferring")
+  public void testMutableDynamicsAreNotDeferred() {
+    // The resource hands out the same buffer every time it is sampled, overwriting the earlier samples.
+    final var buffer = new double[1];
+    final var model = makeClockModel("/clock", MILLISECONDS.times(500), clock -> new Resource<double[]>() {
+      @Override
+      public OutputType<double[]> getOutputType() {
+        return new OutputType<>() {
+          @Override
+          public ValueSchema getSchema() {
+            return ValueSchema.REAL;
+          }
+
+          @Override
+          public SerializedValue serialize(final double[] value) {
+            return SerializedValue.of(value[0]);
+          }
+        };
+      }
+
+      @Override
+      public String getType() {
+        return "discrete";
+      }
+
+      @Override
+      public double[] getDynamics(final Querier querier) {
+        buffer[0] = querier.getState(clock)[0];
+        return buffer;
+      }
+    });
+
+    final var expected = simulate(model, SimulationEngine.Options.DEFAULT);
+
+    // Accept samples slowly, so that the engine samples the resource again before earlier samples are consumed.
+    final var resourceManager = new InMemorySimulationResourceManager();
+    final var now = Instant.now();
+    final var actual = SimulationDriver.simulate(
+        model,
+        Map.of(),
+        now,
+        Duration.SECONDS.times(5),
+        now,
+        Duration.SECONDS.times(5),
+        () -> false,
+        $ -> {},
+        new SimulationResourceManager() {
+          @Override
+          public ResourceProfiles computeProfiles(final Duration elapsedDuration) {
+            return resourceManager.computeProfiles(elapsedDuration);
+          }
+
+          @Override
+          public ResourceProfiles computeProfiles(final Duration elapsedDuration, final Set<String> resources) {
+            return resourceManager.computeProfiles(elapsedDuration, resources);
+          }
+
+          @Override
+          public void acceptUpdates(
+              final Duration elapsedTime,
+              final Map<String, Pair<ValueSchema, RealDynamics>> realResourceUpdates,
+              final Map<String, Pair<ValueSchema, SerializedValue>> discreteResourceUpdates)
+          {
+            try {
+              Thread.sleep(10);
+            } catch (final InterruptedException ex) {
+              throw new RuntimeException(ex);
+            }
+            resourceManager.acceptUpdates(elapsedTime, realResourceUpdates, discreteResourceUpdates);
+          }
+        },
+        new SimulationEngine.Options(1, false, true, false, EngineMetricsListener.NONE));
+
+    assertEquals(SerializedValue.of(0.5), expected.discreteProfiles.get("/clock").segments().get(1).dynamics());
+    assertEquals(expected.discreteProfiles, actual.discreteProfiles);
+  }
+
+  @Test
+  @DisplayName("Samples of resources with immutable dynamics serialized off the engine thread match those serialized inline")
+  public void testDeferredImmutableDynamicsMatchInlineSerialization() {
+    final var model = makeClockModel(
+        "/clock",
+        MILLISECONDS.times(500),
+        clock -> TestCells.realResource(true, $ -> RealDynamics.linear($.getState(clock)[0], 1)));
+
+    final var expected = simulate(model, SimulationEngine.Options.DEFAULT);
+    final var actual = simulate(model, new SimulationEngine.Options(1, false, true, false, EngineMetricsListener.NONE));
+
+    assertEquals(11, actual.realProfiles.get("/clock").segments().size());
+    assertEquals(expected.realProfiles, actual.realProfiles);
+  }
+
+  @Test
+  @DisplayName("Engine metrics count every resource sample")
+  public void testMetricsCountResourceSamples() {
+    final var model = makeModel("/key", "value", MILLISECONDS.times(500));
+    final var metrics = new SimulationMetrics();
+
+    final var now = Instant.now();
+    SimulationDriver.simulate(
+        model,
+        Map.of(),
+        now,
+        Duration.SECONDS.times(5),
+        now,
+        Duration.SECONDS.times(5),
+        () -> false,
+        $ -> {},
+        new InMemorySimulationResourceManager(),
+        SimulationEngine.Options.DEFAULT.withMetrics(metrics));
+
+    final var report = metrics.report();
+    assertEquals(Map.of("/key", 11L), report.resourceSamples());
+    assertEquals(Long.valueOf(11), report.jobsByKind().get("resource"));
+  }
+
+  @Test
+  @DisplayName("A duplicated engine reports to the metrics listener it is given")
+  public void testDuplicatesReportToTheirOwnMetrics() throws Throwable {
+    final var model = makeModel("/key", "value", MILLISECONDS.times(500));
+    final var original = new SimulationMetrics();
+    final var resumed = new SimulationMetrics();
+
+    final var engine = CachedSimulationEngine
+        .empty(model, Instant.now(), SimulationEngine.Options.DEFAULT.withMetrics(original))
+        .simulationEngine();
+    while (engine.step(Duration.SECONDS.times(2)) instanceof SimulationEngine.Status.Nominal) {}
+    final var duplicate = engine.duplicate(resumed);
+    while (duplicate.step(Duration.SECONDS.times(5)) instanceof SimulationEngine.Status.Nominal) {}
+    duplicate.close();
+    engine.close();
+
+    final long before = original.report().resourceSamples().get("/key");
+    final long after = resumed.report().resourceSamples().get("/key");
+    assertEquals(11, before + after);
+    assertEquals(6, after);
+  }
+
   private MissionModel<?> makeModel(
       final String resourceName,
       final String resourceValue,
@@ -149,4 +377,46 @@ public final class CellExpiryTest {
 
     return initializer.build(ref, new DirectiveTypeRegistry<>(Map.of()));
   }
+
+  private static SimulationResults simulate(final MissionModel<?> model, final SimulationEngine.Options options) {
+    final var now = Instant.now();
+    return SimulationDriver.simulate(
+        model,
+        Map.of(),
+        now,
+        Duration.SECONDS.times(5),
+        now,
+        Duration.SECONDS.times(5),
+        () -> false,
+        $ -> {},
+        new InMemorySimulationResourceManager(),
+        options);
+  }
+
+  /**
+   * A model with a real resource computed from a clock cell, which counts the seconds elapsed since the start of the
+   * simulation and expires at the given period.
+   */
+  private static MissionModel<?> makeRealModel(
+      final String resourceName,
+      final Duration expiry,
+      final DoubleFunction<RealDynamics> dynamics
+  ) {
+    return makeClockModel(resourceName, expiry, clock -> TestCells.realResource(false, $ -> dynamics.apply($.getState(clock)[0])));
+  }
+
+  /** A model with a resource computed from a clock cell that expires at the given period. */
+  private static MissionModel<?> makeClockModel(
+      final String resourceName,
+      final Duration expiry,
+      final Function<CellId<double[]>, Resource<?>> resource
+  ) {
+    final var initializer = new MissionModelBuilder();
+
+    final var clock = initializer.allocate(new double[] {0}, TestCells.clock(expiry), $ -> $, new Topic<>());
+
+    initializer.resource(resourceName, resource.apply(clock));
+
+    return initializer.build(clock, new DirectiveTypeRegistry<>(Map.of()));
+  }
 }
@@ -0,0 +1,216 @@
+package gov.nasa.jpl.aerie.merlin.driver;
+
+import gov.nasa.jpl.aerie.merlin.driver.engine.EngineMetricsListener;
+import gov.nasa.jpl.aerie.merlin.driver.engine.SimulationEngine;
+import gov.nasa.jpl.aerie.merlin.driver.resources.InMemorySimulationResourceManager;
+import gov.nasa.jpl.aerie.merlin.protocol.driver.CellId;
+import gov.nasa.jpl.aerie.merlin.protocol.driver.Querier;
+import gov.nasa.jpl.aerie.merlin.protocol.driver.Topic;
+import gov.nasa.jpl.aerie.merlin.protocol.model.CellType;
+import gov.nasa.jpl.aerie.merlin.protocol.model.EffectTrait;
+import gov.nasa.jpl.aerie.merlin.protocol.model.OutputType;
+import gov.nasa.jpl.aerie.merlin.protocol.model.Resource;
+import gov.nasa.jpl.aerie.merlin.protocol.model.TaskFactory;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.InSpan;
+import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+import gov.nasa.jpl.aerie.merlin.protocol.types.TaskStatus;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Unit;
+import gov.nasa.jpl.aerie.merlin.protocol.types.ValueSchema;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+
+import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.MINUTE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public final class ParallelJobsTest {
+  private static final int WORKERS = 64;
+
+  private static final Topic<Long> increments = new Topic<>();
+  private static final Topic<Unit> workerInput = new Topic<>();
+  private static final Topic<Unit> workerOutput = new Topic<>();
+  private static final Topic<Unit> helperInput = new Topic<>();
+  private static final Topic<Unit> helperOutput = new Topic<>();
+
+  @Test
+  @DisplayName("Jobs performed in parallel give the same results as jobs performed serially")
+  public void testParallelJobsMatchSerialJobs() {
+    final var model = makeModel();
+
+    final var serial = simulate(model, 1);
+    final var parallel = simulate(model, 8);
+
+    assertEquals(SerializedValue.of(3L * WORKERS), serial.discreteProfiles.get("/count").segments().getLast().dynamics());
+    assertEquals(3 * WORKERS, serial.simulatedActivities.size());
+
+    assertEquals(serial.discreteProfiles, parallel.discreteProfiles);
+    assertEquals(serial.simulatedActivities, parallel.simulatedActivities);
+    assertEquals(serial.unfinishedActivities, parallel.unfinishedActivities);
+    assertEquals(serial.events, parallel.events);
+    assertEquals(serial, parallel);
+  }
+
+  @Test
+  @DisplayName("Jobs performed in parallel give the same results every time")
+  public void testParallelJobsAreDeterministic() {
+    final var model = makeModel();
+
+    final var expected = simulate(model, 8);
+    for (var i = 0; i < 5; i += 1) {
+      assertEquals(expected, simulate(model, 8));
+    }
+  }
+
+  private static SimulationResults simulate(final MissionModel<?> model, final int jobParallelism) {
+    final var start = Instant.EPOCH;
+    return SimulationDriver.simulate(
+        model,
+        Map.of(),
+        start,
+        Duration.HOUR,
+        start,
+        Duration.HOUR,
+        () -> false,
+        $ -> {},
+        new InMemorySimulationResourceManager(),
+        new SimulationEngine.Options(jobParallelism, false, false, false, EngineMetricsListener.NONE));
+  }
+
+  /**
+   * A model whose daemon starts many co-timed workers, each of which spawns and calls helper activities,
+   * counts itself and its helpers in a cell, and waits for every other worker to do the same.
+   */
+  private static MissionModel<?> makeModel() {
+    final var initializer = new MissionModelBuilder();
+
+    final var counter = initializer.allocate(
+        new long[] {0},
+        new CellType<Long, long[]>() {
+          @Override
+          public long[] duplicate(final long[] state) {
+            return state.clone();
+          }
+
+          @Override
+          public void apply(final long[] state, final Long effect) {
+            state[0] += effect;
+          }
+
+          @Override
+          public void step(final long[] state, final Duration duration) {
+            // no time-dependent state
+          }
+
+          @Override
+          public Optional<Duration> getExpiry(final long[] state) {
+            return Optional.empty();
+          }
+
+          @Override
+          public EffectTrait<Long> getEffectType() {
+            return new EffectTrait<>() {
+              @Override
+              public Long empty() {
+                return 0L;
+              }
+
+              @Override
+              public Long sequentially(final Long prefix, final Long suffix) {
+                return prefix + suffix;
+              }
+
+              @Override
+              public Long concurrently(final Long left, final Long right) {
+                return left + right;
+              }
+            };
+          }
+        },
+        $ -> $,
+        increments);
+
+    initializer.resource("/count", new Resource<Long>() {
+      @Override
+      public OutputType<Long> getOutputType() {
+        return new OutputType<>() {
+          @Override
+          public ValueSchema getSchema() {
+            return ValueSchema.INT;
+          }
+
+          @Override
+          public SerializedValue serialize(final Long value) {
+            return SerializedValue.of(value);
+          }
+        };
+      }
+
+      @Override
+      public String getType() {
+        return "discrete";
+      }
+
+      @Override
+      public Long getDynamics(final Querier querier) {
+        return querier.getState(counter)[0];
+      }
+    });
+
+    initializer.topic("ActivityType.Input.Worker", workerInput, unitType);
+    initializer.topic("ActivityType.Output.Worker", workerOutput, unitType);
+    initializer.topic("ActivityType.Input.Helper", helperInput, unitType);
+    initializer.topic("ActivityType.Output.Helper", helperOutput, unitType);
+
+    initializer.daemon(executor -> new OneStepTask<>($ -> {
+      for (var i = 0; i < WORKERS; i += 1) {
+        $.spawn(InSpan.Fresh, worker(counter, i));
+      }
+      return TaskStatus.completed(Unit.UNIT);
+    }));
+
+    return initializer.build(counter, new DirectiveTypeRegistry<>(Map.of()));
+  }
+
+  private static TaskFactory<Unit> worker(final CellId<long[]> counter, final int index) {
+    return executor -> new OneStepTask<>($ -> {
+      $.emit(Unit.UNIT, workerInput);
+      $.emit(1L, increments);
+      return TaskStatus.delayed(MINUTE.times(index % 3), new OneStepTask<>($$ -> {
+        $$.spawn(InSpan.Fresh, helper(index));
+        return TaskStatus.calling(InSpan.Fresh, helper(index), new OneStepTask<>($$$ -> TaskStatus.awaiting(
+            (now, atLatest) -> (now.getState(counter)[0] >= 3L * WORKERS) ? Optional.of(Duration.ZERO) : Optional.empty(),
+            new OneStepTask<>($$$$ -> {
+              $$$$.emit(Unit.UNIT, workerOutput);
+              return TaskStatus.completed(Unit.UNIT);
+            }))));
+      }));
+    });
+  }
+
+  private static TaskFactory<Unit> helper(final int index) {
+    return executor -> new OneStepTask<>($ -> {
+      $.emit(Unit.UNIT, helperInput);
+      $.emit(1L, increments);
+      return TaskStatus.delayed(MINUTE.times(index % 2), new OneStepTask<>($$ -> {
+        $$.emit(Unit.UNIT, helperOutput);
+        return TaskStatus.completed(Unit.UNIT);
+      }));
+    });
+  }
+
+  private static final OutputType<Unit> unitType = new OutputType<>() {
+    @Override
+    public ValueSchema getSchema() {
+      return ValueSchema.ofStruct(Map.of());
+    }
+
+    @Override
+    public SerializedValue serialize(final Unit value) {
+      return SerializedValue.of(Map.of());
+    }
+  };
+}
@@ -1,7 +1,13 @@
 package gov.nasa.jpl.aerie.merlin.driver;
 
+import gov.nasa.jpl.aerie.merlin.driver.engine.SimulationEngine;
 import gov.nasa.jpl.aerie.merlin.driver.resources.InMemorySimulationResourceManager;
+import gov.nasa.jpl.aerie.merlin.protocol.driver.Scheduler;
+import gov.nasa.jpl.aerie.merlin.protocol.model.Task;
+import gov.nasa.jpl.aerie.merlin.protocol.model.TaskFactory;
 import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.TaskStatus;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Unit;
 import gov.nasa.jpl.aerie.types.MissionModelId;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,7 +17,9 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
+import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.MINUTE;
 import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.MINUTES;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -72,6 +80,77 @@ public class SimulationDuplicationTest {
     assertEquals(expected, newResults);
   }
 
+  @Test
+  void testTasksAreDuplicatedOnlyOnceStepped() throws Throwable {
+    final var log = new TaskLog();
+    final var builder = new MissionModelBuilder();
+    final TaskFactory<Unit> daemon = executor -> new CountingTask(log);
+    builder.daemon(daemon);
+    final var model = builder.build(Unit.UNIT, new DirectiveTypeRegistry<>(Map.of()));
+
+    final var engine = new SimulationEngine(model.getInitialCells());
+    engine.init(model.getResources(), model.getDaemon());
+    assertEquals(List.of(0), log.steps);
+
+    final var copy = engine.duplicate();
+    final var unstepped = engine.duplicate();
+    assertEquals(0, log.duplicates);
+
+    // Stepping the shared task duplicates it first, leaving the original as it was for other duplicates.
+    copy.step(Duration.HOUR);
+    copy.step(Duration.HOUR);
+    assertEquals(1, log.duplicates);
+    final var other = engine.duplicate();
+    other.step(Duration.HOUR);
+    assertEquals(2, log.duplicates);
+    assertEquals(List.of(0, 1, 2, 1), log.steps);
+
+    // The original task is released only once no engine holds it any more.
+    engine.close();
+    assertEquals(0, log.releases);
+    unstepped.close();
+    assertEquals(1, log.releases);
+    copy.close();
+    other.close();
+    assertEquals(3, log.releases);
+  }
+
+  private static final class TaskLog {
+    final List<Integer> steps = new ArrayList<>();
+    int duplicates = 0;
+    int releases = 0;
+  }
+
+  /** A task which evolves in place, like a threaded task, waking up every minute. */
+  private static final class CountingTask implements Task<Unit> {
+    private final TaskLog log;
+    private int steps = 0;
+
+    CountingTask(final TaskLog log) {
+      this.log = log;
+    }
+
+    @Override
+    public TaskStatus<Unit> step(final Scheduler scheduler) {
+      this.log.steps.add(this.steps);
+      this.steps += 1;
+      return TaskStatus.delayed(MINUTE, this);
+    }
+
+    @Override
+    public Task<Unit> duplicate(final Executor executor) {
+      this.log.duplicates += 1;
+      final var task = new CountingTask(this.log);
+      task.steps = this.steps;
+      return task;
+    }
+
+    @Override
+    public void release() {
+      this.log.releases += 1;
+    }
+  }
+
   static SimulationResults simulateWithCheckpoints(
       final CachedSimulationEngine cachedEngine,
       final List<Duration> desiredCheckpoints,
@@ -0,0 +1,170 @@
+package gov.nasa.jpl.aerie.merlin.driver;
+
+import gov.nasa.jpl.aerie.merlin.protocol.driver.Querier;
+import gov.nasa.jpl.aerie.merlin.protocol.model.CellType;
+import gov.nasa.jpl.aerie.merlin.protocol.model.EffectTrait;
+import gov.nasa.jpl.aerie.merlin.protocol.model.OutputType;
+import gov.nasa.jpl.aerie.merlin.protocol.model.Resource;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.RealDynamics;
+import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+import gov.nasa.jpl.aerie.merlin.protocol.types.ValueSchema;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/** Cell types and resources for building small mission models in tests. */
+final class TestCells {
+  private TestCells() {}
+
+  /** A cell type without internal state, which ignores its effects and expires after the given delay, if any. */
+  static CellType<Object, Object> stateless(final Optional<Duration> expiry) {
+    return new CellType<>() {
+      @Override
+      public Object duplicate(final Object o) {
+        // no internal state
+        return o;
+      }
+
+      @Override
+      public void apply(final Object o, final Object o2) {
+        // no internal state
+      }
+
+      @Override
+      public void step(final Object o, final Duration duration) {
+        // no internal state
+      }
+
+      @Override
+      public Optional<Duration> getExpiry(final Object o) {
+        return expiry;
+      }
+
+      @Override
+      public EffectTrait<Object> getEffectType() {
+        return noEffects();
+      }
+    };
+  }
+
+  /** A cell type counting the seconds elapsed since the start of the simulation, which expires at the given period. */
+  static CellType<Object, double[]> clock(final Duration expiry) {
+    return new CellType<>() {
+      @Override
+      public double[] duplicate(final double[] state) {
+        return state.clone();
+      }
+
+      @Override
+      public void apply(final double[] state, final Object effect) {
+        // no effects
+      }
+
+      @Override
+      public void step(final double[] state, final Duration duration) {
+        state[0] += duration.ratioOver(Duration.SECONDS);
+      }
+
+      @Override
+      public Optional<Duration> getExpiry(final double[] state) {
+        return Optional.of(expiry);
+      }
+
+      @Override
+      public EffectTrait<Object> getEffectType() {
+        return noEffects();
+      }
+    };
+  }
+
+  /** A discrete string resource, whose value is computed by querying the model. */
+  static Resource<String> discreteResource(final Function<Querier, String> value) {
+    return new Resource<>() {
+      @Override
+      public OutputType<String> getOutputType() {
+        return new OutputType<>() {
+          @Override
+          public ValueSchema getSchema() {
+            return ValueSchema.STRING;
+          }
+
+          @Override
+          public SerializedValue serialize(final String value) {
+            return SerializedValue.of(value);
+          }
+        };
+      }
+
+      @Override
+      public String getType() {
+        return "discrete";
+      }
+
+      @Override
+      public String getDynamics(final Querier querier) {
+        return value.apply(querier);
+      }
+    };
+  }
+
+  /** A real resource, whose dynamics are computed by querying the model. */
+  static Resource<RealDynamics> realResource(
+      final boolean immutableDynamics,
+      final Function<Querier, RealDynamics> dynamics
+  ) {
+    return new Resource<>() {
+      @Override
+      public OutputType<RealDynamics> getOutputType() {
+        return new OutputType<>() {
+          @Override
+          public ValueSchema getSchema() {
+            return ValueSchema.ofStruct(Map.of("initial", ValueSchema.REAL, "rate", ValueSchema.REAL));
+          }
+
+          @Override
+          public SerializedValue serialize(final RealDynamics value) {
+            return SerializedValue.of(Map.of(
+                "initial", SerializedValue.of(value.initial),
+                "rate", SerializedValue.of(value.rate)));
+          }
+        };
+      }
+
+      @Override
+      public String getType() {
+        return "real";
+      }
+
+      @Override
+      public RealDynamics getDynamics(final Querier querier) {
+        return dynamics.apply(querier);
+      }
+
+      @Override
+      public boolean hasImmutableDynamics() {
+        return immutableDynamics;
+      }
+    };
+  }
+
+  private static EffectTrait<Object> noEffects() {
+    return new EffectTrait<>() {
+      @Override
+      public Object empty() {
+        return new Object();
+      }
+
+      @Override
+      public Object sequentially(final Object prefix, final Object suffix) {
+        return empty();
+      }
+
+      @Override
+      public Object concurrently(final Object left, final Object right) {
+        return empty();
+      }
+    };
+  }
+}
@@ -0,0 +1,78 @@
+package gov.nasa.jpl.aerie.merlin.driver;
+
+import gov.nasa.jpl.aerie.merlin.driver.engine.SimulationEngine;
+import gov.nasa.jpl.aerie.merlin.protocol.driver.Scheduler;
+import gov.nasa.jpl.aerie.merlin.protocol.driver.Topic;
+import gov.nasa.jpl.aerie.merlin.protocol.model.Task;
+import gov.nasa.jpl.aerie.merlin.protocol.model.TaskFactory;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.TaskStatus;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Unit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class TopicDependenciesTest {
+  private static final Topic<Object> topic = new Topic<>();
+
+  @Test
+  @DisplayName("Topics read and emitted by tasks, and read by resources, are recorded if requested")
+  public void testTopicDependenciesAreRecorded() throws Throwable {
+    final var model = makeModel();
+
+    try (final var engine = new SimulationEngine(
+        model.getInitialCells(),
+        SimulationEngine.Options.DEFAULT.withTopicDependencies(true)))
+    {
+      engine.init(model.getResources(), model.getDaemon());
+      while (engine.step(Duration.HOUR) instanceof SimulationEngine.Status.Nominal) {}
+
+      final var dependencies = engine.getTopicDependencies();
+      assertEquals(List.of(Set.of(topic)), List.copyOf(dependencies.topicsRead().values()));
+      assertEquals(List.of(Set.of(topic)), List.copyOf(dependencies.topicsWritten().values()));
+      assertEquals(Map.of(topic, Set.of("/key")), dependencies.resourcesByTopic());
+    }
+  }
+
+  @Test
+  @DisplayName("Topic dependencies are not available unless requested")
+  public void testTopicDependenciesAreNotRecordedByDefault() throws Throwable {
+    final var model = makeModel();
+
+    try (final var engine = new SimulationEngine(model.getInitialCells())) {
+      engine.init(model.getResources(), model.getDaemon());
+      assertThrows(IllegalStateException.class, engine::getTopicDependencies);
+    }
+  }
+
+  /** A model with a resource reading a cell, and a daemon which reads the cell and then emits to it. */
+  private static MissionModel<?> makeModel() {
+    final var initializer = new MissionModelBuilder();
+
+    final var ref = initializer.allocate(new Object(), TestCells.stateless(Optional.empty()), $ -> $, topic);
+
+    initializer.resource("/key", TestCells.discreteResource(querier -> {
+      querier.getState(ref);
+      return "value";
+    }));
+
+    final TaskFactory<Unit> daemon = executor -> new Task<>() {
+      @Override
+      public TaskStatus<Unit> step(final Scheduler scheduler) {
+        scheduler.get(ref);
+        scheduler.emit(new Object(), topic);
+        return TaskStatus.completed(Unit.UNIT);
+      }
+    };
+    initializer.daemon(daemon);
+
+    return initializer.build(ref, new DirectiveTypeRegistry<>(Map.of()));
+  }
+}
@@ -0,0 +1,124 @@
+package gov.nasa.jpl.aerie.merlin.driver.engine;
+
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Compares the heap-based {@link JobSchedule} against the map-based schedule it replaced,
+ * under a condition-heavy workload where most jobs are rescheduled before they are ever performed.
+ */
+public class JobScheduleBenchmark {
+  private static final int JOBS = 10_000;
+  private static final int OPERATIONS = 2_000_000;
+  private static final int RUNS = 10;
+
+  private interface Schedule {
+    void schedule(Integer job, SchedulingInstant time);
+    void unschedule(Integer job);
+    Set<Integer> extractNextJobs(Duration maximumTime);
+  }
+
+  /** The map-based schedule, as it was before being replaced by a heap. */
+  private static final class MapSchedule implements Schedule {
+    private final Map<Integer, SchedulingInstant> scheduledJobs = new HashMap<>();
+    private final ConcurrentSkipListMap<SchedulingInstant, Set<Integer>> queue = new ConcurrentSkipListMap<>();
+
+    @Override
+    public void schedule(final Integer job, final SchedulingInstant time) {
+      final var oldTime = this.scheduledJobs.put(job, time);
+      if (oldTime != null) removeJobFromQueue(oldTime, job);
+      this.queue.computeIfAbsent(time, $ -> new HashSet<>()).add(job);
+    }
+
+    @Override
+    public void unschedule(final Integer job) {
+      final var oldTime = this.scheduledJobs.remove(job);
+      if (oldTime != null) removeJobFromQueue(oldTime, job);
+    }
+
+    private void removeJobFromQueue(final SchedulingInstant time, final Integer job) {
+      final var jobsAtOldTime = this.queue.get(time);
+      jobsAtOldTime.remove(job);
+      if (jobsAtOldTime.isEmpty()) this.queue.remove(time);
+    }
+
+    @Override
+    public Set<Integer> extractNextJobs(final Duration maximumTime) {
+      if (this.queue.isEmpty()) return Collections.emptySet();
+      if (this.queue.firstKey().project().longerThan(maximumTime)) return Collections.emptySet();
+
+      final var entry = this.queue.pollFirstEntry();
+      entry.getValue().forEach(this.scheduledJobs::remove);
+      return entry.getValue();
+    }
+  }
+
+  private static final class HeapSchedule implements Schedule {
+    private final JobSchedule<Integer, SchedulingInstant> schedule = new JobSchedule<>();
+
+    @Override
+    public void schedule(final Integer job, final SchedulingInstant time) {
+      this.schedule.schedule(job, time);
+    }
+
+    @Override
+    public void unschedule(final Integer job) {
+      this.schedule.unschedule(job);
+    }
+
+    @Override
+    public Set<Integer> extractNextJobs(final Duration maximumTime) {
+      return this.schedule.extractNextJobs(maximumTime).jobs();
+    }
+  }
+
+  private static long run(final Schedule schedule) {
+    final var random = new Random(0);
+    var now = 0L;
+    var extracted = 0L;
+
+    for (var job = 0; job < JOBS; job += 1) {
+      schedule.schedule(job, SubInstant.Conditions.at(Duration.of(random.nextInt(1000), Duration.SECOND)));
+    }
+
+    for (var i = 0; i < OPERATIONS; i += 1) {
+      final Integer job = random.nextInt(JOBS);
+      switch (random.nextInt(8)) {
+        // Conditions are mostly rescheduled when their topics are invalidated.
+        case 0, 1, 2, 3, 4 -> schedule.schedule(job, SubInstant.Conditions.at(Duration.of(now, Duration.SECOND)));
+        case 5 -> schedule.schedule(job, SubInstant.Tasks.at(Duration.of(now + random.nextInt(1000), Duration.SECOND)));
+        case 6 -> schedule.unschedule(job);
+        case 7 -> {
+          final var batch = schedule.extractNextJobs(Duration.MAX_VALUE);
+          extracted += batch.size();
+          now += 1;
+        }
+      }
+    }
+
+    return extracted;
+  }
+
+  public static void main(final String[] args) {
+    for (final var name : new String[] {"map", "heap"}) {
+      // Warm up before measuring.
+      run(name.equals("map") ? new MapSchedule() : new HeapSchedule());
+
+      var total = 0L;
+      for (var i = 0; i < RUNS; i += 1) {
+        final var schedule = name.equals("map") ? new MapSchedule() : new HeapSchedule();
+        final var before = System.nanoTime();
+        run(schedule);
+        total += System.nanoTime() - before;
+      }
+      System.out.printf("%s schedule: %.1f ms/run%n", name, total / 1e6 / RUNS);
+    }
+  }
+}
@@ -0,0 +1,61 @@
+package gov.nasa.jpl.aerie.merlin.driver.engine;
+
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public final class JobScheduleTest {
+  @Test
+  public void batchesAreOrderedByTimeThenPriority() {
+    final var schedule = new JobSchedule<String, SchedulingInstant>();
+    schedule.schedule("resource", SubInstant.Resources.at(Duration.of(1, SECONDS)));
+    schedule.schedule("task", SubInstant.Tasks.at(Duration.of(1, SECONDS)));
+    schedule.schedule("condition", SubInstant.Conditions.at(Duration.of(1, SECONDS)));
+    schedule.schedule("early", SubInstant.Resources.at(Duration.ZERO));
+
+    assertEquals(Optional.of(Duration.ZERO), schedule.peekNextTime());
+    assertEquals(new JobSchedule.Batch<>(Duration.ZERO, Set.of("early")), schedule.extractNextJobs(Duration.MAX_VALUE));
+    assertEquals(Set.of("condition"), schedule.extractNextJobs(Duration.MAX_VALUE).jobs());
+    assertEquals(Set.of("task"), schedule.extractNextJobs(Duration.MAX_VALUE).jobs());
+    assertEquals(Set.of("resource"), schedule.extractNextJobs(Duration.MAX_VALUE).jobs());
+    assertEquals(Optional.empty(), schedule.peekNextTime());
+  }
+
+  @Test
+  public void reschedulingMovesAJob() {
+    final var schedule = new JobSchedule<String, SchedulingInstant>();
+    for (var i = 0; i < 100; i += 1) {
+      schedule.schedule("job" + i, SubInstant.Tasks.at(Duration.of(i, SECONDS)));
+    }
+    schedule.schedule("job50", SubInstant.Tasks.at(Duration.ZERO));
+    schedule.unschedule("job0");
+
+    final var copy = schedule.duplicate();
+    schedule.unschedule("job1");
+
+    assertEquals(new JobSchedule.Batch<>(Duration.ZERO, Set.of("job50")), schedule.extractNextJobs(Duration.MAX_VALUE));
+    assertEquals(Set.of("job2"), schedule.extractNextJobs(Duration.MAX_VALUE).jobs());
+    assertEquals(Set.of("job50"), copy.extractNextJobs(Duration.MAX_VALUE).jobs());
+    assertEquals(Set.of("job1"), copy.extractNextJobs(Duration.MAX_VALUE).jobs());
+
+
+    final var horizon = Duration.of(2, SECONDS).minus(Duration.EPSILON);
+    assertEquals(new JobSchedule.Batch<>(horizon, Set.of()), copy.extractNextJobs(horizon));
+  }
+
+  @Test
+  public void jobsAtTheSameInstantAreBatchedInSchedulingOrder() {
+    final var schedule = new JobSchedule<String, SchedulingInstant>();
+    schedule.schedule("b", SubInstant.Tasks.at(Duration.ZERO));
+    schedule.schedule("a", SubInstant.Tasks.at(Duration.ZERO));
+    schedule.schedule("c", SubInstant.Tasks.at(Duration.ZERO));
+
+    assertEquals(List.of("b", "a", "c"), List.copyOf(schedule.extractNextJobs(Duration.MAX_VALUE).jobs()));
+  }
+}
@@ -0,0 +1,172 @@
+package gov.nasa.jpl.aerie.merlin.driver.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class PersistentMapTest {
+  @Test
+  public void duplicatesAreIndependent() {
+    final var original = new PersistentMap<String, Integer>();
+    original.put("a", 1);
+    original.put("b", 2);
+
+    final var copy = original.duplicate();
+    original.put("a", 10);
+    original.remove("b");
+    copy.put("c", 3);
+
+    assertEquals(Map.of("a", 10), original);
+    assertEquals(Map.of("a", 1, "b", 2, "c", 3), copy);
+    assertEquals(1, original.size());
+    assertEquals(3, copy.size());
+  }
+
+  @Test
+  public void iterationFollowsInsertionOrder() {
+    final var map = new PersistentMap<String, Integer>();
+    final var expected = new LinkedHashMap<String, Integer>();
+
+    // Spread the entries' updates across many generations of duplicates.
+    var current = map;
+    for (var i = 0; i < 10; i += 1) {
+      current.put("key" + i, i);
+      expected.put("key" + i, i);
+      if (i % 3 == 0) {
+        current.put("key0", -i);
+        expected.put("key0", -i);
+      }
+      current = current.duplicate();
+    }
+    current.remove("key5");
+    expected.remove("key5");
+
+    assertEquals(List.copyOf(expected.keySet()), List.copyOf(current.keySet()));
+    assertEquals(expected, current);
+  }
+
+  @Test
+  public void reinsertedKeysMoveToTheEnd() {
+    final var map = new PersistentMap<String, Integer>();
+    map.put("a", 1);
+    map.put("b", 2);
+    map.put("c", 3);
+
+    final var copy = map.duplicate();
+    map.remove("a");
+    map.put("a", 4);
+    map.put("b", 5);
+
+    assertEquals(List.of("b", "c", "a"), List.copyOf(map.keySet()));
+    assertEquals(List.of(5, 3, 4), List.copyOf(map.values()));
+    assertEquals(List.of("a", "b", "c"), List.copyOf(copy.keySet()));
+  }
+
+  @Test
+  public void viewsAreBackedByTheMap() {
+    final var map = new PersistentMap<String, Integer>();
+    final var entries = map.entrySet();
+    final var keys = map.keySet();
+
+    map.put("a", 1);
+    map.put("b", 2);
+    map.put("c", 3);
+    assertEquals(3, entries.size());
+    assertTrue(entries.contains(Map.entry("b", 2)));
+    assertFalse(entries.contains(Map.entry("b", 3)));
+
+    final var iterator = entries.iterator();
+    while (iterator.hasNext()) {
+      final var entry = iterator.next();
+      if (entry.getKey().equals("b")) iterator.remove();
+      else entry.setValue(entry.getValue() * 10);
+    }
+    assertEquals(Map.of("a", 10, "c", 30), map);
+
+    keys.remove("a");
+    assertEquals(Map.of("c", 30), map);
+    assertEquals(List.of("c"), List.copyOf(keys));
+
+    entries.clear();
+    assertTrue(map.isEmpty());
+  }
+
+  @Test
+  public void iteratorsFailFastOnStructuralModification() {
+    final var map = new PersistentMap<String, Integer>();
+    map.put("a", 1);
+    map.put("b", 2);
+
+    final var iterator = map.keySet().iterator();
+    iterator.next();
+    map.put("c", 3);
+    assertThrows(ConcurrentModificationException.class, iterator::next);
+  }
+
+  @Test
+  public void collidingKeysAreKeptApart() {
+    final var map = new PersistentMap<Colliding, Integer>();
+    for (var i = 0; i < 10; i += 1) map.put(new Colliding(i), i);
+
+    final var copy = map.duplicate();
+    map.remove(new Colliding(3));
+    map.put(new Colliding(4), 40);
+
+    assertEquals(9, map.size());
+    assertEquals(null, map.get(new Colliding(3)));
+    assertEquals(Integer.valueOf(40), map.get(new Colliding(4)));
+    assertEquals(Integer.valueOf(3), copy.get(new Colliding(3)));
+    assertEquals(Integer.valueOf(4), copy.get(new Colliding(4)));
+  }
+
+  @Test
+  public void agreesWithLinkedHashMapAcrossDuplicates() {
+    final var random = new Random(0);
+
+    final var maps = new ArrayList<PersistentMap<Integer, Integer>>();
+    final var models = new ArrayList<LinkedHashMap<Integer, Integer>>();
+    maps.add(new PersistentMap<>());
+    models.add(new LinkedHashMap<>());
+
+    for (var step = 0; step < 20_000; step += 1) {
+      final var which = random.nextInt(maps.size());
+      final var map = maps.get(which);
+      final var model = models.get(which);
+      final var key = random.nextInt(2_000);
+
+      switch (random.nextInt(10)) {
+        case 0, 1, 2, 3 -> assertEquals(model.put(key, step), map.put(key, step));
+        case 4, 5, 6 -> assertEquals(model.remove(key), map.remove(key));
+        case 7, 8 -> assertEquals(model.get(key), map.get(key));
+        default -> {
+          if (maps.size() < 8) {
+            maps.add(map.duplicate());
+            models.add(new LinkedHashMap<>(model));
+          }
+        }
+      }
+    }
+
+    for (var i = 0; i < maps.size(); i += 1) {
+      assertEquals(models.get(i).size(), maps.get(i).size());
+      assertEquals(List.copyOf(models.get(i).entrySet()), List.copyOf(maps.get(i).entrySet()));
+    }
+  }
+
+  private record Colliding(int id) {
+    @Override
+    public int hashCode() {
+      return 42;
+    }
+  }
+}
@@ -0,0 +1,56 @@
+package gov.nasa.jpl.aerie.merlin.driver.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public final class SubscriptionsTest {
+  @Test
+  public void invalidationUnsubscribesFromEveryTopic() {
+    final var subscriptions = new Subscriptions<String, String>();
+    subscriptions.subscribeQuery("q1", Set.of("a", "b"));
+    subscriptions.subscribeQuery("q2", Set.of("b"));
+
+    assertEquals(List.of("q1", "q2"), subscriptions.invalidateTopic("b"));
+    assertEquals(List.of(), subscriptions.invalidateTopic("a"));
+    assertEquals(List.of(), subscriptions.invalidateTopic("b"));
+  }
+
+  @Test
+  public void resubscribingReplacesPreviousTopics() {
+    final var subscriptions = new Subscriptions<String, String>();
+    subscriptions.subscribeQuery("q", Set.of("a"));
+    subscriptions.subscribeQuery("q", Set.of("b"));
+
+    assertEquals(List.of(), subscriptions.invalidateTopic("a"));
+    assertEquals(List.of("q"), subscriptions.invalidateTopic("b"));
+  }
+
+  @Test
+  public void reusedIdsDoNotResurrectStaleSubscriptions() {
+    final var subscriptions = new Subscriptions<String, String>();
+    subscriptions.subscribeQuery("q1", Set.of("a"));
+    subscriptions.unsubscribeQuery("q1");
+    subscriptions.subscribeQuery("q2", Set.of("b"));
+
+    final var copy = subscriptions.duplicate();
+    subscriptions.unsubscribeQuery("q2");
+
+    assertEquals(List.of(), copy.invalidateTopic("a"));
+    assertEquals(List.of("q2"), copy.invalidateTopic("b"));
+    assertEquals(List.of(), subscriptions.invalidateTopic("b"));
+  }
+
+  @Test
+  public void repeatedSubscriptionsAreInvalidatedOnce() {
+    final var subscriptions = new Subscriptions<String, String>();
+    for (var i = 0; i < 10_000; i += 1) {
+      subscriptions.subscribeQuery("q" + (i % 3), Set.of("a"));
+    }
+
+    assertEquals(List.of("q0", "q1", "q2"), subscriptions.invalidateTopic("a").stream().sorted().toList());
+  }
+}
@@ -0,0 +1,170 @@
+package gov.nasa.jpl.aerie.merlin.driver.resources;
+
+import gov.nasa.jpl.aerie.merlin.driver.engine.ProfileSegment;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+import gov.nasa.jpl.aerie.merlin.protocol.types.ValueSchema;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class AsyncProfileStreamerTest {
+  @Test
+  public void chunksAreWrittenInOrderBeforeFlushReturns() {
+    final var written = Collections.synchronizedList(new ArrayList<String>());
+    final ResourceProfileStreamer writer = new ResourceProfileStreamer() {
+      @Override
+      public void accept(final ResourceProfiles profiles) {
+        written.add(label(profiles));
+      }
+
+      @Override
+      public void flush() {
+        written.add("flush");
+      }
+    };
+
+    final var expected = new ArrayList<String>();
+    try (final var streamer = new AsyncProfileStreamer(writer, 4)) {
+      for (var i = 0; i < 100; i += 1) {
+        streamer.accept(chunk(i));
+        expected.add(String.valueOf(i));
+      }
+      streamer.flush();
+      expected.add("flush");
+
+      assertEquals(expected, List.copyOf(written));
+    }
+  }
+
+  @Test
+  public void streamingBlocksWhileTheQueueIsFull() throws InterruptedException {
+    final var writing = new CountDownLatch(1);
+    final var release = new CountDownLatch(1);
+    final var written = Collections.synchronizedList(new ArrayList<String>());
+    final ResourceProfileStreamer writer = profiles -> {
+      writing.countDown();
+      try {
+        release.await();
+      } catch (final InterruptedException ex) {
+        throw new RuntimeException(ex);
+      }
+      written.add(label(profiles));
+    };
+
+    try (final var streamer = new AsyncProfileStreamer(writer, 1)) {
+      // The first chunk is taken by the writer, and the second fills the queue.
+      streamer.accept(chunk(0));
+      assertTrue(writing.await(10, TimeUnit.SECONDS));
+      streamer.accept(chunk(1));
+
+      final var accepted = new CountDownLatch(1);
+      final var producer = new Thread(() -> {
+        streamer.accept(chunk(2));
+        accepted.countDown();
+      });
+      producer.start();
+
+      assertFalse(accepted.await(200, TimeUnit.MILLISECONDS));
+
+      release.countDown();
+      assertTrue(accepted.await(10, TimeUnit.SECONDS));
+      producer.join();
+
+      streamer.flush();
+      assertEquals(List.of("0", "1", "2"), List.copyOf(written));
+    }
+  }
+
+  @Test
+  public void writerFailuresAreRaisedAndLaterChunksDiscarded() {
+    final var failure = new IllegalStateException("disk full");
+    final var queued = new CountDownLatch(1);
+    final var written = Collections.synchronizedList(new ArrayList<String>());
+    final ResourceProfileStreamer writer = profiles -> {
+      // Don't fail until every chunk has been queued, so that the failure is first seen by `flush`.
+      try {
+        queued.await();
+      } catch (final InterruptedException ex) {
+        throw new RuntimeException(ex);
+      }
+      if (label(profiles).equals("1")) throw failure;
+      written.add(label(profiles));
+    };
+
+    try (final var streamer = new AsyncProfileStreamer(writer, 4)) {
+      streamer.accept(chunk(0));
+      streamer.accept(chunk(1));
+      streamer.accept(chunk(2));
+      queued.countDown();
+
+      final var raised = assertThrows(RuntimeException.class, streamer::flush);
+      assertSame(failure, raised.getCause());
+
+      // The failure keeps being raised, and nothing after the failed chunk is written.
+      assertThrows(RuntimeException.class, () -> streamer.accept(chunk(3)));
+      assertEquals(List.of("0"), List.copyOf(written));
+    }
+  }
+
+  @Test
+  public void closingWritesWaitingChunks() {
+    final var written = Collections.synchronizedList(new ArrayList<String>());
+    final var streamer = new AsyncProfileStreamer(profiles -> written.add(label(profiles)), 4);
+    streamer.accept(chunk(0));
+    streamer.accept(chunk(1));
+    streamer.close();
+
+    assertEquals(List.of("0", "1"), List.copyOf(written));
+    assertThrows(IllegalStateException.class, () -> streamer.accept(chunk(2)));
+  }
+
+  @Test
+  public void streamingResourceManagerFlushesItsStreamerBeforeReturningProfiles() {
+    final var events = new ArrayList<String>();
+    final var resourceManager = new StreamingSimulationResourceManager(new ResourceProfileStreamer() {
+      @Override
+      public void accept(final ResourceProfiles profiles) {
+        events.add("accept");
+      }
+
+      @Override
+      public void flush() {
+        events.add("flush");
+      }
+    });
+
+    resourceManager.acceptUpdates(
+        Duration.ZERO,
+        Map.of(),
+        Map.of("/r", Pair.of(ValueSchema.INT, SerializedValue.of(0))));
+    resourceManager.computeProfiles(Duration.SECOND);
+
+    assertEquals(List.of("accept", "flush"), events);
+  }
+
+  private static ResourceProfiles chunk(final long label) {
+    return new ResourceProfiles(
+        Map.of(),
+        Map.of("/r", ResourceProfile.of(
+            ValueSchema.INT,
+            List.of(new ProfileSegment<>(Duration.ZERO, SerializedValue.of(label))))));
+  }
+
+  private static String label(final ResourceProfiles profiles) {
+    final var value = profiles.discreteProfiles().get("/r").segments().getFirst().dynamics();
+    return String.valueOf(value.asInt().orElseThrow());
+  }
+}
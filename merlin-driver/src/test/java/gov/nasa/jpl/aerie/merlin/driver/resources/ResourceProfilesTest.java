@@ -0,0 +1,44 @@
+package gov.nasa.jpl.aerie.merlin.driver.resources;
+
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.RealDynamics;
+import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+import gov.nasa.jpl.aerie.merlin.protocol.types.ValueSchema;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public final class ResourceProfilesTest {
+  @Test
+  public void replayReproducesProfiles() {
+    final var original = new InMemorySimulationResourceManager();
+    original.acceptUpdates(
+        Duration.ZERO,
+        Map.of("rate", Pair.of(ValueSchema.REAL, RealDynamics.linear(0, 1))),
+        Map.of("mode", Pair.of(ValueSchema.STRING, SerializedValue.of("off"))));
+    original.acceptUpdates(
+        Duration.of(5, Duration.SECONDS),
+        Map.of(),
+        Map.of("mode", Pair.of(ValueSchema.STRING, SerializedValue.of("on"))));
+    // A resource may change more than once at the same time.
+    original.acceptUpdates(
+        Duration.of(5, Duration.SECONDS),
+        Map.of("rate", Pair.of(ValueSchema.REAL, RealDynamics.linear(5, 0))),
+        Map.of("mode", Pair.of(ValueSchema.STRING, SerializedValue.of("standby"))));
+    original.acceptUpdates(
+        Duration.of(8, Duration.SECONDS),
+        Map.of("rate", Pair.of(ValueSchema.REAL, RealDynamics.linear(5, -1))),
+        Map.of());
+
+    final var end = Duration.of(10, Duration.SECONDS);
+    final var profiles = original.computeProfiles(end);
+
+    final var replayed = new InMemorySimulationResourceManager();
+    profiles.replayInto(replayed);
+
+    assertEquals(profiles, replayed.computeProfiles(end));
+  }
+}
@@ -0,0 +1,230 @@
+package gov.nasa.jpl.aerie.merlin.driver.timeline;
+
+import gov.nasa.jpl.aerie.merlin.driver.engine.SpanId;
+import gov.nasa.jpl.aerie.merlin.protocol.driver.Topic;
+import gov.nasa.jpl.aerie.merlin.protocol.model.CellType;
+import gov.nasa.jpl.aerie.merlin.protocol.model.EffectTrait;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public final class TemporalEventSourceTest {
+  private static final SpanId ORIGIN = SpanId.generate();
+
+  private final Topic<String> a = new Topic<>();
+  private final Topic<String> b = new Topic<>();
+
+  @Test
+  public void cellSkipsUnrelatedCommits() {
+    final var timeline = new TemporalEventSource();
+    final var applied = new ArrayList<Integer>();
+    timeline.setCatchUpListener(applied::add);
+    final var cell = new LiveCell<>(logCell(this.a), timeline.cursor());
+
+    for (var i = 0; i < 1000; i += 1) {
+      timeline.add(SECONDS);
+      timeline.add(EventGraph.atom(Event.create(this.b, "b" + i, ORIGIN)));
+      if (i == 500) timeline.add(EventGraph.atom(Event.create(this.a, "a", ORIGIN)));
+    }
+
+    assertEquals(List.of("a@501000000"), cell.get().getState().entries());
+    assertEquals(1000L * 1_000_000, cell.get().getState().elapsedMicros());
+    assertEquals(List.of(1), applied);
+  }
+
+  @Test
+  public void cellReadBetweenItsCommitsAppliesEachOnce() {
+    final var timeline = new TemporalEventSource();
+    final var cell = new LiveCell<>(logCell(this.a), timeline.cursor());
+
+    timeline.add(SECONDS);
+    timeline.add(EventGraph.atom(Event.create(this.a, "a1", ORIGIN)));
+    timeline.add(SECONDS);
+    timeline.add(EventGraph.atom(Event.create(this.b, "b1", ORIGIN)));
+    assertEquals(List.of("a1@1000000"), cell.get().getState().entries());
+
+    timeline.add(SECONDS);
+    timeline.add(EventGraph.atom(Event.create(this.a, "a2", ORIGIN)));
+    timeline.add(SECONDS);
+    timeline.add(EventGraph.atom(Event.create(this.a, "a3", ORIGIN)));
+
+    assertEquals(List.of("a1@1000000", "a2@3000000", "a3@4000000"), cell.get().getState().entries());
+    assertEquals(4_000_000L, cell.get().getState().elapsedMicros());
+  }
+
+  @Test
+  public void elapsedTimeIsSummedAcrossSkippedDeltas() {
+    final var timeline = new TemporalEventSource();
+    final var cell = new LiveCell<>(logCell(this.a), timeline.cursor());
+
+    var expected = 0L;
+    final var entries = new ArrayList<String>();
+    for (var i = 1; i <= 100; i += 1) {
+      // Deltas of varying lengths, with unrelated commits between most of them.
+      timeline.add(Duration.of(i, Duration.MILLISECONDS));
+      expected += i * 1000L;
+      if (i % 10 == 0) {
+        timeline.add(EventGraph.atom(Event.create(this.a, "a" + i, ORIGIN)));
+        entries.add("a" + i + "@" + expected);
+      } else {
+        timeline.add(EventGraph.atom(Event.create(this.b, "b" + i, ORIGIN)));
+      }
+
+      if (i % 25 == 0) {
+        assertEquals(entries, cell.get().getState().entries());
+        assertEquals(expected, cell.get().getState().elapsedMicros());
+      }
+    }
+
+    // The cell is only stepped to each of its commits, and to the end of the timeline when read past its last commit
+    // (after the 25th and 75th deltas), however many deltas lie between.
+    assertEquals(entries.size() + 2, cell.get().getState().steps());
+  }
+
+  @Test
+  public void commitsOnSeveralTopicsAreMergedInTimelineOrder() {
+    final var timeline = new TemporalEventSource();
+    final var applied = new ArrayList<Integer>();
+    timeline.setCatchUpListener(applied::add);
+    final var cell = new LiveCell<>(logCell(this.a, this.b), timeline.cursor());
+    final var c = new Topic<String>();
+
+    timeline.add(EventGraph.atom(Event.create(this.a, "a1", ORIGIN)));
+    timeline.add(SECONDS);
+    timeline.add(EventGraph.atom(Event.create(this.b, "b1", ORIGIN)));
+    timeline.add(EventGraph.concurrently(
+        EventGraph.atom(Event.create(this.a, "a2", ORIGIN)),
+        EventGraph.atom(Event.create(this.b, "b2", ORIGIN))));
+    timeline.add(SECONDS);
+    timeline.add(EventGraph.atom(Event.create(c, "c1", ORIGIN)));
+    timeline.add(EventGraph.atom(Event.create(this.b, "b3", ORIGIN)));
+    timeline.add(SECONDS);
+    timeline.add(EventGraph.sequentially(
+        EventGraph.atom(Event.create(c, "c2", ORIGIN)),
+        EventGraph.atom(Event.create(this.a, "a3", ORIGIN))));
+
+    // The commit holding both a2 and b2 is in the index of both topics, but is applied once.
+    assertEquals(
+        List.of("a1@0", "b1@1000000", "a2|b2@1000000", "b3@2000000", "a3@3000000"),
+        cell.get().getState().entries());
+    assertEquals(List.of(5), applied);
+  }
+
+  @Test
+  public void topicsFirstSeenAfterTheCursorResolvedItsTopics() {
+    final var timeline = new TemporalEventSource();
+    final var cell = new LiveCell<>(logCell(this.a, this.b), timeline.cursor());
+
+    // Nothing has been committed on either topic when the cursor first resolves them.
+    timeline.add(SECONDS);
+    assertEquals(List.of(), cell.get().getState().entries());
+
+    // Topics the cell does not listen to are first seen after its own, and are given ids after them.
+    final var c = new Topic<String>();
+    timeline.add(EventGraph.atom(Event.create(c, "c1", ORIGIN)));
+    timeline.add(SECONDS);
+    timeline.add(EventGraph.atom(Event.create(this.b, "b1", ORIGIN)));
+    timeline.add(EventGraph.atom(Event.create(c, "c2", ORIGIN)));
+    timeline.add(SECONDS);
+    timeline.add(EventGraph.atom(Event.create(this.a, "a1", ORIGIN)));
+    assertEquals(List.of("b1@2000000", "a1@3000000"), cell.get().getState().entries());
+
+    // A cell created afterwards resolves its topics against the ids already given out.
+    final var late = new LiveCell<>(logCell(c, this.a), timeline.cursor());
+    timeline.add(EventGraph.atom(Event.create(c, "c3", ORIGIN)));
+    assertEquals(List.of("c1@1000000", "c2@2000000", "a1@3000000", "c3@3000000"), late.get().getState().entries());
+    assertEquals(List.of("b1@2000000", "a1@3000000"), cell.get().getState().entries());
+  }
+
+  /** A cell listening to the given topics, which logs each effect applied to it with the time it had been stepped to. */
+  @SafeVarargs
+  private static Cell<Log> logCell(final Topic<String>... topics) {
+    @SuppressWarnings("unchecked")
+    final var rows = (Selector.SelectorRow<?, String>[]) new Selector.SelectorRow<?, ?>[topics.length];
+    for (var i = 0; i < topics.length; i += 1) rows[i] = new Selector.SelectorRow<>(topics[i], Function.identity());
+    return new Cell<>(new LogCellType(), new Selector<>(rows), new RecursiveEventGraphEvaluator(), new Log());
+  }
+
+  private static final class Log {
+    private final List<String> entries = new ArrayList<>();
+    private long elapsedMicros = 0;
+    private int steps = 0;
+
+    private Log() {}
+
+    private Log(final Log other) {
+      this.entries.addAll(other.entries);
+      this.elapsedMicros = other.elapsedMicros;
+      this.steps = other.steps;
+    }
+
+    public List<String> entries() {
+      return this.entries;
+    }
+
+    public long elapsedMicros() {
+      return this.elapsedMicros;
+    }
+
+    public int steps() {
+      return this.steps;
+    }
+  }
+
+  private static final class LogCellType implements CellType<String, Log> {
+    @Override
+    public Log duplicate(final Log log) {
+      return new Log(log);
+    }
+
+    @Override
+    public void apply(final Log log, final String effect) {
+      log.entries.add(effect + "@" + log.elapsedMicros);
+    }
+
+    @Override
+    public void step(final Log log, final Duration duration) {
+      log.elapsedMicros += duration.in(Duration.MICROSECOND);
+      log.steps += 1;
+    }
+
+    @Override
+    public Optional<Duration> getExpiry(final Log log) {
+      return Optional.empty();
+    }
+
+    @Override
+    public EffectTrait<String> getEffectType() {
+      return new EffectTrait<>() {
+        @Override
+        public String empty() {
+          return "";
+        }
+
+        @Override
+        public String sequentially(final String prefix, final String suffix) {
+          return join(prefix, suffix);
+        }
+
+        @Override
+        public String concurrently(final String left, final String right) {
+          // Concurrent effects have no order, so list them in a canonical one.
+          return (left.compareTo(right) <= 0) ? join(left, right) : join(right, left);
+        }
+      };
+    }
+
+    private static String join(final String first, final String second) {
+      if (first.isEmpty()) return second;
+      if (second.isEmpty()) return first;
+      return first + "|" + second;
+    }
+  }
+}
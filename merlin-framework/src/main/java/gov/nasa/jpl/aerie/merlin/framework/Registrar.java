@@ -24,7 +24,9 @@ public final class Registrar {
   }
 
   public <Value> void discrete(final String name, final Resource<Value> resource, final ValueMapper<Value> mapper) {
-    this.builder.resource(name, makeResource("discrete", resource, mapper.getValueSchema(), mapper::serializeValue));
+    this.builder.resource(
+        name,
+        makeResource("discrete", resource, mapper.getValueSchema(), mapper::serializeValue, false));
   }
 
   public void real(final String name, final Resource<RealDynamics> resource) {
@@ -46,14 +48,17 @@ public final class Registrar {
                 "rate", ValueSchema.REAL))),
             dynamics -> SerializedValue.of(Map.of(
                 "initial", SerializedValue.of(dynamics.initial),
-                "rate", SerializedValue.of(dynamics.rate)))));
+                "rate", SerializedValue.of(dynamics.rate))),
+            // `RealDynamics` cannot be mutated.
+            true));
   }
 
   private static <Value> gov.nasa.jpl.aerie.merlin.protocol.model.Resource<Value> makeResource(
       final String type,
       final Resource<Value> resource,
       final ValueSchema valueSchema,
-      final Function<Value, SerializedValue> serializer
+      final Function<Value, SerializedValue> serializer,
+      final boolean immutableDynamics
   ) {
     return new gov.nasa.jpl.aerie.merlin.protocol.model.Resource<>() {
       @Override
@@ -82,6 +87,11 @@ public final class Registrar {
           return resource.getDynamics();
         }
       }
+
+      @Override
+      public boolean hasImmutableDynamics() {
+        return immutableDynamics;
+      }
     };
   }
 
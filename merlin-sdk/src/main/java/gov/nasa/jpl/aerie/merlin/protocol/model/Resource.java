@@ -16,4 +16,14 @@ public interface Resource<Dynamics> {
    * this resource. In other words, it cannot depend on any hidden state. </p>
    */
   Dynamics getDynamics(Querier querier);
+
+  /**
+   * Whether the dynamics returned by {@link #getDynamics(Querier)} are never mutated once returned.
+   *
+   * <p> A driver may hold on to the dynamics of a resource that declares them immutable, and serialize them later,
+   * possibly on another thread. The dynamics of any other resource are serialized as soon as they are sampled. </p>
+   */
+  default boolean hasImmutableDynamics() {
+    return false;
+  }
 }
@@ -18,6 +18,7 @@ import gov.nasa.jpl.aerie.merlin.server.services.ValidationWorker;
 import gov.nasa.jpl.aerie.permissions.PermissionsService;
 import gov.nasa.jpl.aerie.merlin.server.remotes.postgres.PostgresPlanRepository;
 import gov.nasa.jpl.aerie.merlin.server.remotes.postgres.PostgresResultsCellRepository;
+import gov.nasa.jpl.aerie.merlin.server.remotes.postgres.PostgresValidationListener;
 import gov.nasa.jpl.aerie.merlin.server.services.CachedSimulationService;
 import gov.nasa.jpl.aerie.merlin.server.services.ConstraintAction;
 import gov.nasa.jpl.aerie.merlin.server.services.ConstraintsDSLCompilationService;
@@ -38,6 +39,7 @@ import org.eclipse.jetty.server.handler.StatisticsHandler;
 import org.eclipse.jetty.util.thread.QueuedThreadPool;
 import org.slf4j.LoggerFactory;
 
+import javax.sql.DataSource;
 import java.io.IOException;
 import java.net.URI;
 import java.nio.file.Path;
@@ -48,7 +50,8 @@ public final class AerieAppDriver {
   public static void main(final String[] args) {
     // Fetch application configuration properties.
     final var configuration = loadConfiguration();
-    final var stores = loadStores(configuration);
+    final var dataSource = loadDataSource(configuration);
+    final var stores = loadStores(dataSource);
 
     final var missionModelController = new LocalMissionModelService(
         configuration.merlinFileStore(),
@@ -56,12 +59,16 @@ public final class AerieAppDriver {
         configuration.untruePlanStart());
 
     if (configuration.enableContinuousValidationThread()) {
+      // Validate batches for as many models at once as can be held loaded together.
       final var validationWorker = new ValidationWorker(
           missionModelController,
-          configuration.validationThreadPollingPeriod());
+          configuration.validationThreadPollingPeriod(),
+          LocalMissionModelService.DEFAULT_MODEL_CACHE_CAPACITY);
       final var thread = new Thread(validationWorker::workerLoop);
       thread.setDaemon(true);
       thread.start();
+
+      new PostgresValidationListener(dataSource, validationWorker::notifyPendingValidations).start();
     }
 
     final var planController = new LocalPlanService(stores.plans());
@@ -70,7 +77,9 @@ public final class AerieAppDriver {
 
     final ConstraintsDSLCompilationService constraintsDSLCompilationService;
     try {
-      constraintsDSLCompilationService = new ConstraintsDSLCompilationService(typescriptCodeGenerationService);
+      constraintsDSLCompilationService = new ConstraintsDSLCompilationService(
+          typescriptCodeGenerationService,
+          configuration.constraintsDslCompilerProcesses());
     } catch (IOException e) {
       throw new Error("Failed to start ConstraintsDSLCompilationService", e);
     }
@@ -134,7 +143,7 @@ public final class AerieAppDriver {
       ConstraintRepository constraints
   ) {}
 
-  private static Stores loadStores(final AppConfiguration config) {
+  private static DataSource loadDataSource(final AppConfiguration config) {
     final var store = config.store();
     if (store instanceof PostgresStore c) {
       final var hikariConfig = new HikariConfig();
@@ -149,18 +158,20 @@ public final class AerieAppDriver {
 
       hikariConfig.setConnectionInitSql("set time zone 'UTC'");
 
-      final var hikariDataSource = new HikariDataSource(hikariConfig);
-
-      return new Stores(
-          new PostgresPlanRepository(hikariDataSource),
-          new PostgresMissionModelRepository(hikariDataSource),
-          new PostgresResultsCellRepository(hikariDataSource),
-          new PostgresConstraintRepository(hikariDataSource));
+      return new HikariDataSource(hikariConfig);
     } else {
       throw new UnexpectedSubtypeError(Store.class, store);
     }
   }
 
+  private static Stores loadStores(final DataSource dataSource) {
+    return new Stores(
+        new PostgresPlanRepository(dataSource),
+        new PostgresMissionModelRepository(dataSource),
+        new PostgresResultsCellRepository(dataSource),
+        new PostgresConstraintRepository(dataSource));
+  }
+
   private static String getEnv(final String key, final String fallback) {
     final var env = System.getenv(key);
     return env == null ? fallback : env;
@@ -181,7 +192,8 @@ public final class AerieAppDriver {
         URI.create(getEnv("HASURA_GRAPHQL_URL", "http://localhost:8080/v1/graphql")),
         getEnv("HASURA_GRAPHQL_ADMIN_SECRET", ""),
         Boolean.parseBoolean(getEnv("ENABLE_CONTINUOUS_VALIDATION_THREAD", "true")),
-        Integer.parseInt(getEnv("VALIDATION_THREAD_POLLING_PERIOD", "500"))
+        Integer.parseInt(getEnv("VALIDATION_THREAD_POLLING_PERIOD", "5000")),
+        Integer.parseInt(getEnv("CONSTRAINTS_DSL_COMPILER_PROCESSES", "2"))
     );
   }
 }
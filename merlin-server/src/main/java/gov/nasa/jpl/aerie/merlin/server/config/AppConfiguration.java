@@ -14,11 +14,16 @@ public record AppConfiguration (
     URI hasuraGraphqlURI,
     String hasuraGraphQlAdminSecret,
     boolean enableContinuousValidationThread,
-    int validationThreadPollingPeriod
+    int validationThreadPollingPeriod,
+    int constraintsDslCompilerProcesses
 ) {
   public AppConfiguration {
     Objects.requireNonNull(merlinFileStore);
     Objects.requireNonNull(store);
     Objects.requireNonNull(untruePlanStart);
+    if (constraintsDslCompilerProcesses < 1) {
+      throw new IllegalArgumentException(
+          "constraintsDslCompilerProcesses must be positive, but was %d".formatted(constraintsDslCompilerProcesses));
+    }
   }
 }
@@ -8,6 +8,7 @@ import gov.nasa.jpl.aerie.merlin.server.models.HasuraMissionModelEvent;
 import java.util.Optional;
 
 import static gov.nasa.jpl.aerie.json.BasicParsers.boolP;
+import static gov.nasa.jpl.aerie.json.BasicParsers.intP;
 import static gov.nasa.jpl.aerie.json.BasicParsers.listP;
 import static gov.nasa.jpl.aerie.json.BasicParsers.mapP;
 import static gov.nasa.jpl.aerie.json.BasicParsers.nullableP;
@@ -17,6 +18,7 @@ import static gov.nasa.jpl.aerie.json.Uncurry.tuple;
 import static gov.nasa.jpl.aerie.json.Uncurry.untuple;
 import static gov.nasa.jpl.aerie.merlin.driver.json.SerializedValueJsonParser.serializedValueP;
 import static gov.nasa.jpl.aerie.merlin.server.http.MerlinParsers.datasetIdP;
+import static gov.nasa.jpl.aerie.merlin.server.http.MerlinParsers.durationP;
 import static gov.nasa.jpl.aerie.merlin.server.http.MerlinParsers.missionModelIdP;
 import static gov.nasa.jpl.aerie.merlin.server.http.MerlinParsers.planIdP;
 import static gov.nasa.jpl.aerie.merlin.server.http.MerlinParsers.simulationDatasetIdP;
@@ -66,6 +68,30 @@ public abstract class HasuraParsers {
               )
   );
 
+  public static final JsonParser<HasuraAction<HasuraAction.ResourceSamplesInput>> hasuraResourceSamplesActionP
+      = hasuraActionF(
+          productP
+              .field("planId", planIdP)
+              .optionalField("resourceNames", nullableP(listP(stringP)))
+              .optionalField("startOffset", nullableP(durationP))
+              .optionalField("endOffset", nullableP(durationP))
+              .optionalField("maxPointsPerResource", nullableP(intP))
+              .map(
+                  untuple((planId, resourceNames, startOffset, endOffset, maxPointsPerResource) -> new HasuraAction.ResourceSamplesInput(
+                      planId,
+                      resourceNames.flatMap($ -> $),
+                      startOffset.flatMap($ -> $),
+                      endOffset.flatMap($ -> $),
+                      maxPointsPerResource.flatMap($ -> $))),
+                  $ -> tuple(
+                      $.planId(),
+                      Optional.of($.resourceNames()),
+                      Optional.of($.startOffset()),
+                      Optional.of($.endOffset()),
+                      Optional.of($.maxPointsPerResource()))
+              )
+      );
+
   public static final JsonParser<HasuraAction<HasuraAction.ConstraintViolationsInput>> hasuraConstraintsViolationsActionP
       = hasuraActionF(
       productP
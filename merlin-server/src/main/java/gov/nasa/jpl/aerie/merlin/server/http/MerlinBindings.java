@@ -42,6 +42,7 @@ import static gov.nasa.jpl.aerie.merlin.server.http.HasuraParsers.hasuraMissionM
 import static gov.nasa.jpl.aerie.merlin.server.http.HasuraParsers.hasuraMissionModelArgumentsActionP;
 import static gov.nasa.jpl.aerie.merlin.server.http.HasuraParsers.hasuraMissionModelEventTriggerP;
 import static gov.nasa.jpl.aerie.merlin.server.http.HasuraParsers.hasuraPlanActionP;
+import static gov.nasa.jpl.aerie.merlin.server.http.HasuraParsers.hasuraResourceSamplesActionP;
 import static gov.nasa.jpl.aerie.merlin.server.http.HasuraParsers.hasuraExtendExternalDatasetActionP;
 import static io.javalin.apibuilder.ApiBuilder.before;
 import static io.javalin.apibuilder.ApiBuilder.path;
@@ -214,13 +215,24 @@ public final class MerlinBindings implements Plugin {
 
   private void getResourceSamples(final Context ctx) {
     try {
-      final var body = parseJson(ctx.body(), hasuraPlanActionP);
-      final var planId = body.input().planId();
+      final var body = parseJson(ctx.body(), hasuraResourceSamplesActionP);
+      final var input = body.input();
+      final var planId = input.planId();
 
       this.checkPermissions(Action.resource_samples, body.session(), planId);
 
-      final var resourceSamples = this.simulationAction.getResourceSamples(planId);
-      ctx.result(ResponseSerializers.serializeResourceSamples(resourceSamples).toString());
+      final var query = new GetSimulationResultsAction.ResourceSamplesQuery(
+          input.resourceNames(),
+          input.startOffset(),
+          input.endOffset(),
+          input.maxPointsPerResource());
+
+      // Samples are serialized one resource at a time, rather than built into a single document,
+      // and only sent once every resource has been sampled.
+      final var writer = new ResourceSamplesWriter(ctx::outputStream);
+      this.simulationAction.sampleResources(planId, query, writer);
+      ctx.contentType("application/json");
+      writer.finish();
     } catch (final InvalidJsonException ex) {
       ctx.status(400).result(ResponseSerializers.serializeInvalidJsonException(ex).toString());
     } catch (final InvalidEntityException ex) {
@@ -0,0 +1,50 @@
+package gov.nasa.jpl.aerie.merlin.server.http;
+
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+import gov.nasa.jpl.aerie.merlin.server.services.GetSimulationResultsAction;
+import org.apache.commons.lang3.tuple.Pair;
+
+import javax.json.Json;
+import javax.json.stream.JsonGenerator;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Serializes resource samples as they are produced into a buffered document, in the same shape as
+ * {@link ResponseSerializers#serializeResourceSamples}, without building the whole document as a tree of JSON values.
+ *
+ * Nothing is written to the response until {@link #finish()} copies the complete document to it,
+ * so a request that fails partway through sampling still gets a proper error response
+ * rather than a truncated document with a successful status.
+ */
+/*package-local*/ final class ResourceSamplesWriter implements GetSimulationResultsAction.ResourceSamplesConsumer {
+  private final Supplier<OutputStream> output;
+  private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+  private final JsonGenerator generator = Json.createGenerator(this.buffer);
+
+  public ResourceSamplesWriter(final Supplier<OutputStream> output) {
+    this.output = output;
+    this.generator.writeStartObject().writeStartObject("resourceSamples");
+  }
+
+  @Override
+  public void accept(final String resourceName, final List<Pair<Duration, SerializedValue>> samples) {
+    this.generator.writeStartArray(resourceName);
+    for (final var sample : samples) this.generator.write(ResponseSerializers.serializeSample(sample));
+    this.generator.writeEnd();
+  }
+
+  /** Complete the document and copy it to the response, writing an empty one if no samples were given. */
+  public void finish() throws IOException {
+    this.generator.writeEnd().writeEnd().close();
+
+    // The response stream belongs to the server, so it is flushed rather than closed.
+    final var output = this.output.get();
+    this.buffer.writeTo(output);
+    output.flush();
+  }
+}
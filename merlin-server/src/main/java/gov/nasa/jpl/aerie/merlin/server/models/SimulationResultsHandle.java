@@ -3,11 +3,15 @@ package gov.nasa.jpl.aerie.merlin.server.models;
 import gov.nasa.jpl.aerie.types.ActivityInstance;
 import gov.nasa.jpl.aerie.types.ActivityInstanceId;
 import gov.nasa.jpl.aerie.merlin.driver.SimulationResults;
+import gov.nasa.jpl.aerie.merlin.driver.engine.ProfileSegment;
 import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.RealDynamics;
+import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
 
 import java.time.Instant;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 public interface SimulationResultsHandle {
   SimulationDatasetId getSimulationDatasetId();
@@ -20,5 +24,23 @@ public interface SimulationResultsHandle {
 
   ProfileSet getProfiles(final List<String> profileNames);
 
+  /**
+   * Read the named profiles, or every profile if no names are given, one profile at a time.
+   *
+   * Only the segments overlapping the window from `windowStart` to `windowEnd` are read.
+   * The first of these may begin before the window, so each profile is given along with the offset its first segment begins at.
+   */
+  void readProfiles(
+      final Optional<List<String>> profileNames,
+      final Duration windowStart,
+      final Duration windowEnd,
+      final ProfileReader reader);
+
+  interface ProfileReader {
+    void readReal(String name, Duration start, List<ProfileSegment<Optional<RealDynamics>>> segments);
+
+    void readDiscrete(String name, Duration start, List<ProfileSegment<Optional<SerializedValue>>> segments);
+  }
+
   Map<ActivityInstanceId, ActivityInstance> getSimulatedActivities();
 }
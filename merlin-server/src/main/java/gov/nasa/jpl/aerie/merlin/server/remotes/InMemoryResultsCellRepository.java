@@ -4,6 +4,7 @@ import gov.nasa.jpl.aerie.types.ActivityInstance;
 import gov.nasa.jpl.aerie.types.ActivityInstanceId;
 import gov.nasa.jpl.aerie.merlin.driver.SimulationFailure;
 import gov.nasa.jpl.aerie.merlin.driver.SimulationResults;
+import gov.nasa.jpl.aerie.merlin.driver.engine.ProfileSegment;
 import gov.nasa.jpl.aerie.merlin.driver.resources.ResourceProfile;
 import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
 import gov.nasa.jpl.aerie.merlin.protocol.types.RealDynamics;
@@ -14,6 +15,7 @@ import gov.nasa.jpl.aerie.merlin.server.models.PlanId;
 import gov.nasa.jpl.aerie.merlin.server.models.ProfileSet;
 import gov.nasa.jpl.aerie.merlin.server.models.SimulationDatasetId;
 import gov.nasa.jpl.aerie.merlin.server.models.SimulationResultsHandle;
+import org.apache.commons.lang3.tuple.Pair;
 
 import java.time.Instant;
 import java.util.HashMap;
@@ -197,6 +199,47 @@ public final class InMemoryResultsCellRepository implements ResultsCellRepositor
       return ProfileSet.of(realProfiles, discreteProfiles);
     }
 
+    @Override
+    public void readProfiles(
+        final Optional<List<String>> profileNames,
+        final Duration windowStart,
+        final Duration windowEnd,
+        final ProfileReader reader)
+    {
+      final var profiles = ProfileSet.of(this.simulationResults.realProfiles, this.simulationResults.discreteProfiles);
+      profiles.realProfiles().forEach((name, profile) -> {
+        if (profileNames.isPresent() && !profileNames.get().contains(name)) return;
+        final var window = window(profile.segments(), windowStart, windowEnd);
+        reader.readReal(name, window.getLeft(), window.getRight());
+      });
+      profiles.discreteProfiles().forEach((name, profile) -> {
+        if (profileNames.isPresent() && !profileNames.get().contains(name)) return;
+        final var window = window(profile.segments(), windowStart, windowEnd);
+        reader.readDiscrete(name, window.getLeft(), window.getRight());
+      });
+    }
+
+    /** Keep the segment in effect at the start of the window, and every segment beginning within it. */
+    private static <Dynamics> Pair<Duration, List<ProfileSegment<Dynamics>>> window(
+        final List<ProfileSegment<Dynamics>> segments,
+        final Duration windowStart,
+        final Duration windowEnd)
+    {
+      var offset = Duration.ZERO;
+      var first = 0;
+      var firstOffset = Duration.ZERO;
+      var last = 0;
+      for (var i = 0; i < segments.size(); i++) {
+        if (offset.noLongerThan(windowStart)) {
+          first = i;
+          firstOffset = offset;
+        }
+        if (offset.shorterThan(windowEnd)) last = i + 1;
+        offset = offset.plus(segments.get(i).extent());
+      }
+      return Pair.of(firstOffset, segments.subList(first, Math.max(first, last)));
+    }
+
     @Override
     public Map<ActivityInstanceId, ActivityInstance> getSimulatedActivities() {
       return this.simulationResults.simulatedActivities;
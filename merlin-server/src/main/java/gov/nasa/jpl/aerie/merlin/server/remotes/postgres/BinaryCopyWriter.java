@@ -0,0 +1,136 @@
+package gov.nasa.jpl.aerie.merlin.server.remotes.postgres;
+
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import org.intellij.lang.annotations.Language;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Streams rows to a `copy ... from stdin (format binary)` statement.
+ *
+ * Rows are encoded directly into PostgreSQL's binary copy format, so the server need not parse any textual
+ * representation of them, and are sent in large chunks rather than as one statement per row.
+ * Every row must provide exactly the columns named by the `copy` statement, in order.
+ *
+ * See https://www.postgresql.org/docs/current/sql-copy.html#id-1.9.3.55.9.4
+ */
+public final class BinaryCopyWriter implements AutoCloseable {
+  private static final byte[] SIGNATURE = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0};
+  private static final int BUFFER_SIZE = 1 << 16;
+  private static final byte JSONB_VERSION = 1;
+  private static final long MICROS_PER_DAY = 24L * 60 * 60 * 1_000_000;
+
+  private final CopyIn copy;
+  private final String table;
+  private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+  private long rows = 0;
+
+  public BinaryCopyWriter(
+      final Connection connection,
+      final @Language("SQL") String sql,
+      final String table
+  ) throws SQLException {
+    this.copy = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql);
+    this.table = table;
+
+    this.reserve(SIGNATURE.length + 8);
+    this.buffer.put(SIGNATURE);
+    this.buffer.putInt(0); // flags
+    this.buffer.putInt(0); // header extension length
+  }
+
+  public void startRow(final int columns) throws SQLException {
+    this.reserve(2);
+    this.buffer.putShort((short) columns);
+    this.rows += 1;
+  }
+
+  public void writeNull() throws SQLException {
+    this.reserve(4);
+    this.buffer.putInt(-1);
+  }
+
+  /** Write an `int4` column. Identifiers held as longs are checked to fit the column rather than truncated. */
+  public void writeInt(final long value) throws SQLException {
+    this.reserve(8);
+    this.buffer.putInt(4);
+    this.buffer.putInt(Math.toIntExact(value));
+  }
+
+  public void writeBoolean(final boolean value) throws SQLException {
+    this.reserve(5);
+    this.buffer.putInt(1);
+    this.buffer.put((byte) (value ? 1 : 0));
+  }
+
+  public void writeText(final String value) throws SQLException {
+    this.writeBytes(null, value.getBytes(StandardCharsets.UTF_8));
+  }
+
+  public void writeJsonb(final String value) throws SQLException {
+    this.writeBytes(JSONB_VERSION, value.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /** Write an interval holding only a time part, as produced by parsing an ISO-8601 `PTnS` duration. */
+  public void writeInterval(final Duration value) throws SQLException {
+    this.writeInterval(value.in(Duration.MICROSECONDS), 0);
+  }
+
+  /** Write an interval with whole days split out, as produced by subtracting one `timestamptz` from another. */
+  public void writeTimestampDifference(final long micros) throws SQLException {
+    this.writeInterval(micros % MICROS_PER_DAY, (int) (micros / MICROS_PER_DAY));
+  }
+
+  private void writeInterval(final long micros, final int days) throws SQLException {
+    this.reserve(20);
+    this.buffer.putInt(16);
+    this.buffer.putLong(micros);
+    this.buffer.putInt(days);
+    this.buffer.putInt(0); // months
+  }
+
+  private void writeBytes(final Byte prefix, final byte[] bytes) throws SQLException {
+    final var length = bytes.length + ((prefix != null) ? 1 : 0);
+    this.reserve(5);
+    this.buffer.putInt(length);
+    if (prefix != null) this.buffer.put(prefix);
+
+    if (bytes.length <= this.buffer.remaining()) {
+      this.buffer.put(bytes);
+    } else {
+      this.flush();
+      this.copy.writeToCopy(bytes, 0, bytes.length);
+    }
+  }
+
+  /** Complete the copy, failing if the server did not accept every row written. */
+  public void finish() throws SQLException {
+    this.reserve(2);
+    this.buffer.putShort((short) -1);
+    this.flush();
+
+    final var copied = this.copy.endCopy();
+    if (copied != this.rows) throw new FailedInsertException(this.table);
+  }
+
+  private void reserve(final int bytes) throws SQLException {
+    if (this.buffer.remaining() < bytes) this.flush();
+  }
+
+  private void flush() throws SQLException {
+    if (this.buffer.position() == 0) return;
+    this.copy.writeToCopy(this.buffer.array(), 0, this.buffer.position());
+    this.buffer.clear();
+  }
+
+  /** Abandon the copy if it was not finished. */
+  @Override
+  public void close() throws SQLException {
+    if (this.copy.isActive()) this.copy.cancelCopy();
+  }
+}
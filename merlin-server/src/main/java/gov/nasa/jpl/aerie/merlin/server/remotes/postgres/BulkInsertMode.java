@@ -0,0 +1,14 @@
+package gov.nasa.jpl.aerie.merlin.server.remotes.postgres;
+
+/** The means by which large volumes of simulation results are written to the database. */
+public enum BulkInsertMode {
+  /** Bind every row as the parameters of a batched `insert` statement. */
+  BATCH,
+  /** Stream every row to the server in the binary format of the `copy ... from stdin` protocol. */
+  COPY;
+
+  /** Parse a mode from its (case-insensitive) name, as given in configuration. */
+  public static BulkInsertMode fromString(final String name) {
+    return BulkInsertMode.valueOf(name.trim().toUpperCase());
+  }
+}
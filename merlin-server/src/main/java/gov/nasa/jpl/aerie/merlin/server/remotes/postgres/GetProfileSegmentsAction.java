@@ -7,6 +7,7 @@ import org.intellij.lang.annotations.Language;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
@@ -17,7 +18,7 @@ import static gov.nasa.jpl.aerie.merlin.server.remotes.postgres.PostgresParsers.
 /*package-local*/ final class GetProfileSegmentsAction implements AutoCloseable {
   private final @Language("SQL") String sql = """
       select
-        seg.start_offset,
+        ceil(extract(epoch from seg.start_offset) * 1000*1000) as start_offset_in_micros,
         seg.dynamics,
         seg.is_gap
       from merlin.profile_segment as seg
@@ -39,49 +40,40 @@ import static gov.nasa.jpl.aerie.merlin.server.remotes.postgres.PostgresParsers.
       final JsonParser<Dynamics> dynamicsP
   ) throws SQLException {
     final var segments = new ArrayList<ProfileSegment<Optional<Dynamics>>>();
-    PreparedStatements.setIntervalStyle(statement.getConnection(), PreparedStatements.PGIntervalStyle.ISO8601);
     this.statement.setLong(1, datasetId);
     this.statement.setLong(2, profileId);
-    final var resultSet = statement.executeQuery();
 
-    // Profile segments are stored with their start offset relative to simulation start
-    // We must convert these to durations describing how long each segment lasts
-    if (resultSet.next()) {
-      var offset = PostgresParsers.parseDurationISO8601(resultSet.getString(1));
-      Optional<Dynamics> dynamics;
-      var isGap = resultSet.getBoolean("is_gap");
-      if (!isGap) {
-        dynamics = Optional.of(getJsonColumn(resultSet, "dynamics", dynamicsP)
-            .getSuccessOrThrow(failureReason -> new Error("Corrupt profile dynamics: " + failureReason.reason())));
-      } else {
-        dynamics = Optional.empty();
+    try (final var resultSet = statement.executeQuery()) {
+      // Profile segments are stored with their start offset relative to simulation start
+      // We must convert these to durations describing how long each segment lasts
+      if (!resultSet.next()) {
+        throw new Error("No profile segments found for `dataset_id` (%d) and `profile_id` (%d)".formatted(datasetId, profileId));
       }
 
+      var offset = resultSet.getLong(1);
+      var dynamics = getDynamics(resultSet, dynamicsP);
       while (resultSet.next()) {
-        final var nextOffset = PostgresParsers.parseDurationISO8601(resultSet.getString(1));
-        final var duration = nextOffset.minus(offset);
-        segments.add(new ProfileSegment<>(duration, dynamics));
+        final var nextOffset = resultSet.getLong(1);
+        segments.add(new ProfileSegment<>(Duration.of(nextOffset - offset, Duration.MICROSECONDS), dynamics));
         offset = nextOffset;
-
-        isGap = resultSet.getBoolean("is_gap");
-        if (!isGap) {
-          dynamics = Optional.of(getJsonColumn(resultSet, "dynamics", dynamicsP)
-              .getSuccessOrThrow(
-                  failureReason -> new Error("Corrupt profile dynamics: " + failureReason.reason())));
-        } else {
-          dynamics = Optional.empty();
-        }
+        dynamics = getDynamics(resultSet, dynamicsP);
       }
 
-      final var duration = profileDuration.minus(offset);
-      segments.add(new ProfileSegment<>(duration, dynamics));
-    } else {
-      throw new Error("No profile segments found for `dataset_id` (%d) and `profile_id` (%d)".formatted(datasetId, profileId));
+      segments.add(new ProfileSegment<>(profileDuration.minus(Duration.of(offset, Duration.MICROSECONDS)), dynamics));
     }
 
     return segments;
   }
 
+  private static <Dynamics> Optional<Dynamics> getDynamics(
+      final ResultSet resultSet,
+      final JsonParser<Dynamics> dynamicsP
+  ) throws SQLException {
+    if (resultSet.getBoolean(3)) return Optional.empty();
+    return Optional.of(getJsonColumn(resultSet, "dynamics", dynamicsP)
+        .getSuccessOrThrow(failureReason -> new Error("Corrupt profile dynamics: " + failureReason.reason())));
+  }
+
   @Override
   public void close() throws SQLException {
     this.statement.close();
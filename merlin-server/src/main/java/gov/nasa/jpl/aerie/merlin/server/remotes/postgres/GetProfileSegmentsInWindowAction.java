@@ -0,0 +1,96 @@
+package gov.nasa.jpl.aerie.merlin.server.remotes.postgres;
+
+import gov.nasa.jpl.aerie.json.JsonParser;
+import gov.nasa.jpl.aerie.merlin.driver.engine.ProfileSegment;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import org.apache.commons.lang3.tuple.Pair;
+import org.intellij.lang.annotations.Language;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static gov.nasa.jpl.aerie.merlin.server.remotes.postgres.PostgresParsers.getJsonColumn;
+
+/**
+ * Gets the segments of a profile which overlap a window of simulation time:
+ * the segment in effect at the start of the window, and every segment beginning within it.
+ */
+/*package-local*/ final class GetProfileSegmentsInWindowAction implements AutoCloseable {
+  private final @Language("SQL") String sql = """
+      select
+        ceil(extract(epoch from seg.start_offset) * 1000*1000) as start_offset_in_micros,
+        seg.dynamics,
+        seg.is_gap
+      from merlin.profile_segment as seg
+      where
+        seg.dataset_id = ? and
+        seg.profile_id = ? and
+        seg.start_offset >= coalesce(
+          (select max(prev.start_offset)
+             from merlin.profile_segment as prev
+             where prev.dataset_id = seg.dataset_id
+               and prev.profile_id = seg.profile_id
+               and prev.start_offset <= ?::interval),
+          '0'::interval) and
+        seg.start_offset < ?::interval
+      order by seg.start_offset asc
+    """;
+  private final PreparedStatement statement;
+
+  public GetProfileSegmentsInWindowAction(final Connection connection) throws SQLException {
+    this.statement = connection.prepareStatement(sql);
+  }
+
+  /** Get the offset at which the first segment begins, along with the segments; the last segment is taken to end with the profile. */
+  public <Dynamics> Pair<Duration, List<ProfileSegment<Optional<Dynamics>>>> get(
+      final long datasetId,
+      final long profileId,
+      final Duration profileDuration,
+      final Duration windowStart,
+      final Duration windowEnd,
+      final JsonParser<Dynamics> dynamicsP
+  ) throws SQLException {
+    final var segments = new ArrayList<ProfileSegment<Optional<Dynamics>>>();
+    this.statement.setLong(1, datasetId);
+    this.statement.setLong(2, profileId);
+    PreparedStatements.setDuration(this.statement, 3, windowStart);
+    PreparedStatements.setDuration(this.statement, 4, windowEnd);
+    final var resultSet = statement.executeQuery();
+
+    // Profile segments are stored with their start offset relative to simulation start
+    // We must convert these to durations describing how long each segment lasts
+    if (!resultSet.next()) return Pair.of(windowStart, segments);
+
+    final var start = Duration.of(resultSet.getLong(1), Duration.MICROSECONDS);
+    var offset = start;
+    var dynamics = getDynamics(resultSet, dynamicsP);
+    while (resultSet.next()) {
+      final var nextOffset = Duration.of(resultSet.getLong(1), Duration.MICROSECONDS);
+      segments.add(new ProfileSegment<>(nextOffset.minus(offset), dynamics));
+      offset = nextOffset;
+      dynamics = getDynamics(resultSet, dynamicsP);
+    }
+    segments.add(new ProfileSegment<>(profileDuration.minus(offset), dynamics));
+
+    return Pair.of(start, segments);
+  }
+
+  private static <Dynamics> Optional<Dynamics> getDynamics(
+      final ResultSet resultSet,
+      final JsonParser<Dynamics> dynamicsP
+  ) throws SQLException {
+    if (resultSet.getBoolean("is_gap")) return Optional.empty();
+    return Optional.of(getJsonColumn(resultSet, "dynamics", dynamicsP)
+        .getSuccessOrThrow(failureReason -> new Error("Corrupt profile dynamics: " + failureReason.reason())));
+  }
+
+  @Override
+  public void close() throws SQLException {
+    this.statement.close();
+  }
+}
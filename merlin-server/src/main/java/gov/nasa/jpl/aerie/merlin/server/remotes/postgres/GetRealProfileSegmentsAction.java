@@ -0,0 +1,95 @@
+package gov.nasa.jpl.aerie.merlin.server.remotes.postgres;
+
+import gov.nasa.jpl.aerie.merlin.driver.engine.ProfileSegment;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.RealDynamics;
+import org.intellij.lang.annotations.Language;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Gets the segments of a real profile.
+ *
+ * Real dynamics are decomposed into their initial value and rate by the database,
+ * so that no JSON need be parsed for the many segments a real profile may hold.
+ */
+/*package-local*/ final class GetRealProfileSegmentsAction implements AutoCloseable {
+  private final @Language("SQL") String sql = """
+      select
+        ceil(extract(epoch from seg.start_offset) * 1000*1000) as start_offset_in_micros,
+        (seg.dynamics->>'initial')::float8 as initial,
+        (seg.dynamics->>'rate')::float8 as rate,
+        seg.is_gap
+      from merlin.profile_segment as seg
+      where
+        seg.dataset_id = ? and
+        seg.profile_id = ?
+      order by seg.start_offset asc
+    """;
+  private final PreparedStatement statement;
+
+  public GetRealProfileSegmentsAction(final Connection connection) throws SQLException {
+    this.statement = connection.prepareStatement(sql);
+  }
+
+  public List<ProfileSegment<Optional<RealDynamics>>> get(
+      final long datasetId,
+      final long profileId,
+      final Duration profileDuration
+  ) throws SQLException {
+    this.statement.setLong(1, datasetId);
+    this.statement.setLong(2, profileId);
+
+    // Rows are read into primitive arrays, and only made into segments once the count of segments is known.
+    var count = 0;
+    var offsets = new long[64];
+    var initials = new double[64];
+    var rates = new double[64];
+    var gaps = new boolean[64];
+    try (final var resultSet = statement.executeQuery()) {
+      while (resultSet.next()) {
+        if (count == offsets.length) {
+          offsets = Arrays.copyOf(offsets, 2 * count);
+          initials = Arrays.copyOf(initials, 2 * count);
+          rates = Arrays.copyOf(rates, 2 * count);
+          gaps = Arrays.copyOf(gaps, 2 * count);
+        }
+        offsets[count] = resultSet.getLong(1);
+        initials[count] = resultSet.getDouble(2);
+        rates[count] = resultSet.getDouble(3);
+        gaps[count] = resultSet.getBoolean(4);
+        count += 1;
+      }
+    }
+
+    if (count == 0) {
+      throw new Error("No profile segments found for `dataset_id` (%d) and `profile_id` (%d)".formatted(datasetId, profileId));
+    }
+
+    // Profile segments are stored with their start offset relative to simulation start
+    // We must convert these to durations describing how long each segment lasts
+    final var segments = new ArrayList<ProfileSegment<Optional<RealDynamics>>>(count);
+    for (var i = 0; i < count; i++) {
+      final var extent = (i + 1 < count)
+          ? Duration.of(offsets[i + 1] - offsets[i], Duration.MICROSECONDS)
+          : profileDuration.minus(Duration.of(offsets[i], Duration.MICROSECONDS));
+      final Optional<RealDynamics> dynamics = (gaps[i])
+          ? Optional.empty()
+          : Optional.of(RealDynamics.linear(initials[i], rates[i]));
+      segments.add(new ProfileSegment<>(extent, dynamics));
+    }
+
+    return segments;
+  }
+
+  @Override
+  public void close() throws SQLException {
+    this.statement.close();
+  }
+}
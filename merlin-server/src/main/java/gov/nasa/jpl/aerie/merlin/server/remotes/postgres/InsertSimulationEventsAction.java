@@ -23,11 +23,19 @@ import static gov.nasa.jpl.aerie.merlin.server.remotes.postgres.PreparedStatemen
       insert into merlin.event (dataset_id, real_time, transaction_index, causal_time, topic_index, value, span_id)
       values (?, ?::timestamptz - ?::timestamptz, ?, ?, ?, ?::jsonb,?)
     """;
+  @Language("SQL") private static final String copySql = """
+      copy merlin.event (dataset_id, real_time, transaction_index, causal_time, topic_index, value, span_id)
+      from stdin (format binary)
+    """;
 
+  private final Connection connection;
+  private final BulkInsertMode mode;
   private final PreparedStatement statement;
 
-  public InsertSimulationEventsAction(final Connection connection) throws SQLException {
-    this.statement = connection.prepareStatement(sql);
+  public InsertSimulationEventsAction(final Connection connection, final BulkInsertMode mode) throws SQLException {
+    this.connection = connection;
+    this.mode = mode;
+    this.statement = (mode == BulkInsertMode.BATCH) ? connection.prepareStatement(sql) : null;
   }
 
   public void apply(
@@ -35,6 +43,11 @@ import static gov.nasa.jpl.aerie.merlin.server.remotes.postgres.PreparedStatemen
       final Map<Duration, List<EventGraph<EventRecord>>> eventPoints,
       final Timestamp simulationStart
   ) throws SQLException {
+    if (this.mode == BulkInsertMode.COPY) {
+      this.copy(datasetId, eventPoints);
+      return;
+    }
+
     for (final var eventPoint : eventPoints.entrySet()) {
       final var time = eventPoint.getKey();
       final var transactions = eventPoint.getValue();
@@ -47,6 +60,43 @@ import static gov.nasa.jpl.aerie.merlin.server.remotes.postgres.PreparedStatemen
     this.statement.executeBatch();
   }
 
+  /**
+   * Copy every event into the table.
+   *
+   * The batched insert computes `real_time` in the database by subtracting the simulation start from each event's
+   * timestamp; since both are offset from the same instant, the same interval is computed here from the offset alone.
+   */
+  private void copy(
+      final long datasetId,
+      final Map<Duration, List<EventGraph<EventRecord>>> eventPoints
+  ) throws SQLException {
+    try (final var writer = new BinaryCopyWriter(this.connection, copySql, "merlin.event")) {
+      for (final var eventPoint : eventPoints.entrySet()) {
+        final var realTime = eventPoint.getKey().in(MICROSECONDS);
+        final var transactions = eventPoint.getValue();
+        for (int transactionIndex = 0; transactionIndex < transactions.size(); transactionIndex++) {
+          for (final var entry : EventGraphFlattener.flatten(transactions.get(transactionIndex))) {
+            final var event = entry.getRight();
+
+            writer.startRow(7);
+            writer.writeInt(datasetId);
+            writer.writeTimestampDifference(realTime);
+            writer.writeInt(transactionIndex);
+            writer.writeText(entry.getLeft());
+            writer.writeInt(event.topicId());
+            writer.writeJsonb(serializedValueP.unparse(event.value()).toString());
+            if (event.spanId().isPresent()) {
+              writer.writeInt(event.spanId().get());
+            } else {
+              writer.writeNull();
+            }
+          }
+        }
+      }
+      writer.finish();
+    }
+  }
+
   private static void batchInsertEventGraph(
       final long datasetId,
       final Duration duration,
@@ -73,6 +123,6 @@ import static gov.nasa.jpl.aerie.merlin.server.remotes.postgres.PreparedStatemen
 
   @Override
   public void close() throws SQLException {
-    this.statement.close();
+    if (this.statement != null) this.statement.close();
   }
 }
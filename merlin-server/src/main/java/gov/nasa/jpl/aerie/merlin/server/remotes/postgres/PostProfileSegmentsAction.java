@@ -17,10 +17,23 @@ public final class PostProfileSegmentsAction implements AutoCloseable {
       insert into merlin.profile_segment (dataset_id, profile_id, start_offset, dynamics, is_gap)
       values (?, ?, ?::interval, ?::jsonb, ?)
     """;
+  private static final @Language("SQL") String copySql = """
+      copy merlin.profile_segment (dataset_id, profile_id, start_offset, dynamics, is_gap)
+      from stdin (format binary)
+    """;
+
+  private final Connection connection;
+  private final BulkInsertMode mode;
   private final PreparedStatement statement;
 
   public PostProfileSegmentsAction(final Connection connection) throws SQLException {
-    this.statement = connection.prepareStatement(sql);
+    this(connection, BulkInsertMode.BATCH);
+  }
+
+  public PostProfileSegmentsAction(final Connection connection, final BulkInsertMode mode) throws SQLException {
+    this.connection = connection;
+    this.mode = mode;
+    this.statement = (mode == BulkInsertMode.BATCH) ? connection.prepareStatement(sql) : null;
   }
 
   public <Dynamics> void apply(
@@ -29,6 +42,10 @@ public final class PostProfileSegmentsAction implements AutoCloseable {
       final List<ProfileSegment<Optional<Dynamics>>> segments,
       final JsonParser<Dynamics> dynamicsP
       ) throws SQLException {
+    if (this.mode == BulkInsertMode.COPY) {
+      this.copy(datasetId, profileRecord, segments, dynamicsP);
+      return;
+    }
 
     // Each profile segment's duration part is the duration for which the dynamics hold
     // before the next one begins. Since order in the database is not guaranteed
@@ -60,12 +77,36 @@ public final class PostProfileSegmentsAction implements AutoCloseable {
     }
   }
 
+  private <Dynamics> void copy(
+      final long datasetId,
+      final ProfileRecord profileRecord,
+      final List<ProfileSegment<Optional<Dynamics>>> segments,
+      final JsonParser<Dynamics> dynamicsP
+  ) throws SQLException {
+    try (final var writer = new BinaryCopyWriter(this.connection, copySql, "merlin.profile_segment")) {
+      var accumulatedOffset = Duration.ZERO;
+      for (final var pair : segments) {
+        final var dynamics = pair.dynamics();
+
+        writer.startRow(5);
+        writer.writeInt(datasetId);
+        writer.writeInt(profileRecord.id());
+        writer.writeInterval(accumulatedOffset);
+        writer.writeJsonb(dynamics.map($ -> serializeDynamics($, dynamicsP)).orElse("null"));
+        writer.writeBoolean(dynamics.isEmpty());
+
+        accumulatedOffset = Duration.add(accumulatedOffset, pair.extent());
+      }
+      writer.finish();
+    }
+  }
+
   private <Dynamics> String serializeDynamics(final Dynamics dynamics, final JsonParser<Dynamics> dynamicsP) {
     return dynamicsP.unparse(dynamics).toString();
   }
 
   @Override
   public void close() throws SQLException {
-    this.statement.close();
+    if (this.statement != null) this.statement.close();
   }
 }
@@ -22,11 +22,21 @@ import static gov.nasa.jpl.aerie.merlin.server.remotes.postgres.PreparedStatemen
       insert into merlin.span (span_id,dataset_id,parent_id, start_offset, duration, type, attributes)
       values (?,?,?, ?::timestamptz - ?::timestamptz, ?::timestamptz - ?::timestamptz, ?, ?::jsonb)
     """;
+  private static final @Language("SQL") String copySql = """
+      copy merlin.span (span_id, dataset_id, parent_id, start_offset, duration, type, attributes)
+      from stdin (format binary)
+    """;
 
+  private final Connection connection;
+  private final BulkInsertMode mode;
   private final PreparedStatement statement;
 
-  public PostSpansAction(final Connection connection) throws SQLException {
-    this.statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+  public PostSpansAction(final Connection connection, final BulkInsertMode mode) throws SQLException {
+    this.connection = connection;
+    this.mode = mode;
+    this.statement = (mode == BulkInsertMode.BATCH)
+        ? connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)
+        : null;
   }
 
   public void apply(
@@ -34,6 +44,10 @@ import static gov.nasa.jpl.aerie.merlin.server.remotes.postgres.PreparedStatemen
       final Map<Long, SpanRecord> spans,
       final Timestamp simulationStart
   ) throws SQLException {
+    if (this.mode == BulkInsertMode.COPY) {
+      this.copy(datasetId, spans, simulationStart);
+      return;
+    }
 
     final var ids = spans.keySet().stream().toList();
     for (final var id : ids) {
@@ -71,12 +85,49 @@ import static gov.nasa.jpl.aerie.merlin.server.remotes.postgres.PreparedStatemen
     statement.executeBatch();
   }
 
+  /**
+   * Copy every span into the table, in the order given so that parents precede their children.
+   *
+   * Offsets are computed here as the batched insert would compute them in the database,
+   * by subtracting one timestamp from another at microsecond precision.
+   */
+  private void copy(
+      final long datasetId,
+      final Map<Long, SpanRecord> spans,
+      final Timestamp simulationStart
+  ) throws SQLException {
+    try (final var writer = new BinaryCopyWriter(this.connection, copySql, "merlin.span")) {
+      for (final var entry : spans.entrySet()) {
+        final var act = entry.getValue();
+        final var startTimestamp = new Timestamp(act.start());
+
+        writer.startRow(7);
+        writer.writeInt(entry.getKey());
+        writer.writeInt(datasetId);
+        if (act.parentId().isPresent()) {
+          writer.writeInt(act.parentId().get());
+        } else {
+          writer.writeNull();
+        }
+        writer.writeTimestampDifference(simulationStart.microsUntil(startTimestamp));
+        if (act.duration().isPresent()) {
+          writer.writeTimestampDifference(act.duration().get().in(Duration.MICROSECONDS));
+        } else {
+          writer.writeNull();
+        }
+        writer.writeText(act.type());
+        writer.writeJsonb(buildAttributes(act.attributes().directiveId(), act.attributes().arguments(), act.attributes().computedAttributes()));
+      }
+      writer.finish();
+    }
+  }
+
   private String buildAttributes(final Optional<Long> directiveId, final Map<String, SerializedValue> arguments, final Optional<SerializedValue> returnValue) {
     return activityAttributesP.unparse(new ActivityAttributesRecord(directiveId, arguments, returnValue)).toString();
   }
 
   @Override
   public void close() throws SQLException {
-    this.statement.close();
+    if (this.statement != null) this.statement.close();
   }
 }
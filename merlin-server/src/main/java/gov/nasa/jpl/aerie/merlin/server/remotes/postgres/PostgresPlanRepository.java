@@ -30,9 +30,15 @@ import java.util.stream.Collectors;
 
 public final class PostgresPlanRepository implements PlanRepository {
   private final DataSource dataSource;
+  private final BulkInsertMode bulkInsertMode;
 
   public PostgresPlanRepository(final DataSource dataSource) {
+    this(dataSource, BulkInsertMode.BATCH);
+  }
+
+  public PostgresPlanRepository(final DataSource dataSource, final BulkInsertMode bulkInsertMode) {
     this.dataSource = dataSource;
+    this.bulkInsertMode = bulkInsertMode;
   }
 
   // GetAllPlans is exclusively used in tests currently and none of its usages are for simulation
@@ -220,7 +226,8 @@ public final class PostgresPlanRepository implements PlanRepository {
       ProfileRepository.postResourceProfiles(
           connection,
           planDataset.datasetId(),
-          profileSet
+          profileSet,
+          this.bulkInsertMode
       );
 
       return planDataset.datasetId();
@@ -242,7 +249,8 @@ public final class PostgresPlanRepository implements PlanRepository {
       ProfileRepository.appendResourceProfiles(
           connection,
           datasetId.id(),
-          profileSet
+          profileSet,
+          this.bulkInsertMode
       );
     } catch (final SQLException ex) {
       throw new DatabaseException(
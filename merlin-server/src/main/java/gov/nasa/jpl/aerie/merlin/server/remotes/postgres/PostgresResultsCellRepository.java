@@ -45,9 +45,15 @@ public final class PostgresResultsCellRepository implements ResultsCellRepositor
   private static final Logger logger = LoggerFactory.getLogger(PostgresResultsCellRepository.class);
 
   private final DataSource dataSource;
+  private final BulkInsertMode bulkInsertMode;
 
   public PostgresResultsCellRepository(final DataSource dataSource) {
+    this(dataSource, BulkInsertMode.BATCH);
+  }
+
+  public PostgresResultsCellRepository(final DataSource dataSource, final BulkInsertMode bulkInsertMode) {
     this.dataSource = dataSource;
+    this.bulkInsertMode = bulkInsertMode;
   }
 
   @Override
@@ -85,6 +91,7 @@ public final class PostgresResultsCellRepository implements ResultsCellRepositor
 
       return new PostgresResultsCell(
           this.dataSource,
+          this.bulkInsertMode,
           simulation,
           dataset.datasetId());
     } catch (final SQLException ex) {
@@ -128,6 +135,7 @@ public final class PostgresResultsCellRepository implements ResultsCellRepositor
 
       return Optional.of(new PostgresResultsCell(
           this.dataSource,
+          this.bulkInsertMode,
           simulation,
           datasetId));
     } catch(UnclaimableSimulationException ex) {
@@ -146,7 +154,7 @@ public final class PostgresResultsCellRepository implements ResultsCellRepositor
       if (datasetRecord.isEmpty()) return Optional.empty();
 
       final var datasetId = datasetRecord.get().datasetId();
-      return Optional.of(new PostgresResultsCell(this.dataSource, simulation, datasetId));
+      return Optional.of(new PostgresResultsCell(this.dataSource, this.bulkInsertMode, simulation, datasetId));
     } catch (final SQLException ex) {
       throw new DatabaseException("Failed to get simulation", ex);
     }
@@ -167,7 +175,7 @@ public final class PostgresResultsCellRepository implements ResultsCellRepositor
       }
 
       final var datasetId = datasetRecord.get().datasetId();
-      return Optional.of(new PostgresResultsCell(this.dataSource, simulation, datasetId));
+      return Optional.of(new PostgresResultsCell(this.dataSource, this.bulkInsertMode, simulation, datasetId));
     } catch (final SQLException ex) {
       throw new DatabaseException("Failed to get simulation", ex);
     }
@@ -362,13 +370,14 @@ public final class PostgresResultsCellRepository implements ResultsCellRepositor
       final Connection connection,
       final long datasetId,
       final SimulationResults results,
-      final SimulationStateRecord state
+      final SimulationStateRecord state,
+      final BulkInsertMode bulkInsertMode
   ) throws SQLException, NoSuchSimulationDatasetException
   {
     final var simulationStart = new Timestamp(results.startTime);
-    postActivities(connection, datasetId, results.simulatedActivities, results.unfinishedActivities, simulationStart);
+    postActivities(connection, datasetId, results.simulatedActivities, results.unfinishedActivities, simulationStart, bulkInsertMode);
     insertSimulationTopics(connection, datasetId, results.topics);
-    insertSimulationEvents(connection, datasetId, results.events, simulationStart);
+    insertSimulationEvents(connection, datasetId, results.events, simulationStart, bulkInsertMode);
 
     try (final var setSimulationStateAction = new SetSimulationStateAction(connection)) {
       setSimulationStateAction.apply(datasetId, state);
@@ -391,10 +400,11 @@ public final class PostgresResultsCellRepository implements ResultsCellRepositor
       Connection connection,
       long datasetId,
       Map<Duration, List<EventGraph<EventRecord>>> events,
-      Timestamp simulationStart) throws SQLException
+      Timestamp simulationStart,
+      BulkInsertMode bulkInsertMode) throws SQLException
   {
     try (
-        final var insertSimulationEventsAction = new InsertSimulationEventsAction(connection)
+        final var insertSimulationEventsAction = new InsertSimulationEventsAction(connection, bulkInsertMode)
     ) {
         insertSimulationEventsAction.apply(datasetId, events, simulationStart);
     }
@@ -405,9 +415,10 @@ public final class PostgresResultsCellRepository implements ResultsCellRepositor
       final long datasetId,
       final Map<ActivityInstanceId, ActivityInstance> simulatedActivities,
       final Map<ActivityInstanceId, UnfinishedActivity> unfinishedActivities,
-      final Timestamp simulationStart
+      final Timestamp simulationStart,
+      final BulkInsertMode bulkInsertMode
   ) throws SQLException {
-    try (final var postActivitiesAction = new PostSpansAction(connection)) {
+    try (final var postActivitiesAction = new PostSpansAction(connection, bulkInsertMode)) {
       final var simulatedActivityRecords = simulatedActivities.entrySet().stream()
           .collect(Collectors.toMap(
               e -> e.getKey().id(),
@@ -489,15 +500,18 @@ public final class PostgresResultsCellRepository implements ResultsCellRepositor
 
   public static final class PostgresResultsCell implements ResultsProtocol.OwnerRole {
     private final DataSource dataSource;
+    private final BulkInsertMode bulkInsertMode;
     private final SimulationRecord simulation;
     private final long datasetId;
 
     public PostgresResultsCell(
         final DataSource dataSource,
+        final BulkInsertMode bulkInsertMode,
         final SimulationRecord simulation,
         final long datasetId
     ) {
       this.dataSource = dataSource;
+      this.bulkInsertMode = bulkInsertMode;
       this.simulation = simulation;
       this.datasetId = datasetId;
     }
@@ -561,7 +575,7 @@ public final class PostgresResultsCellRepository implements ResultsCellRepositor
     public void succeedWith(final SimulationResults results) {
       try (final var connection = dataSource.getConnection();
            final var transactionContext = new TransactionContext(connection)) {
-        postSimulationResults(connection, datasetId, results, SimulationStateRecord.success());
+        postSimulationResults(connection, datasetId, results, SimulationStateRecord.success(), bulkInsertMode);
         deleteSimulationExtent(connection, datasetId);
         transactionContext.commit();
       } catch (final SQLException ex) {
@@ -601,7 +615,7 @@ public final class PostgresResultsCellRepository implements ResultsCellRepositor
                     .build())
             .message("Simulation run was canceled")
             .build();
-        postSimulationResults(connection, datasetId, results, SimulationStateRecord.incomplete(reason));
+        postSimulationResults(connection, datasetId, results, SimulationStateRecord.incomplete(reason), bulkInsertMode);
         deleteSimulationExtent(connection, datasetId);
         transactionContext.commit();
       } catch (final SQLException ex) {
@@ -680,6 +694,20 @@ public final class PostgresResultsCellRepository implements ResultsCellRepositor
       }
     }
 
+    @Override
+    public void readProfiles(
+        final Optional<List<String>> profileNames,
+        final Duration windowStart,
+        final Duration windowEnd,
+        final ProfileReader reader)
+    {
+      try (final var connection = this.dataSource.getConnection()) {
+        ProfileRepository.readProfiles(connection, record.datasetId(), profileNames, windowStart, windowEnd, reader);
+      } catch (SQLException e) {
+        throw new RuntimeException(e);
+      }
+    }
+
     @Override
     public Map<ActivityInstanceId, ActivityInstance> getSimulatedActivities() {
       try (final var connection = this.dataSource.getConnection()) {
@@ -0,0 +1,72 @@
+package gov.nasa.jpl.aerie.merlin.server.remotes.postgres;
+
+import org.postgresql.PGConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Listens for notifications that activity directives are awaiting validation.
+ *
+ * If the connection to the database is lost, listening resumes once it can be re-established;
+ * any directives changed in the meantime are reported as soon as it is.
+ */
+public final class PostgresValidationListener {
+  private static final Logger logger = LoggerFactory.getLogger(PostgresValidationListener.class);
+
+  /** How long to wait for notifications at a time, and before trying to listen again after a failure. */
+  private static final int TIMEOUT_MILLIS = 10000;
+
+  private final DataSource dataSource;
+  private final Runnable onPendingValidations;
+
+  public PostgresValidationListener(final DataSource dataSource, final Runnable onPendingValidations) {
+    this.dataSource = dataSource;
+    this.onPendingValidations = onPendingValidations;
+  }
+
+  /** Start listening on a new daemon thread, which stops when interrupted. */
+  public Thread start() {
+    final var listenThread = new Thread(this::listenLoop, "validation-listener");
+    listenThread.setDaemon(true);
+    listenThread.start();
+    return listenThread;
+  }
+
+  private void listenLoop() {
+    while (!Thread.currentThread().isInterrupted()) {
+      try {
+        this.listen();
+      } catch (final SQLException ex) {
+        logger.error("Validation listener lost its connection; retrying in {} ms", TIMEOUT_MILLIS, ex);
+        try {
+          Thread.sleep(TIMEOUT_MILLIS);
+        } catch (final InterruptedException e) {
+          return;
+        }
+      }
+    }
+  }
+
+  private void listen() throws SQLException {
+    try (final var connection = this.dataSource.getConnection()) {
+      try (final var listenAction = new ListenDirectiveValidationsAction(connection)) {
+        listenAction.apply();
+      }
+
+      // Directives may have changed while we were not listening.
+      this.onPendingValidations.run();
+
+      final var pgConnection = connection.unwrap(PGConnection.class);
+      while (!Thread.currentThread().isInterrupted()) {
+        final var notifications = pgConnection.getNotifications(TIMEOUT_MILLIS);
+        if (notifications != null && notifications.length > 0) {
+          logger.debug("Received {} directive validation notifications", notifications.length);
+          this.onPendingValidations.run();
+        }
+      }
+    }
+  }
+}
@@ -9,6 +9,7 @@ import gov.nasa.jpl.aerie.merlin.protocol.types.ValueSchema;
 import gov.nasa.jpl.aerie.merlin.server.models.PlanId;
 import gov.nasa.jpl.aerie.merlin.server.models.ProfileSet;
 import gov.nasa.jpl.aerie.merlin.server.models.SimulationDatasetId;
+import gov.nasa.jpl.aerie.merlin.server.models.SimulationResultsHandle;
 
 import java.sql.Connection;
 import java.sql.SQLException;
@@ -26,65 +27,82 @@ import static gov.nasa.jpl.aerie.merlin.server.http.ProfileParsers.realDynamicsP
       final Connection connection,
       final long datasetId
   ) throws SQLException {
-    final var realProfiles = new HashMap<String, ResourceProfile<Optional<RealDynamics>>> ();
-    final var discreteProfiles = new HashMap<String, ResourceProfile<Optional<SerializedValue>>>();
-
-    final var profileRecords = getProfileRecords(connection, datasetId);
-    for (final var record : profileRecords) {
-      switch (record.type().getLeft()) {
-        case "real" -> realProfiles.put(
-          record.name(),
-          ResourceProfile.of(
-              record.type().getRight(),
-              getRealProfileSegments(connection, record.datasetId(), record.id(), record.duration())
-          )
-        );
-        case "discrete" -> discreteProfiles.put(
-            record.name(),
-            ResourceProfile.of(
-                record.type().getRight(),
-                getDiscreteProfileSegments(connection, record.datasetId(), record.id(), record.duration())
-            )
-        );
-        default -> throw new Error("Unrecognized profile type");
-      }
-    }
-
-    return new ProfileSet(realProfiles, discreteProfiles);
+    return getProfiles(connection, getProfileRecords(connection, datasetId));
   }
 
   static ProfileSet getProfiles(
       final Connection connection,
       final long datasetId,
       final List<String> names
+  ) throws SQLException {
+    return getProfiles(connection, getProfileRecords(connection, datasetId, names));
+  }
+
+  private static ProfileSet getProfiles(
+      final Connection connection,
+      final List<ProfileRecord> profileRecords
   ) throws SQLException {
     final var realProfiles = new HashMap<String, ResourceProfile<Optional<RealDynamics>>>();
     final var discreteProfiles = new HashMap<String, ResourceProfile<Optional<SerializedValue>>>();
 
-    final var profileRecords = getProfileRecords(connection, datasetId, names);
-    for (final var record : profileRecords) {
-      switch (record.type().getLeft()) {
-        case "real" -> realProfiles.put(
-            record.name(),
-            ResourceProfile.of(
-                record.type().getRight(),
-                getRealProfileSegments(connection, record.datasetId(), record.id(), record.duration())
-            )
-        );
-        case "discrete" -> discreteProfiles.put(
-            record.name(),
-            ResourceProfile.of(
-                record.type().getRight(),
-                getDiscreteProfileSegments(connection, record.datasetId(), record.id(), record.duration())
-            )
-        );
-        default -> throw new Error("Unrecognized profile type");
+    try (final var getRealProfileSegmentsAction = new GetRealProfileSegmentsAction(connection);
+         final var getProfileSegmentsAction = new GetProfileSegmentsAction(connection))
+    {
+      for (final var record : profileRecords) {
+        switch (record.type().getLeft()) {
+          case "real" -> realProfiles.put(
+              record.name(),
+              ResourceProfile.of(
+                  record.type().getRight(),
+                  getRealProfileSegmentsAction.get(record.datasetId(), record.id(), record.duration())
+              )
+          );
+          case "discrete" -> discreteProfiles.put(
+              record.name(),
+              ResourceProfile.of(
+                  record.type().getRight(),
+                  getProfileSegmentsAction.get(record.datasetId(), record.id(), record.duration(), serializedValueP)
+              )
+          );
+          default -> throw new Error("Unrecognized profile type");
+        }
       }
     }
 
     return new ProfileSet(realProfiles, discreteProfiles);
   }
 
+  static void readProfiles(
+      final Connection connection,
+      final long datasetId,
+      final Optional<List<String>> names,
+      final Duration windowStart,
+      final Duration windowEnd,
+      final SimulationResultsHandle.ProfileReader reader
+  ) throws SQLException {
+    final var profileRecords = (names.isPresent())
+        ? getProfileRecords(connection, datasetId, names.get())
+        : getProfileRecords(connection, datasetId);
+
+    try (final var getProfileSegmentsAction = new GetProfileSegmentsInWindowAction(connection)) {
+      for (final var record : profileRecords) {
+        switch (record.type().getLeft()) {
+          case "real" -> {
+            final var segments = getProfileSegmentsAction.get(
+                record.datasetId(), record.id(), record.duration(), windowStart, windowEnd, realDynamicsP);
+            reader.readReal(record.name(), segments.getLeft(), segments.getRight());
+          }
+          case "discrete" -> {
+            final var segments = getProfileSegmentsAction.get(
+                record.datasetId(), record.id(), record.duration(), windowStart, windowEnd, serializedValueP);
+            reader.readDiscrete(record.name(), segments.getLeft(), segments.getRight());
+          }
+          default -> throw new Error("Unrecognized profile type");
+        }
+      }
+    }
+  }
+
   static Map<String, ValueSchema> getProfileSchemas(
       final Connection connection,
       final long datasetId
@@ -127,32 +145,11 @@ import static gov.nasa.jpl.aerie.merlin.server.http.ProfileParsers.realDynamicsP
     }
   }
 
-  static List<ProfileSegment<Optional<RealDynamics>>> getRealProfileSegments(
-      final Connection connection,
-      final long datasetId,
-      final long profileId,
-      final Duration profileDuration
-  ) throws SQLException {
-    try (final var getProfileSegmentsAction = new GetProfileSegmentsAction(connection)) {
-      return getProfileSegmentsAction.get(datasetId, profileId, profileDuration, realDynamicsP);
-    }
-  }
-
-  static List<ProfileSegment<Optional<SerializedValue>>> getDiscreteProfileSegments(
-      final Connection connection,
-      final long datasetId,
-      final long profileId,
-      final Duration profileDuration
-  ) throws SQLException {
-    try (final var getProfileSegmentsAction = new GetProfileSegmentsAction(connection)) {
-      return getProfileSegmentsAction.get(datasetId, profileId, profileDuration, serializedValueP);
-    }
-  }
-
   static void postResourceProfiles(
       final Connection connection,
       final long datasetId,
-      final ProfileSet profileSet
+      final ProfileSet profileSet,
+      final BulkInsertMode bulkInsertMode
   ) throws SQLException
   {
     try (final var postProfilesAction = new PostProfilesAction(connection)) {
@@ -164,14 +161,16 @@ import static gov.nasa.jpl.aerie.merlin.server.http.ProfileParsers.realDynamicsP
           connection,
           datasetId,
           profileRecords,
-          profileSet);
+          profileSet,
+          bulkInsertMode);
     }
   }
 
   static void appendResourceProfiles(
       final Connection connection,
       final long datasetId,
-      final ProfileSet profileSet
+      final ProfileSet profileSet,
+      final BulkInsertMode bulkInsertMode
   ) throws SQLException
   {
     final Map<String, ProfileRecord> profileRecords;
@@ -210,7 +209,8 @@ import static gov.nasa.jpl.aerie.merlin.server.http.ProfileParsers.realDynamicsP
           connection,
           datasetId,
           newProfileRecords,
-          profileSet);
+          profileSet,
+          bulkInsertMode);
     }
 
     appendProfileSegments(
@@ -224,7 +224,8 @@ import static gov.nasa.jpl.aerie.merlin.server.http.ProfileParsers.realDynamicsP
       final Connection connection,
       final long datasetId,
       final Map<String, ProfileRecord> records,
-      final ProfileSet profileSet
+      final ProfileSet profileSet,
+      final BulkInsertMode bulkInsertMode
   ) throws SQLException {
     final var realProfiles = profileSet.realProfiles();
     final var discreteProfiles = profileSet.discreteProfiles();
@@ -236,12 +237,14 @@ import static gov.nasa.jpl.aerie.merlin.server.http.ProfileParsers.realDynamicsP
             connection,
             datasetId,
             record,
-            realProfiles.get(resource).segments());
+            realProfiles.get(resource).segments(),
+            bulkInsertMode);
         case "discrete" -> postDiscreteProfileSegments(
             connection,
             datasetId,
             record,
-            discreteProfiles.get(resource).segments());
+            discreteProfiles.get(resource).segments(),
+            bulkInsertMode);
         default -> throw new Error("Unrecognized profile type " + record.type().getLeft());
       }
     }
@@ -289,9 +292,10 @@ import static gov.nasa.jpl.aerie.merlin.server.http.ProfileParsers.realDynamicsP
       final Connection connection,
       final long datasetId,
       final ProfileRecord profileRecord,
-      final List<ProfileSegment<Optional<RealDynamics>>> segments
+      final List<ProfileSegment<Optional<RealDynamics>>> segments,
+      final BulkInsertMode bulkInsertMode
   ) throws SQLException {
-    try (final var postProfileSegmentsAction = new PostProfileSegmentsAction(connection)) {
+    try (final var postProfileSegmentsAction = new PostProfileSegmentsAction(connection, bulkInsertMode)) {
       postProfileSegmentsAction.apply(datasetId, profileRecord, segments, realDynamicsP);
     }
   }
@@ -300,9 +304,10 @@ import static gov.nasa.jpl.aerie.merlin.server.http.ProfileParsers.realDynamicsP
       final Connection connection,
       final long datasetId,
       final ProfileRecord profileRecord,
-      final List<ProfileSegment<Optional<SerializedValue>>> segments
+      final List<ProfileSegment<Optional<SerializedValue>>> segments,
+      final BulkInsertMode bulkInsertMode
   ) throws SQLException {
-    try (final var postProfileSegmentsAction = new PostProfileSegmentsAction(connection)) {
+    try (final var postProfileSegmentsAction = new PostProfileSegmentsAction(connection, bulkInsertMode)) {
       postProfileSegmentsAction.apply(datasetId, profileRecord, segments, serializedValueP);
     }
   }
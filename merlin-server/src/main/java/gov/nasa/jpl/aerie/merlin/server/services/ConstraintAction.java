@@ -122,11 +122,9 @@ public class ConstraintAction {
 
       final var environment = new EvaluationEnvironment(realExternalProfiles, discreteExternalProfiles);
 
-      final var realProfiles = new HashMap<String, LinearProfile>();
-      final var discreteProfiles = new HashMap<String, DiscreteProfile>();
-
-      // try to compile and run the constraint that were not
-      // successful and cached in the past
+      // Compile every constraint that was not successful and cached in the past,
+      // so that the profiles needed by all of them can be fetched at once.
+      final var compiledConstraints = new HashMap<Long, CompiledConstraint>();
       for (final var entry : constraintCode.entrySet()) {
         final var constraint = entry.getValue();
         final Expression<ConstraintResult> expression;
@@ -174,59 +172,63 @@ public class ConstraintAction {
 
         final var names = new HashSet<String>();
         expression.extractResources(names);
+        compiledConstraints.put(entry.getKey(), new CompiledConstraint(constraint, expression, names));
+      }
 
-        final var newNames = new HashSet<String>();
-        for (final var name : names) {
-          if (!realProfiles.containsKey(name) && !discreteProfiles.containsKey(name)) {
-            newNames.add(name);
-          }
-        }
-
-        if (!newNames.isEmpty()) {
-          try {
-            final var newProfiles = resultsHandle$
-                .map($ -> $.getProfiles(new ArrayList<>(newNames)))
-                .orElseThrow(() -> new InputMismatchException("no simulation results found for plan id "
-                                                              + planId.id()));
-
-            for (final var _entry : ProfileSet.unwrapOptional(newProfiles.realProfiles()).entrySet()) {
-              if (!realProfiles.containsKey(_entry.getKey())) {
-                realProfiles.put(_entry.getKey(), LinearProfile.fromSimulatedProfile(_entry.getValue().segments()));
-              }
-            }
-
-            for (final var _entry : ProfileSet.unwrapOptional(newProfiles.discreteProfiles()).entrySet()) {
-              if (!discreteProfiles.containsKey(_entry.getKey())) {
-                discreteProfiles.put(
-                    _entry.getKey(),
-                    DiscreteProfile.fromSimulatedProfile(_entry.getValue().segments()));
-              }
-            }
-          } catch (InputMismatchException ex) {
-            constraintResultMap.put(constraint, Fallible.failure(ex));
-            continue;
-          }
-        }
-
-        final Interval bounds = Interval.between(Duration.ZERO, simDuration);
-        final var preparedResults = new gov.nasa.jpl.aerie.constraints.model.SimulationResults(
-            simStartTime,
-            bounds,
-            activities,
-            realProfiles,
-            discreteProfiles);
+      final var realProfiles = new HashMap<String, LinearProfile>();
+      final var discreteProfiles = new HashMap<String, DiscreteProfile>();
 
-        ConstraintResult constraintResult = expression.evaluate(preparedResults, environment);
+      final var allNames = new HashSet<String>();
+      for (final var compiled : compiledConstraints.values()) allNames.addAll(compiled.resourceNames());
 
-        constraintResult.constraintName = entry.getValue().name();
-        constraintResult.constraintRevision = entry.getValue().revision();
-        constraintResult.constraintId = entry.getKey();
-        constraintResult.resourceIds = List.copyOf(names);
+      if (!allNames.isEmpty()) {
+        try {
+          final var profiles = resultsHandle$
+              .map($ -> $.getProfiles(new ArrayList<>(allNames)))
+              .orElseThrow(() -> new InputMismatchException("no simulation results found for plan id "
+                                                            + planId.id()));
 
-        constraintResultMap.put(constraint, Fallible.of(constraintResult));
+          for (final var _entry : ProfileSet.unwrapOptional(profiles.realProfiles()).entrySet()) {
+            realProfiles.put(_entry.getKey(), LinearProfile.fromSimulatedProfile(_entry.getValue().segments()));
+          }
 
+          for (final var _entry : ProfileSet.unwrapOptional(profiles.discreteProfiles()).entrySet()) {
+            discreteProfiles.put(
+                _entry.getKey(),
+                DiscreteProfile.fromSimulatedProfile(_entry.getValue().segments()));
+          }
+        } catch (InputMismatchException ex) {
+          // Only the constraints which needed profiles are unable to be checked.
+          final var iterator = compiledConstraints.values().iterator();
+          while (iterator.hasNext()) {
+            final var compiled = iterator.next();
+            if (compiled.resourceNames().isEmpty()) continue;
+            constraintResultMap.put(compiled.constraint(), Fallible.failure(ex));
+            iterator.remove();
+          }
+        }
+      }
 
+      final Interval bounds = Interval.between(Duration.ZERO, simDuration);
+      final var preparedResults = new gov.nasa.jpl.aerie.constraints.model.SimulationResults(
+          simStartTime,
+          bounds,
+          activities,
+          realProfiles,
+          discreteProfiles);
+
+      // Evaluation only reads the shared results and environment, so the constraints may be checked in parallel.
+      final var constraintResults = compiledConstraints
+          .entrySet()
+          .parallelStream()
+          .collect(Collectors.toMap(
+              Map.Entry::getKey,
+              entry -> evaluate(entry.getKey(), entry.getValue(), preparedResults, environment)));
+
+      for (final var entry : constraintResults.entrySet()) {
+        constraintResultMap.put(compiledConstraints.get(entry.getKey()).constraint(), Fallible.of(entry.getValue()));
       }
+
       // Filter for constraints that were compiled and ran with results
       // convert these successful failables to ConstraintResults
       final var compiledConstraintMap = constraintResultMap.entrySet().stream()
@@ -261,4 +263,22 @@ public class ConstraintAction {
 
     return constraintResultMap;
   }
+
+  private record CompiledConstraint(Constraint constraint, Expression<ConstraintResult> expression, Set<String> resourceNames) {}
+
+  private static ConstraintResult evaluate(
+      final long constraintId,
+      final CompiledConstraint compiled,
+      final gov.nasa.jpl.aerie.constraints.model.SimulationResults results,
+      final EvaluationEnvironment environment
+  ) {
+    final var constraintResult = compiled.expression().evaluate(results, environment);
+
+    constraintResult.constraintName = compiled.constraint().name();
+    constraintResult.constraintRevision = compiled.constraint().revision();
+    constraintResult.constraintId = constraintId;
+    constraintResult.resourceIds = List.copyOf(compiled.resourceNames());
+
+    return constraintResult;
+  }
 }
@@ -2,6 +2,7 @@ package gov.nasa.jpl.aerie.merlin.server.services;
 
 import gov.nasa.jpl.aerie.constraints.model.ConstraintResult;
 import gov.nasa.jpl.aerie.constraints.tree.Expression;
+import gov.nasa.jpl.aerie.dsl.NodeCompilerPool;
 import gov.nasa.jpl.aerie.json.JsonParser;
 import gov.nasa.jpl.aerie.merlin.server.exceptions.NoSuchPlanException;
 import gov.nasa.jpl.aerie.merlin.server.http.InvalidEntityException;
@@ -19,16 +20,26 @@ import java.io.File;
 import java.io.IOException;
 import java.io.StringReader;
 import java.util.List;
-import java.util.Objects;
 import java.util.Optional;
 
 public class ConstraintsDSLCompilationService {
 
-  private final Process nodeProcess;
+  private final NodeCompilerPool compilers;
   private final TypescriptCodeGenerationServiceAdapter typescriptCodeGenerationService;
 
   public ConstraintsDSLCompilationService(final TypescriptCodeGenerationServiceAdapter typescriptCodeGenerationService)
   throws IOException
+  {
+    this(typescriptCodeGenerationService, 1);
+  }
+
+  /**
+   * @param processes the number of compilations that may run at once, each in its own Node subprocess
+   */
+  public ConstraintsDSLCompilationService(
+      final TypescriptCodeGenerationServiceAdapter typescriptCodeGenerationService,
+      final int processes
+  ) throws IOException
   {
     this.typescriptCodeGenerationService = typescriptCodeGenerationService;
     final var constraintsDslCompilerRoot = System.getenv("CONSTRAINTS_DSL_COMPILER_ROOT");
@@ -38,24 +49,19 @@ public class ConstraintsDSLCompilationService {
         .redirectError(ProcessBuilder.Redirect.INHERIT)
         .directory(new File(constraintsDslCompilerRoot));
     processBuilder.environment().put("NODE_NO_WARNINGS", "1");
-    this.nodeProcess = processBuilder.start();
-
-    final var inputStream = this.nodeProcess.outputWriter();
-    inputStream.write("ping\n");
-    inputStream.flush();
-    if (!Objects.equals(this.nodeProcess.inputReader().readLine(), "pong")) {
-      throw new Error("Could not create node subprocess");
-    }
+    this.compilers = new NodeCompilerPool(processBuilder, processes, NodeCompilerPool.DEFAULT_CACHE_CAPACITY);
   }
 
   public void close() {
-    this.nodeProcess.destroy();
+    this.compilers.close();
   }
 
   /**
-   * NOTE: This method is not re-entrant (assumes only one call to this method is running at any given time)
+   * Compile a constraint against the types of the given mission model and plan.
+   *
+   * Compiling the same constraint against unchanged types is answered from cache, without invoking Node.
    */
-  synchronized public ConstraintsDSLCompilationResult compileConstraintsDSL(
+  public ConstraintsDSLCompilationResult compileConstraintsDSL(
       final MissionModelId missionModelId,
       final Optional<PlanId> planId,
       final Optional<SimulationDatasetId> simulationDatasetId,
@@ -76,35 +82,26 @@ public class ConstraintsDSLCompilationService {
      *   NODE -- stdout --> JAVA: one of "success\n", "error\n", or "panic\n"
      *   NODE -- stdout --> JAVA: payload associated with success, error, or panic, must be exactly one line terminated with \n
      * */
-    final var inputWriter = this.nodeProcess.outputWriter();
-    final var outputReader = this.nodeProcess.inputReader();
-    try {
-      inputWriter.write(messageJson +"\n");
-      inputWriter.flush();
-      final var status = outputReader.readLine();
-      return switch (status) {
-        case "panic" -> throw new Error(outputReader.readLine());
-        case "error" -> {
-          final var output = outputReader.readLine();
-          try {
-            yield new ConstraintsDSLCompilationResult.Error(parseJson(output, ConstraintsCompilationError.constraintsErrorJsonP));
-          } catch (InvalidJsonException | InvalidEntityException e) {
-            throw new Error("Could not parse error JSON returned from typescript: " + output, e);
-          }
+    final var response = this.compilers.request(messageJson.toString());
+    final var output = response.payload();
+    return switch (response.status()) {
+      case "panic" -> throw new Error(output);
+      case "error" -> {
+        try {
+          yield new ConstraintsDSLCompilationResult.Error(parseJson(output, ConstraintsCompilationError.constraintsErrorJsonP));
+        } catch (InvalidJsonException | InvalidEntityException e) {
+          throw new Error("Could not parse error JSON returned from typescript: " + output, e);
         }
-        case "success" -> {
-          final var output = outputReader.readLine();
-          try {
-            yield new ConstraintsDSLCompilationResult.Success(parseJson(output, ConstraintParsers.constraintP));
-          } catch (InvalidJsonException | InvalidEntityException e) {
-            throw new Error("Could not parse success JSON returned from typescript: " + output, e);
-          }
+      }
+      case "success" -> {
+        try {
+          yield new ConstraintsDSLCompilationResult.Success(parseJson(output, ConstraintParsers.constraintP));
+        } catch (InvalidJsonException | InvalidEntityException e) {
+          throw new Error("Could not parse success JSON returned from typescript: " + output, e);
         }
-        default -> throw new Error("constraints dsl compiler returned unexpected status: " + status);
-      };
-    } catch (IOException e) {
-      throw new Error(e);
-    }
+      }
+      default -> throw new Error("constraints dsl compiler returned unexpected status: " + response.status());
+    };
   }
 
   private static <T> T parseJson(final String jsonStr, final JsonParser<T> parser)
@@ -1,20 +1,21 @@
 package gov.nasa.jpl.aerie.merlin.server.services;
 
 import gov.nasa.jpl.aerie.merlin.driver.SimulationFailure;
+import gov.nasa.jpl.aerie.merlin.driver.engine.ProfileSegment;
 import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.RealDynamics;
 import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
 import gov.nasa.jpl.aerie.merlin.server.ResultsProtocol;
 import gov.nasa.jpl.aerie.merlin.server.exceptions.NoSuchPlanException;
 import gov.nasa.jpl.aerie.merlin.server.models.HasuraAction;
 import gov.nasa.jpl.aerie.merlin.server.models.PlanId;
+import gov.nasa.jpl.aerie.merlin.server.models.SimulationResultsHandle;
 import org.apache.commons.lang3.tuple.Pair;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
 
 public final class GetSimulationResultsAction {
   public sealed interface Response {
@@ -50,51 +51,56 @@ public final class GetSimulationResultsAction {
     };
   }
 
-  public Map<String, List<Pair<Duration, SerializedValue>>> getResourceSamples(final PlanId planId)
+  /**
+   * Restricts the samples returned for a plan's resources.
+   *
+   * @param resourceNames the resources to sample, or every resource if empty
+   * @param start the start of the window of simulation time to sample, or the start of simulation if empty
+   * @param end the end of the window of simulation time to sample, or the end of simulation if empty
+   * @param maxPointsPerResource the number of samples per resource beyond which its samples are downsampled
+   */
+  public record ResourceSamplesQuery(
+      Optional<List<String>> resourceNames,
+      Optional<Duration> start,
+      Optional<Duration> end,
+      Optional<Integer> maxPointsPerResource
+  ) {}
+
+  public interface ResourceSamplesConsumer {
+    void accept(String resourceName, List<Pair<Duration, SerializedValue>> samples);
+  }
+
+  /**
+   * Sample the resources of the plan's latest simulation, handing the samples for each resource to the consumer in turn,
+   * so that only one resource's samples need be held at a time.
+   */
+  public void sampleResources(final PlanId planId, final ResourceSamplesQuery query, final ResourceSamplesConsumer consumer)
   throws NoSuchPlanException
   {
     final var revisionData = this.planService.getPlanRevisionData(planId);
     final var simulationResultsHandle$ = this.simulationService.get(planId, revisionData);
-    if (simulationResultsHandle$.isEmpty()) return Collections.emptyMap();
-    final var simulationResults = simulationResultsHandle$.get().getSimulationResults();
-
-    final var samples = new HashMap<String, List<Pair<Duration, SerializedValue>>>();
-
-    simulationResults.realProfiles.forEach((name, p) -> {
-      var elapsed = Duration.ZERO;
-      var profile = p.segments();
-
-      final var timeline = new ArrayList<Pair<Duration, SerializedValue>>();
-      for (final var piece : profile) {
-        final var extent = piece.extent();
-        final var dynamics = piece.dynamics();
-
-        timeline.add(Pair.of(elapsed, SerializedValue.of(
-            dynamics.initial)));
-        elapsed = elapsed.plus(extent);
-        timeline.add(Pair.of(elapsed, SerializedValue.of(
-            dynamics.initial + dynamics.rate * extent.ratioOver(Duration.SECONDS))));
+    if (simulationResultsHandle$.isEmpty()) return;
+    final var simulationResultsHandle = simulationResultsHandle$.get();
+
+    final var windowStart = query.start().filter(Duration::isPositive).orElse(Duration.ZERO);
+    final var windowEnd = query.end().orElse(simulationResultsHandle.duration());
+    if (windowEnd.shorterThan(windowStart)) return;
+
+    final Function<List<Pair<Duration, SerializedValue>>, List<Pair<Duration, SerializedValue>>> downsample =
+        query.maxPointsPerResource().isPresent()
+            ? timeline -> SampleDownsampling.minMax(timeline, query.maxPointsPerResource().get())
+            : timeline -> timeline;
+
+    simulationResultsHandle.readProfiles(query.resourceNames(), windowStart, windowEnd, new SimulationResultsHandle.ProfileReader() {
+      @Override
+      public void readReal(final String name, final Duration start, final List<ProfileSegment<Optional<RealDynamics>>> segments) {
+        consumer.accept(name, downsample.apply(ResourceSampling.sampleReal(start, segments, windowStart, windowEnd)));
       }
 
-      samples.put(name, timeline);
-    });
-    simulationResults.discreteProfiles.forEach((name, p) -> {
-      var elapsed = Duration.ZERO;
-      var profile = p.segments();
-
-      final var timeline = new ArrayList<Pair<Duration, SerializedValue>>();
-      for (final var piece : profile) {
-        final var extent = piece.extent();
-        final var value = piece.dynamics();
-
-        timeline.add(Pair.of(elapsed, value));
-        elapsed = elapsed.plus(extent);
-        timeline.add(Pair.of(elapsed, value));
+      @Override
+      public void readDiscrete(final String name, final Duration start, final List<ProfileSegment<Optional<SerializedValue>>> segments) {
+        consumer.accept(name, downsample.apply(ResourceSampling.sampleDiscrete(start, segments, windowStart, windowEnd)));
       }
-
-      samples.put(name, timeline);
     });
-
-    return samples;
   }
 }
@@ -1,18 +1,21 @@
 package gov.nasa.jpl.aerie.merlin.server.services;
 
-import gov.nasa.jpl.aerie.merlin.driver.DirectiveTypeRegistry;
-import gov.nasa.jpl.aerie.merlin.driver.MissionModel;
+import gov.nasa.jpl.aerie.merlin.driver.CachedSimulationEngine;
+import gov.nasa.jpl.aerie.merlin.driver.CheckpointSimulationDriver;
 import gov.nasa.jpl.aerie.merlin.driver.MissionModelLoader;
 import gov.nasa.jpl.aerie.types.ActivityDirectiveId;
 import gov.nasa.jpl.aerie.types.MissionModelId;
 import gov.nasa.jpl.aerie.types.Plan;
 import gov.nasa.jpl.aerie.types.SerializedActivity;
 import gov.nasa.jpl.aerie.merlin.driver.SimulationDriver;
+import gov.nasa.jpl.aerie.merlin.driver.SimulationEngineConfiguration;
 import gov.nasa.jpl.aerie.merlin.driver.SimulationResults;
+import gov.nasa.jpl.aerie.merlin.driver.SimulationResultsComputerInputs;
+import gov.nasa.jpl.aerie.merlin.driver.engine.EngineMetricsListener;
+import gov.nasa.jpl.aerie.merlin.driver.engine.SimulationEngine;
 import gov.nasa.jpl.aerie.merlin.driver.resources.SimulationResourceManager;
 import gov.nasa.jpl.aerie.merlin.protocol.model.InputType.Parameter;
 import gov.nasa.jpl.aerie.merlin.protocol.model.InputType.ValidationNotice;
-import gov.nasa.jpl.aerie.merlin.protocol.model.ModelType;
 import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
 import gov.nasa.jpl.aerie.merlin.protocol.types.InstantiationException;
 import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
@@ -20,17 +23,21 @@ import gov.nasa.jpl.aerie.merlin.protocol.types.ValueSchema;
 import gov.nasa.jpl.aerie.merlin.server.models.ActivityDirectiveForValidation;
 import gov.nasa.jpl.aerie.merlin.server.models.ActivityType;
 import gov.nasa.jpl.aerie.merlin.server.models.MissionModelJar;
+import gov.nasa.jpl.aerie.merlin.server.models.PlanId;
 import gov.nasa.jpl.aerie.merlin.server.remotes.MissionModelRepository;
 import org.apache.commons.lang3.tuple.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
@@ -46,18 +53,58 @@ import java.util.stream.Collectors;
 public final class LocalMissionModelService implements MissionModelService {
   private static final Logger log = LoggerFactory.getLogger(LocalMissionModelService.class);
 
+  /** The number of distinct mission models whose classes are kept loaded between requests. */
+  public static final int DEFAULT_MODEL_CACHE_CAPACITY = 4;
+
   private final Path missionModelDataPath;
   private final MissionModelRepository missionModelRepository;
   private final Instant untruePlanStart;
+  private final MissionModelCache modelCache;
+  private final SimulationEngine.Options engineOptions;
 
   public LocalMissionModelService(
       final Path missionModelDataPath,
       final MissionModelRepository missionModelRepository,
       final Instant untruePlanStart
+  ) {
+    this(missionModelDataPath, missionModelRepository, untruePlanStart, DEFAULT_MODEL_CACHE_CAPACITY);
+  }
+
+  public LocalMissionModelService(
+      final Path missionModelDataPath,
+      final MissionModelRepository missionModelRepository,
+      final Instant untruePlanStart,
+      final int modelCacheCapacity
+  ) {
+    this(
+        missionModelDataPath,
+        missionModelRepository,
+        untruePlanStart,
+        modelCacheCapacity,
+        SimulationEngine.Options.DEFAULT);
+  }
+
+  /**
+   * @param engineOptions The settings of the engines simulating plans. Their metrics listener is replaced by
+   *   whichever listener each simulation is given.
+   */
+  public LocalMissionModelService(
+      final Path missionModelDataPath,
+      final MissionModelRepository missionModelRepository,
+      final Instant untruePlanStart,
+      final int modelCacheCapacity,
+      final SimulationEngine.Options engineOptions
   ) {
     this.missionModelDataPath = missionModelDataPath;
     this.missionModelRepository = missionModelRepository;
     this.untruePlanStart = untruePlanStart;
+    this.modelCache = new MissionModelCache(modelCacheCapacity);
+    this.engineOptions = Objects.requireNonNull(engineOptions);
+  }
+
+  /** Get the hit, miss, and eviction counts of the cache of loaded mission models. */
+  public MissionModelCache.Stats getModelCacheStats() {
+    return this.modelCache.stats();
   }
 
   @Override
@@ -81,10 +128,13 @@ public final class LocalMissionModelService implements MissionModelService {
     // TODO: [AERIE-1516] Teardown the missionModel after use to release any system resources (e.g. threads).
     final var schemas = new HashMap<String, ValueSchema>();
 
-    for (final var entry : loadAndInstantiateMissionModel(missionModelId).getResources().entrySet()) {
-      final var name = entry.getKey();
-      final var resource = entry.getValue();
-      schemas.put(name, resource.getOutputType().getSchema());
+    try (final var lease = this.acquireModelType(missionModelId)) {
+      final var model = lease.instantiate(untruePlanStart, SerializedValue.of(Map.of()));
+      for (final var entry : model.getResources().entrySet()) {
+        final var name = entry.getKey();
+        final var resource = entry.getValue();
+        schemas.put(name, resource.getOutputType().getSchema());
+      }
     }
 
     return schemas;
@@ -123,20 +173,20 @@ public final class LocalMissionModelService implements MissionModelService {
   throws NoSuchMissionModelException, MissionModelLoadException, InstantiationException
   {
     // TODO: [AERIE-1516] Teardown the missionModel after use to release any system resources (e.g. threads).
-    final var modelType = this.loadMissionModelType(missionModelId);
-    final var registry = DirectiveTypeRegistry.extract(modelType);
-    final var directiveType = registry.directiveTypes().get(activity.getTypeName());
-    if (directiveType == null) return List.of(new ValidationNotice(List.of(), "unknown activity type"));
-    return directiveType.getInputType().validateArguments(activity.getArguments());
+    try (final var lease = this.acquireModelType(missionModelId)) {
+      final var directiveType = lease.registry().directiveTypes().get(activity.getTypeName());
+      if (directiveType == null) return List.of(new ValidationNotice(List.of(), "unknown activity type"));
+      return directiveType.getInputType().validateArguments(activity.getArguments());
+    }
   }
 
   public List<BulkArgumentValidationResponse> validateActivityArgumentsBulk(
       final MissionModelId missionModelId,
       final List<ActivityDirectiveForValidation> activities) {
     // load mission model once for all activities
-    ModelType<?, ?> modelType;
+    final MissionModelCache.Lease lease;
     try {
-      modelType = this.loadMissionModelType(missionModelId);
+      lease = this.acquireModelType(missionModelId);
       // try and catch NoSuchMissionModel here, so we can serialize it out to each activity validation
       // rather than catching it at a higher level in the workerLoop itself
     } catch (NoSuchMissionModelException e) {
@@ -148,27 +198,30 @@ public final class LocalMissionModelService implements MissionModelService {
       log.error(e.toString());
       return List.of();
     }
-    final var registry = DirectiveTypeRegistry.extract(modelType);
 
-    // map all directives to validation response
-    return activities.stream().map((directive) -> {
-      final var typeName = directive.activity().getTypeName();
-      final var arguments = directive.activity().getArguments();
+    try (lease) {
+      final var registry = lease.registry();
 
-      try {
-        final var directiveType = registry.directiveTypes().get(typeName);
-        if (directiveType == null) {
-          return new BulkArgumentValidationResponse.NoSuchActivityError(new NoSuchActivityTypeException(typeName));
-        }
+      // map all directives to validation response
+      return activities.stream().map((directive) -> {
+        final var typeName = directive.activity().getTypeName();
+        final var arguments = directive.activity().getArguments();
 
-        final var notices = directiveType.getInputType().validateArguments(arguments);
-        return notices.isEmpty()
-            ? new BulkArgumentValidationResponse.Success()
-            : new BulkArgumentValidationResponse.Validation(notices);
-      } catch (InstantiationException e) {
-        return new BulkArgumentValidationResponse.InstantiationError(e);
-      }
-    }).collect(Collectors.toList());
+        try {
+          final var directiveType = registry.directiveTypes().get(typeName);
+          if (directiveType == null) {
+            return new BulkArgumentValidationResponse.NoSuchActivityError(new NoSuchActivityTypeException(typeName));
+          }
+
+          final var notices = directiveType.getInputType().validateArguments(arguments);
+          return notices.isEmpty()
+              ? new BulkArgumentValidationResponse.Success()
+              : new BulkArgumentValidationResponse.Validation(notices);
+        } catch (InstantiationException e) {
+          return new BulkArgumentValidationResponse.InstantiationError(e);
+        }
+      }).collect(Collectors.toList());
+    }
   }
 
   public Map<MissionModelId, List<ActivityDirectiveForValidation>> getUnvalidatedDirectives() {
@@ -192,24 +245,24 @@ public final class LocalMissionModelService implements MissionModelService {
                                  final Map<ActivityDirectiveId, SerializedActivity> activities)
   throws NoSuchMissionModelException, MissionModelLoadException
   {
-    final var factory = this.loadMissionModelType(missionModelId);
-    final var registry = DirectiveTypeRegistry.extract(factory);
-
     final var failures = new HashMap<ActivityDirectiveId, ActivityInstantiationFailure>();
 
-    for (final var entry : activities.entrySet()) {
-      final var id = entry.getKey();
-      final var act = entry.getValue();
-      try {
-        // The return value is intentionally ignored - we are only interested in failures
-        final var specType = Optional
-        .ofNullable(registry.directiveTypes().get(act.getTypeName()))
-        .orElseThrow(() -> new MissionModelService.NoSuchActivityTypeException(act.getTypeName()));
-        specType.getInputType().getEffectiveArguments(act.getArguments());
-      } catch (final NoSuchActivityTypeException ex) {
-        failures.put(id, new ActivityInstantiationFailure.NoSuchActivityType(ex));
-      } catch (final InstantiationException ex) {
-        failures.put(id, new ActivityInstantiationFailure.InstantiationFailure(ex));
+    try (final var lease = this.acquireModelType(missionModelId)) {
+      final var registry = lease.registry();
+      for (final var entry : activities.entrySet()) {
+        final var id = entry.getKey();
+        final var act = entry.getValue();
+        try {
+          // The return value is intentionally ignored - we are only interested in failures
+          final var specType = Optional
+          .ofNullable(registry.directiveTypes().get(act.getTypeName()))
+          .orElseThrow(() -> new MissionModelService.NoSuchActivityTypeException(act.getTypeName()));
+          specType.getInputType().getEffectiveArguments(act.getArguments());
+        } catch (final NoSuchActivityTypeException ex) {
+          failures.put(id, new ActivityInstantiationFailure.NoSuchActivityType(ex));
+        } catch (final InstantiationException ex) {
+          failures.put(id, new ActivityInstantiationFailure.InstantiationFailure(ex));
+        }
       }
     }
 
@@ -221,27 +274,28 @@ public final class LocalMissionModelService implements MissionModelService {
       final MissionModelId missionModelId,
       final List<SerializedActivity> serializedActivities)
   throws NoSuchMissionModelException, MissionModelLoadException {
-      final var modelType = this.loadMissionModelType(missionModelId);
-      final var registry = DirectiveTypeRegistry.extract(modelType);
       final var response = new ArrayList<BulkEffectiveArgumentResponse>();
 
-      for (final var activity : serializedActivities) {
-        final var typeName = activity.getTypeName();
-
-        try {
-          final var directiveType = Optional
-              .ofNullable(registry.directiveTypes().get(typeName))
-              .orElseThrow(() -> new NoSuchActivityTypeException(activity.getTypeName()));
-
-          response.add(new BulkEffectiveArgumentResponse.Success(
-              new SerializedActivity(
-              typeName,
-              directiveType.getInputType().getEffectiveArguments(activity.getArguments())
-          )));
-        } catch (NoSuchActivityTypeException e) {
-          response.add(new BulkEffectiveArgumentResponse.TypeFailure(e));
-        } catch (InstantiationException e) {
-          response.add(new BulkEffectiveArgumentResponse.InstantiationFailure(e));
+      try (final var lease = this.acquireModelType(missionModelId)) {
+        final var registry = lease.registry();
+        for (final var activity : serializedActivities) {
+          final var typeName = activity.getTypeName();
+
+          try {
+            final var directiveType = Optional
+                .ofNullable(registry.directiveTypes().get(typeName))
+                .orElseThrow(() -> new NoSuchActivityTypeException(activity.getTypeName()));
+
+            response.add(new BulkEffectiveArgumentResponse.Success(
+                new SerializedActivity(
+                typeName,
+                directiveType.getInputType().getEffectiveArguments(activity.getArguments())
+            )));
+          } catch (NoSuchActivityTypeException e) {
+            response.add(new BulkEffectiveArgumentResponse.TypeFailure(e));
+          } catch (InstantiationException e) {
+            response.add(new BulkEffectiveArgumentResponse.InstantiationFailure(e));
+          }
         }
       }
 
@@ -254,16 +308,20 @@ public final class LocalMissionModelService implements MissionModelService {
          MissionModelLoadException,
          InstantiationException
   {
-    return this.loadMissionModelType(missionModelId)
-        .getConfigurationType()
-        .validateArguments(arguments);
+    try (final var lease = this.acquireModelType(missionModelId)) {
+      return lease.modelType()
+          .getConfigurationType()
+          .validateArguments(arguments);
+    }
   }
 
   @Override
   public List<Parameter> getModelParameters(final MissionModelId missionModelId)
   throws NoSuchMissionModelException, MissionModelLoadException
   {
-    return this.loadMissionModelType(missionModelId).getConfigurationType().getParameters();
+    try (final var lease = this.acquireModelType(missionModelId)) {
+      return lease.modelType().getConfigurationType().getParameters();
+    }
   }
 
   @Override
@@ -272,9 +330,11 @@ public final class LocalMissionModelService implements MissionModelService {
          MissionModelLoadException,
          InstantiationException
   {
-    return this.loadMissionModelType(missionModelId)
-        .getConfigurationType()
-        .getEffectiveArguments(arguments);
+    try (final var lease = this.acquireModelType(missionModelId)) {
+      return lease.modelType()
+          .getConfigurationType()
+          .getEffectiveArguments(arguments);
+    }
   }
 
   /**
@@ -289,7 +349,8 @@ public final class LocalMissionModelService implements MissionModelService {
       final Plan plan,
       final Consumer<Duration> simulationExtentConsumer,
       final Supplier<Boolean> canceledListener,
-      final SimulationResourceManager resourceManager)
+      final SimulationResourceManager resourceManager,
+      final EngineMetricsListener metrics)
   throws NoSuchMissionModelException
   {
     final var config = plan.simulationConfiguration();
@@ -299,19 +360,135 @@ public final class LocalMissionModelService implements MissionModelService {
     }
 
     // TODO: [AERIE-1516] Teardown the mission model after use to release any system resources (e.g. threads).
-    return SimulationDriver.simulate(
-        loadAndInstantiateMissionModel(
-            plan.missionModelId(),
-            plan.planStartInstant(),
-            SerializedValue.of(config)),
-        plan.activityDirectives(),
+    try (final var lease = this.acquireModelType(plan.missionModelId())) {
+      return SimulationDriver.simulate(
+          lease.instantiate(plan.planStartInstant(), SerializedValue.of(config)),
+          plan.activityDirectives(),
+          plan.simulationStartInstant(),
+          plan.simulationDuration(),
+          plan.planStartInstant(),
+          plan.duration(),
+          canceledListener,
+          simulationExtentConsumer,
+          resourceManager,
+          this.engineOptions.withMetrics(metrics));
+    }
+  }
+
+  /**
+   * Simulate a plan, resuming from the latest checkpoint of an earlier simulation of the plan
+   * that the plan's changes since have not invalidated, and taking checkpoints for later simulations of it.
+   *
+   * Checkpoints are taken at even intervals across the simulation. Each holds the resource profiles simulated so far,
+   * which are given to the resource manager once simulation ends, as if they had been simulated afresh.
+   * Engine metrics only cover the part of the simulation run after the checkpoint it resumes from.
+   */
+  @Override
+  public SimulationResults runSimulation(
+      final PlanId planId,
+      final Plan plan,
+      final Consumer<Duration> simulationExtentConsumer,
+      final Supplier<Boolean> canceledListener,
+      final SimulationResourceManager resourceManager,
+      final EngineMetricsListener metrics,
+      final SimulationCheckpointCache checkpointCache)
+  throws NoSuchMissionModelException
+  {
+    final var config = plan.simulationConfiguration();
+    if (config.isEmpty()) {
+      log.warn(
+          "No mission model configuration defined for mission model. Simulations will receive an empty set of configuration arguments.");
+    }
+
+    final var lease = this.acquireModelType(plan.missionModelId());
+    final var key = new SimulationCheckpointCache.Key(
+        lease.key(),
+        config,
         plan.simulationStartInstant(),
         plan.simulationDuration(),
         plan.planStartInstant(),
-        plan.duration(),
-        canceledListener,
-        simulationExtentConsumer,
-        resourceManager);
+        plan.duration());
+    final var checkpoints = checkpointCache.checkOut(planId, key, lease);
+    try {
+      return simulateFromCheckpoint(
+          plan,
+          checkpoints,
+          simulationExtentConsumer,
+          canceledListener,
+          resourceManager,
+          this.engineOptions.withMetrics(metrics));
+    } finally {
+      checkpointCache.checkIn(planId, checkpoints);
+    }
+  }
+
+  /*package-local*/ static SimulationResults simulateFromCheckpoint(
+      final Plan plan,
+      final SimulationCheckpointCache.PlanCheckpoints checkpoints,
+      final Consumer<Duration> simulationExtentConsumer,
+      final Supplier<Boolean> canceledListener,
+      final SimulationResourceManager resourceManager,
+      final SimulationEngine.Options engineOptions)
+  {
+    final var config = plan.simulationConfiguration();
+    final var configuration = new SimulationEngineConfiguration(
+        config,
+        plan.simulationStartInstant(),
+        plan.missionModelId());
+
+    // A checkpoint's engine reports to the metrics listener of the simulation which took it, so it is resumed
+    // through a duplicate reporting to this simulation's listener instead.
+    final var cachedEngine = checkpoints.resumeFrom(plan.activityDirectives())
+        .map($ -> new CachedSimulationEngine(
+            $.endsAt(),
+            $.activityDirectives(),
+            $.simulationEngine().duplicate(engineOptions.metrics()),
+            $.activityTopic(),
+            $.missionModel(),
+            $.resourceManager()))
+        .orElseGet(() -> CachedSimulationEngine.empty(
+            checkpoints.lease().instantiate(plan.planStartInstant(), SerializedValue.of(config)),
+            plan.simulationStartInstant(),
+            engineOptions));
+
+    final var simulationDuration = plan.simulationDuration();
+    final var checkpointTimes = new ArrayList<Duration>(checkpoints.capacity());
+    for (var i = 1; i <= checkpoints.capacity(); i++) {
+      checkpointTimes.add(simulationDuration.dividedBy(checkpoints.capacity()).times(i));
+    }
+
+    final SimulationResultsComputerInputs inputs;
+    try {
+      inputs = CheckpointSimulationDriver.simulateWithCheckpoints(
+          cachedEngine.missionModel(),
+          plan.activityDirectives(),
+          plan.simulationStartInstant(),
+          simulationDuration,
+          plan.planStartInstant(),
+          plan.duration(),
+          simulationExtentConsumer,
+          canceledListener,
+          cachedEngine,
+          CheckpointSimulationDriver.desiredCheckpoints(checkpointTimes),
+          CheckpointSimulationDriver.noCondition(),
+          checkpoints,
+          configuration);
+    } finally {
+      // The engine resumed from is only the basis of the simulation's own engine, and is not kept as a checkpoint.
+      cachedEngine.simulationEngine().close();
+    }
+
+    try {
+      final var elapsedTime = inputs.engine().getElapsedTime();
+      inputs.resourceManager().computeProfiles(elapsedTime).replayInto(resourceManager);
+      return inputs.engine().computeResults(
+          inputs.simulationStartTime(),
+          inputs.activityTopic(),
+          inputs.serializableTopics(),
+          resourceManager);
+    } finally {
+      inputs.engine().close();
+    }
   }
 
   @Override
@@ -329,9 +506,8 @@ public final class LocalMissionModelService implements MissionModelService {
   public void refreshActivityTypes(final MissionModelId missionModelId)
   throws NoSuchMissionModelException
   {
-    try {
-      final var modelType = this.loadMissionModelType(missionModelId);
-      final var registry = DirectiveTypeRegistry.extract(modelType);
+    try (final var lease = this.acquireModelType(missionModelId)) {
+      final var registry = lease.registry();
       final var activityTypes = new HashMap<String, ActivityType>();
       registry.directiveTypes().forEach((name, directiveType) -> {
         final var inputType = directiveType.getInputType();
@@ -351,69 +527,42 @@ public final class LocalMissionModelService implements MissionModelService {
   @Override
   public void refreshResourceTypes(final MissionModelId missionModelId)
   throws NoSuchMissionModelException, MissionModelLoadException {
-    try {
-      final var model = this.loadAndInstantiateMissionModel(missionModelId);
+    try (final var lease = this.acquireModelType(missionModelId)) {
+      final var model = lease.instantiate(untruePlanStart, SerializedValue.of(Map.of()));
       this.missionModelRepository.updateResourceTypes(missionModelId, model.getResources());
     } catch (MissionModelRepository.NoSuchMissionModelException e) {
       throw new NoSuchMissionModelException(missionModelId);
     }
   }
 
-  private ModelType<?, ?> loadMissionModelType(final MissionModelId missionModelId)
-  throws NoSuchMissionModelException, MissionModelLoadException
-  {
-    try {
-      final var missionModelJar = this.missionModelRepository.getMissionModel(missionModelId);
-      return MissionModelLoader.loadModelType(missionModelDataPath.resolve(missionModelJar.path), missionModelJar.name, missionModelJar.version);
-    } catch (final MissionModelRepository.NoSuchMissionModelException ex) {
-      throw new NoSuchMissionModelException(missionModelId, ex);
-    } catch (final MissionModelLoader.MissionModelLoadException ex) {
-      throw new MissionModelLoadException(ex);
-    }
-  }
-
   /**
-   * Load a {@link MissionModel} from the mission model repository using the mission model's default mission model configuration
+   * Get the type of a mission model in the mission model repository, loading it only if it is not already cached.
    *
    * @param missionModelId The ID of the mission model in the mission model repository to load.
-   * @return A {@link MissionModel} domain object allowing use of the loaded mission model.
+   * @return A lease on the model type, which must be closed once the model type (and any mission model instantiated
+   * from it) is no longer needed.
    * @throws MissionModelLoadException If the mission model cannot be loaded -- the JAR may be invalid, or the mission model
    * it contains may not abide by the expected contract at load time.
    * @throws NoSuchMissionModelException If no mission model is known by the given ID.
    */
-  private MissionModel<?> loadAndInstantiateMissionModel(final MissionModelId missionModelId)
-  throws NoSuchMissionModelException, MissionModelLoadException
-  {
-    return loadAndInstantiateMissionModel(missionModelId, untruePlanStart, SerializedValue.of(Map.of()));
-  }
-
-  /**
-   * Load a {@link MissionModel} from the mission model repository.
-   *
-   * @param missionModelId The ID of the mission model in the mission model repository to load.
-   * @param configuration The mission model configuration to load the mission model with.
-   * @return A {@link MissionModel} domain object allowing use of the loaded mission model.
-   * @throws MissionModelLoadException If the mission model cannot be loaded -- the JAR may be invalid, or the mission model
-   * it contains may not abide by the expected contract at load time.
-   * @throws NoSuchMissionModelException If no mission model is known by the given ID.
-   */
-  private MissionModel<?> loadAndInstantiateMissionModel(
-      final MissionModelId missionModelId,
-      final Instant planStart,
-      final SerializedValue configuration)
+  private MissionModelCache.Lease acquireModelType(final MissionModelId missionModelId)
   throws NoSuchMissionModelException, MissionModelLoadException
   {
     try {
       final var missionModelJar = this.missionModelRepository.getMissionModel(missionModelId);
-      return MissionModelLoader.loadMissionModel(
-          planStart,
-          configuration,
-          missionModelDataPath.resolve(missionModelJar.path),
-          missionModelJar.name,
-          missionModelJar.version);
+      final var path = missionModelDataPath.resolve(missionModelJar.path);
+      final var key = new MissionModelCache.Key(
+          missionModelId,
+          path,
+          Files.size(path),
+          Files.getLastModifiedTime(path).toMillis());
+
+      return this.modelCache.acquire(
+          key,
+          () -> MissionModelLoader.loadModelTypeWithClassLoader(path, missionModelJar.name, missionModelJar.version));
     } catch (final MissionModelRepository.NoSuchMissionModelException ex) {
       throw new NoSuchMissionModelException(missionModelId, ex);
-    } catch (final MissionModelLoader.MissionModelLoadException ex) {
+    } catch (final MissionModelLoader.MissionModelLoadException | IOException ex) {
       throw new MissionModelLoadException(ex);
     }
   }
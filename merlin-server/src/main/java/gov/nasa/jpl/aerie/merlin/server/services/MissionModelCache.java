@@ -0,0 +1,171 @@
+package gov.nasa.jpl.aerie.merlin.server.services;
+
+import gov.nasa.jpl.aerie.merlin.driver.DirectiveTypeRegistry;
+import gov.nasa.jpl.aerie.merlin.driver.MissionModel;
+import gov.nasa.jpl.aerie.merlin.driver.MissionModelLoader;
+import gov.nasa.jpl.aerie.merlin.protocol.model.ModelType;
+import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+import gov.nasa.jpl.aerie.types.MissionModelId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+
+/**
+ * A bounded cache of loaded mission model types, so that a model's JAR need not be opened and its classes loaded
+ * afresh for every request against it.
+ *
+ * Entries are keyed by the JAR's fingerprint as well as the model's id, so that a replaced JAR is never served stale.
+ * When the cache is full, the least-recently-used model is evicted and its class loader closed;
+ * models still in use are closed only once every {@link Lease} on them has been released.
+ */
+public final class MissionModelCache {
+  private static final Logger log = LoggerFactory.getLogger(MissionModelCache.class);
+
+  /** Identifies a particular JAR for a mission model, by its location, size, and modification time. */
+  public record Key(MissionModelId missionModelId, Path path, long size, long lastModified) {}
+
+  public record Stats(long hits, long misses, long evictions, int size) {}
+
+  @FunctionalInterface
+  public interface Loader {
+    MissionModelLoader.LoadedModelType load() throws MissionModelLoader.MissionModelLoadException;
+  }
+
+  private static final class Entry {
+    private final Key key;
+    private final MissionModelLoader.LoadedModelType model;
+    private int leases = 0;
+    private boolean evicted = false;
+
+    private Entry(final Key key, final MissionModelLoader.LoadedModelType model) {
+      this.key = key;
+      this.model = model;
+    }
+  }
+
+  private final int capacity;
+  /** Entries in least- to most-recently-used order. */
+  private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+  private long hits = 0;
+  private long misses = 0;
+  private long evictions = 0;
+
+  public MissionModelCache(final int capacity) {
+    if (capacity < 1) throw new IllegalArgumentException(
+        "Cache capacity must be positive, but was %d".formatted(capacity));
+    this.capacity = capacity;
+  }
+
+  /**
+   * Get the model type identified by the given key, loading it if it is not already cached.
+   *
+   * The model type remains usable until the returned lease is closed.
+   */
+  public Lease acquire(final Key key, final Loader loader) throws MissionModelLoader.MissionModelLoadException {
+    synchronized (this) {
+      final var entry = this.entries.get(key);
+      if (entry != null) {
+        this.hits += 1;
+        entry.leases += 1;
+        return new Lease(entry);
+      }
+      this.misses += 1;
+    }
+
+    // Load without holding the lock, so that requests against other models are not held up.
+    final var loaded = loader.load();
+
+    final Entry entry;
+    synchronized (this) {
+      final var existing = this.entries.get(key);
+      if (existing != null) {
+        // Another request loaded the same model in the meantime; use theirs.
+        closeClassLoader(key, loaded);
+        entry = existing;
+      } else {
+        // Any other JAR for the same model has been superseded.
+        this.entries.entrySet().removeIf(e -> {
+          if (!e.getKey().missionModelId().equals(key.missionModelId())) return false;
+          this.evict(e.getValue());
+          return true;
+        });
+
+        entry = new Entry(key, loaded);
+        this.entries.put(key, entry);
+
+        final var iterator = this.entries.entrySet().iterator();
+        while (this.entries.size() > this.capacity) {
+          final var eldest = iterator.next();
+          iterator.remove();
+          this.evict(eldest.getValue());
+        }
+      }
+
+      entry.leases += 1;
+      log.debug("Loaded mission model {} from {} (cache: {})", key.missionModelId().id(), key.path(), this.stats());
+      return new Lease(entry);
+    }
+  }
+
+  public synchronized Stats stats() {
+    return new Stats(this.hits, this.misses, this.evictions, this.entries.size());
+  }
+
+  private void evict(final Entry entry) {
+    this.evictions += 1;
+    entry.evicted = true;
+    if (entry.leases == 0) closeClassLoader(entry.key, entry.model);
+  }
+
+  private synchronized void release(final Entry entry) {
+    entry.leases -= 1;
+    if (entry.evicted && entry.leases == 0) closeClassLoader(entry.key, entry.model);
+  }
+
+  private static void closeClassLoader(final Key key, final MissionModelLoader.LoadedModelType model) {
+    try {
+      model.close();
+    } catch (final IOException ex) {
+      log.warn("Failed to close class loader for mission model {}", key.missionModelId().id(), ex);
+    }
+  }
+
+  /** A hold on a cached model type, preventing its classes from being unloaded until closed. */
+  public final class Lease implements AutoCloseable {
+    private final Entry entry;
+    private boolean closed = false;
+
+    private Lease(final Entry entry) {
+      this.entry = entry;
+    }
+
+    /** Identifies the JAR from which the leased model type was loaded. */
+    public Key key() {
+      return this.entry.key;
+    }
+
+    public ModelType<?, ?> modelType() {
+      return this.entry.model.modelType();
+    }
+
+    public DirectiveTypeRegistry<?> registry() {
+      return this.entry.model.registry();
+    }
+
+    public MissionModel<?> instantiate(final Instant planStart, final SerializedValue configuration) {
+      return MissionModelLoader.loadMissionModel(planStart, configuration, this.entry.model.modelType());
+    }
+
+    @Override
+    public void close() {
+      if (this.closed) return;
+      this.closed = true;
+      MissionModelCache.this.release(this.entry);
+    }
+  }
+}
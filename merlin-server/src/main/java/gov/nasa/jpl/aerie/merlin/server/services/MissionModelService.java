@@ -6,6 +6,7 @@ import gov.nasa.jpl.aerie.types.MissionModelId;
 import gov.nasa.jpl.aerie.types.Plan;
 import gov.nasa.jpl.aerie.types.SerializedActivity;
 import gov.nasa.jpl.aerie.merlin.driver.SimulationResults;
+import gov.nasa.jpl.aerie.merlin.driver.engine.EngineMetricsListener;
 import gov.nasa.jpl.aerie.merlin.driver.resources.SimulationResourceManager;
 import gov.nasa.jpl.aerie.merlin.protocol.model.InputType.Parameter;
 import gov.nasa.jpl.aerie.merlin.protocol.model.InputType.ValidationNotice;
@@ -15,6 +16,7 @@ import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
 import gov.nasa.jpl.aerie.merlin.protocol.types.ValueSchema;
 import gov.nasa.jpl.aerie.merlin.server.models.ActivityType;
 import gov.nasa.jpl.aerie.merlin.server.models.MissionModelJar;
+import gov.nasa.jpl.aerie.merlin.server.models.PlanId;
 
 import java.util.List;
 import java.util.Map;
@@ -68,9 +70,27 @@ public interface MissionModelService {
       final Plan plan,
       final Consumer<Duration> writer,
       final Supplier<Boolean> canceledListener,
-      final SimulationResourceManager resourceManager
+      final SimulationResourceManager resourceManager,
+      final EngineMetricsListener metrics
   ) throws NoSuchMissionModelException, MissionModelService.NoSuchActivityTypeException;
 
+  /**
+   * Simulate a plan, reusing checkpoints of earlier simulations of it where possible.
+   *
+   * Services that do not support checkpoints simulate the plan from the start.
+   */
+  default SimulationResults runSimulation(
+      final PlanId planId,
+      final Plan plan,
+      final Consumer<Duration> writer,
+      final Supplier<Boolean> canceledListener,
+      final SimulationResourceManager resourceManager,
+      final EngineMetricsListener metrics,
+      final SimulationCheckpointCache checkpointCache
+  ) throws NoSuchMissionModelException, MissionModelService.NoSuchActivityTypeException {
+    return this.runSimulation(plan, writer, canceledListener, resourceManager, metrics);
+  }
+
   void refreshModelParameters(MissionModelId missionModelId) throws NoSuchMissionModelException;
   void refreshActivityTypes(MissionModelId missionModelId) throws NoSuchMissionModelException;
   void refreshResourceTypes(MissionModelId missionModelId) throws NoSuchMissionModelException;
@@ -0,0 +1,82 @@
+package gov.nasa.jpl.aerie.merlin.server.services;
+
+import gov.nasa.jpl.aerie.merlin.driver.engine.ProfileSegment;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.RealDynamics;
+import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Turns the segments of a resource profile into a timeline of samples within a window of simulation time.
+ *
+ * Each segment overlapping the window contributes a sample at either end of the part of it within the window,
+ * so a window starting or ending partway through a segment is sampled at its own edges, not the segment's.
+ * Gaps in a profile contribute no samples.
+ */
+public final class ResourceSampling {
+  private ResourceSampling() {}
+
+  /** Sample a real profile whose first segment begins at `start`, interpolating its values at the window's edges. */
+  public static List<Pair<Duration, SerializedValue>> sampleReal(
+      final Duration start,
+      final List<ProfileSegment<Optional<RealDynamics>>> segments,
+      final Duration windowStart,
+      final Duration windowEnd)
+  {
+    final var timeline = new ArrayList<Pair<Duration, SerializedValue>>();
+    forEachSegmentInWindow(start, segments, windowStart, windowEnd, (segmentStart, from, to, dynamics) -> {
+      timeline.add(Pair.of(from, SerializedValue.of(valueAt(dynamics, from.minus(segmentStart)))));
+      timeline.add(Pair.of(to, SerializedValue.of(valueAt(dynamics, to.minus(segmentStart)))));
+    });
+    return timeline;
+  }
+
+  /** Sample a discrete profile whose first segment begins at `start`. */
+  public static List<Pair<Duration, SerializedValue>> sampleDiscrete(
+      final Duration start,
+      final List<ProfileSegment<Optional<SerializedValue>>> segments,
+      final Duration windowStart,
+      final Duration windowEnd)
+  {
+    final var timeline = new ArrayList<Pair<Duration, SerializedValue>>();
+    forEachSegmentInWindow(start, segments, windowStart, windowEnd, (segmentStart, from, to, value) -> {
+      timeline.add(Pair.of(from, value));
+      timeline.add(Pair.of(to, value));
+    });
+    return timeline;
+  }
+
+  private static double valueAt(final RealDynamics dynamics, final Duration elapsed) {
+    return dynamics.initial + dynamics.rate * elapsed.ratioOver(Duration.SECONDS);
+  }
+
+  /*package-local*/ interface SegmentVisitor<Dynamics> {
+    void visit(Duration segmentStart, Duration from, Duration to, Dynamics dynamics);
+  }
+
+  /** Visit the part of each segment lying within the window, skipping gaps. */
+  /*package-local*/ static <Dynamics> void forEachSegmentInWindow(
+      final Duration start,
+      final List<ProfileSegment<Optional<Dynamics>>> segments,
+      final Duration windowStart,
+      final Duration windowEnd,
+      final SegmentVisitor<Dynamics> visitor)
+  {
+    var segmentStart = start;
+    for (final var segment : segments) {
+      final var segmentEnd = segmentStart.plus(segment.extent());
+      final var from = Duration.max(segmentStart, windowStart);
+      final var to = Duration.min(segmentEnd, windowEnd);
+
+      // Instantaneous segments are kept, so long as they lie within the window.
+      final var overlaps = from.shorterThan(to) || (segment.extent().isZero() && from.noLongerThan(to));
+      if (overlaps && segment.dynamics().isPresent()) visitor.visit(segmentStart, from, to, segment.dynamics().get());
+
+      segmentStart = segmentEnd;
+    }
+  }
+}
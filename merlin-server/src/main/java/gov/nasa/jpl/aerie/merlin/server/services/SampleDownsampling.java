@@ -0,0 +1,71 @@
+package gov.nasa.jpl.aerie.merlin.server.services;
+
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Reduces a timeline of samples to a bounded number of points, for display.
+ *
+ * The timeline is divided into equal spans of time, and within each span only the first and last samples are kept,
+ * along with the samples of least and greatest value. Every peak and trough of a numeric timeline is therefore
+ * preserved, however narrow, so a plot of the reduced timeline spans the same range of values as the original.
+ * Non-numeric values cannot be ranked, so only the first and last samples of each span are kept for them.
+ */
+public final class SampleDownsampling {
+  private SampleDownsampling() {}
+
+  /** The number of samples kept from each span of time. */
+  private static final int POINTS_PER_SPAN = 4;
+
+  /** Reduce a timeline of samples, ordered by time, to at most `maxPoints` samples, or four if `maxPoints` is smaller. */
+  public static List<Pair<Duration, SerializedValue>> minMax(
+      final List<Pair<Duration, SerializedValue>> samples,
+      final int maxPoints)
+  {
+    if (samples.size() <= Math.max(maxPoints, POINTS_PER_SPAN)) return samples;
+
+    final var spans = Math.max(1, maxPoints / POINTS_PER_SPAN);
+    final var start = samples.getFirst().getLeft().in(Duration.MICROSECONDS);
+    final var length = samples.getLast().getLeft().in(Duration.MICROSECONDS) - start;
+
+    final var kept = new TreeSet<Integer>();
+    var spanFirst = 0;
+    while (spanFirst < samples.size()) {
+      final var span = spanOf(samples.get(spanFirst), start, length, spans);
+
+      var spanLast = spanFirst;
+      var min = -1;
+      var max = -1;
+      for (var i = spanFirst; i < samples.size() && spanOf(samples.get(i), start, length, spans) == span; i++) {
+        spanLast = i;
+
+        final var value = samples.get(i).getRight().asReal();
+        if (value.isEmpty()) continue;
+        if (min < 0 || value.get() < samples.get(min).getRight().asReal().orElseThrow()) min = i;
+        if (max < 0 || value.get() > samples.get(max).getRight().asReal().orElseThrow()) max = i;
+      }
+
+      kept.add(spanFirst);
+      kept.add(spanLast);
+      if (min >= 0) kept.add(min);
+      if (max >= 0) kept.add(max);
+
+      spanFirst = spanLast + 1;
+    }
+
+    final var result = new ArrayList<Pair<Duration, SerializedValue>>(kept.size());
+    for (final var i : kept) result.add(samples.get(i));
+    return result;
+  }
+
+  private static int spanOf(final Pair<Duration, SerializedValue> sample, final long start, final long length, final int spans) {
+    if (length == 0) return 0;
+    final var offset = sample.getLeft().in(Duration.MICROSECONDS) - start;
+    return (int) Math.min(spans - 1, (long) (((double) offset / length) * spans));
+  }
+}
@@ -1,7 +1,9 @@
 package gov.nasa.jpl.aerie.merlin.server.services;
 
 import gov.nasa.jpl.aerie.merlin.driver.SimulationException;
+import gov.nasa.jpl.aerie.merlin.driver.SimulationMetrics;
 import gov.nasa.jpl.aerie.merlin.driver.SimulationResults;
+import gov.nasa.jpl.aerie.merlin.driver.engine.EngineMetricsListener;
 import gov.nasa.jpl.aerie.merlin.driver.resources.SimulationResourceManager;
 import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
 import gov.nasa.jpl.aerie.merlin.server.ResultsProtocol;
@@ -9,17 +11,24 @@ import gov.nasa.jpl.aerie.merlin.server.exceptions.NoSuchPlanException;
 import gov.nasa.jpl.aerie.merlin.server.http.ResponseSerializers;
 import gov.nasa.jpl.aerie.merlin.server.models.PlanId;
 import gov.nasa.jpl.aerie.types.Plan;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.json.Json;
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 public record SimulationAgent (
     PlanService planService,
     MissionModelService missionModelService,
-    long simulationProgressPollPeriod
+    long simulationProgressPollPeriod,
+    boolean reportSimulationMetrics,
+    Optional<SimulationCheckpointCache> checkpointCache
 ) {
+  private static final Logger log = LoggerFactory.getLogger(SimulationAgent.class);
+
   public void simulate(
       final PlanId planId,
       final RevisionData revisionData,
@@ -50,6 +59,7 @@ public record SimulationAgent (
     }
 
     final SimulationResults results;
+    final var metrics = new SimulationMetrics();
     try {
       // Validate plan activity construction
       final var failures = this.missionModelService.validateActivityInstantiations(
@@ -71,11 +81,22 @@ public record SimulationAgent (
           Duration.ZERO,
           simulationProgressPollPeriod)
       ) {
-        results = this.missionModelService.runSimulation(
-           plan,
-            extentListener::updateValue,
-            canceledListener,
-            resourceManager);
+        final var metricsListener = this.reportSimulationMetrics ? metrics : EngineMetricsListener.NONE;
+        results = (this.checkpointCache.isPresent())
+            ? this.missionModelService.runSimulation(
+                planId,
+                plan,
+                extentListener::updateValue,
+                canceledListener,
+                resourceManager,
+                metricsListener,
+                this.checkpointCache.get())
+            : this.missionModelService.runSimulation(
+                plan,
+                extentListener::updateValue,
+                canceledListener,
+                resourceManager,
+                metricsListener);
       }
     } catch (SimulationException ex) {
       final var errorMsgBuilder = Json.createObjectBuilder()
@@ -106,6 +127,8 @@ public record SimulationAgent (
       return;
     }
 
+    if (this.reportSimulationMetrics) log.info("Simulated plan {}\n{}", planId.id(), metrics.report().format());
+
     if(canceledListener.get()) {
       writer.reportIncompleteResults(results);
     } else {
@@ -0,0 +1,193 @@
+package gov.nasa.jpl.aerie.merlin.server.services;
+
+import gov.nasa.jpl.aerie.merlin.driver.CachedEngineStore;
+import gov.nasa.jpl.aerie.merlin.driver.CachedSimulationEngine;
+import gov.nasa.jpl.aerie.merlin.driver.CheckpointSimulationDriver;
+import gov.nasa.jpl.aerie.merlin.driver.SimulationEngineConfiguration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+import gov.nasa.jpl.aerie.merlin.server.models.PlanId;
+import gov.nasa.jpl.aerie.types.ActivityDirective;
+import gov.nasa.jpl.aerie.types.ActivityDirectiveId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Holds checkpoints of recent simulations of each plan, so that a plan may be re-simulated
+ * from the latest point its changes have not invalidated, rather than from the start.
+ *
+ * The checkpoints of a plan are only reused while the plan is simulated with the same mission model JAR,
+ * configuration, and bounds; any other simulation of the plan replaces them.
+ * Checkpoints are held for a bounded number of plans, discarding those of the least-recently-simulated plan when full.
+ *
+ * Each plan's checkpoints are checked out for the duration of a simulation, so that concurrent simulations
+ * never share an engine. A simulation of a plan whose checkpoints are already checked out starts afresh.
+ */
+public final class SimulationCheckpointCache {
+  private static final Logger log = LoggerFactory.getLogger(SimulationCheckpointCache.class);
+
+  /** Identifies the simulations whose checkpoints may be used in place of one another. */
+  public record Key(
+      MissionModelCache.Key missionModel,
+      Map<String, SerializedValue> configuration,
+      Instant simulationStart,
+      Duration simulationDuration,
+      Instant planStart,
+      Duration planDuration
+  ) {}
+
+  private final int planCapacity;
+  private final int checkpointsPerPlan;
+  /** Entries in least- to most-recently-used order. */
+  private final LinkedHashMap<PlanId, PlanCheckpoints> plans = new LinkedHashMap<>(16, 0.75f, true);
+
+  public SimulationCheckpointCache(final int planCapacity, final int checkpointsPerPlan) {
+    if (planCapacity < 1) throw new IllegalArgumentException(
+        "Plan capacity must be positive, but was %d".formatted(planCapacity));
+    // With a single checkpoint, the checkpoint simulation driver would resume the cached engine in place.
+    if (checkpointsPerPlan < 2) throw new IllegalArgumentException(
+        "Checkpoints per plan must be at least 2, but was %d".formatted(checkpointsPerPlan));
+
+    this.planCapacity = planCapacity;
+    this.checkpointsPerPlan = checkpointsPerPlan;
+  }
+
+  public int checkpointsPerPlan() {
+    return this.checkpointsPerPlan;
+  }
+
+  /**
+   * Take the checkpoints of a plan for a simulation identified by the given key, or an empty set if there are none.
+   *
+   * The checkpoints take ownership of the given lease, which keeps the model's classes loaded while they are held.
+   * They must be returned with {@link #checkIn} once the simulation is over.
+   */
+  public synchronized PlanCheckpoints checkOut(final PlanId planId, final Key key, final MissionModelCache.Lease lease) {
+    final var existing = this.plans.remove(planId);
+    if (existing != null) {
+      if (existing.key.equals(key)) {
+        lease.close();
+        return existing;
+      }
+      log.debug("Discarding simulation checkpoints of plan {}, which no longer match its simulation", planId.id());
+      existing.close();
+    }
+    return new PlanCheckpoints(key, lease, this.checkpointsPerPlan);
+  }
+
+  /** Return the checkpoints of a plan once its simulation is over, discarding any checkpoints it supersedes. */
+  public void checkIn(final PlanId planId, final PlanCheckpoints checkpoints) {
+    final var discarded = new ArrayList<PlanCheckpoints>();
+    synchronized (this) {
+      final var previous = this.plans.put(planId, checkpoints);
+      if (previous != null) discarded.add(previous);
+
+      final var iterator = this.plans.values().iterator();
+      while (this.plans.size() > this.planCapacity) {
+        discarded.add(iterator.next());
+        iterator.remove();
+      }
+    }
+
+    // Closing engines may take a moment, so it is done outside the lock.
+    for (final var entry : discarded) entry.close();
+  }
+
+  /**
+   * The checkpoints of one plan, for simulations identified by a single key.
+   *
+   * When full, the least-recently-used checkpoint is discarded to make room for a new one,
+   * where resuming a simulation from a checkpoint counts as using it.
+   */
+  public static final class PlanCheckpoints implements CachedEngineStore, AutoCloseable {
+    private final Key key;
+    private final MissionModelCache.Lease lease;
+    private final int capacity;
+    /** Checkpoints in least- to most-recently-used order. */
+    private final List<CachedSimulationEngine> engines = new ArrayList<>();
+
+    private PlanCheckpoints(final Key key, final MissionModelCache.Lease lease, final int capacity) {
+      this.key = key;
+      this.lease = lease;
+      this.capacity = capacity;
+    }
+
+    public MissionModelCache.Lease lease() {
+      return this.lease;
+    }
+
+    /**
+     * Find the latest checkpoint from which a simulation of the given directives may resume, and mark it as used.
+     *
+     * Checkpoints from which no simulation of these directives could resume were taken of an earlier version
+     * of the plan, and are discarded.
+     */
+    public Optional<CachedSimulationEngine> resumeFrom(final Map<ActivityDirectiveId, ActivityDirective> directives) {
+      Optional<CachedSimulationEngine> best = Optional.empty();
+
+      final var iterator = this.engines.iterator();
+      while (iterator.hasNext()) {
+        final var engine = iterator.next();
+        final var resumable = CheckpointSimulationDriver
+            .bestCachedEngine(directives, List.of(engine), this.key.planDuration())
+            // A checkpoint whose directives match the plan's only under other ids would attribute activities wrongly.
+            .filter($ -> $.getRight().entrySet().stream().allMatch(e -> e.getKey().equals(e.getValue())))
+            .isPresent();
+
+        if (!resumable) {
+          iterator.remove();
+          engine.simulationEngine().close();
+        } else if (best.isEmpty() || engine.endsAt().longerThan(best.get().endsAt())) {
+          best = Optional.of(engine);
+        }
+      }
+
+      best.ifPresent(this::registerUsed);
+      return best;
+    }
+
+    /** Mark a checkpoint as used, so that it is the last to be discarded to make room for new checkpoints. */
+    public void registerUsed(final CachedSimulationEngine engine) {
+      if (this.engines.remove(engine)) this.engines.add(engine);
+    }
+
+    @Override
+    public void save(final CachedSimulationEngine engine, final SimulationEngineConfiguration configuration) {
+      for (final var saved : this.engines) {
+        if (saved.endsAt().equals(engine.endsAt()) && saved.activityDirectives().equals(engine.activityDirectives())) {
+          // The driver has handed the engine over, so a duplicate which is not kept must be released here.
+          if (saved != engine) engine.simulationEngine().close();
+          return;
+        }
+      }
+
+      if (this.engines.size() >= this.capacity) this.engines.removeFirst().simulationEngine().close();
+      this.engines.add(engine);
+    }
+
+    @Override
+    public List<CachedSimulationEngine> getCachedEngines(final SimulationEngineConfiguration configuration) {
+      // Every checkpoint held here was taken under the same key, and so the same configuration.
+      return List.copyOf(this.engines);
+    }
+
+    @Override
+    public int capacity() {
+      return this.capacity;
+    }
+
+    @Override
+    public void close() {
+      for (final var engine : this.engines) engine.simulationEngine().close();
+      this.engines.clear();
+      this.lease.close();
+    }
+  }
+}
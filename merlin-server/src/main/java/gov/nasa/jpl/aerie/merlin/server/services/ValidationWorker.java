@@ -2,62 +2,117 @@ package gov.nasa.jpl.aerie.merlin.server.services;
 
 import gov.nasa.jpl.aerie.merlin.server.models.ActivityDirectiveForValidation;
 import gov.nasa.jpl.aerie.merlin.server.services.MissionModelService.BulkArgumentValidationResponse;
+import gov.nasa.jpl.aerie.types.MissionModelId;
 import org.apache.commons.lang3.tuple.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.IntStream;
 import java.util.List;
 
-public record ValidationWorker(LocalMissionModelService missionModelService, int pollingPeriod) {
+/**
+ * Validates the arguments of activity directives awaiting validation.
+ *
+ * The worker wakes whenever it is notified of pending validations, and otherwise checks for them once per polling period.
+ * Directives are validated in batches by mission model, with the batches for different models validated in parallel.
+ */
+public final class ValidationWorker {
 
   private static final Logger logger = LoggerFactory.getLogger(ValidationWorker.class);
 
-  public void workerLoop() {
-    logger.info("validation worker starting...");
-    while (!Thread.interrupted()) {
-      try {
-        Thread.sleep(pollingPeriod);
-
-        // get unvalidated directives, batched by mission model id
-        final var validationRequests = missionModelService.getUnvalidatedDirectives();
-        if (!validationRequests.isEmpty()) {
-          logger.debug(
-              "queried {} directives that need validations, across {} models",
-              validationRequests.size(),
-              validationRequests.keySet().size());
-        }
+  private final LocalMissionModelService missionModelService;
+  private final int pollingPeriod;
+  private final ExecutorService executor;
+  /** Holds a token while a notification of pending validations has yet to be acted upon. */
+  private final BlockingQueue<Boolean> pendingNotification = new ArrayBlockingQueue<>(1);
 
-        // spin up each mission model once and process all corresponding directive validations
-        for (final var entry : validationRequests.entrySet()) {
-          final var beginTime = System.nanoTime();
+  public ValidationWorker(final LocalMissionModelService missionModelService, final int pollingPeriod, final int parallelism) {
+    if (parallelism < 1) throw new IllegalArgumentException(
+        "Validation parallelism must be positive, but was %d".formatted(parallelism));
 
-          final var modelId = entry.getKey();
-          logger.debug("processing batch for mission model: {}", modelId.toString());
+    this.missionModelService = missionModelService;
+    this.pollingPeriod = pollingPeriod;
+    this.executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+      final var thread = new Thread(runnable, "validation-worker-batch");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
 
-          final var unvalidatedDirectives = entry.getValue();
-          final var responses = missionModelService.validateActivityArgumentsBulk(modelId, unvalidatedDirectives);
+  /** Wake the worker to validate pending directives, without waiting for its polling period to elapse. */
+  public void notifyPendingValidations() {
+    // Notifications received before the worker wakes are coalesced.
+    this.pendingNotification.offer(true);
+  }
+
+  public void workerLoop() {
+    logger.info("validation worker starting...");
+    try {
+      while (!Thread.interrupted()) {
+        try {
+          this.pendingNotification.poll(pollingPeriod, TimeUnit.MILLISECONDS);
 
-          // zip together directives and validations, since DB action needs to insert validations for a given directive
-          final List<Pair<ActivityDirectiveForValidation, BulkArgumentValidationResponse>> zippedList = zip(unvalidatedDirectives, responses);
+          // get unvalidated directives, batched by mission model id
+          final var validationRequests = missionModelService.getUnvalidatedDirectives();
+          if (!validationRequests.isEmpty()) {
+            logger.debug(
+                "queried {} directives that need validations, across {} models",
+                validationRequests.size(),
+                validationRequests.keySet().size());
+          }
 
-          // write validations out to DB
-          missionModelService.updateDirectiveValidations(zippedList);
+          // spin up each mission model once and process all corresponding directive validations
+          final var batches = new ArrayList<Future<?>>();
+          for (final var entry : validationRequests.entrySet()) {
+            batches.add(this.executor.submit(() -> this.validateBatch(entry.getKey(), entry.getValue())));
+          }
 
-          final var endTime = System.nanoTime();
-          final var duration = (endTime - beginTime) / 1_000_000.0;
-          logger.debug("processed model batch of size {} in {} ms", unvalidatedDirectives.size(), duration);
+          for (final var batch : batches) {
+            try {
+              batch.get();
+            } catch (ExecutionException ex) {
+              // a failed batch is left pending, and retried on the next pass
+              logger.error("Recovering from unexpected error encountered while validating a batch: ", ex.getCause());
+            }
+          }
+        } catch (InterruptedException ex) {
+          // we were interrupted, so exit gracefully
+          return;
+        } catch (Throwable t) {
+          // catch all to keep validation thread from dying, which would require a merlin-server restart
+          logger.error("Recovering from unexpected error encountered in validation thread: ", t);
         }
-      } catch (InterruptedException ex) {
-        // we were interrupted, so exit gracefully
-        return;
-      } catch (Throwable t) {
-        // catch all to keep validation thread from dying, which would require a merlin-server restart
-        logger.error("Recovering from unexpected error encountered in validation thread: ", t);
       }
+    } finally {
+      this.executor.shutdownNow();
     }
   }
 
+  private void validateBatch(final MissionModelId modelId, final List<ActivityDirectiveForValidation> unvalidatedDirectives) {
+    final var beginTime = System.nanoTime();
+    logger.debug("processing batch for mission model: {}", modelId.toString());
+
+    final var responses = missionModelService.validateActivityArgumentsBulk(modelId, unvalidatedDirectives);
+
+    // zip together directives and validations, since DB action needs to insert validations for a given directive
+    final List<Pair<ActivityDirectiveForValidation, BulkArgumentValidationResponse>> zippedList = zip(unvalidatedDirectives, responses);
+
+    // write validations out to DB
+    missionModelService.updateDirectiveValidations(zippedList);
+
+    final var endTime = System.nanoTime();
+    final var duration = (endTime - beginTime) / 1_000_000.0;
+    logger.debug("processed model batch of size {} in {} ms", unvalidatedDirectives.size(), duration);
+  }
+
   private static <L, R> List<Pair<L, R>> zip(List<L> left, List<R> right) {
     return IntStream.range(0, Math.min(left.size(), right.size()))
                     .mapToObj(i -> Pair.of(left.get(i), right.get(i)))
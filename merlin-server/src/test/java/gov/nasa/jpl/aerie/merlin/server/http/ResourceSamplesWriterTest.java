@@ -0,0 +1,71 @@
+package gov.nasa.jpl.aerie.merlin.server.http;
+
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.Test;
+
+import javax.json.Json;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class ResourceSamplesWriterTest {
+  @Test
+  public void writtenDocumentMatchesTheSerializedSamples() throws IOException {
+    final var samples = new LinkedHashMap<String, List<Pair<Duration, SerializedValue>>>();
+    samples.put("/power", List.of(
+        Pair.of(Duration.ZERO, SerializedValue.of(1.5)),
+        Pair.of(Duration.of(10, Duration.SECONDS), SerializedValue.of(3.0))));
+    samples.put("/mode", List.of(Pair.of(Duration.of(5, Duration.MINUTES), SerializedValue.of("on"))));
+    samples.put("/empty", List.of());
+
+    final var output = new ByteArrayOutputStream();
+    final var writer = new ResourceSamplesWriter(() -> output);
+    samples.forEach(writer::accept);
+    writer.finish();
+
+    assertEquals(ResponseSerializers.serializeResourceSamples(samples), parse(output));
+  }
+
+  @Test
+  public void emptyDocumentIsWrittenWithoutSamples() throws IOException {
+    final var output = new ByteArrayOutputStream();
+    final var writer = new ResourceSamplesWriter(() -> output);
+    writer.finish();
+
+    assertEquals(ResponseSerializers.serializeResourceSamples(Map.of()), parse(output));
+  }
+
+  @Test
+  public void nothingIsWrittenIfSamplingFailsPartway() {
+    final var requested = new boolean[] {false};
+    final var writer = new ResourceSamplesWriter(() -> {
+      requested[0] = true;
+      return new ByteArrayOutputStream();
+    });
+
+    assertThrows(IllegalStateException.class, () -> {
+      writer.accept("/power", List.of(Pair.of(Duration.ZERO, SerializedValue.of(1.0))));
+      throw new IllegalStateException("database connection lost");
+    });
+
+    // The response stream was never touched, so an error response can still be sent in its place.
+    assertFalse(requested[0]);
+  }
+
+  private static Object parse(final ByteArrayOutputStream output) {
+    final var text = output.toString(StandardCharsets.UTF_8);
+    try (final var reader = Json.createReader(new StringReader(text))) {
+      return reader.readValue();
+    }
+  }
+}
@@ -0,0 +1,78 @@
+package gov.nasa.jpl.aerie.merlin.server.services;
+
+import gov.nasa.jpl.aerie.merlin.driver.MissionModelLoader;
+import gov.nasa.jpl.aerie.types.MissionModelId;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class MissionModelCacheTest {
+  private static final class TrackedClassLoader extends URLClassLoader {
+    private boolean closed = false;
+
+    public TrackedClassLoader() {
+      super(new URL[0]);
+    }
+
+    @Override
+    public void close() throws IOException {
+      this.closed = true;
+      super.close();
+    }
+  }
+
+  private static MissionModelCache.Key key(final long id, final long lastModified) {
+    return new MissionModelCache.Key(new MissionModelId(id), Path.of("model-%d.jar".formatted(id)), 0, lastModified);
+  }
+
+  private static MissionModelCache.Loader loader(final TrackedClassLoader classLoader) {
+    return () -> new MissionModelLoader.LoadedModelType(classLoader, null, null, null);
+  }
+
+  @Test
+  public void reusesCachedModels() throws Exception {
+    final var cache = new MissionModelCache(2);
+    final var classLoader = new TrackedClassLoader();
+
+    cache.acquire(key(1, 0), loader(classLoader)).close();
+    cache.acquire(key(1, 0), () -> { throw new AssertionError("Cached model should not be reloaded"); }).close();
+
+    assertEquals(new MissionModelCache.Stats(1, 1, 0, 1), cache.stats());
+    assertFalse(classLoader.closed);
+  }
+
+  @Test
+  public void closesEvictedModelsOnceReleased() throws Exception {
+    final var cache = new MissionModelCache(1);
+    final var first = new TrackedClassLoader();
+    final var second = new TrackedClassLoader();
+
+    final var lease = cache.acquire(key(1, 0), loader(first));
+    cache.acquire(key(2, 0), loader(second)).close();
+    assertFalse(first.closed, "A model in use must not be unloaded");
+
+    lease.close();
+    assertTrue(first.closed);
+    assertFalse(second.closed);
+    assertEquals(Long.valueOf(1), Long.valueOf(cache.stats().evictions()));
+  }
+
+  @Test
+  public void replacesModelsWhoseJarHasChanged() throws Exception {
+    final var cache = new MissionModelCache(4);
+    final var stale = new TrackedClassLoader();
+
+    cache.acquire(key(1, 0), loader(stale)).close();
+    cache.acquire(key(1, 1), loader(new TrackedClassLoader())).close();
+
+    assertTrue(stale.closed);
+    assertEquals(new MissionModelCache.Stats(0, 2, 1, 1), cache.stats());
+  }
+}
@@ -0,0 +1,136 @@
+package gov.nasa.jpl.aerie.merlin.server.services;
+
+import gov.nasa.jpl.aerie.merlin.driver.engine.ProfileSegment;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.RealDynamics;
+import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public final class ResourceSamplingTest {
+  private static Duration seconds(final long count) {
+    return Duration.of(count, Duration.SECONDS);
+  }
+
+  private static <T> ProfileSegment<Optional<T>> segment(final long extent, final T dynamics) {
+    return new ProfileSegment<>(seconds(extent), Optional.of(dynamics));
+  }
+
+  private static <T> ProfileSegment<Optional<T>> gap(final long extent) {
+    return new ProfileSegment<>(seconds(extent), Optional.empty());
+  }
+
+  private static Pair<Duration, SerializedValue> sample(final long time, final double value) {
+    return Pair.of(seconds(time), SerializedValue.of(value));
+  }
+
+  private static Pair<Duration, SerializedValue> sample(final long time, final String value) {
+    return Pair.of(seconds(time), SerializedValue.of(value));
+  }
+
+  /** Record each visit as its segment start, and the part of the segment within the window. */
+  private static <T> List<List<Object>> visits(
+      final long start,
+      final List<ProfileSegment<Optional<T>>> segments,
+      final long windowStart,
+      final long windowEnd)
+  {
+    final var visits = new ArrayList<List<Object>>();
+    ResourceSampling.forEachSegmentInWindow(
+        seconds(start), segments, seconds(windowStart), seconds(windowEnd),
+        (segmentStart, from, to, dynamics) -> visits.add(List.of(segmentStart, from, to, dynamics)));
+    return visits;
+  }
+
+  @Test
+  public void segmentsAreClippedToAWindowStartingAndEndingMidSegment() {
+    final var segments = List.of(segment(10, "a"), segment(10, "b"), segment(10, "c"));
+
+    assertEquals(
+        List.of(
+            List.of(seconds(0), seconds(5), seconds(10), "a"),
+            List.of(seconds(10), seconds(10), seconds(20), "b"),
+            List.of(seconds(20), seconds(20), seconds(25), "c")),
+        visits(0, segments, 5, 25));
+  }
+
+  @Test
+  public void segmentsOutsideTheWindowAreSkipped() {
+    final var segments = List.of(segment(10, "a"), segment(10, "b"), segment(10, "c"));
+
+    // Segments merely touching the window's edges contribute nothing.
+    assertEquals(
+        List.of(List.of(seconds(10), seconds(10), seconds(20), "b")),
+        visits(0, segments, 10, 20));
+  }
+
+  @Test
+  public void gapsAreSkipped() {
+    final var segments = List.of(segment(10, "a"), ResourceSamplingTest.<String>gap(10), segment(10, "c"));
+
+    assertEquals(
+        List.of(
+            List.of(seconds(0), seconds(5), seconds(10), "a"),
+            List.of(seconds(20), seconds(20), seconds(25), "c")),
+        visits(0, segments, 5, 25));
+  }
+
+  @Test
+  public void instantaneousSegmentsWithinTheWindowAreKept() {
+    final var segments = List.of(segment(10, "a"), segment(0, "b"), segment(10, "c"), segment(0, "d"));
+
+    assertEquals(
+        List.of(
+            List.of(seconds(0), seconds(5), seconds(10), "a"),
+            List.of(seconds(10), seconds(10), seconds(10), "b"),
+            List.of(seconds(10), seconds(10), seconds(20), "c"),
+            List.of(seconds(20), seconds(20), seconds(20), "d")),
+        visits(0, segments, 5, 20));
+  }
+
+  @Test
+  public void segmentsAreOffsetByTheProfileStart() {
+    final var segments = List.of(segment(10, "a"), segment(10, "b"));
+
+    assertEquals(
+        List.of(
+            List.of(seconds(30), seconds(35), seconds(40), "a"),
+            List.of(seconds(40), seconds(40), seconds(45), "b")),
+        visits(30, segments, 35, 45));
+  }
+
+  @Test
+  public void realSamplesAreInterpolatedAtTheWindowEdges() {
+    final var segments = List.of(
+        segment(10, RealDynamics.linear(0, 1)),
+        segment(10, RealDynamics.linear(100, -2)));
+
+    assertEquals(
+        List.of(sample(4, 4.0), sample(10, 10.0), sample(10, 100.0), sample(16, 88.0)),
+        ResourceSampling.sampleReal(seconds(0), segments, seconds(4), seconds(16)));
+  }
+
+  @Test
+  public void realSamplesWithinASingleSegmentAreInterpolatedFromItsStart() {
+    final var segments = List.of(ResourceSamplingTest.<RealDynamics>gap(10), segment(20, RealDynamics.linear(50, 0.5)));
+
+    assertEquals(
+        List.of(sample(14, 52.0), sample(22, 56.0)),
+        ResourceSampling.sampleReal(seconds(0), segments, seconds(14), seconds(22)));
+  }
+
+  @Test
+  public void discreteSamplesHoldTheirValueToTheWindowEdges() {
+    final var segments = List.of(segment(10, SerializedValue.of("on")), segment(10, SerializedValue.of("off")));
+
+    assertEquals(
+        List.of(sample(3, "on"), sample(10, "on"), sample(10, "off"), sample(17, "off")),
+        ResourceSampling.sampleDiscrete(seconds(0), segments, seconds(3), seconds(17)));
+  }
+}
@@ -0,0 +1,63 @@
+package gov.nasa.jpl.aerie.merlin.server.services;
+
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class SampleDownsamplingTest {
+  private static List<Pair<Duration, SerializedValue>> timeline(final double... values) {
+    final var samples = new ArrayList<Pair<Duration, SerializedValue>>();
+    for (var i = 0; i < values.length; i++) {
+      samples.add(Pair.of(Duration.of(i, Duration.SECONDS), SerializedValue.of(values[i])));
+    }
+    return samples;
+  }
+
+  @Test
+  public void smallTimelinesAreUnchanged() {
+    final var samples = timeline(1, 2, 3);
+    assertSame(samples, SampleDownsampling.minMax(samples, 10));
+  }
+
+  @Test
+  public void extremesArePreserved() {
+    final var values = new double[1000];
+    for (var i = 0; i < values.length; i++) values[i] = Math.sin(i / 10.0);
+    values[123] = 50;
+    values[789] = -50;
+    final var samples = timeline(values);
+
+    final var downsampled = SampleDownsampling.minMax(samples, 40);
+
+    assertTrue(downsampled.size() <= 40);
+    assertEquals(samples.getFirst(), downsampled.getFirst());
+    assertEquals(samples.getLast(), downsampled.getLast());
+    assertTrue(downsampled.contains(samples.get(123)));
+    assertTrue(downsampled.contains(samples.get(789)));
+    for (var i = 1; i < downsampled.size(); i++) {
+      assertTrue(downsampled.get(i - 1).getLeft().shorterThan(downsampled.get(i).getLeft()));
+    }
+  }
+
+  @Test
+  public void nonNumericTimelinesKeepSpanBoundaries() {
+    final var samples = new ArrayList<Pair<Duration, SerializedValue>>();
+    for (var i = 0; i < 100; i++) {
+      samples.add(Pair.of(Duration.of(i, Duration.SECONDS), SerializedValue.of((i % 2 == 0) ? "on" : "off")));
+    }
+
+    final var downsampled = SampleDownsampling.minMax(samples, 20);
+
+    assertEquals(10, downsampled.size());
+    assertEquals(samples.getFirst(), downsampled.getFirst());
+    assertEquals(samples.getLast(), downsampled.getLast());
+  }
+}
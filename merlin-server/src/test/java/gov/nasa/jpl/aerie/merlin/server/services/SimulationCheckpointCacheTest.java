@@ -0,0 +1,305 @@
+package gov.nasa.jpl.aerie.merlin.server.services;
+
+import gov.nasa.jpl.aerie.foomissionmodel.generated.GeneratedModelType;
+import gov.nasa.jpl.aerie.merlin.driver.CachedSimulationEngine;
+import gov.nasa.jpl.aerie.merlin.driver.DirectiveTypeRegistry;
+import gov.nasa.jpl.aerie.merlin.driver.MissionModelLoader;
+import gov.nasa.jpl.aerie.merlin.driver.SimulationEngineConfiguration;
+import gov.nasa.jpl.aerie.merlin.driver.SimulationResults;
+import gov.nasa.jpl.aerie.merlin.driver.engine.SimulationEngine;
+import gov.nasa.jpl.aerie.merlin.driver.resources.InMemorySimulationResourceManager;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+import gov.nasa.jpl.aerie.merlin.server.models.PlanId;
+import gov.nasa.jpl.aerie.types.ActivityDirective;
+import gov.nasa.jpl.aerie.types.ActivityDirectiveId;
+import gov.nasa.jpl.aerie.types.MissionModelId;
+import gov.nasa.jpl.aerie.types.Plan;
+import gov.nasa.jpl.aerie.types.Timestamp;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.HOURS;
+import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.MICROSECONDS;
+import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.MINUTES;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class SimulationCheckpointCacheTest {
+  private static final Timestamp planStart = Timestamp.fromString("2024-01-01T00:00:00Z");
+  private static final Timestamp planEnd = Timestamp.fromString("2024-01-01T10:00:00Z");
+  private static final Duration planDuration = Duration.of(10, HOURS);
+
+  private MissionModelCache models;
+
+  @BeforeEach
+  public void initialize() {
+    this.models = new MissionModelCache(1);
+  }
+
+  private MissionModelCache.Lease lease() throws MissionModelLoader.MissionModelLoadException {
+    return this.models.acquire(
+        new MissionModelCache.Key(new MissionModelId(1), Path.of("foo-missionmodel.jar"), 0, 0),
+        () -> new MissionModelLoader.LoadedModelType(
+            new URLClassLoader(new URL[0]),
+            null,
+            new GeneratedModelType(),
+            DirectiveTypeRegistry.extract(new GeneratedModelType())));
+  }
+
+  private static SimulationCheckpointCache.Key key(final MissionModelCache.Lease lease, final Duration simulationDuration) {
+    return new SimulationCheckpointCache.Key(
+        lease.key(),
+        Map.of(),
+        planStart.toInstant(),
+        simulationDuration,
+        planStart.toInstant(),
+        planDuration);
+  }
+
+  private static Plan plan(final Map<ActivityDirectiveId, ActivityDirective> directives) {
+    return new Plan("plan", new MissionModelId(1), planStart, planEnd, directives, Map.of(), planStart, planEnd);
+  }
+
+  private static ActivityDirective activity(final long startMinutes, final long durationMinutes) {
+    return new ActivityDirective(
+        Duration.of(startMinutes, MINUTES),
+        "BasicFooActivity",
+        Map.of("duration", SerializedValue.of(Duration.of(durationMinutes, MINUTES).in(MICROSECONDS))),
+        null,
+        true);
+  }
+
+  /** A checkpoint at the given time of a simulation of the given directives, with an engine that has not been frozen. */
+  private static CachedSimulationEngine checkpoint(
+      final MissionModelCache.Lease lease,
+      final long endsAtMinutes,
+      final Map<ActivityDirectiveId, ActivityDirective> directives)
+  {
+    final var missionModel = lease.instantiate(planStart.toInstant(), SerializedValue.of(Map.of()));
+    final var empty = CachedSimulationEngine.empty(missionModel, planStart.toInstant());
+    return new CachedSimulationEngine(
+        Duration.of(endsAtMinutes, MINUTES),
+        directives,
+        empty.simulationEngine(),
+        empty.activityTopic(),
+        missionModel,
+        new InMemorySimulationResourceManager());
+  }
+
+  private static void assertClosed(final CachedSimulationEngine checkpoint) {
+    assertThrows(IllegalStateException.class, () -> checkpoint.simulationEngine().extractNextJobs(Duration.ZERO));
+  }
+
+  private static SimulationEngineConfiguration configuration() {
+    return new SimulationEngineConfiguration(Map.of(), planStart.toInstant(), new MissionModelId(1));
+  }
+
+  @Test
+  public void checkedInCheckpointsAreCheckedOutAgain() throws Exception {
+    final var cache = new SimulationCheckpointCache(2, 2);
+    final var planId = new PlanId(1);
+    final var lease = lease();
+
+    final var checkpoints = cache.checkOut(planId, key(lease, planDuration), lease);
+    final var saved = checkpoint(lease, 10, Map.of());
+    checkpoints.save(saved, configuration());
+    cache.checkIn(planId, checkpoints);
+
+    final var secondLease = lease();
+    final var again = cache.checkOut(planId, key(secondLease, planDuration), secondLease);
+    assertSame(checkpoints, again);
+    assertEquals(List.of(saved), again.getCachedEngines(configuration()));
+    cache.checkIn(planId, again);
+  }
+
+  @Test
+  public void checkpointsAreNotSharedBetweenConcurrentSimulations() throws Exception {
+    final var cache = new SimulationCheckpointCache(2, 2);
+    final var planId = new PlanId(1);
+
+    final var firstLease = lease();
+    final var first = cache.checkOut(planId, key(firstLease, planDuration), firstLease);
+    first.save(checkpoint(firstLease, 10, Map.of()), configuration());
+
+    final var secondLease = lease();
+    final var second = cache.checkOut(planId, key(secondLease, planDuration), secondLease);
+    assertNotSame(first, second);
+    assertTrue(second.getCachedEngines(configuration()).isEmpty());
+
+    cache.checkIn(planId, first);
+    cache.checkIn(planId, second);
+  }
+
+  @Test
+  public void checkpointsOfAnotherSimulationAreDiscarded() throws Exception {
+    final var cache = new SimulationCheckpointCache(2, 2);
+    final var planId = new PlanId(1);
+
+    final var lease = lease();
+    final var checkpoints = cache.checkOut(planId, key(lease, planDuration), lease);
+    final var saved = checkpoint(lease, 10, Map.of());
+    checkpoints.save(saved, configuration());
+    cache.checkIn(planId, checkpoints);
+
+    // The plan is now simulated over a shorter span, so its checkpoints no longer apply.
+    final var secondLease = lease();
+    final var again = cache.checkOut(planId, key(secondLease, Duration.of(1, HOURS)), secondLease);
+    assertNotSame(checkpoints, again);
+    assertTrue(again.getCachedEngines(configuration()).isEmpty());
+    assertClosed(saved);
+    cache.checkIn(planId, again);
+  }
+
+  @Test
+  public void leastRecentlySimulatedPlanIsDiscarded() throws Exception {
+    final var cache = new SimulationCheckpointCache(1, 2);
+
+    final var firstLease = lease();
+    final var first = cache.checkOut(new PlanId(1), key(firstLease, planDuration), firstLease);
+    final var saved = checkpoint(firstLease, 10, Map.of());
+    first.save(saved, configuration());
+    cache.checkIn(new PlanId(1), first);
+
+    final var secondLease = lease();
+    cache.checkIn(new PlanId(2), cache.checkOut(new PlanId(2), key(secondLease, planDuration), secondLease));
+    assertClosed(saved);
+
+    final var thirdLease = lease();
+    final var again = cache.checkOut(new PlanId(1), key(thirdLease, planDuration), thirdLease);
+    assertNotSame(first, again);
+    cache.checkIn(new PlanId(1), again);
+  }
+
+  @Test
+  public void leastRecentlyUsedCheckpointIsDiscardedWhenFull() throws Exception {
+    final var lease = lease();
+    final var checkpoints = new SimulationCheckpointCache(1, 2).checkOut(new PlanId(1), key(lease, planDuration), lease);
+
+    final var early = checkpoint(lease, 10, Map.of());
+    final var middle = checkpoint(lease, 20, Map.of());
+    final var late = checkpoint(lease, 30, Map.of());
+    checkpoints.save(early, configuration());
+    checkpoints.save(middle, configuration());
+    checkpoints.registerUsed(early);
+    checkpoints.save(late, configuration());
+
+    assertEquals(List.of(early, late), checkpoints.getCachedEngines(configuration()));
+    assertClosed(middle);
+    checkpoints.close();
+  }
+
+  @Test
+  public void duplicateCheckpointsAreClosedInsteadOfSaved() throws Exception {
+    final var lease = lease();
+    final var checkpoints = new SimulationCheckpointCache(1, 2).checkOut(new PlanId(1), key(lease, planDuration), lease);
+    final var directives = Map.of(new ActivityDirectiveId(1), activity(5, 1));
+
+    // Resimulating an unchanged plan from its latest checkpoint takes that same checkpoint again.
+    final var saved = checkpoint(lease, 10, directives);
+    final var duplicate = checkpoint(lease, 10, directives);
+    checkpoints.save(saved, configuration());
+    checkpoints.save(duplicate, configuration());
+    checkpoints.save(saved, configuration());
+
+    assertEquals(List.of(saved), checkpoints.getCachedEngines(configuration()));
+    assertClosed(duplicate);
+    checkpoints.close();
+    assertClosed(saved);
+  }
+
+  @Test
+  public void resumingMarksTheCheckpointUsedAndDiscardsStaleOnes() throws Exception {
+    final var lease = lease();
+    final var checkpoints = new SimulationCheckpointCache(1, 3).checkOut(new PlanId(1), key(lease, planDuration), lease);
+
+    final var original = Map.of(
+        new ActivityDirectiveId(1), activity(5, 1),
+        new ActivityDirectiveId(2), activity(60, 1));
+    final var edited = Map.of(
+        new ActivityDirectiveId(1), activity(5, 1),
+        new ActivityDirectiveId(2), activity(40, 1));
+
+    // Of the original plan's checkpoints, only the one taken before the edited directive remains valid.
+    final var beforeEdit = checkpoint(lease, 30, original);
+    final var afterEdit = checkpoint(lease, 50, original);
+    checkpoints.save(beforeEdit, configuration());
+    checkpoints.save(afterEdit, configuration());
+
+    assertEquals(beforeEdit, checkpoints.resumeFrom(edited).orElseThrow());
+    assertEquals(List.of(beforeEdit), checkpoints.getCachedEngines(configuration()));
+    assertClosed(afterEdit);
+
+    // The checkpoint resumed from outlives those saved before it.
+    final var other = checkpoint(lease, 20, edited);
+    checkpoints.save(other, configuration());
+    checkpoints.resumeFrom(edited);
+    checkpoints.save(checkpoint(lease, 45, edited), configuration());
+    checkpoints.save(checkpoint(lease, 50, edited), configuration());
+    assertClosed(other);
+    assertTrue(checkpoints.getCachedEngines(configuration()).contains(beforeEdit));
+    checkpoints.close();
+  }
+
+  @Test
+  public void resumingFromACheckpointMatchesAFreshSimulation() throws Exception {
+    final var directives = new HashMap<ActivityDirectiveId, ActivityDirective>();
+    directives.put(new ActivityDirectiveId(1), activity(10, 30));
+    directives.put(new ActivityDirectiveId(2), activity(120, 60));
+    directives.put(new ActivityDirectiveId(3), activity(400, 30));
+    final var plan = plan(directives);
+
+    final var edited = new HashMap<>(directives);
+    edited.put(new ActivityDirectiveId(3), activity(420, 90));
+    edited.put(new ActivityDirectiveId(4), activity(500, 15));
+    final var editedPlan = plan(edited);
+
+    final var lease = lease();
+    final var checkpoints = new SimulationCheckpointCache(1, 4).checkOut(new PlanId(1), key(lease, planDuration), lease);
+    simulate(plan, checkpoints);
+    assertTrue(checkpoints.resumeFrom(editedPlan.activityDirectives()).isPresent());
+    final var resumed = simulate(editedPlan, checkpoints);
+
+    final var freshLease = lease();
+    final var fresh = new SimulationCheckpointCache(1, 4).checkOut(new PlanId(1), key(freshLease, planDuration), freshLease);
+    final var expected = simulate(editedPlan, fresh);
+
+    assertEquals(expected.realProfiles, resumed.realProfiles);
+    assertEquals(expected.discreteProfiles, resumed.discreteProfiles);
+    assertEquals(activities(expected), activities(resumed));
+    assertEquals(4, activities(resumed).size());
+
+    checkpoints.close();
+    fresh.close();
+  }
+
+  private static SimulationResults simulate(final Plan plan, final SimulationCheckpointCache.PlanCheckpoints checkpoints) {
+    return LocalMissionModelService.simulateFromCheckpoint(
+        plan,
+        checkpoints,
+        $ -> {},
+        () -> false,
+        new InMemorySimulationResourceManager(),
+        SimulationEngine.Options.DEFAULT);
+  }
+
+  /** The activities simulated, without the ids of their spans, which depend on the order in which they were simulated. */
+  private static Set<List<Object>> activities(final SimulationResults results) {
+    return results.simulatedActivities.values().stream()
+        .map($ -> List.<Object>of($.type(), $.start(), $.duration(), $.directiveId()))
+        .collect(Collectors.toSet());
+  }
+}
@@ -2,29 +2,25 @@ package gov.nasa.jpl.aerie.merlin.worker;
 
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
-import gov.nasa.jpl.aerie.merlin.driver.resources.StreamingSimulationResourceManager;
-import gov.nasa.jpl.aerie.merlin.server.ResultsProtocol;
 import gov.nasa.jpl.aerie.merlin.server.config.PostgresStore;
 import gov.nasa.jpl.aerie.merlin.server.config.Store;
-import gov.nasa.jpl.aerie.merlin.server.models.DatasetId;
-import gov.nasa.jpl.aerie.merlin.server.models.PlanId;
+import gov.nasa.jpl.aerie.merlin.server.remotes.postgres.BulkInsertMode;
 import gov.nasa.jpl.aerie.merlin.server.remotes.postgres.PostgresMissionModelRepository;
 import gov.nasa.jpl.aerie.merlin.server.remotes.postgres.PostgresPlanRepository;
-import gov.nasa.jpl.aerie.merlin.server.remotes.postgres.PostgresPlanRevisionData;
 import gov.nasa.jpl.aerie.merlin.server.remotes.postgres.PostgresResultsCellRepository;
 import gov.nasa.jpl.aerie.merlin.server.services.LocalMissionModelService;
 import gov.nasa.jpl.aerie.merlin.server.services.LocalPlanService;
 import gov.nasa.jpl.aerie.merlin.server.services.SimulationAgent;
+import gov.nasa.jpl.aerie.merlin.server.services.SimulationCheckpointCache;
 import gov.nasa.jpl.aerie.merlin.server.services.UnexpectedSubtypeError;
-import gov.nasa.jpl.aerie.merlin.worker.postgres.PostgresProfileStreamer;
 import gov.nasa.jpl.aerie.merlin.worker.postgres.PostgresSimulationNotificationPayload;
 import io.javalin.Javalin;
 
 import java.nio.file.Path;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Optional;
 import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.TimeUnit;
 
 public final class MerlinWorkerAppDriver {
   public static void main(String[] args) throws InterruptedException {
@@ -42,7 +38,8 @@ public final class MerlinWorkerAppDriver {
     hikariConfig.addDataSourceProperty("applicationName", "Merlin Server");
     hikariConfig.setUsername(postgresStore.user());
     hikariConfig.setPassword(postgresStore.password());
-    hikariConfig.setMaximumPoolSize(3);
+    // Each slot needs its own connections, in addition to the one held by the notification listener.
+    hikariConfig.setMaximumPoolSize(configuration.simulationSlots() * SimulationSlot.CONNECTIONS_PER_SLOT + 1);
 
     hikariConfig.setConnectionInitSql("set time zone 'UTC'");
 
@@ -51,66 +48,55 @@ public final class MerlinWorkerAppDriver {
     final var stores = new Stores(
         new PostgresPlanRepository(hikariDataSource),
         new PostgresMissionModelRepository(hikariDataSource),
-        new PostgresResultsCellRepository(hikariDataSource));
+        new PostgresResultsCellRepository(hikariDataSource, configuration.bulkInsertMode()));
 
     final var missionModelController = new LocalMissionModelService(
         configuration.merlinFileStore(),
         stores.missionModels(),
-        configuration.untruePlanStart()
+        configuration.untruePlanStart(),
+        LocalMissionModelService.DEFAULT_MODEL_CACHE_CAPACITY,
+        configuration.engineOptions()
     );
     final var planController = new LocalPlanService(stores.plans());
     final var simulationAgent = new SimulationAgent(
         planController,
         missionModelController,
-        configuration.simulationProgressPollPeriodMillis());
+        configuration.simulationProgressPollPeriodMillis(),
+        configuration.reportSimulationMetrics(),
+        (configuration.simulationCheckpointPlans() > 0)
+            ? Optional.of(new SimulationCheckpointCache(
+                configuration.simulationCheckpointPlans(),
+                configuration.simulationCheckpointsPerPlan()))
+            : Optional.empty());
 
     final var notificationQueue = new LinkedBlockingQueue<PostgresSimulationNotificationPayload>();
     final var listenAction = new ListenSimulationCapability(hikariDataSource, notificationQueue);
-    final var canceledListener = new SimulationCanceledListener();
-    final var listenThread = listenAction.registerListener(canceledListener);
+
+    final var canceledListeners = new ArrayList<SimulationCanceledListener>(configuration.simulationSlots());
+    for (var i = 0; i < configuration.simulationSlots(); i++) {
+      canceledListeners.add(new SimulationCanceledListener());
+    }
+    final var listenThread = listenAction.registerListener(canceledListeners);
+
+    // Every slot finishes its current simulation and stops once the listener has stopped.
+    final var slotThreads = new ArrayList<Thread>(configuration.simulationSlots());
+    for (var i = 0; i < configuration.simulationSlots(); i++) {
+      final var slot = new SimulationSlot(
+          stores,
+          simulationAgent,
+          hikariDataSource,
+          configuration.bulkInsertMode(),
+          notificationQueue,
+          canceledListeners.get(i),
+          listenThread::isAlive);
+      slotThreads.add(new Thread(slot, "simulation-slot-" + i));
+    }
 
     try (final var app = Javalin.create().start(8080)) {
       app.get("/health", ctx -> ctx.status(200));
 
-      while (listenThread.isAlive()) {
-        final var notification = notificationQueue.poll(1, TimeUnit.MINUTES);
-        if(notification == null) continue;
-        final var planId = new PlanId(notification.planId());
-        final var datasetId = notification.datasetId();
-
-        // Register as early as possible to avoid potentially missing a canceled signal
-        canceledListener.register(new DatasetId(datasetId));
-
-        final Optional<ResultsProtocol.OwnerRole> owner = stores.results().claim(planId, datasetId);
-        if (owner.isEmpty()) {
-          canceledListener.unregister();
-          continue;
-        }
-
-        final var revisionData = new PostgresPlanRevisionData(
-            notification.modelRevision(),
-            notification.planRevision(),
-            notification.simulationRevision(),
-            notification.simulationTemplateRevision());
-        final ResultsProtocol.WriterRole writer = owner.get();
-        try(final var streamer = new PostgresProfileStreamer(hikariDataSource, datasetId)) {
-          simulationAgent.simulate(
-              planId,
-              revisionData,
-              writer,
-              canceledListener,
-              new StreamingSimulationResourceManager(streamer));
-        } catch (final Throwable ex) {
-          ex.printStackTrace(System.err);
-          writer.failWith(b -> b
-              .type("UNEXPECTED_SIMULATION_EXCEPTION")
-              .message("Something went wrong while simulating")
-              .trace(ex));
-        }
-        finally {
-          canceledListener.unregister();
-        }
-      }
+      for (final var slotThread : slotThreads) slotThread.start();
+      for (final var slotThread : slotThreads) slotThread.join();
     } finally {
       // Kill the listening thread
       listenThread.interrupt();
@@ -131,7 +117,15 @@ public final class MerlinWorkerAppDriver {
                           getEnv("MERLIN_DB_PASSWORD", ""),
                           "aerie"),
         Integer.parseInt(getEnv("SIMULATION_PROGRESS_POLL_PERIOD_MILLIS", "5000")),
-        Instant.parse(getEnv("UNTRUE_PLAN_START", ""))
+        Instant.parse(getEnv("UNTRUE_PLAN_START", "")),
+        Boolean.parseBoolean(getEnv("SIMULATION_METRICS_ENABLED", "false")),
+        BulkInsertMode.fromString(getEnv("SIMULATION_RESULTS_INSERT_MODE", "batch")),
+        Integer.parseInt(getEnv("SIMULATION_SLOTS", "1")),
+        Integer.parseInt(getEnv("SIMULATION_CHECKPOINT_PLANS", "0")),
+        Integer.parseInt(getEnv("SIMULATION_CHECKPOINTS_PER_PLAN", "4")),
+        Integer.parseInt(getEnv("SIMULATION_JOB_PARALLELISM", "1")),
+        Boolean.parseBoolean(getEnv("SIMULATION_DROP_UNCHANGED_SAMPLES", "false")),
+        Boolean.parseBoolean(getEnv("SIMULATION_DEFER_RESOURCE_SERIALIZATION", "false"))
     );
   }
 }
@@ -6,8 +6,9 @@ import java.util.Optional;
 import java.util.function.Supplier;
 
 public class SimulationCanceledListener implements Supplier<Boolean> {
-  private Optional<DatasetId> registeredSimulation;
-  private boolean canceled;
+  // The listener is signaled by the notification thread, and polled by the simulation thread.
+  private volatile Optional<DatasetId> registeredSimulation;
+  private volatile boolean canceled;
 
   public SimulationCanceledListener() {
     registeredSimulation = Optional.empty();
@@ -19,7 +20,7 @@ public class SimulationCanceledListener implements Supplier<Boolean> {
    * All signals that are not for this object's registered simulation will be ignored.
    * @param payload The payload of the signal
    */
-  public void receiveSignal(DatasetId payload){
+  public synchronized void receiveSignal(DatasetId payload){
     if (registeredSimulation.isEmpty() || !registeredSimulation.get().equals(payload)) return;
     canceled = true;
   }
@@ -28,7 +29,7 @@ public class SimulationCanceledListener implements Supplier<Boolean> {
    * Register the listener to a specific simulation run
    * @param id the id of the simulation run
    */
-  public void register(DatasetId id) {
+  public synchronized void register(DatasetId id) {
     registeredSimulation = Optional.of(id);
     canceled = false;
   }
@@ -36,7 +37,7 @@ public class SimulationCanceledListener implements Supplier<Boolean> {
   /**
    * Unregister the listener
    */
-  public void unregister(){
+  public synchronized void unregister(){
     registeredSimulation = Optional.empty();
     canceled = false;
   }
@@ -0,0 +1,90 @@
+package gov.nasa.jpl.aerie.merlin.worker;
+
+import gov.nasa.jpl.aerie.merlin.driver.resources.AsyncProfileStreamer;
+import gov.nasa.jpl.aerie.merlin.driver.resources.StreamingSimulationResourceManager;
+import gov.nasa.jpl.aerie.merlin.server.ResultsProtocol;
+import gov.nasa.jpl.aerie.merlin.server.models.DatasetId;
+import gov.nasa.jpl.aerie.merlin.server.models.PlanId;
+import gov.nasa.jpl.aerie.merlin.server.remotes.postgres.BulkInsertMode;
+import gov.nasa.jpl.aerie.merlin.server.remotes.postgres.PostgresPlanRevisionData;
+import gov.nasa.jpl.aerie.merlin.server.services.SimulationAgent;
+import gov.nasa.jpl.aerie.merlin.worker.postgres.PostgresProfileStreamer;
+import gov.nasa.jpl.aerie.merlin.worker.postgres.PostgresSimulationNotificationPayload;
+
+import javax.sql.DataSource;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Runs one simulation at a time, taking each request from a queue shared with the worker's other slots.
+ *
+ * Every slot claims its own simulations, and has its own canceled listener and profile streamer,
+ * but all slots share the worker's stores and mission model service.
+ */
+/*package-local*/ record SimulationSlot(
+    Stores stores,
+    SimulationAgent simulationAgent,
+    DataSource dataSource,
+    BulkInsertMode bulkInsertMode,
+    BlockingQueue<PostgresSimulationNotificationPayload> notificationQueue,
+    SimulationCanceledListener canceledListener,
+    BooleanSupplier workerRunning
+) implements Runnable {
+  /** Each slot holds one connection to stream profiles, and one to update its simulation's state. */
+  public static final int CONNECTIONS_PER_SLOT = 2;
+
+  @Override
+  public void run() {
+    try {
+      while (this.workerRunning.getAsBoolean()) {
+        final var notification = this.notificationQueue.poll(1, TimeUnit.MINUTES);
+        if (notification == null) continue;
+        this.simulate(notification);
+      }
+    } catch (final InterruptedException ex) {
+      // The worker is shutting down.
+    }
+  }
+
+  private void simulate(final PostgresSimulationNotificationPayload notification) {
+    final var planId = new PlanId(notification.planId());
+    final var datasetId = notification.datasetId();
+
+    // Register as early as possible to avoid potentially missing a canceled signal
+    this.canceledListener.register(new DatasetId(datasetId));
+
+    final Optional<ResultsProtocol.OwnerRole> owner = this.stores.results().claim(planId, datasetId);
+    if (owner.isEmpty()) {
+      this.canceledListener.unregister();
+      return;
+    }
+
+    final var revisionData = new PostgresPlanRevisionData(
+        notification.modelRevision(),
+        notification.planRevision(),
+        notification.simulationRevision(),
+        notification.simulationTemplateRevision());
+    final ResultsProtocol.WriterRole writer = owner.get();
+    // Profiles are written on a separate thread, so that database writes overlap with simulation.
+    try(final var streamer = new PostgresProfileStreamer(this.dataSource, datasetId, this.bulkInsertMode);
+        final var asyncStreamer = new AsyncProfileStreamer(streamer)) {
+      this.simulationAgent.simulate(
+          planId,
+          revisionData,
+          writer,
+          this.canceledListener,
+          new StreamingSimulationResourceManager(asyncStreamer));
+    } catch (final Throwable ex) {
+      ex.printStackTrace(System.err);
+      writer.failWith(b -> b
+          .type("UNEXPECTED_SIMULATION_EXCEPTION")
+          .message("Something went wrong while simulating")
+          .trace(ex));
+    }
+    finally {
+      this.canceledListener.unregister();
+    }
+  }
+}
@@ -1,6 +1,9 @@
 package gov.nasa.jpl.aerie.merlin.worker;
 
+import gov.nasa.jpl.aerie.merlin.driver.engine.EngineMetricsListener;
+import gov.nasa.jpl.aerie.merlin.driver.engine.SimulationEngine;
 import gov.nasa.jpl.aerie.merlin.server.config.Store;
+import gov.nasa.jpl.aerie.merlin.server.remotes.postgres.BulkInsertMode;
 
 import java.nio.file.Path;
 import java.time.Instant;
@@ -10,11 +13,45 @@ public record WorkerAppConfiguration(
     Path merlinFileStore,
     Store store,
     long simulationProgressPollPeriodMillis,
-    Instant untruePlanStart
+    Instant untruePlanStart,
+    boolean reportSimulationMetrics,
+    BulkInsertMode bulkInsertMode,
+    int simulationSlots,
+    int simulationCheckpointPlans,
+    int simulationCheckpointsPerPlan,
+    int simulationJobParallelism,
+    boolean dropUnchangedResourceSamples,
+    boolean deferResourceSerialization
 ) {
   public WorkerAppConfiguration {
     Objects.requireNonNull(merlinFileStore);
     Objects.requireNonNull(store);
     Objects.requireNonNull(untruePlanStart);
+    Objects.requireNonNull(bulkInsertMode);
+    if (simulationSlots < 1) {
+      throw new IllegalArgumentException("simulationSlots must be positive, but was %d".formatted(simulationSlots));
+    }
+    if (simulationCheckpointPlans < 0) {
+      throw new IllegalArgumentException(
+          "simulationCheckpointPlans must not be negative, but was %d".formatted(simulationCheckpointPlans));
+    }
+    if (simulationCheckpointPlans > 0 && simulationCheckpointsPerPlan < 2) {
+      throw new IllegalArgumentException(
+          "simulationCheckpointsPerPlan must be at least 2, but was %d".formatted(simulationCheckpointsPerPlan));
+    }
+    if (simulationJobParallelism < 1) {
+      throw new IllegalArgumentException(
+          "simulationJobParallelism must be positive, but was %d".formatted(simulationJobParallelism));
+    }
+  }
+
+  /** The settings of the engines simulating plans, without metrics, which are chosen per simulation. */
+  public SimulationEngine.Options engineOptions() {
+    return new SimulationEngine.Options(
+        this.simulationJobParallelism,
+        this.dropUnchangedResourceSamples,
+        this.deferResourceSerialization,
+        false,
+        EngineMetricsListener.NONE);
   }
 }
@@ -2,10 +2,13 @@ package gov.nasa.jpl.aerie.merlin.worker.postgres;
 
 import gov.nasa.jpl.aerie.json.JsonParser;
 import gov.nasa.jpl.aerie.merlin.driver.resources.ResourceProfile;
+import gov.nasa.jpl.aerie.merlin.driver.resources.ResourceProfileStreamer;
 import gov.nasa.jpl.aerie.merlin.driver.resources.ResourceProfiles;
 import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
 import gov.nasa.jpl.aerie.merlin.protocol.types.RealDynamics;
 import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+import gov.nasa.jpl.aerie.merlin.server.remotes.postgres.BinaryCopyWriter;
+import gov.nasa.jpl.aerie.merlin.server.remotes.postgres.BulkInsertMode;
 import gov.nasa.jpl.aerie.merlin.server.remotes.postgres.DatabaseException;
 import gov.nasa.jpl.aerie.merlin.server.remotes.postgres.FailedInsertException;
 import gov.nasa.jpl.aerie.merlin.server.remotes.postgres.FailedUpdateException;
@@ -18,7 +21,6 @@ import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.HashMap;
-import java.util.function.Consumer;
 
 import static gov.nasa.jpl.aerie.merlin.server.remotes.postgres.PostgresParsers.discreteProfileTypeP;
 import static gov.nasa.jpl.aerie.merlin.server.remotes.postgres.PostgresParsers.realProfileTypeP;
@@ -26,8 +28,17 @@ import static gov.nasa.jpl.aerie.merlin.server.remotes.postgres.PostgresParsers.
 import static gov.nasa.jpl.aerie.merlin.driver.json.SerializedValueJsonParser.serializedValueP;
 import static gov.nasa.jpl.aerie.merlin.server.http.ProfileParsers.realDynamicsP;
 
-public class PostgresProfileStreamer implements Consumer<ResourceProfiles>, AutoCloseable {
+public class PostgresProfileStreamer implements ResourceProfileStreamer, AutoCloseable {
+  private static final String copySegmentsSql =
+      //language=sql
+      """
+      copy merlin.profile_segment (dataset_id, profile_id, start_offset, dynamics, is_gap)
+      from stdin (format binary)
+      """;
+
   private final Connection connection;
+  private final long datasetId;
+  private final BulkInsertMode bulkInsertMode;
   private final HashMap<String, Integer> profileIds;
   private final HashMap<String, Duration> profileDurations;
 
@@ -36,7 +47,13 @@ public class PostgresProfileStreamer implements Consumer<ResourceProfiles>, Auto
   private final PreparedStatement updateDurationStatement;
 
   public PostgresProfileStreamer(DataSource dataSource, long datasetId) throws SQLException {
+    this(dataSource, datasetId, BulkInsertMode.BATCH);
+  }
+
+  public PostgresProfileStreamer(DataSource dataSource, long datasetId, BulkInsertMode bulkInsertMode) throws SQLException {
     this.connection = dataSource.getConnection();
+    this.datasetId = datasetId;
+    this.bulkInsertMode = bulkInsertMode;
     profileIds = new HashMap<>();
     profileDurations = new HashMap<>();
 
@@ -83,14 +100,18 @@ public class PostgresProfileStreamer implements Consumer<ResourceProfiles>, Auto
       postProfiles();
 
       // Post Segments
-      for(final var realEntry : resourceProfiles.realProfiles().entrySet()){
-        addProfileSegmentsToBatch(realEntry.getKey(), realEntry.getValue(), realDynamicsP);
-      }
-      for(final var discreteEntry : resourceProfiles.discreteProfiles().entrySet()) {
-        addProfileSegmentsToBatch(discreteEntry.getKey(), discreteEntry.getValue(), serializedValueP);
+      if (bulkInsertMode == BulkInsertMode.COPY) {
+        copyProfileSegments(resourceProfiles);
+      } else {
+        for(final var realEntry : resourceProfiles.realProfiles().entrySet()){
+          addProfileSegmentsToBatch(realEntry.getKey(), realEntry.getValue(), realDynamicsP, null);
+        }
+        for(final var discreteEntry : resourceProfiles.discreteProfiles().entrySet()) {
+          addProfileSegmentsToBatch(discreteEntry.getKey(), discreteEntry.getValue(), serializedValueP, null);
+        }
+        postProfileSegments();
       }
 
-      postProfileSegments();
       updateProfileDurations();
     } catch (SQLException ex) {
       throw new DatabaseException("Exception occurred while posting profiles.", ex);
@@ -142,6 +163,18 @@ public class PostgresProfileStreamer implements Consumer<ResourceProfiles>, Auto
     }
   }
 
+  private void copyProfileSegments(final ResourceProfiles resourceProfiles) throws SQLException {
+    try (final var writer = new BinaryCopyWriter(connection, copySegmentsSql, "merlin.profile_segment")) {
+      for(final var realEntry : resourceProfiles.realProfiles().entrySet()){
+        addProfileSegmentsToBatch(realEntry.getKey(), realEntry.getValue(), realDynamicsP, writer);
+      }
+      for(final var discreteEntry : resourceProfiles.discreteProfiles().entrySet()) {
+        addProfileSegmentsToBatch(discreteEntry.getKey(), discreteEntry.getValue(), serializedValueP, writer);
+      }
+      writer.finish();
+    }
+  }
+
   private void updateProfileDurations() throws SQLException {
     final var results = this.updateDurationStatement.executeBatch();
     for (final var result : results) {
@@ -149,16 +182,34 @@ public class PostgresProfileStreamer implements Consumer<ResourceProfiles>, Auto
     }
   }
 
-  private <T> void addProfileSegmentsToBatch(final String name, ResourceProfile<T> profile, JsonParser<T> dynamicsP) throws SQLException {
+  /**
+   * Add a profile's new segments to the segment batch, or to the given copy if there is one,
+   * and schedule the profile's duration to be extended past them.
+   */
+  private <T> void addProfileSegmentsToBatch(
+      final String name,
+      ResourceProfile<T> profile,
+      JsonParser<T> dynamicsP,
+      final BinaryCopyWriter writer
+  ) throws SQLException {
     final var id = profileIds.get(name);
-    this.postSegmentsStatement.setLong(1, id);
+    if (writer == null) this.postSegmentsStatement.setLong(1, id);
 
     var newDuration = profileDurations.get(name);
     for (final var segment : profile.segments()) {
-      PreparedStatements.setDuration(this.postSegmentsStatement, 2, newDuration);
       final var dynamics = dynamicsP.unparse(segment.dynamics()).toString();
-      this.postSegmentsStatement.setString(3, dynamics);
-      this.postSegmentsStatement.addBatch();
+      if (writer != null) {
+        writer.startRow(5);
+        writer.writeInt(datasetId);
+        writer.writeInt(id);
+        writer.writeInterval(newDuration);
+        writer.writeJsonb(dynamics);
+        writer.writeBoolean(false);
+      } else {
+        PreparedStatements.setDuration(this.postSegmentsStatement, 2, newDuration);
+        this.postSegmentsStatement.setString(3, dynamics);
+        this.postSegmentsStatement.addBatch();
+      }
 
       newDuration = newDuration.plus(segment.extent());
     }
@@ -7,6 +7,7 @@ import gov.nasa.jpl.aerie.merlin.driver.MissionModelLoader;
 import gov.nasa.jpl.aerie.merlin.driver.SimulationDriver;
 import gov.nasa.jpl.aerie.merlin.driver.SimulationException;
 import gov.nasa.jpl.aerie.merlin.driver.SimulationResults;
+import gov.nasa.jpl.aerie.merlin.driver.engine.SimulationEngine;
 import gov.nasa.jpl.aerie.merlin.driver.resources.InMemorySimulationResourceManager;
 import gov.nasa.jpl.aerie.merlin.driver.resources.SimulationResourceManager;
 import gov.nasa.jpl.aerie.merlin.driver.resources.StreamingSimulationResourceManager;
@@ -125,6 +126,25 @@ public class SimulationUtility implements AutoCloseable {
       Plan plan,
       Supplier<Boolean> canceledListener,
       Consumer<Duration> extentConsumer
+  ) {
+    return simulate(model, plan, canceledListener, extentConsumer, SimulationEngine.Options.DEFAULT);
+  }
+
+  /**
+   * Simulate a plan
+   * @param model The mission model to be used during simulation
+   * @param plan The plan to simulate. Contains the simulation configuration
+   * @param canceledListener A boolean supplier to permit canceling of the simulation
+   * @param extentConsumer A duration consumer to receive updates on how much time has elapsed within the simulation
+   * @param engineOptions Settings controlling how the simulation engine performs its work, such as metrics collection
+   * @return A Future to get the SimulationResults
+   */
+  public Future<SimulationResults> simulate(
+      MissionModel<?> model,
+      Plan plan,
+      Supplier<Boolean> canceledListener,
+      Consumer<Duration> extentConsumer,
+      SimulationEngine.Options engineOptions
   ) {
     final var simulationDuration = Duration.of(plan.simulationStartTimestamp
                                                    .microsUntil(plan.simulationEndTimestamp), Duration.MICROSECOND);
@@ -140,7 +160,8 @@ public class SimulationUtility implements AutoCloseable {
             plan.duration(),
             canceledListener,
             extentConsumer,
-            rmgr);
+            rmgr,
+            engineOptions);
       }
     };
 
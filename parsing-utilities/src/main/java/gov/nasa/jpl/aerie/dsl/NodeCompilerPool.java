@@ -0,0 +1,180 @@
+package gov.nasa.jpl.aerie.dsl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * A fixed number of Node subprocesses running a DSL compiler, shared among concurrent compilations.
+ *
+ * Each subprocess serves one request at a time: a single line of JSON, answered by a status line
+ * (one of "success", "error", or "panic") and exactly one line of payload.
+ * A subprocess that panics, breaks this protocol, or exits is replaced before it is used again.
+ *
+ * Answers other than panics are remembered, keyed by a hash of the request, so that compiling
+ * the same code against the same generated types a second time does not reach Node at all.
+ */
+public final class NodeCompilerPool implements AutoCloseable {
+  private static final Logger log = LoggerFactory.getLogger(NodeCompilerPool.class);
+
+  public static final int DEFAULT_CACHE_CAPACITY = 256;
+
+  private static final Set<String> STATUSES = Set.of("success", "error", "panic");
+
+  public record Response(String status, String payload) {}
+
+  private static final class Compiler {
+    /** The running subprocess, or null if it must be (re)started before its next use. */
+    private Process process;
+  }
+
+  private final ProcessBuilder processBuilder;
+  private final List<Compiler> compilers = new ArrayList<>();
+  private final BlockingQueue<Compiler> idle;
+  /** Responses in least- to most-recently-used order. */
+  private final LinkedHashMap<String, Response> cache;
+  private volatile boolean closed = false;
+
+  public NodeCompilerPool(final ProcessBuilder processBuilder, final int processes, final int cacheCapacity)
+  throws IOException
+  {
+    if (processes < 1) throw new IllegalArgumentException(
+        "Compiler process count must be positive, but was %d".formatted(processes));
+    if (cacheCapacity < 0) throw new IllegalArgumentException(
+        "Cache capacity must not be negative, but was %d".formatted(cacheCapacity));
+
+    this.processBuilder = processBuilder;
+    this.idle = new ArrayBlockingQueue<>(processes);
+    this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<String, Response> eldest) {
+        return this.size() > cacheCapacity;
+      }
+    };
+
+    try {
+      for (var i = 0; i < processes; i++) {
+        final var compiler = new Compiler();
+        this.compilers.add(compiler);
+        compiler.process = this.start();
+        this.idle.add(compiler);
+      }
+    } catch (final IOException ex) {
+      this.close();
+      throw ex;
+    }
+  }
+
+  /**
+   * Send a request to an idle compiler, waiting for one to become available if all are busy.
+   *
+   * The returned status is always one of "success", "error", or "panic".
+   */
+  public Response request(final String message) {
+    if (this.closed) throw new IllegalStateException("Cannot compile with a closed compiler pool");
+
+    final var key = hash(message);
+    synchronized (this.cache) {
+      final var cached = this.cache.get(key);
+      if (cached != null) return cached;
+    }
+
+    final Compiler compiler;
+    try {
+      compiler = this.idle.take();
+    } catch (final InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new Error("Interrupted while waiting for a DSL compiler", ex);
+    }
+
+    try {
+      final var response = this.send(compiler, message);
+      if (response.status().equals("panic")) {
+        log.warn("DSL compiler panicked; it will be restarted before its next use");
+        stop(compiler);
+      } else {
+        synchronized (this.cache) {
+          this.cache.put(key, response);
+        }
+      }
+      return response;
+    } catch (final IOException ex) {
+      stop(compiler);
+      throw new Error(ex);
+    } finally {
+      this.idle.add(compiler);
+    }
+  }
+
+  private Response send(final Compiler compiler, final String message) throws IOException {
+    if (compiler.process != null && !compiler.process.isAlive()) {
+      log.warn("DSL compiler exited with code {}; restarting it", compiler.process.exitValue());
+      compiler.process = null;
+    }
+    if (compiler.process == null) compiler.process = this.start();
+
+    final var inputWriter = compiler.process.outputWriter();
+    final var outputReader = compiler.process.inputReader();
+    inputWriter.write(message + "\n");
+    inputWriter.flush();
+
+    final var status = outputReader.readLine();
+    if (status == null) throw new IOException("DSL compiler exited before responding");
+    if (!STATUSES.contains(status)) throw new IOException("DSL compiler returned unexpected status: " + status);
+
+    final var payload = outputReader.readLine();
+    if (payload == null) throw new IOException("DSL compiler exited before completing its response");
+
+    return new Response(status, payload);
+  }
+
+  /** Start a subprocess, and check that it is ready to serve requests. */
+  private Process start() throws IOException {
+    final var process = this.processBuilder.start();
+
+    final var inputWriter = process.outputWriter();
+    inputWriter.write("ping\n");
+    inputWriter.flush();
+    if (!Objects.equals(process.inputReader().readLine(), "pong")) {
+      process.destroy();
+      throw new IOException("Could not create node subprocess");
+    }
+    return process;
+  }
+
+  private static void stop(final Compiler compiler) {
+    if (compiler.process != null) compiler.process.destroy();
+    compiler.process = null;
+  }
+
+  private static String hash(final String message) {
+    try {
+      final var digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(digest.digest(message.getBytes(StandardCharsets.UTF_8)));
+    } catch (final NoSuchAlgorithmException ex) {
+      throw new Error("SHA-256 is required of every Java platform", ex);
+    }
+  }
+
+  @Override
+  public void close() {
+    this.closed = true;
+    for (final var compiler : this.compilers) {
+      final var process = compiler.process;
+      if (process != null) process.destroy();
+    }
+  }
+}
@@ -0,0 +1,120 @@
+package gov.nasa.jpl.aerie.dsl;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class NodeCompilerPoolTest {
+  /**
+   * Stands in for a DSL compiler, answering every request with the number of requests it has served,
+   * failing, panicking, or exiting on request.
+   */
+  private static final String FAKE_COMPILER = """
+      read ping; echo pong
+      n=0
+      while read line; do
+        n=$((n+1))
+        case "$line" in
+          panic) echo panic; echo "compiler panicked" ;;
+          error) echo error; echo "bad code" ;;
+          exit) exit 1 ;;
+          *) echo success; echo "$n" ;;
+        esac
+      done
+      """;
+
+  private static NodeCompilerPool pool(final int processes) throws IOException {
+    return pool(processes, NodeCompilerPool.DEFAULT_CACHE_CAPACITY);
+  }
+
+  private static NodeCompilerPool pool(final int processes, final int cacheCapacity) throws IOException {
+    return new NodeCompilerPool(new ProcessBuilder("sh", "-c", FAKE_COMPILER), processes, cacheCapacity);
+  }
+
+  @Test
+  public void repeatedRequestsAreAnsweredFromCache() throws IOException {
+    try (final var pool = pool(1)) {
+      assertEquals(new NodeCompilerPool.Response("success", "1"), pool.request("a"));
+      assertEquals(new NodeCompilerPool.Response("success", "1"), pool.request("a"));
+      assertEquals(new NodeCompilerPool.Response("success", "2"), pool.request("b"));
+    }
+  }
+
+  @Test
+  public void panickedCompilerIsRestarted() throws IOException {
+    try (final var pool = pool(1)) {
+      assertEquals(new NodeCompilerPool.Response("success", "1"), pool.request("a"));
+      assertEquals(new NodeCompilerPool.Response("panic", "compiler panicked"), pool.request("panic"));
+
+      // The panicked compiler is replaced by a fresh one, which starts its count afresh.
+      assertEquals(new NodeCompilerPool.Response("success", "1"), pool.request("b"));
+      assertEquals(new NodeCompilerPool.Response("success", "2"), pool.request("c"));
+    }
+  }
+
+  @Test
+  public void errorsAreAnsweredFromCache() throws IOException {
+    try (final var pool = pool(1)) {
+      assertEquals(new NodeCompilerPool.Response("error", "bad code"), pool.request("error"));
+      assertEquals(new NodeCompilerPool.Response("error", "bad code"), pool.request("error"));
+      assertEquals(new NodeCompilerPool.Response("success", "2"), pool.request("a"));
+    }
+  }
+
+  @Test
+  public void nothingIsCachedWithoutCapacity() throws IOException {
+    try (final var pool = pool(1, 0)) {
+      assertEquals(new NodeCompilerPool.Response("success", "1"), pool.request("a"));
+      assertEquals(new NodeCompilerPool.Response("success", "2"), pool.request("a"));
+    }
+  }
+
+  @Test
+  public void exitedCompilerIsRestarted() throws IOException {
+    try (final var pool = pool(1)) {
+      assertEquals(new NodeCompilerPool.Response("success", "1"), pool.request("a"));
+      assertThrows(Error.class, () -> pool.request("exit"));
+      assertEquals(new NodeCompilerPool.Response("success", "1"), pool.request("b"));
+    }
+  }
+
+  @Test
+  public void concurrentRequestsShareTheCompilers() throws Exception {
+    final var executor = Executors.newFixedThreadPool(4);
+    try (final var pool = pool(2, 0)) {
+      final var requests = new ArrayList<Future<NodeCompilerPool.Response>>();
+      for (var i = 0; i < 20; i++) {
+        final var message = "request " + i;
+        requests.add(executor.submit(() -> pool.request(message)));
+      }
+
+      // Each compiler counts the requests it serves, so with two compilers no count can be answered more than twice.
+      final var occurrences = new HashMap<String, Integer>();
+      for (final var request : requests) {
+        final var response = request.get(10, TimeUnit.SECONDS);
+        assertEquals("success", response.status());
+        occurrences.merge(response.payload(), 1, Integer::sum);
+      }
+      assertTrue(occurrences.values().stream().allMatch(count -> count <= 2));
+      assertEquals(20, occurrences.values().stream().mapToInt(count -> count).sum());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void closedPoolRejectsRequests() throws IOException {
+    final var pool = pool(1);
+    pool.close();
+    assertThrows(IllegalStateException.class, () -> pool.request("a"));
+  }
+}
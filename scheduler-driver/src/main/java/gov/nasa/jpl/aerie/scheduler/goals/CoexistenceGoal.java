@@ -169,6 +169,14 @@ public class CoexistenceGoal extends ActivityTemplateGoal {
 
   }//Builder
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean canPrecomputeConflicts() {
+    return true;
+  }
+
   /**
    * {@inheritDoc}
    *
@@ -255,6 +255,17 @@ public class Goal {
     if(resourceConstraints != null) resourceConstraints.extractResources(names);
   }
 
+  /**
+   * whether the conflicts of this goal may be computed ahead of its turn, alongside those of other goals
+   *
+   * this requires that computing the goal's conflicts changes neither the goal nor the plan
+   *
+   * @return true if the goal's conflicts may be computed ahead of its turn, false otherwise
+   */
+  public boolean canPrecomputeConflicts() {
+    return false;
+  }
+
   /**
    * fetches the human-legible identifier of the goal
    *
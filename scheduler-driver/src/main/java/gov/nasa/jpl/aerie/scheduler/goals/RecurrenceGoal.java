@@ -139,6 +139,14 @@ public class RecurrenceGoal extends ActivityTemplateGoal {
   }//Builder
 
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean canPrecomputeConflicts() {
+    return true;
+  }
+
   /**
    * {@inheritDoc}
    *
@@ -0,0 +1,232 @@
+package gov.nasa.jpl.aerie.scheduler.model;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * an immutable sorted map, whose updates return a new map sharing all but the changed path with the original
+ *
+ * entries are held in a balanced (AVL) binary tree, so that lookups and updates take logarithmic time, and an update
+ * allocates only the nodes between the root and the updated entry. maps can therefore be kept as snapshots of each
+ * other at no cost. null keys and values are not supported.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of values
+ */
+/*package-local*/ final class PersistentSortedMap<K, V> {
+  private record Node<K, V>(K key, V value, Node<K, V> left, Node<K, V> right, int height) {}
+
+  private final Comparator<? super K> comparator;
+  private final Node<K, V> root;
+  private final int size;
+
+  private PersistentSortedMap(final Comparator<? super K> comparator, final Node<K, V> root, final int size) {
+    this.comparator = comparator;
+    this.root = root;
+    this.size = size;
+  }
+
+  public static <K, V> PersistentSortedMap<K, V> empty(final Comparator<? super K> comparator) {
+    return new PersistentSortedMap<>(comparator, null, 0);
+  }
+
+  public static <K extends Comparable<? super K>, V> PersistentSortedMap<K, V> empty() {
+    return new PersistentSortedMap<>(Comparator.naturalOrder(), null, 0);
+  }
+
+  public int size() {
+    return this.size;
+  }
+
+  public boolean isEmpty() {
+    return this.size == 0;
+  }
+
+  public V get(final K key) {
+    var node = this.root;
+    while (node != null) {
+      final var cmp = this.comparator.compare(key, node.key());
+      if (cmp == 0) return node.value();
+      node = (cmp < 0) ? node.left() : node.right();
+    }
+    return null;
+  }
+
+  public V getOrDefault(final K key, final V defaultValue) {
+    final var value = this.get(key);
+    return (value == null) ? defaultValue : value;
+  }
+
+  /**
+   * @return a map with the given entry, in place of any entry for the same key
+   */
+  public PersistentSortedMap<K, V> put(final K key, final V value) {
+    if (key == null || value == null) throw new NullPointerException("null keys and values are not supported");
+    final var added = this.get(key) == null;
+    return new PersistentSortedMap<>(this.comparator, this.put(this.root, key, value), this.size + (added ? 1 : 0));
+  }
+
+  /**
+   * @return a map without any entry for the given key
+   */
+  public PersistentSortedMap<K, V> remove(final K key) {
+    if (this.get(key) == null) return this;
+    return new PersistentSortedMap<>(this.comparator, this.remove(this.root, key), this.size - 1);
+  }
+
+  /**
+   * visits the entries in key order
+   */
+  public void forEach(final BiConsumer<? super K, ? super V> action) {
+    this.forEachBetween(this.root, null, null, action);
+  }
+
+  /**
+   * visits the entries whose keys lie between the given bounds, inclusive, in key order
+   */
+  public void forEachBetween(final K lowest, final K highest, final BiConsumer<? super K, ? super V> action) {
+    if (this.comparator.compare(lowest, highest) > 0) return;
+    this.forEachBetween(this.root, lowest, highest, action);
+  }
+
+  /**
+   * @return an unmodifiable view of this map, iterated in key order
+   */
+  public Map<K, V> asMap() {
+    return new AbstractMap<>() {
+      @Override
+      public V get(final Object key) {
+        @SuppressWarnings("unchecked") final var k = (K) key;
+        return (key == null) ? null : PersistentSortedMap.this.get(k);
+      }
+
+      @Override
+      public boolean containsKey(final Object key) {
+        return this.get(key) != null;
+      }
+
+      @Override
+      public int size() {
+        return PersistentSortedMap.this.size;
+      }
+
+      @Override
+      public Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<>() {
+          @Override
+          public Iterator<Entry<K, V>> iterator() {
+            return PersistentSortedMap.this.iterator();
+          }
+
+          @Override
+          public int size() {
+            return PersistentSortedMap.this.size;
+          }
+        };
+      }
+    };
+  }
+
+  private Iterator<Map.Entry<K, V>> iterator() {
+    final var path = new ArrayDeque<Node<K, V>>();
+    for (var node = this.root; node != null; node = node.left()) path.push(node);
+
+    return new Iterator<>() {
+      @Override
+      public boolean hasNext() {
+        return !path.isEmpty();
+      }
+
+      @Override
+      public Map.Entry<K, V> next() {
+        if (path.isEmpty()) throw new NoSuchElementException();
+        final var node = path.pop();
+        for (var next = node.right(); next != null; next = next.left()) path.push(next);
+        return Map.entry(node.key(), node.value());
+      }
+    };
+  }
+
+  private void forEachBetween(
+      final Node<K, V> node,
+      final K lowest,
+      final K highest,
+      final BiConsumer<? super K, ? super V> action)
+  {
+    if (node == null) return;
+    final var aboveLowest = lowest == null || this.comparator.compare(node.key(), lowest) >= 0;
+    final var belowHighest = highest == null || this.comparator.compare(node.key(), highest) <= 0;
+    if (aboveLowest) this.forEachBetween(node.left(), lowest, highest, action);
+    if (aboveLowest && belowHighest) action.accept(node.key(), node.value());
+    if (belowHighest) this.forEachBetween(node.right(), lowest, highest, action);
+  }
+
+  private Node<K, V> put(final Node<K, V> node, final K key, final V value) {
+    if (node == null) return node(key, value, null, null);
+    final var cmp = this.comparator.compare(key, node.key());
+    if (cmp < 0) return balance(node.key(), node.value(), this.put(node.left(), key, value), node.right());
+    if (cmp > 0) return balance(node.key(), node.value(), node.left(), this.put(node.right(), key, value));
+    return node(key, value, node.left(), node.right());
+  }
+
+  private Node<K, V> remove(final Node<K, V> node, final K key) {
+    if (node == null) return null;
+    final var cmp = this.comparator.compare(key, node.key());
+    if (cmp < 0) return balance(node.key(), node.value(), this.remove(node.left(), key), node.right());
+    if (cmp > 0) return balance(node.key(), node.value(), node.left(), this.remove(node.right(), key));
+    if (node.left() == null) return node.right();
+    if (node.right() == null) return node.left();
+
+    var successor = node.right();
+    while (successor.left() != null) successor = successor.left();
+    return balance(successor.key(), successor.value(), node.left(), removeFirst(node.right()));
+  }
+
+  private static <K, V> Node<K, V> removeFirst(final Node<K, V> node) {
+    if (node.left() == null) return node.right();
+    return balance(node.key(), node.value(), removeFirst(node.left()), node.right());
+  }
+
+  private static <K, V> Node<K, V> balance(final K key, final V value, final Node<K, V> left, final Node<K, V> right) {
+    final var leftHeight = height(left);
+    final var rightHeight = height(right);
+    if (leftHeight > rightHeight + 1) {
+      if (height(left.left()) >= height(left.right())) {
+        return node(left.key(), left.value(), left.left(), node(key, value, left.right(), right));
+      }
+      final var pivot = left.right();
+      return node(
+          pivot.key(),
+          pivot.value(),
+          node(left.key(), left.value(), left.left(), pivot.left()),
+          node(key, value, pivot.right(), right));
+    }
+    if (rightHeight > leftHeight + 1) {
+      if (height(right.right()) >= height(right.left())) {
+        return node(right.key(), right.value(), node(key, value, left, right.left()), right.right());
+      }
+      final var pivot = right.left();
+      return node(
+          pivot.key(),
+          pivot.value(),
+          node(key, value, left, pivot.left()),
+          node(right.key(), right.value(), pivot.right(), right.right()));
+    }
+    return node(key, value, left, right);
+  }
+
+  private static <K, V> Node<K, V> node(final K key, final V value, final Node<K, V> left, final Node<K, V> right) {
+    return new Node<>(key, value, left, right, Math.max(height(left), height(right)) + 1);
+  }
+
+  private static int height(final Node<?, ?> node) {
+    return (node == null) ? 0 : node.height();
+  }
+}
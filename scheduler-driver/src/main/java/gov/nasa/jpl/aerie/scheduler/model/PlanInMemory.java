@@ -10,13 +10,14 @@ import gov.nasa.jpl.aerie.types.ActivityDirectiveId;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 /**
@@ -36,23 +37,63 @@ public class PlanInMemory implements Plan {
 
   /**
    * container of all activity instances in plan, indexed by start time
+   *
+   * this and the other indices are persistent, so that a duplicate plan shares them until either plan changes. the
+   * lists they hold are never modified once indexed, but replaced.
+   */
+  private PersistentSortedMap<Duration, List<SchedulingActivity>> actsByTime;
+
+  /**
+   * activity instances in plan indexed by type name, then by start time
+   */
+  private PersistentSortedMap<String, PersistentSortedMap<Duration, List<SchedulingActivity>>> actsByTypeAndTime;
+
+  /**
+   * activity instances in plan indexed by id
+   */
+  private PersistentSortedMap<ActivityDirectiveId, SchedulingActivity> actsById;
+
+  /**
+   * activity instances in plan which are anchored to another, and so whose start offset is not their start time
+   */
+  private PersistentSortedMap<ActivityDirectiveId, List<SchedulingActivity>> anchoredActs;
+
+  /**
+   * the number of activity instances in plan
    */
-  private final TreeMap<Duration, List<SchedulingActivity>> actsByTime;
+  private int size;
+
+  /**
+   * activity instances in plan by type, built on demand and discarded whenever the plan changes
+   */
+  private Map<ActivityType, List<SchedulingActivity>> actsByType;
+
+  private static final Comparator<ActivityDirectiveId> byId = Comparator.comparingLong(ActivityDirectiveId::id);
 
   /**
    * ctor creates a new empty solution plan
    *
    */
   public PlanInMemory() {
-    this.actsByTime = new TreeMap<>();
+    this.actsByTime = PersistentSortedMap.empty();
+    this.actsByTypeAndTime = PersistentSortedMap.empty();
+    this.actsById = PersistentSortedMap.empty(byId);
+    this.anchoredActs = PersistentSortedMap.empty(byId);
+    this.size = 0;
+    this.actsByType = null;
   }
 
+  /**
+   * creates a copy of a plan, which shares the other plan's activities until either plan changes
+   */
   public PlanInMemory(final PlanInMemory other){
     if(other.evaluation != null) this.evaluation = other.evaluation.duplicate();
-    this.actsByTime = new TreeMap<>();
-    for(final var entry: other.actsByTime.entrySet()){
-      this.actsByTime.put(entry.getKey(), new ArrayList<>(entry.getValue()));
-    }
+    this.actsByTime = other.actsByTime;
+    this.actsByTypeAndTime = other.actsByTypeAndTime;
+    this.actsById = other.actsById;
+    this.anchoredActs = other.anchoredActs;
+    this.size = other.size;
+    this.actsByType = other.actsByType;
   }
 
   @Override
@@ -71,10 +112,6 @@ public class PlanInMemory implements Plan {
   }
 
   public int size(){
-    int size = 0;
-    for(final var entry: this.actsByTime.entrySet()){
-      size += entry.getValue().size();
-    }
     return size;
   }
 
@@ -92,8 +129,16 @@ public class PlanInMemory implements Plan {
       throw new IllegalArgumentException(
           "adding activity with null start time to plan");
     }
-    actsByTime.computeIfAbsent(startT, k -> new LinkedList<>())
-              .add(act);
+    actsByTime = actsByTime.put(startT, with(actsByTime.get(startT), act));
+    final var actsOfType = actsByTypeAndTime.getOrDefault(act.type().getName(), PersistentSortedMap.empty());
+    actsByTypeAndTime = actsByTypeAndTime.put(act.type().getName(), actsOfType.put(startT, with(actsOfType.get(startT), act)));
+    actsById = actsById.put(act.id(), act);
+    if (act.anchorId() != null) {
+      final var anchoredWithId = anchoredActs.get(act.id());
+      if (anchoredWithId == null || !anchoredWithId.contains(act)) anchoredActs = anchoredActs.put(act.id(), with(anchoredWithId, act));
+    }
+    size++;
+    actsByType = null;
   }
 
   @Override
@@ -105,8 +150,43 @@ public class PlanInMemory implements Plan {
 
   @Override
   public void remove(SchedulingActivity act) {
-    var acts = actsByTime.get(act.startOffset());
-    if (acts != null) acts.remove(act);
+    final var startT = act.startOffset();
+    final var acts = actsByTime.get(startT);
+    if (acts == null || !acts.contains(act)) return;
+
+    final var remaining = without(acts, act);
+    actsByTime = remaining.isEmpty() ? actsByTime.remove(startT) : actsByTime.put(startT, remaining);
+
+    final var actsOfType = actsByTypeAndTime.get(act.type().getName());
+    final var remainingOfType = without(actsOfType.get(startT), act);
+    final var newActsOfType = remainingOfType.isEmpty() ? actsOfType.remove(startT) : actsOfType.put(startT, remainingOfType);
+    actsByTypeAndTime = newActsOfType.isEmpty()
+        ? actsByTypeAndTime.remove(act.type().getName())
+        : actsByTypeAndTime.put(act.type().getName(), newActsOfType);
+
+    // the same activity may have been added more than once, in which case it remains in the plan
+    if (!remaining.contains(act)) {
+      if (act.equals(actsById.get(act.id()))) actsById = actsById.remove(act.id());
+      final var anchoredWithId = anchoredActs.get(act.id());
+      if (anchoredWithId != null && anchoredWithId.contains(act)) {
+        final var remainingAnchored = without(anchoredWithId, act);
+        anchoredActs = remainingAnchored.isEmpty() ? anchoredActs.remove(act.id()) : anchoredActs.put(act.id(), remainingAnchored);
+      }
+    }
+    size--;
+    actsByType = null;
+  }
+
+  private static List<SchedulingActivity> with(final List<SchedulingActivity> acts, final SchedulingActivity act) {
+    final var result = (acts == null) ? new ArrayList<SchedulingActivity>(1) : new ArrayList<>(acts);
+    result.add(act);
+    return Collections.unmodifiableList(result);
+  }
+
+  private static List<SchedulingActivity> without(final List<SchedulingActivity> acts, final SchedulingActivity act) {
+    final var result = new ArrayList<>(acts);
+    result.remove(act);
+    return Collections.unmodifiableList(result);
   }
 
   /**
@@ -114,14 +194,10 @@ public class PlanInMemory implements Plan {
    */
   @Override
   public List<SchedulingActivity> getActivitiesByTime() {
-    //REVIEW: could probably do something tricky with streams to avoid new
-    final var orderedActs = new LinkedList<SchedulingActivity>();
+    final var orderedActs = new ArrayList<SchedulingActivity>(size);
 
-    //NB: tree map ensures that values are in key order, but still need to flatten
-    for (final var actsAtT : actsByTime.values()) {
-      assert actsAtT != null;
-      orderedActs.addAll(actsAtT);
-    }
+    //NB: the index holds values in key order, but still need to flatten
+    actsByTime.forEach((t, actsAtT) -> orderedActs.addAll(actsAtT));
 
     return Collections.unmodifiableList(orderedActs);
   }
@@ -137,24 +213,27 @@ public class PlanInMemory implements Plan {
    */
   @Override
   public Map<ActivityType, List<SchedulingActivity>> getActivitiesByType() {
-    final var map = new HashMap<ActivityType, List<SchedulingActivity>>();
-    for(final var entry: this.actsByTime.entrySet()){
-      for(final var activity : entry.getValue()){
-        map.computeIfAbsent(activity.type(), t -> new ArrayList<>()).add(activity);
-      }
+    if (actsByType == null) {
+      final var map = new HashMap<ActivityType, List<SchedulingActivity>>();
+      actsByTime.forEach((t, actsAtT) -> {
+        for(final var activity : actsAtT){
+          map.computeIfAbsent(activity.type(), type -> new ArrayList<>()).add(activity);
+        }
+      });
+      map.replaceAll((type, acts) -> Collections.unmodifiableList(acts));
+      actsByType = Collections.unmodifiableMap(map);
     }
-    return Collections.unmodifiableMap(map);
+    return actsByType;
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * the map is a snapshot of the plan, so it does not reflect any later changes to it
+   */
   @Override
   public Map<ActivityDirectiveId, SchedulingActivity> getActivitiesById() {
-    final var map = new HashMap<ActivityDirectiveId, SchedulingActivity>();
-    for(final var entry: this.actsByTime.entrySet()){
-      for(final var activity : entry.getValue()){
-        map.put(activity.id(), activity);
-      }
-    }
-    return Collections.unmodifiableMap(map);
+    return actsById.asMap();
   }
 
 @Override
@@ -170,9 +249,7 @@ public class PlanInMemory implements Plan {
   @Override
   public Set<SchedulingActivity> getActivities() {
     final var set = new HashSet<SchedulingActivity>();
-    for(final var entry: this.actsByTime.entrySet()){
-      set.addAll(entry.getValue());
-    }
+    actsByTime.forEach((t, actsAtT) -> set.addAll(actsAtT));
     return Collections.unmodifiableSet(set);
   }
 
@@ -185,16 +262,47 @@ public class PlanInMemory implements Plan {
       EvaluationEnvironment evaluationEnvironment)
   {
     //REVIEW: could do something clever with returning streams to prevent wasted work
-    //REVIEW: something more clever for time-based queries using time index
-    LinkedList<SchedulingActivity> matched = new LinkedList<>();
-    for (final var actsAtTime : actsByTime.values()) {
+    final var index = (template.type() == null)
+        ? actsByTime
+        : actsByTypeAndTime.getOrDefault(template.type().getName(), PersistentSortedMap.empty());
+
+    //the start offset of an activity which is not anchored is its start time, which is no later than its end time
+    var earliestStart = Duration.MIN_VALUE;
+    var latestStart = Duration.MAX_VALUE;
+    if (template.startRange() != null) {
+      earliestStart = Duration.max(earliestStart, template.startRange().start);
+      latestStart = Duration.min(latestStart, template.startRange().end);
+    }
+    if (template.endRange() != null) {
+      latestStart = Duration.min(latestStart, template.endRange().end);
+    }
+
+    final var matched = new HashSet<SchedulingActivity>();
+    index.forEachBetween(earliestStart, latestStart, (t, actsAtTime) -> {
       for (final var act : actsAtTime) {
+        if (act.anchorId() == null && template.matches(act, simulationResults, evaluationEnvironment, true, this)) {
+          matched.add(act);
+        }
+      }
+    });
+    anchoredActs.forEach((id, acts) -> {
+      for (final var act : acts) {
         if (template.matches(act, simulationResults, evaluationEnvironment, true, this)) {
           matched.add(act);
         }
       }
+    });
+
+    //report matches in the same order as the plan holds them
+    final var ordered = new LinkedList<SchedulingActivity>();
+    final var startOffsets = new TreeSet<Duration>();
+    for (final var act : matched) startOffsets.add(act.startOffset());
+    for (final var startOffset : startOffsets) {
+      for (final var act : actsByTime.get(startOffset)) {
+        if (matched.contains(act)) ordered.add(act);
+      }
     }
-    return matched;
+    return ordered;
   }
 
   /**
@@ -0,0 +1,74 @@
+package gov.nasa.jpl.aerie.scheduler.simulation;
+
+import gov.nasa.jpl.aerie.merlin.driver.engine.SimulationEngine;
+import gov.nasa.jpl.aerie.merlin.driver.engine.SpanId;
+import gov.nasa.jpl.aerie.merlin.protocol.driver.Topic;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * The resources the activities of each type may affect, learned from the topic dependencies of the simulations run so
+ * far. Dependencies are only ever added, so what is learned holds for every plan simulated with the same model.
+ */
+final class ActivityTypeEffects {
+  /** The topics emitted to by the activities of each type, in every simulation so far. */
+  private final Map<String, Set<Topic<?>>> topicsWrittenByType = new HashMap<>();
+  /** The topics read and emitted to together under some root span, in every simulation so far. */
+  private final Set<TopicFlow> topicFlows = new HashSet<>();
+  /** The resources computed from each topic, in every simulation so far. */
+  private final Map<Topic<?>, Set<String>> resourcesByTopic = new HashMap<>();
+
+  /** The topics emitted to under a root span whose tasks read the given topics. */
+  private record TopicFlow(Set<Topic<?>> read, Set<Topic<?>> written) {}
+
+  /**
+   * Accumulates the topic dependencies of a simulation.
+   *
+   * @param dependencies the topic dependencies recorded by the simulation engine
+   * @param completedActivityTypes the activity type of each root span of an activity simulated to completion. An
+   *     activity that has not finished may not have had all of its effects yet, so it is not learned from.
+   */
+  void learn(final SimulationEngine.TopicDependencies dependencies, final Map<SpanId, String> completedActivityTypes) {
+    completedActivityTypes.forEach((span, activityTypeName) -> this.topicsWrittenByType
+        .computeIfAbsent(activityTypeName, $ -> new HashSet<>())
+        .addAll(dependencies.topicsWritten().getOrDefault(span, Set.of())));
+    for (final var entry : dependencies.topicsRead().entrySet()) {
+      final var written = dependencies.topicsWritten().getOrDefault(entry.getKey(), Set.of());
+      if (!written.isEmpty()) this.topicFlows.add(new TopicFlow(entry.getValue(), written));
+    }
+    dependencies.resourcesByTopic().forEach((topic, resources) ->
+        this.resourcesByTopic.computeIfAbsent(topic, $ -> new HashSet<>()).addAll(resources));
+  }
+
+  /** See {@link SimulationFacade#resourcesAffectedBy}. */
+  Optional<Set<String>> resourcesAffectedBy(final Set<String> activityTypeNames) {
+    final var affectedTopics = new HashSet<Topic<?>>();
+    for (final var activityTypeName : activityTypeNames) {
+      final var written = this.topicsWrittenByType.get(activityTypeName);
+      if (written == null) return Optional.empty();
+      affectedTopics.addAll(written);
+    }
+
+    // any task reading an affected topic may emit differently
+    var changed = true;
+    while (changed) {
+      changed = false;
+      for (final var flow : this.topicFlows) {
+        if (!affectedTopics.containsAll(flow.written()) && !Collections.disjoint(flow.read(), affectedTopics)) {
+          changed |= affectedTopics.addAll(flow.written());
+        }
+      }
+    }
+
+    final var affectedResources = new HashSet<String>();
+    for (final var topic : affectedTopics) {
+      affectedResources.addAll(this.resourcesByTopic.getOrDefault(topic, Set.of()));
+    }
+    return Optional.of(affectedResources);
+  }
+}
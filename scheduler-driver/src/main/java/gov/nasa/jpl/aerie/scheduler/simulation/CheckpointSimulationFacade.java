@@ -5,6 +5,9 @@ import gov.nasa.jpl.aerie.merlin.driver.CheckpointSimulationDriver;
 import gov.nasa.jpl.aerie.merlin.driver.MissionModel;
 import gov.nasa.jpl.aerie.merlin.driver.SimulationEngineConfiguration;
 import gov.nasa.jpl.aerie.merlin.driver.SimulationResultsComputerInputs;
+import gov.nasa.jpl.aerie.merlin.driver.engine.SimulationEngine;
+import gov.nasa.jpl.aerie.merlin.driver.engine.SpanId;
+import gov.nasa.jpl.aerie.merlin.driver.resources.InMemorySimulationResourceManager;
 import gov.nasa.jpl.aerie.merlin.framework.ThreadedTask;
 import gov.nasa.jpl.aerie.merlin.protocol.model.SchedulerModel;
 import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
@@ -15,16 +18,24 @@ import gov.nasa.jpl.aerie.scheduler.model.PlanningHorizon;
 import gov.nasa.jpl.aerie.scheduler.model.SchedulingActivity;
 import gov.nasa.jpl.aerie.types.ActivityDirective;
 import gov.nasa.jpl.aerie.types.ActivityDirectiveId;
+import gov.nasa.jpl.aerie.types.ActivityInstance;
 import gov.nasa.jpl.aerie.types.MissionModelId;
+import org.apache.commons.lang3.tuple.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -45,6 +56,13 @@ public class CheckpointSimulationFacade implements SimulationFacade {
   private final SchedulerModel schedulerModel;
   private Duration totalSimulationTime = Duration.ZERO;
   private SimulationData latestSimulationData;
+  private final int candidateParallelism;
+
+  /** Engines record their topic dependencies, so that the effects of each activity type can be learned. */
+  private static final SimulationEngine.Options ENGINE_OPTIONS = SimulationEngine.Options.DEFAULT.withTopicDependencies(true);
+
+  /** The effects of each activity type, learned from every simulation so far. */
+  private final ActivityTypeEffects activityTypeEffects = new ActivityTypeEffects();
 
   /**
    * Loads initial simulation results into the simulation. They will be served until initialSimulationResultsAreStale()
@@ -65,7 +83,33 @@ public class CheckpointSimulationFacade implements SimulationFacade {
       final SimulationEngineConfiguration simulationEngineConfiguration,
       final Supplier<Boolean> canceledListener)
   {
+    this(
+        missionModel,
+        schedulerModel,
+        cachedEngines,
+        planningHorizon,
+        simulationEngineConfiguration,
+        canceledListener,
+        1);
+  }
+
+  /**
+   * @param candidateParallelism the number of candidate activities that may be simulated at once. Candidates are only
+   *     simulated concurrently if the cached engine store can hold more than one engine.
+   */
+  public CheckpointSimulationFacade(
+      final MissionModel<?> missionModel,
+      final SchedulerModel schedulerModel,
+      final InMemoryCachedEngineStore cachedEngines,
+      final PlanningHorizon planningHorizon,
+      final SimulationEngineConfiguration simulationEngineConfiguration,
+      final Supplier<Boolean> canceledListener,
+      final int candidateParallelism)
+  {
+    if (candidateParallelism < 1) throw new IllegalArgumentException(
+        "Candidate parallelism must be positive, but was %d".formatted(candidateParallelism));
     if (cachedEngines.capacity() > 1) ThreadedTask.CACHE_READS = true;
+    this.candidateParallelism = (cachedEngines.capacity() > 1) ? candidateParallelism : 1;
     this.missionModel = missionModel;
     this.schedulerModel = schedulerModel;
     this.cachedEngines = cachedEngines;
@@ -224,7 +268,7 @@ public class CheckpointSimulationFacade implements SimulationFacade {
       throw new SimulationException("Bad configuration", null);
     }
 
-    if (engine == null) engine = CachedSimulationEngine.empty(missionModel, planningHorizon.getStartInstant());
+    if (engine == null) engine = CachedSimulationEngine.empty(missionModel, planningHorizon.getStartInstant(), ENGINE_OPTIONS);
 
     Function<CheckpointSimulationDriver.SimulationState, Boolean> checkpointPolicy =
         new ResourceAwareSpreadCheckpointPolicy(
@@ -273,6 +317,7 @@ public class CheckpointSimulationFacade implements SimulationFacade {
           planSimCorrespondence,
           activityResults
       );
+      learnTopicDependencies(simulation, planSimCorrespondence.directiveIdActivityDirectiveMap());
       //plan has been updated
       return new AugmentedSimulationResultsComputerInputs(simulation, planSimCorrespondence);
     } catch (SchedulingInterruptedException e) {
@@ -282,6 +327,133 @@ public class CheckpointSimulationFacade implements SimulationFacade {
     }
   }
 
+  /**
+   * Learns the effects of the activities which finished in the given simulation, along with the topic dependencies of
+   * every task and resource in it.
+   */
+  private void learnTopicDependencies(
+      final SimulationResultsComputerInputs simulation,
+      final Map<ActivityDirectiveId, ActivityDirective> directives)
+  {
+    final var engine = simulation.engine();
+    if (!engine.recordsTopicDependencies()) return;
+
+    final var completedActivityTypes = new HashMap<SpanId, String>();
+    for (final var entry : simulation.activityDirectiveIdTaskIdMap().entrySet()) {
+      final var directive = directives.get(entry.getKey());
+      if (directive == null || !engine.spanIsComplete(entry.getValue())) continue;
+      completedActivityTypes.put(entry.getValue(), directive.serializedActivity().getTypeName());
+    }
+    this.activityTypeEffects.learn(engine.getTopicDependencies(), completedActivityTypes);
+  }
+
+  @Override
+  public Optional<Set<String>> resourcesAffectedBy(final Set<String> activityTypeNames) {
+    return this.activityTypeEffects.resourcesAffectedBy(activityTypeNames);
+  }
+
+  @Override
+  public int candidateParallelism() {
+    return this.candidateParallelism;
+  }
+
+  /**
+   * Simulates the candidates concurrently, each from a copy of the same cached engine.
+   *
+   * Every candidate changes the plan only from its own start, so an engine which remains valid with the earliest
+   * candidate added remains valid with any of them. No checkpoints are taken while simulating candidates.
+   */
+  @Override
+  public List<Optional<Duration>> simulateCandidatesUntilEndAct(final Plan plan, final List<SchedulingActivity> candidates)
+  throws SchedulingInterruptedException
+  {
+    if (this.candidateParallelism < 2 || candidates.size() < 2) {
+      return SimulationFacade.super.simulateCandidatesUntilEndAct(plan, candidates);
+    }
+
+    final var earliestCandidate = candidates.stream().min(Comparator.comparing(SchedulingActivity::startOffset)).orElseThrow();
+    final var earliestPlan = plan.duplicate();
+    earliestPlan.add(earliestCandidate);
+    final var best = CheckpointSimulationDriver.bestCachedEngine(
+        scheduleFromPlan(earliestPlan, this.schedulerModel).directiveIdActivityDirectiveMap(),
+        this.cachedEngines.getCachedEngines(this.configuration),
+        this.planningHorizon.getEndAerie());
+    final var baseEngine = best
+        .map(Pair::getKey)
+        .orElseGet(() -> CachedSimulationEngine.empty(this.missionModel, this.planningHorizon.getStartInstant(), ENGINE_OPTIONS));
+    best.ifPresent($ -> this.cachedEngines.registerUsed($.getKey()));
+
+    // Engines and schedules are prepared here, so that the simulations share nothing they might modify.
+    final var simulations = new ArrayList<Callable<Optional<Duration>>>(candidates.size());
+    for (final var candidate : candidates) {
+      final var candidatePlan = plan.duplicate();
+      candidatePlan.add(candidate);
+      final var schedule = scheduleFromPlan(candidatePlan, this.schedulerModel);
+      best.ifPresent($ -> replaceIds(schedule, $.getValue()));
+      final var engine = new CachedSimulationEngine(
+          baseEngine.endsAt(),
+          baseEngine.activityDirectives(),
+          baseEngine.simulationEngine().duplicate(),
+          baseEngine.activityTopic(),
+          baseEngine.missionModel(),
+          new InMemorySimulationResourceManager(baseEngine.resourceManager()));
+      simulations.add(() -> simulateCandidate(schedule, candidate, engine));
+    }
+
+    final var durations = new ArrayList<Optional<Duration>>(candidates.size());
+    try (final var executor = Executors.newFixedThreadPool(Math.min(this.candidateParallelism, candidates.size()))) {
+      for (final var result : executor.invokeAll(simulations)) {
+        try {
+          durations.add(result.get());
+        } catch (ExecutionException e) {
+          LOGGER.debug("Simulation error while simulating a candidate activity: " + e.getCause());
+          durations.add(Optional.empty());
+        }
+      }
+    } catch (InterruptedException e) {
+      throw new SchedulingInterruptedException("simulating candidate activities");
+    } finally {
+      if (best.isEmpty()) baseEngine.simulationEngine().close();
+    }
+
+    if (this.canceledListener.get()) throw new SchedulingInterruptedException("simulating candidate activities");
+    return durations;
+  }
+
+  private Optional<Duration> simulateCandidate(
+      final PlanSimCorrespondence schedule,
+      final SchedulingActivity candidate,
+      final CachedSimulationEngine engine)
+  {
+    try {
+      // A store holding a single engine makes the driver simulate in the given engine rather than in a duplicate,
+      // and the engine it is left holding is discarded along with the store.
+      final var simulation = CheckpointSimulationDriver.simulateWithCheckpoints(
+          this.missionModel,
+          schedule.directiveIdActivityDirectiveMap(),
+          this.planningHorizon.getStartInstant(),
+          this.planningHorizon.getEndAerie(),
+          this.planningHorizon.getStartInstant(),
+          this.planningHorizon.getEndAerie(),
+          $ -> {},
+          this.canceledListener,
+          engine,
+          CheckpointSimulationDriver.noCondition(),
+          CheckpointSimulationDriver.stopOnceActivityHasFinished(candidate.id()),
+          new InMemoryCachedEngineStore(1),
+          this.configuration);
+      synchronized (this) {
+        this.totalSimulationTime = this.totalSimulationTime.plus(
+            simulation.engine().getElapsedTime().minus(Duration.max(engine.endsAt(), Duration.ZERO)));
+      }
+      return SimulationFacadeUtils
+          .findSimulatedActivityById(simulation.computeActivitySimulationResults().simulatedActivities().values(), candidate.id())
+          .map(ActivityInstance::duration);
+    } finally {
+      engine.simulationEngine().close();
+    }
+  }
+
   @SafeVarargs
   private static Function<CheckpointSimulationDriver.SimulationState, Boolean> or(
       final Function<CheckpointSimulationDriver.SimulationState, Boolean>... functions)
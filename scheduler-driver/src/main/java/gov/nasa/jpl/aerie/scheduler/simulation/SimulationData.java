@@ -3,6 +3,14 @@ package gov.nasa.jpl.aerie.scheduler.simulation;
 import gov.nasa.jpl.aerie.merlin.driver.SimulationResults;
 import gov.nasa.jpl.aerie.scheduler.model.Plan;
 
+/**
+ * The results of simulating a plan, in the forms needed by the driver and by the constraints.
+ *
+ * @param plan the plan the results are for
+ * @param driverResults the results of the simulation, or null if the plan was not itself simulated, as when the results
+ *     are built from the grounded plan or reuse the profiles of another plan's simulation
+ * @param constraintsResults the results the goals and constraints are evaluated against
+ */
 public record SimulationData(
     Plan plan,
     SimulationResults driverResults,
@@ -9,8 +9,10 @@ import gov.nasa.jpl.aerie.scheduler.model.SchedulingActivity;
 import gov.nasa.jpl.aerie.types.ActivityDirective;
 import gov.nasa.jpl.aerie.types.ActivityDirectiveId;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -47,6 +49,48 @@ public interface SimulationFacade {
 
   Optional<SimulationData> getLatestSimulationData();
 
+  /**
+   * The resources whose profiles may change when activities of the given types are added to or removed from a plan,
+   * as learned from the simulations run so far. An activity affects the resources computed from the topics it emits
+   * to, and from the topics emitted to by any task whose reads it may affect in turn.
+   * @param activityTypeNames the names of the activity types
+   * @return the names of the resources which may be affected, or empty if not known for every given type
+   */
+  default Optional<Set<String>> resourcesAffectedBy(final Set<String> activityTypeNames) {
+    return Optional.empty();
+  }
+
+  /**
+   * The number of candidate activities that {@link #simulateCandidatesUntilEndAct} may simulate at once.
+   */
+  default int candidateParallelism() {
+    return 1;
+  }
+
+  /**
+   * Simulates the plan once for each candidate activity, with only that candidate added, until the candidate ends.
+   * The plan itself is not modified.
+   * @param plan the plan to which each candidate is added in turn
+   * @param candidates the candidate activities
+   * @return the simulated duration of each candidate in the order given, or empty if it could not be simulated to its end
+   */
+  default List<Optional<Duration>> simulateCandidatesUntilEndAct(final Plan plan, final List<SchedulingActivity> candidates)
+  throws SchedulingInterruptedException
+  {
+    final var durations = new ArrayList<Optional<Duration>>(candidates.size());
+    for (final var candidate : candidates) {
+      final var candidatePlan = plan.duplicate();
+      candidatePlan.add(candidate);
+      try {
+        simulateNoResultsUntilEndAct(candidatePlan, candidate);
+        durations.add(Optional.ofNullable(candidatePlan.getActivitiesById().get(candidate.id()).duration()));
+      } catch (SimulationException e) {
+        durations.add(Optional.empty());
+      }
+    }
+    return durations;
+  }
+
   class SimulationException extends Exception {
     SimulationException(final String message, final Throwable cause) {
       super(message, cause);
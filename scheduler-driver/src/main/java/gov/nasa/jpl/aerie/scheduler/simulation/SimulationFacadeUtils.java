@@ -67,7 +67,7 @@ public class SimulationFacadeUtils {
     toReplace.forEach(plan::replaceActivity);
   }
 
-  private static Optional<ActivityInstance> findSimulatedActivityById(
+  /*package-local*/ static Optional<ActivityInstance> findSimulatedActivityById(
       Collection<ActivityInstance> simulatedActivities,
       final ActivityDirectiveId activityDirectiveId
   ){
@@ -41,6 +41,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -59,6 +62,11 @@ public class PrioritySolver implements Solver {
 
   private static final Logger logger = LoggerFactory.getLogger(PrioritySolver.class);
 
+  /**
+   * The number of rounds of candidate start times simulated at once, before falling back to the secant method.
+   */
+  private static final int MAX_SPECULATIVE_ROUNDS = 5;
+
   private boolean checkSimBeforeInsertingActivities;
 
   private boolean checkSimBeforeEvaluatingGoal;
@@ -67,6 +75,19 @@ public class PrioritySolver implements Solver {
 
   private SimulationData cachedSimulationResultsBeforeGoalEvaluation;
 
+  /**
+   * the results of the latest simulation before a goal evaluation, along with the activities of the plan it simulated
+   */
+  private record SimulatedPlan(SimulationData results, Set<SchedulingActivity> activities){}
+
+  private SimulatedPlan lastSimulatedPlan;
+
+  /**
+   * whether to reuse the cached simulation results instead of resimulating, when the activities changed since they were
+   * computed cannot affect the resources that are needed
+   */
+  private final boolean skipUnaffectedSimulations;
+
   /**
    * boolean stating whether only conflict analysis should be performed or not
    */
@@ -90,6 +111,18 @@ public class PrioritySolver implements Solver {
 
   private final DirectiveIdGenerator idGenerator;
 
+  /**
+   * the number of goals whose conflicts may be computed at once, ahead of their turn
+   */
+  private final int conflictDetectionParallelism;
+
+  /**
+   * conflicts computed ahead of their goal's turn, along with the activities of the plan they were computed against
+   */
+  private record PrecomputedConflicts(List<SchedulingActivity> planActivities, Collection<Conflict> conflicts){}
+
+  private final Map<Goal, PrecomputedConflicts> precomputedConflicts = new HashMap<>();
+
   public record ActivityMetadata(SchedulingActivity activityDirective){}
 
   public static class HistoryWithActivity implements EquationSolvingAlgorithms.History<Duration, ActivityMetadata> {
@@ -138,7 +171,44 @@ public class PrioritySolver implements Solver {
    *     solved, which must not change
    */
   public PrioritySolver(final Problem problem, final boolean analysisOnly) {
+    this(problem, analysisOnly, 1);
+  }
+
+  /**
+   * create a new greedy solver for the specified input planning problem
+   *
+   * @param problem IN, STORED description of the planning problem to be
+   *     solved, which must not change
+   * @param analysisOnly IN whether the solver only evaluates the goals, without inserting activities
+   * @param conflictDetectionParallelism IN the number of goals whose conflicts may be computed at once against the
+   *     initial plan, before any goal is satisfied. goals are still satisfied one at a time
+   */
+  public PrioritySolver(final Problem problem, final boolean analysisOnly, final int conflictDetectionParallelism) {
+    this(problem, analysisOnly, conflictDetectionParallelism, false);
+  }
+
+  /**
+   * create a new greedy solver for the specified input planning problem
+   *
+   * @param problem IN, STORED description of the planning problem to be
+   *     solved, which must not change
+   * @param analysisOnly IN whether the solver only evaluates the goals, without inserting activities
+   * @param conflictDetectionParallelism IN the number of goals whose conflicts may be computed at once against the
+   *     initial plan, before any goal is satisfied. goals are still satisfied one at a time
+   * @param skipUnaffectedSimulations IN whether simulation results may be reused for resources that, according to the
+   *     simulation facade, cannot be affected by the activities added or removed since they were computed
+   */
+  public PrioritySolver(
+      final Problem problem,
+      final boolean analysisOnly,
+      final int conflictDetectionParallelism,
+      final boolean skipUnaffectedSimulations)
+  {
     checkNotNull(problem, "creating solver with null input problem descriptor");
+    if (conflictDetectionParallelism < 1) throw new IllegalArgumentException(
+        "Conflict detection parallelism must be positive, but was %d".formatted(conflictDetectionParallelism));
+    this.conflictDetectionParallelism = conflictDetectionParallelism;
+    this.skipUnaffectedSimulations = skipUnaffectedSimulations;
     this.checkSimBeforeInsertingActivities = true;
     this.checkSimBeforeEvaluatingGoal = true;
     this.atLeastOneSimulateAfter = false;
@@ -271,6 +341,8 @@ public class PrioritySolver implements Solver {
     final var goalQ = getGoalQueue();
     assert goalQ != null;
 
+    if (conflictDetectionParallelism > 1) precomputeConflicts(goalQ);
+
     //process each goal independently in that order
     while (!goalQ.isEmpty()) {
       var goal = goalQ.remove();
@@ -313,6 +385,64 @@ public class PrioritySolver implements Solver {
     return goalQ;
   }
 
+  /**
+   * computes the conflicts of every goal that allows it against the current plan, several goals at a time
+   *
+   * the conflicts of a goal are only used when its turn comes if the plan's activities are then still those they were
+   * computed against. the evaluation of the other goals does not otherwise affect a goal's conflicts.
+   *
+   * @param goals IN the goals to be satisfied, in order
+   */
+  private void precomputeConflicts(final List<Goal> goals) throws SchedulingInterruptedException {
+    final var eligibleGoals = goals.stream()
+        .filter(Goal::canPrecomputeConflicts)
+        .filter(goal -> goals.indexOf(goal) == goals.lastIndexOf(goal))
+        .toList();
+    if (eligibleGoals.size() < 2) return;
+
+    //obtain the simulation results each goal would be given, as a goal reading no resource is given the grounded plan
+    final var resources = new HashSet<String>();
+    final var goalResources = new HashMap<Goal, Set<String>>();
+    for (final var goal : eligibleGoals) {
+      final var names = new HashSet<String>();
+      goal.extractResources(names);
+      goalResources.put(goal, names);
+      resources.addAll(names);
+    }
+    final var horizonEnd = this.problem.getPlanningHorizon().getEndAerie();
+    final var simulationResults = resources.isEmpty() ? null : getLatestSimResultsUpTo(horizonEnd, resources);
+    final var groundedResults = goalResources.values().stream().anyMatch(Set::isEmpty)
+        ? getLatestSimResultsUpTo(horizonEnd, Set.of())
+        : null;
+
+    //simulating may have updated the plan, so it is only captured now
+    final var planActivities = plan.getActivitiesByTime();
+    //goal evaluations and the plan's type index are created on first access, which must not happen concurrently
+    for (final var goal : eligibleGoals) plan.getEvaluation().forGoal(goal);
+    plan.getActivitiesByType();
+
+    logger.info("Computing conflicts of " + eligibleGoals.size() + " goals ahead of their turn");
+    final var tasks = new ArrayList<Callable<Collection<Conflict>>>();
+    for (final var goal : eligibleGoals) {
+      final var results = goalResources.get(goal).isEmpty() ? groundedResults : simulationResults;
+      final var evaluationEnvironment = new EvaluationEnvironment(this.problem.getRealExternalProfiles(), this.problem.getDiscreteExternalProfiles());
+      tasks.add(() -> goal.getConflicts(plan, results.constraintsResults(), evaluationEnvironment, this.problem.getSchedulerModel()));
+    }
+    try (final var executor = Executors.newFixedThreadPool(Math.min(conflictDetectionParallelism, tasks.size()))) {
+      final var futures = executor.invokeAll(tasks);
+      for (var i = 0; i < eligibleGoals.size(); i++) {
+        try {
+          precomputedConflicts.put(eligibleGoals.get(i), new PrecomputedConflicts(planActivities, futures.get(i).get()));
+        } catch (ExecutionException e) {
+          //the goal's conflicts will be computed again in its turn, where the failure will be reported
+          logger.debug("Could not compute conflicts of goal " + eligibleGoals.get(i).getName() + " ahead of its turn", e.getCause());
+        }
+      }
+    } catch (InterruptedException e) {
+      throw new SchedulingInterruptedException("computing conflicts");
+    }
+  }
+
   private void satisfyGoal(Goal goal) throws SchedulingInterruptedException{
     if(simulationFacade.getCanceledListener().get()) throw new SchedulingInterruptedException("satisfying goal");
     final boolean checkSimConfig = this.checkSimBeforeInsertingActivities;
@@ -876,6 +1006,11 @@ public class PrioritySolver implements Solver {
   {
     assert goal != null;
     assert plan != null;
+    final var precomputed = precomputedConflicts.remove(goal);
+    if (precomputed != null && sameActivities(precomputed.planActivities(), plan.getActivitiesByTime())) {
+      logger.debug("Reusing conflicts computed ahead of the turn of goal " + goal.getName());
+      return precomputed.conflicts();
+    }
     //REVIEW: maybe should have way to request only certain kinds of conflicts
     logger.debug("Computing simulation results until "+ this.problem.getPlanningHorizon().getEndAerie() + " (planning horizon end) in order to compute conflicts");
     final var resources = new HashSet<String>();
@@ -891,6 +1026,19 @@ public class PrioritySolver implements Solver {
     return rawConflicts;
   }
 
+  /**
+   * activities are immutable, so an unchanged plan holds the very same instances
+   */
+  private static boolean sameActivities(final List<SchedulingActivity> before, final List<SchedulingActivity> after) {
+    if (before.size() != after.size()) return false;
+    final var itBefore = before.iterator();
+    final var itAfter = after.iterator();
+    while (itBefore.hasNext()) {
+      if (itBefore.next() != itAfter.next()) return false;
+    }
+    return true;
+  }
+
   /**
    * determines the best activity instances to add to improve the plan
    *
@@ -1112,15 +1260,86 @@ public class PrioritySolver implements Solver {
         resources.clear();
         resources.addAll(this.problem.getMissionModel().getResources().keySet());
       }
-      if(checkSimBeforeEvaluatingGoal || cachedSimulationResultsBeforeGoalEvaluation == null || cachedSimulationResultsBeforeGoalEvaluation.constraintsResults().bounds.end.shorterThan(time) || resourcesAreMissing)
-        cachedSimulationResultsBeforeGoalEvaluation = simulationFacade
-            .simulateWithResults(plan, time, resources);
+      if(cachedSimulationResultsBeforeGoalEvaluation == null || cachedSimulationResultsBeforeGoalEvaluation.constraintsResults().bounds.end.shorterThan(time) || resourcesAreMissing) {
+        return simulateBeforeGoalEvaluation(time, resources);
+      }
+      if(checkSimBeforeEvaluatingGoal) {
+        final var unaffectedResults = skipUnaffectedSimulations ? getUnaffectedSimResults(resourceNames) : Optional.<SimulationData>empty();
+        if (unaffectedResults.isEmpty()) return simulateBeforeGoalEvaluation(time, resources);
+        cachedSimulationResultsBeforeGoalEvaluation = unaffectedResults.get();
+      }
       return cachedSimulationResultsBeforeGoalEvaluation;
     } catch (SimulationFacade.SimulationException e) {
       throw new RuntimeException("Exception while running simulation before evaluating conflicts", e);
     }
   }
 
+  private SimulationData simulateBeforeGoalEvaluation(final Duration time, final Set<String> resources)
+  throws SimulationFacade.SimulationException, SchedulingInterruptedException
+  {
+    cachedSimulationResultsBeforeGoalEvaluation = simulationFacade.simulateWithResults(plan, time, resources);
+    //simulating may have updated the plan, so it is only captured now
+    lastSimulatedPlan = new SimulatedPlan(cachedSimulationResultsBeforeGoalEvaluation, Set.copyOf(plan.getActivities()));
+    return cachedSimulationResultsBeforeGoalEvaluation;
+  }
+
+  /**
+   * reuses the profiles of the cached simulation results if none of the activities added to or removed from the plan
+   * since they were computed may affect the given resources. the activities of the results are those of the current
+   * plan, grounded. the results have no driver results, as those of the cached simulation are not for the current plan.
+   *
+   * @param resourceNames IN the resources that are needed
+   * @return the cached profiles along with the current activities, or empty if the plan must be simulated again
+   */
+  private Optional<SimulationData> getUnaffectedSimResults(final Set<String> resourceNames) {
+    if (lastSimulatedPlan == null) return Optional.empty();
+    final var simulatedActivities = lastSimulatedPlan.activities();
+    final var currentActivities = plan.getActivities();
+    final var changedActivities = new ArrayList<SchedulingActivity>();
+    for (final var activity : currentActivities) {
+      if (!simulatedActivities.contains(activity)) changedActivities.add(activity);
+    }
+    for (final var activity : simulatedActivities) {
+      if (!currentActivities.contains(activity)) changedActivities.add(activity);
+    }
+    if (changedActivities.isEmpty()) return Optional.of(lastSimulatedPlan.results());
+
+    //anchored activities move along with their anchors, which the types of the activities do not account for
+    final var changedIds = changedActivities.stream().map(SchedulingActivity::id).collect(Collectors.toSet());
+    if (changedActivities.stream().anyMatch(act -> act.anchorId() != null)
+        || currentActivities.stream().anyMatch(act -> act.anchorId() != null && changedIds.contains(act.anchorId()))) {
+      return Optional.empty();
+    }
+
+    //child activities change along with their parent, whose type accounts for them
+    final var changedTypes = changedActivities
+        .stream()
+        .filter(act -> act.topParent() == null || !changedIds.contains(act.topParent()))
+        .map(act -> act.getType().getName())
+        .collect(Collectors.toSet());
+    final var affectedResources = simulationFacade.resourcesAffectedBy(changedTypes);
+    if (affectedResources.isEmpty() || !Collections.disjoint(affectedResources.get(), resourceNames)) {
+      return Optional.empty();
+    }
+
+    final var groundedPlan = SchedulePlanGrounder.groundSchedule(
+        currentActivities.stream().toList(),
+        this.problem.getPlanningHorizon().getEndAerie());
+    if (groundedPlan.isEmpty()) return Optional.empty();
+
+    logger.debug("Reusing simulation results, as activities of types " + changedTypes + " cannot affect resources " + resourceNames);
+    final var cachedResults = lastSimulatedPlan.results().constraintsResults();
+    return Optional.of(new SimulationData(
+        plan,
+        null,
+        new SimulationResults(
+            cachedResults.planStart,
+            cachedResults.bounds,
+            groundedPlan.get(),
+            cachedResults.realProfiles,
+            cachedResults.discreteProfiles)));
+  }
+
   private Windows narrowGlobalConstraints(
       final Plan plan,
       final MissingActivityConflict mac,
@@ -1215,23 +1434,7 @@ public class PrioritySolver implements Solver {
         public Duration valueAt(Duration start, final EquationSolvingAlgorithms.History<Duration, ActivityMetadata> history)
         throws EquationSolvingAlgorithms.DiscontinuityException, SchedulingInterruptedException
         {
-          final var latestConstraintsSimulationResults = getLatestSimResultsUpTo(start, resourceNames);
-          final var actToSim = new SchedulingActivity(
-              idGenerator.next(),
-              activityExpression.type(),
-              start,
-              null,
-              SchedulingActivity.instantiateArguments(
-                  activityExpression.arguments(),
-                  start,
-                  latestConstraintsSimulationResults.constraintsResults(),
-                  evaluationEnvironment,
-                  activityExpression.type()),
-              null,
-              null,
-              true,
-              true
-          );
+          final var actToSim = instantiateCandidate(activityExpression, start, resourceNames, evaluationEnvironment);
           Duration computedDuration = null;
           try {
             final var duplicatePlan = plan.duplicate();
@@ -1253,6 +1456,16 @@ public class PrioritySolver implements Solver {
         }
 
       };
+      if (simulationFacade.candidateParallelism() > 1) {
+        final var speculated = speculativeRootFinding(
+            activityExpression,
+            resourceNames,
+            evaluationEnvironment,
+            history,
+            solved,
+            scheduleAt);
+        if (speculated.isPresent()) return speculated;
+      }
       return rootFindingHelper(f, history, solved, scheduleAt);
       //CASE 2: activity has a controllable duration
     } else if (activityExpression.type().getDurationType() instanceof DurationType.Controllable dt) {
@@ -1358,6 +1571,121 @@ public class PrioritySolver implements Solver {
     }
   }
 
+  /**
+   * Instantiates an activity of uncontrollable duration at a candidate start time, leaving its duration to simulation.
+   */
+  private SchedulingActivity instantiateCandidate(
+      final ActivityExpression activityExpression,
+      final Duration start,
+      final Set<String> resourceNames,
+      final EvaluationEnvironment evaluationEnvironment
+  ) throws SchedulingInterruptedException {
+    final var latestConstraintsSimulationResults = getLatestSimResultsUpTo(start, resourceNames);
+    return new SchedulingActivity(
+        idGenerator.next(),
+        activityExpression.type(),
+        start,
+        null,
+        SchedulingActivity.instantiateArguments(
+            activityExpression.arguments(),
+            start,
+            latestConstraintsSimulationResults.constraintsResults(),
+            evaluationEnvironment,
+            activityExpression.type()),
+        null,
+        null,
+        true,
+        true
+    );
+  }
+
+  /**
+   * Searches for a start time of an activity of uncontrollable duration by simulating several candidate start times at
+   * once, spread evenly over the start interval, then over the narrowest bracket of the end interval they find.
+   *
+   * The candidates of each round are all simulated before any is selected, so the activity found does not depend on
+   * the order in which their simulations complete. Every candidate is recorded in the history, which the secant method
+   * may then resume from if no start time is found.
+   */
+  private Optional<SchedulingActivity> speculativeRootFinding(
+      final ActivityExpression activityExpression,
+      final Set<String> resourceNames,
+      final EvaluationEnvironment evaluationEnvironment,
+      final HistoryWithActivity history,
+      final TaskNetworkAdapter.TNActData solved,
+      final ScheduleAt scheduleAt
+  ) throws SchedulingInterruptedException {
+    final var probes = simulationFacade.candidateParallelism();
+    final var endInterval = solved.end();
+    var low = solved.start().start;
+    var high = solved.start().end;
+
+    for (var round = 0; round < MAX_SPECULATIVE_ROUNDS; round++) {
+      // the bounds of the first round are candidates themselves, while later bounds have already been simulated
+      final var starts = new TreeSet<Duration>();
+      for (var i = 0; i < probes; i++) {
+        final var start = (round == 0)
+            ? low.plus(high.minus(low).times(i).dividedBy(probes - 1))
+            : low.plus(high.minus(low).times(i + 1).dividedBy(probes + 1));
+        if (!history.alreadyVisited(start)) starts.add(start);
+      }
+      if (starts.isEmpty()) break;
+
+      final var candidates = new ArrayList<SchedulingActivity>(starts.size());
+      for (final var start : starts) {
+        candidates.add(instantiateCandidate(activityExpression, start, resourceNames, evaluationEnvironment));
+      }
+      final var durations = simulationFacade.simulateCandidatesUntilEndAct(plan, candidates);
+
+      final var ends = new ArrayList<Optional<Duration>>(candidates.size());
+      for (var i = 0; i < candidates.size(); i++) {
+        final var candidate = candidates.get(i);
+        final var end = durations.get(i).map(candidate.startOffset()::plus);
+        ends.add(end);
+        if (end.isPresent()) {
+          history.add(
+              new EquationSolvingAlgorithms.FunctionCoordinate<>(candidate.startOffset(), end.get()),
+              new ActivityMetadata(candidate.withNewDuration(durations.get(i).get())));
+        } else {
+          history.add(new EquationSolvingAlgorithms.FunctionCoordinate<>(candidate.startOffset(), null), new ActivityMetadata(candidate));
+        }
+      }
+
+      final var order = new ArrayList<Integer>();
+      for (var i = 0; i < candidates.size(); i++) order.add(i);
+      if (scheduleAt == ScheduleAt.LATEST) Collections.reverse(order);
+
+      for (final var i : order) {
+        if (ends.get(i).isPresent() && endInterval.contains(ends.get(i).get())) {
+          logger.info("Finished speculative rootfinding: SUCCESS");
+          history.logHistory();
+          return Optional.of(candidates.get(i).withNewDuration(durations.get(i).get()));
+        }
+      }
+
+      // narrow the search to the first (or last) pair of neighbouring candidates whose ends lie on either side of the end interval
+      Optional<Pair<Duration, Duration>> bracket = Optional.empty();
+      for (var j = 0; j + 1 < order.size(); j++) {
+        final var a = Math.min(order.get(j), order.get(j + 1));
+        final var b = Math.max(order.get(j), order.get(j + 1));
+        if (ends.get(a).isEmpty() || ends.get(b).isEmpty()) continue;
+        final var aBefore = ends.get(a).get().shorterThan(endInterval.start);
+        final var bBefore = ends.get(b).get().shorterThan(endInterval.start);
+        final var aAfter = ends.get(a).get().longerThan(endInterval.end);
+        final var bAfter = ends.get(b).get().longerThan(endInterval.end);
+        if ((aBefore && bAfter) || (aAfter && bBefore)) {
+          bracket = Optional.of(Pair.of(candidates.get(a).startOffset(), candidates.get(b).startOffset()));
+          break;
+        }
+      }
+      if (bracket.isEmpty() || bracket.get().getRight().minus(bracket.get().getLeft()).noLongerThan(MICROSECOND)) break;
+      low = bracket.get().getLeft();
+      high = bracket.get().getRight();
+    }
+    logger.info("Finished speculative rootfinding: FAILURE");
+    return Optional.empty();
+  }
+
   private  Optional<SchedulingActivity> rootFindingHelper(
       final EquationSolvingAlgorithms.Function<Duration, ActivityMetadata> f,
       final HistoryWithActivity history,
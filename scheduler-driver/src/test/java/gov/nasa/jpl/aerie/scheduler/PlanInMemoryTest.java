@@ -0,0 +1,103 @@
+package gov.nasa.jpl.aerie.scheduler;
+
+import gov.nasa.jpl.aerie.constraints.model.EvaluationEnvironment;
+import gov.nasa.jpl.aerie.constraints.time.Interval;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.scheduler.constraints.activities.ActivityExpression;
+import gov.nasa.jpl.aerie.scheduler.model.ActivityType;
+import gov.nasa.jpl.aerie.scheduler.model.PlanInMemory;
+import gov.nasa.jpl.aerie.scheduler.model.SchedulingActivity;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.HOURS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class PlanInMemoryTest {
+  private static final ActivityType typeA = new ActivityType("A");
+  private static final ActivityType typeB = new ActivityType("B");
+
+  private static Duration hours(final long hours) {
+    return Duration.of(hours, HOURS);
+  }
+
+  private static List<SchedulingActivity> scan(final PlanInMemory plan, final ActivityExpression template) {
+    return plan.getActivitiesByTime()
+               .stream()
+               .filter(act -> template.matches(act, null, new EvaluationEnvironment(), true, plan))
+               .toList();
+  }
+
+  /**
+   * Finding activities through the plan's indices gives the same activities, in the same order, as testing every activity
+   */
+  @Test
+  public void findMatchesScan() {
+    final var idGenerator = new DirectiveIdGenerator(0);
+    final var plan = new PlanInMemory();
+    final var anchor = SchedulingActivity.of(idGenerator.next(), typeA, hours(1), hours(1), null, true, false);
+    plan.add(anchor);
+    for (var i = 0; i < 10; i++) {
+      plan.add(SchedulingActivity.of(idGenerator.next(), (i % 2 == 0) ? typeA : typeB, hours(i), hours(2), null, true, false));
+    }
+    // starts at 1h + 5h = 6h, although its offset is 5h
+    plan.add(SchedulingActivity.of(idGenerator.next(), typeB, hours(5), hours(1), anchor.id(), true, false));
+
+    final var templates = List.of(
+        new ActivityExpression.Builder().ofType(typeA).build(),
+        new ActivityExpression.Builder().ofType(typeB).startsIn(Interval.between(hours(3), hours(6))).build(),
+        new ActivityExpression.Builder().startsIn(Interval.between(hours(6), hours(6))).build(),
+        new ActivityExpression.Builder().endsIn(Interval.between(hours(4), hours(7))).build(),
+        new ActivityExpression.Builder().ofType(typeA).startsIn(Interval.between(hours(5), hours(1))).build());
+    for (final var template : templates) {
+      assertEquals(scan(plan, template), List.copyOf(plan.find(template, null, new EvaluationEnvironment())));
+    }
+  }
+
+  @Test
+  public void indicesFollowRemovals() {
+    final var idGenerator = new DirectiveIdGenerator(0);
+    final var plan = new PlanInMemory();
+    final var act = SchedulingActivity.of(idGenerator.next(), typeA, hours(1), hours(1), null, true, false);
+    plan.add(act);
+    plan.remove(act);
+
+    assertFalse(plan.getActivitiesById().containsKey(act.id()));
+    assertNull(plan.getActivitiesByType().get(typeA));
+    assertEquals(List.of(), List.copyOf(plan.find(new ActivityExpression.Builder().ofType(typeA).build(), null, new EvaluationEnvironment())));
+  }
+
+  /**
+   * A duplicate shares its original's activities, but changes to either plan are not seen by the other
+   */
+  @Test
+  public void duplicatesAreIndependent() {
+    final var idGenerator = new DirectiveIdGenerator(0);
+    final var plan = new PlanInMemory();
+    for (var i = 0; i < 100; i++) {
+      plan.add(SchedulingActivity.of(idGenerator.next(), (i % 3 == 0) ? typeA : typeB, hours(i % 7), hours(1), null, true, false));
+    }
+    final var original = plan.getActivitiesByTime();
+    final var byId = plan.getActivitiesById();
+
+    final var duplicate = (PlanInMemory) plan.duplicate();
+    final var removed = original.get(50);
+    final var added = SchedulingActivity.of(idGenerator.next(), typeA, hours(3), hours(1), null, true, false);
+    duplicate.remove(removed);
+    duplicate.add(added);
+
+    assertEquals(original, plan.getActivitiesByTime());
+    assertEquals(100, plan.size());
+    assertEquals(100, byId.size());
+    assertFalse(plan.getActivitiesById().containsKey(added.id()));
+    assertEquals(100, duplicate.size());
+    assertFalse(duplicate.getActivitiesById().containsKey(removed.id()));
+    assertEquals(added, duplicate.getActivitiesById().get(added.id()));
+    assertEquals(
+        scan(duplicate, new ActivityExpression.Builder().ofType(typeA).build()),
+        List.copyOf(duplicate.find(new ActivityExpression.Builder().ofType(typeA).build(), null, new EvaluationEnvironment())));
+  }
+}
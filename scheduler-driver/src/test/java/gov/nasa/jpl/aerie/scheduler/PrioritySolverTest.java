@@ -1,18 +1,25 @@
 package gov.nasa.jpl.aerie.scheduler;
 
 import com.google.common.testing.NullPointerTester;
+import gov.nasa.jpl.aerie.constraints.model.EvaluationEnvironment;
+import gov.nasa.jpl.aerie.constraints.model.SimulationResults;
 import gov.nasa.jpl.aerie.constraints.time.Interval;
 import gov.nasa.jpl.aerie.constraints.time.Windows;
 import gov.nasa.jpl.aerie.constraints.tree.WindowsWrapperExpression;
 import gov.nasa.jpl.aerie.merlin.driver.MissionModel;
+import gov.nasa.jpl.aerie.merlin.protocol.model.SchedulerModel;
 import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+import gov.nasa.jpl.aerie.scheduler.conflicts.Conflict;
 import gov.nasa.jpl.aerie.scheduler.constraints.activities.ActivityExpression;
 import gov.nasa.jpl.aerie.scheduler.constraints.timeexpressions.TimeAnchor;
 import gov.nasa.jpl.aerie.scheduler.goals.CardinalityGoal;
 import gov.nasa.jpl.aerie.scheduler.goals.ChildCustody;
 import gov.nasa.jpl.aerie.scheduler.goals.CoexistenceGoal;
+import gov.nasa.jpl.aerie.scheduler.goals.Goal;
 import gov.nasa.jpl.aerie.scheduler.goals.ProceduralCreationGoal;
 import gov.nasa.jpl.aerie.scheduler.goals.RecurrenceGoal;
+import gov.nasa.jpl.aerie.scheduler.model.Plan;
 import gov.nasa.jpl.aerie.scheduler.model.SchedulingActivity;
 import gov.nasa.jpl.aerie.scheduler.model.PlanInMemory;
 import gov.nasa.jpl.aerie.scheduler.model.PlanningHorizon;
@@ -20,6 +27,7 @@ import gov.nasa.jpl.aerie.scheduler.model.Problem;
 import gov.nasa.jpl.aerie.scheduler.simulation.InMemoryCachedEngineStore;
 import gov.nasa.jpl.aerie.merlin.driver.SimulationEngineConfiguration;
 import gov.nasa.jpl.aerie.scheduler.simulation.CheckpointSimulationFacade;
+import gov.nasa.jpl.aerie.scheduler.simulation.SimulationData;
 import gov.nasa.jpl.aerie.scheduler.simulation.SimulationFacade;
 import gov.nasa.jpl.aerie.scheduler.solver.Evaluation;
 import gov.nasa.jpl.aerie.scheduler.solver.PrioritySolver;
@@ -27,9 +35,14 @@ import gov.nasa.jpl.aerie.types.MissionModelId;
 import org.junit.jupiter.api.Test;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 
 import static gov.nasa.jpl.aerie.scheduler.TestUtility.assertSetEquality;
 import static org.junit.jupiter.api.Assertions.*;
@@ -241,6 +254,264 @@ public class PrioritySolverTest {
     assertSetEquality(plan.getActivitiesByTime(), expectedPlan.getActivitiesByTime());
   }
 
+  /**
+   * Both goals are already satisfied by the initial plan, so their conflicts, computed together ahead of time, are used
+   */
+  @Test
+  public void getNextSolution_precomputedConflictsOfSatisfiedGoals() throws SchedulingInterruptedException {
+    final var problem = makeTestMissionAB();
+    problem.setInitialPlan(makePlanAB012(problem));
+    final var actTypeA = problem.getActivityType("ControllableDurationActivity");
+    final var actTypeB = problem.getActivityType("OtherControllableDurationActivity");
+    final var coexistenceGoal = new CoexistenceGoal.Builder()
+        .named("g0")
+        .forAllTimeIn(new WindowsWrapperExpression(new Windows(false).set(h.getHor(), true)))
+        .forEach(new ActivityExpression.Builder()
+                     .ofType(actTypeA)
+                     .build())
+        .thereExistsOne(new ActivityExpression.Builder()
+                            .ofType(actTypeB)
+                            .durationIn(d1min)
+                            .build())
+        .startsAt(TimeAnchor.START)
+        .aliasForAnchors("Bond. James Bond")
+        .withinPlanHorizon(h)
+        .build();
+    final var recurrenceGoal = new RecurrenceGoal.Builder()
+        .named("g1")
+        .startingAt(t0)
+        .endingAt(t2hr.plus(Duration.of(10, Duration.MINUTE)))
+        .separatedByAtLeast(d1hr)
+        .separatedByAtMost(d1hr)
+        .thereExistsOne(new ActivityExpression.Builder()
+                            .ofType(actTypeA)
+                            .durationIn(d1min)
+                            .build())
+        .withinPlanHorizon(h)
+        .build();
+    problem.setGoals(List.of(coexistenceGoal, recurrenceGoal));
+    final var solver = new PrioritySolver(problem, false, 2);
+
+    final var plan = solver.getNextSolution().orElseThrow();
+
+    assertSetEquality(plan.getActivitiesByTime(), makePlanAB012(problem).getActivitiesByTime());
+    assertEquals(0, plan.getEvaluation().forGoal(coexistenceGoal).getScore());
+    assertEquals(0, plan.getEvaluation().forGoal(recurrenceGoal).getScore());
+  }
+
+  /**
+   * The plan is left untouched by both goals, so each goal's conflicts are computed only once, ahead of its turn
+   */
+  @Test
+  public void getNextSolution_precomputedConflictsAreReused() throws SchedulingInterruptedException {
+    final var problem = makeTestMissionAB();
+    problem.setInitialPlan(makePlanA012(problem));
+    final var g0 = makeRecordingRecurrenceGoal(problem, "g0", "ControllableDurationActivity", d1min);
+    final var g1 = makeRecordingRecurrenceGoal(problem, "g1", "ControllableDurationActivity", d1min);
+    problem.setGoals(List.of(g0, g1));
+    final var solver = new PrioritySolver(problem, false, 2);
+
+    final var plan = solver.getNextSolution().orElseThrow();
+
+    assertSetEquality(plan.getActivitiesByTime(), makePlanA012(problem).getActivitiesByTime());
+    final var solverThread = Thread.currentThread();
+    assertEquals(1, g0.callers.size());
+    assertNotEquals(solverThread, g0.callers.getFirst());
+    assertEquals(1, g1.callers.size());
+    assertNotEquals(solverThread, g1.callers.getFirst());
+  }
+
+  /**
+   * The first goal inserts an activity, so the conflicts of the second goal, computed against the initial plan, are
+   * dropped and computed again in its turn
+   */
+  @Test
+  public void getNextSolution_precomputedConflictsAreDroppedOncePlanChanges() throws SchedulingInterruptedException {
+    final var problem = makeTestMissionAB();
+    problem.setInitialPlan(makePlanA12(problem));
+    final var g0 = makeRecordingRecurrenceGoal(problem, "g0", "ControllableDurationActivity", d1min);
+    final var g1 = makeRecordingRecurrenceGoal(problem, "g1", "ControllableDurationActivity", d1min);
+    problem.setGoals(List.of(g0, g1));
+    final var solver = new PrioritySolver(problem, false, 2);
+
+    final var plan = solver.getNextSolution().orElseThrow();
+
+    assertSetEquality(plan.getActivitiesByTime(), makePlanA012(problem).getActivitiesByTime());
+    final var solverThread = Thread.currentThread();
+    assertEquals(1, g0.callers.size());
+    assertNotEquals(solverThread, g0.callers.getFirst());
+    assertEquals(2, g1.callers.size());
+    assertNotEquals(solverThread, g1.callers.get(0));
+    assertEquals(solverThread, g1.callers.get(1));
+    assertEquals(0, plan.getEvaluation().forGoal(g1).getScore());
+  }
+
+  /**
+   * The first goal inserts an activity of a type which only affects /activitiesExecuted, so the second goal, which reads
+   * /data, is evaluated against the profiles simulated before the insertion
+   */
+  @Test
+  public void getNextSolution_unaffectedResourcesAreNotResimulated() throws SchedulingInterruptedException {
+    final var facade = new RecordingSimulationFacade();
+    final var problem = facade.makeProblem();
+    problem.setInitialPlan(makePlanFoo12(problem));
+    final var g0 = makeRecordingRecurrenceGoal(problem, "g0", "BasicFooActivity", Duration.of(2, Duration.SECONDS), "/data");
+    final var g1 = makeRecordingRecurrenceGoal(problem, "g1", "BasicFooActivity", Duration.of(2, Duration.SECONDS), "/data");
+    problem.setGoals(List.of(g0, g1));
+    final var solver = new PrioritySolver(problem, false, 1, true);
+
+    final var plan = solver.getNextSolution().orElseThrow();
+
+    assertEquals(3, plan.getActivities().size());
+    //the plan was not simulated with results once the activity was inserted
+    assertFalse(facade.simulatedPlanSizes.contains(3));
+    final var reused = g1.simulationResults.getLast();
+    assertEquals(3, reused.activities.size());
+    final var fresh = simulateFresh(plan);
+    assertEquals(fresh.realProfiles.get("/data"), reused.realProfiles.get("/data"));
+  }
+
+  /**
+   * The first goal inserts an activity of a type which affects /activitiesExecuted, so the second goal, which reads it,
+   * is evaluated against a new simulation
+   */
+  @Test
+  public void getNextSolution_affectedResourcesAreResimulated() throws SchedulingInterruptedException {
+    final var facade = new RecordingSimulationFacade();
+    final var problem = facade.makeProblem();
+    problem.setInitialPlan(makePlanFoo12(problem));
+    final var g0 = makeRecordingRecurrenceGoal(problem, "g0", "BasicFooActivity", Duration.of(2, Duration.SECONDS), "/data");
+    final var g1 = makeRecordingRecurrenceGoal(problem, "g1", "BasicFooActivity", Duration.of(2, Duration.SECONDS), "/activitiesExecuted");
+    problem.setGoals(List.of(g0, g1));
+    final var solver = new PrioritySolver(problem, false, 1, true);
+
+    final var plan = solver.getNextSolution().orElseThrow();
+
+    assertEquals(3, plan.getActivities().size());
+    assertTrue(facade.simulatedPlanSizes.contains(3));
+    final var resimulated = g1.simulationResults.getLast();
+    assertTrue(facade.simulations.stream().anyMatch(data -> data.constraintsResults() == resimulated));
+    final var fresh = simulateFresh(plan);
+    assertEquals(fresh.realProfiles.get("/activitiesExecuted"), resimulated.realProfiles.get("/activitiesExecuted"));
+    assertEquals(fresh.discreteProfiles.get("/activitiesExecuted"), resimulated.discreteProfiles.get("/activitiesExecuted"));
+  }
+
+  private static PlanInMemory makePlanFoo12(Problem problem) {
+    final var plan = new PlanInMemory();
+    final var actTypeFoo = problem.getActivityType("BasicFooActivity");
+    plan.add(SchedulingActivity.of(idGenerator.next(), actTypeFoo, t1hr, Duration.of(2, Duration.SECONDS), null, true, false));
+    plan.add(SchedulingActivity.of(idGenerator.next(), actTypeFoo, t2hr, Duration.of(2, Duration.SECONDS), null, true, false));
+    return plan;
+  }
+
+  private static SimulationResults simulateFresh(final Plan plan) {
+    try {
+      return SimulationUtility.buildProblemFromFoo(h)
+          .getSimulationFacade()
+          .simulateWithResults(plan, h.getEndAerie())
+          .constraintsResults();
+    } catch (SimulationFacade.SimulationException | SchedulingInterruptedException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private static RecordingRecurrenceGoal makeRecordingRecurrenceGoal(
+      final Problem problem,
+      final String name,
+      final String activityTypeName,
+      final Duration duration,
+      final String... resources)
+  {
+    return (RecordingRecurrenceGoal) new RecordingRecurrenceGoal.Builder(Set.of(resources))
+        .named(name)
+        .startingAt(t0)
+        .endingAt(t2hr.plus(Duration.of(10, Duration.MINUTE)))
+        .separatedByAtLeast(d1hr)
+        .separatedByAtMost(d1hr)
+        .thereExistsOne(new ActivityExpression.Builder()
+                            .ofType(problem.getActivityType(activityTypeName))
+                            .durationIn(duration)
+                            .build())
+        .withinPlanHorizon(h)
+        .build();
+  }
+
+  /**
+   * a recurrence goal reading the given resources, and recording the threads its conflicts are computed on along with
+   * the simulation results they are computed against
+   */
+  private static final class RecordingRecurrenceGoal extends RecurrenceGoal {
+    final List<Thread> callers = Collections.synchronizedList(new ArrayList<>());
+    final List<SimulationResults> simulationResults = Collections.synchronizedList(new ArrayList<>());
+    private final Set<String> resources;
+
+    private RecordingRecurrenceGoal(final Set<String> resources) {
+      this.resources = resources;
+    }
+
+    @Override
+    public Collection<Conflict> getConflicts(
+        final Plan plan,
+        final SimulationResults simulationResults,
+        final EvaluationEnvironment evaluationEnvironment,
+        final SchedulerModel schedulerModel)
+    {
+      callers.add(Thread.currentThread());
+      this.simulationResults.add(simulationResults);
+      return super.getConflicts(plan, simulationResults, evaluationEnvironment, schedulerModel);
+    }
+
+    @Override
+    public void extractResources(final Set<String> names) {
+      super.extractResources(names);
+      names.addAll(resources);
+    }
+
+    static final class Builder extends RecurrenceGoal.Builder {
+      private final Set<String> resources;
+
+      Builder(final Set<String> resources) {
+        this.resources = resources;
+      }
+
+      @Override
+      public RecurrenceGoal build() { return fill(new RecordingRecurrenceGoal(resources)); }
+    }
+  }
+
+  /**
+   * a simulation facade of the foo mission model recording the simulations it runs with results
+   */
+  private static final class RecordingSimulationFacade extends CheckpointSimulationFacade {
+    final List<SimulationData> simulations = new ArrayList<>();
+    /** the number of activities in the plan of each simulation, when it was run */
+    final List<Integer> simulatedPlanSizes = new ArrayList<>();
+
+    RecordingSimulationFacade() {
+      super(
+          SimulationUtility.getFooMissionModel(),
+          SimulationUtility.getFooSchedulerModel(),
+          new InMemoryCachedEngineStore(15),
+          h,
+          new SimulationEngineConfiguration(Map.of(), Instant.EPOCH, new MissionModelId(1)),
+          () -> false);
+    }
+
+    Problem makeProblem() {
+      return new Problem(SimulationUtility.getFooMissionModel(), h, this, SimulationUtility.getFooSchedulerModel());
+    }
+
+    @Override
+    public SimulationData simulateWithResults(final Plan plan, final Duration until, final Set<String> resourceNames)
+    throws SimulationException, SchedulingInterruptedException
+    {
+      simulatedPlanSizes.add(plan.getActivities().size());
+      final var data = super.simulateWithResults(plan, until, resourceNames);
+      simulations.add(data);
+      return data;
+    }
+  }
+
   /**
    * This test is the same as getNextSolution_coexistenceGoalOnActivityWorks except for the initial simulation results that
    * are loaded with the initial plan. This results in 1 less simulation as the initial results are used for generating conflicts.
@@ -316,4 +587,131 @@ public class PrioritySolverTest {
     //will insert an activity at the beginning of the plan in addition of the two already-present activities
     assertEquals(3, plan.getActivities().size());
   }
+
+  private final static PlanningHorizon shortHorizon = new PlanningHorizon(
+      TestUtility.timeFromEpochSeconds(0),
+      TestUtility.timeFromEpochSeconds(3000));
+
+  /**
+   * Solves a problem on the foo model, simulating the given number of candidate start times at once when placing
+   * activities of uncontrollable duration, and describes where the solution places each activity.
+   */
+  private static List<String> placementsWithProbes(final int rootFindingProbes, final Function<Problem, List<Goal>> goals)
+  throws SchedulingInterruptedException
+  {
+    final var problem = SimulationUtility.buildProblemFromFoo(shortHorizon, 15, rootFindingProbes);
+    final var initialPlan = new PlanInMemory();
+    final var anchorType = problem.getActivityType("ControllableDurationActivity");
+    initialPlan.add(SchedulingActivity.of(idGenerator.next(), anchorType, Duration.of(1, Duration.SECONDS), d1min, null, true, false));
+    initialPlan.add(SchedulingActivity.of(idGenerator.next(), anchorType, Duration.of(10, Duration.MINUTE), d1min, null, true, false));
+    problem.setInitialPlan(initialPlan);
+    problem.setGoals(goals.apply(problem));
+
+    final var plan = new PrioritySolver(problem).getNextSolution().orElseThrow();
+    return plan.getActivitiesByTime().stream()
+        .map($ -> $.getType().getName() + " at " + $.startOffset() + " for " + $.duration())
+        .sorted()
+        .toList();
+  }
+
+  /**
+   * Activities of uncontrollable duration are placed in the same way whether candidate start times are simulated one
+   * at a time or several at once, including those whose duration varies with their start time.
+   */
+  @Test
+  public void rootFindingProbes_placeUncontrollableActivitiesAsASingleProbeDoes() throws SchedulingInterruptedException {
+    final Function<Problem, List<Goal>> goals = problem -> {
+      final var trapezoidal = new ActivityExpression.Builder()
+          .ofType(problem.getActivityType("SolarPanelNonLinear"))
+          .withTimingPrecision(Duration.of(500, Duration.MILLISECOND))
+          .withArgument("theta_turn", SerializedValue.of(2.))
+          .withArgument("alpha_max", SerializedValue.of(0.0001))
+          .withArgument("omega_max", SerializedValue.of(0.01))
+          .build();
+      final var triangle = new ActivityExpression.Builder()
+          .ofType(problem.getActivityType("SolarPanelNonLinear"))
+          .withTimingPrecision(Duration.of(500, Duration.MILLISECOND))
+          .withArgument("theta_turn", SerializedValue.of(0.2))
+          .withArgument("alpha_max", SerializedValue.of(0.0001))
+          .withArgument("omega_max", SerializedValue.of(0.01))
+          .build();
+      return List.of(
+          new RecurrenceGoal.Builder()
+              .thereExistsOne(triangle)
+              .forAllTimeIn(new WindowsWrapperExpression(new Windows(false).set(shortHorizon.getHor(), true)))
+              .repeatingEvery(Duration.of(1000, Duration.SECONDS))
+              .named("UncontrollableRecurrenceGoal")
+              .withinPlanHorizon(shortHorizon)
+              .build(),
+          new CoexistenceGoal.Builder()
+              .thereExistsOne(trapezoidal)
+              .forAllTimeIn(new WindowsWrapperExpression(new Windows(false).set(shortHorizon.getHor(), true)))
+              .forEach(triangle)
+              .endsAt(TimeAnchor.START)
+              .named("UncontrollableCoexistenceGoal")
+              .aliasForAnchors("triangle")
+              .withinPlanHorizon(shortHorizon)
+              .build());
+    };
+
+    final var sequential = placementsWithProbes(1, goals);
+    assertEquals(sequential, placementsWithProbes(4, goals));
+    assertEquals(7, sequential.size());
+  }
+
+  /**
+   * An activity of uncontrollable duration which must end exactly when another starts has a single start time, which
+   * simulating several candidates at once finds as the secant method does.
+   */
+  @Test
+  public void rootFindingProbes_findTheSingleStartOfAnActivityEndingAtAnInstant() throws SchedulingInterruptedException {
+    final Function<Problem, List<Goal>> goals = problem -> List.of(
+        new CoexistenceGoal.Builder()
+            .named("g0")
+            .forAllTimeIn(new WindowsWrapperExpression(new Windows(false).set(
+                Interval.between(Duration.of(5, Duration.MINUTE), shortHorizon.getEndAerie()), true)))
+            .forEach(new ActivityExpression.Builder()
+                         .ofType(problem.getActivityType("ControllableDurationActivity"))
+                         .build())
+            .thereExistsOne(new ActivityExpression.Builder()
+                                .ofType(problem.getActivityType("BasicActivity"))
+                                .build())
+            .endsAt(TimeAnchor.START)
+            .aliasForAnchors("anchor")
+            .withinPlanHorizon(shortHorizon)
+            .build());
+
+    final var sequential = placementsWithProbes(1, goals);
+    assertEquals(sequential, placementsWithProbes(4, goals));
+    assertTrue(sequential.contains(
+        "BasicActivity at " + Duration.of(10, Duration.MINUTE).minus(Duration.of(2, Duration.SECONDS))
+        + " for " + Duration.of(2, Duration.SECONDS)));
+  }
+
+  /**
+   * An activity which would have to start before the horizon to end in time cannot be placed, whether candidate start
+   * times are simulated one at a time or several at once, as no candidate ends before the instant it must end at.
+   */
+  @Test
+  public void rootFindingProbes_placeNothingWhenNoStartEndsInTime() throws SchedulingInterruptedException {
+    final Function<Problem, List<Goal>> goals = problem -> List.of(
+        new CoexistenceGoal.Builder()
+            .named("g0")
+            .forAllTimeIn(new WindowsWrapperExpression(new Windows(false).set(
+                Interval.between(Duration.ZERO, Duration.of(5, Duration.MINUTE)), true)))
+            .forEach(new ActivityExpression.Builder()
+                         .ofType(problem.getActivityType("ControllableDurationActivity"))
+                         .build())
+            .thereExistsOne(new ActivityExpression.Builder()
+                                .ofType(problem.getActivityType("BasicActivity"))
+                                .build())
+            .endsAt(TimeAnchor.START)
+            .aliasForAnchors("anchor")
+            .withinPlanHorizon(shortHorizon)
+            .build());
+
+    final var sequential = placementsWithProbes(1, goals);
+    assertEquals(sequential, placementsWithProbes(4, goals));
+    assertEquals(2, sequential.size());
+  }
 }
@@ -41,6 +41,14 @@ public final class SimulationUtility {
   }
 
   public static Problem buildProblemFromFoo(final PlanningHorizon planningHorizon, final int simulationCacheSize){
+    return buildProblemFromFoo(planningHorizon, simulationCacheSize, 1);
+  }
+
+  public static Problem buildProblemFromFoo(
+      final PlanningHorizon planningHorizon,
+      final int simulationCacheSize,
+      final int rootFindingProbes)
+  {
     final var fooMissionModel = SimulationUtility.getFooMissionModel();
     final var fooSchedulerModel = SimulationUtility.getFooSchedulerModel();
     return new Problem(
@@ -55,7 +63,8 @@ public final class SimulationUtility {
                 Map.of(),
                 Instant.EPOCH,
                 new MissionModelId(1)),
-            () -> false),
+            () -> false,
+            rootFindingProbes),
         fooSchedulerModel);
   }
 
@@ -0,0 +1,106 @@
+package gov.nasa.jpl.aerie.scheduler.simulation;
+
+import gov.nasa.jpl.aerie.merlin.driver.engine.SimulationEngine;
+import gov.nasa.jpl.aerie.merlin.driver.engine.SpanId;
+import gov.nasa.jpl.aerie.merlin.protocol.driver.Topic;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ActivityTypeEffectsTest {
+  private final Topic<?> t1 = new Topic<>();
+  private final Topic<?> t2 = new Topic<>();
+  private final Topic<?> t3 = new Topic<>();
+  private final Topic<?> t4 = new Topic<>();
+  private final Topic<?> t5 = new Topic<>();
+
+  /**
+   * The effects of a set of types are only known once an activity of each of them has been learned from
+   */
+  @Test
+  public void unlearnedTypesHaveUnknownEffects() {
+    final var effects = new ActivityTypeEffects();
+    final var a = SpanId.generate();
+    assertEquals(Optional.empty(), effects.resourcesAffectedBy(Set.of("A")));
+
+    effects.learn(
+        new SimulationEngine.TopicDependencies(Map.of(), Map.of(a, Set.of(t1)), Map.of(t1, Set.of("/r1"))),
+        Map.of(a, "A"));
+
+    assertEquals(Optional.of(Set.of("/r1")), effects.resourcesAffectedBy(Set.of("A")));
+    assertEquals(Optional.empty(), effects.resourcesAffectedBy(Set.of("A", "B")));
+    assertEquals(Optional.of(Set.of()), effects.resourcesAffectedBy(Set.of()));
+  }
+
+  /**
+   * An activity affects the resources computed from the topics it emits to, and no other
+   */
+  @Test
+  public void typesAffectTheResourcesOfTheTopicsTheyWrite() {
+    final var effects = new ActivityTypeEffects();
+    final var a = SpanId.generate();
+    final var b = SpanId.generate();
+
+    effects.learn(
+        new SimulationEngine.TopicDependencies(
+            Map.of(a, Set.of(t2), b, Set.of(t1)),
+            Map.of(a, Set.of(t1)),
+            Map.of(t1, Set.of("/r1"), t2, Set.of("/r2", "/r1+r2"))),
+        Map.of(a, "A", b, "B"));
+
+    // reading a topic does not affect the resources computed from it
+    assertEquals(Optional.of(Set.of("/r1")), effects.resourcesAffectedBy(Set.of("A")));
+    assertEquals(Optional.of(Set.of()), effects.resourcesAffectedBy(Set.of("B")));
+  }
+
+  /**
+   * A task reading a topic affected by an activity may emit differently, so the topics it emits to are affected too,
+   * however many such tasks the effect goes through
+   */
+  @Test
+  public void effectsFlowThroughTheTasksReadingAffectedTopics() {
+    final var effects = new ActivityTypeEffects();
+    final var a = SpanId.generate();
+    final var daemon1 = SpanId.generate();
+    final var daemon2 = SpanId.generate();
+    final var daemon3 = SpanId.generate();
+
+    effects.learn(
+        new SimulationEngine.TopicDependencies(
+            Map.of(daemon1, Set.of(t2), daemon2, Set.of(t1), daemon3, Set.of(t5)),
+            Map.of(a, Set.of(t1), daemon1, Set.of(t3), daemon2, Set.of(t2), daemon3, Set.of(t4)),
+            Map.of(t1, Set.of("/r1"), t2, Set.of("/r2"), t3, Set.of("/r3"), t4, Set.of("/r4"))),
+        Map.of(a, "A"));
+
+    // t1 -> daemon2 -> t2 -> daemon1 -> t3, while daemon3 reads nothing A affects
+    assertEquals(Optional.of(Set.of("/r1", "/r2", "/r3")), effects.resourcesAffectedBy(Set.of("A")));
+  }
+
+  /**
+   * What is learned accumulates over simulations, so that the effects of a type learned in one simulation flow through
+   * the tasks observed in another
+   */
+  @Test
+  public void effectsAccumulateOverSimulations() {
+    final var effects = new ActivityTypeEffects();
+    final var a1 = SpanId.generate();
+    final var a2 = SpanId.generate();
+    final var daemon = SpanId.generate();
+
+    effects.learn(
+        new SimulationEngine.TopicDependencies(Map.of(), Map.of(a1, Set.of(t1)), Map.of(t1, Set.of("/r1"))),
+        Map.of(a1, "A"));
+    effects.learn(
+        new SimulationEngine.TopicDependencies(
+            Map.of(daemon, Set.of(t1)),
+            Map.of(a2, Set.of(t5), daemon, Set.of(t2)),
+            Map.of(t2, Set.of("/r2"), t5, Set.of("/r5"))),
+        Map.of(a2, "A"));
+
+    assertEquals(Optional.of(Set.of("/r1", "/r2", "/r5")), effects.resourcesAffectedBy(Set.of("A")));
+  }
+}
@@ -17,11 +17,15 @@ import org.junit.jupiter.api.Test;
 
 import java.time.Instant;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.HOUR;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class CheckpointSimulationFacadeTest {
   private static final DirectiveIdGenerator idGenerator = new DirectiveIdGenerator(0);
@@ -109,4 +113,80 @@ public class CheckpointSimulationFacadeTest {
     assert(results.unfinishedActivities.size() == 1);
   }
 
+  /**
+   * Simulating candidates concurrently from a shared cached engine gives each candidate the same duration as simulating
+   * them one after the other.
+   */
+  @Test
+  public void parallelCandidatesMatchSequentialCandidates() throws SchedulingInterruptedException {
+    final var plan = makePlanA012(activityTypes);
+    final var actTypeA = activityTypes.get("BasicActivity");
+    final var candidates = List.of(
+        SchedulingActivity.of(idGenerator.next(), actTypeA, t1hr.plus(d1hr.dividedBy(2)), null, null, true, false),
+        SchedulingActivity.of(idGenerator.next(), actTypeA, t2hr, null, null, true, false),
+        SchedulingActivity.of(idGenerator.next(), actTypeA, t2hr.plus(d1hr), null, null, true, false));
+
+    final var parallelFacade = new CheckpointSimulationFacade(
+        SimulationUtility.getFooMissionModel(),
+        SimulationUtility.getFooSchedulerModel(),
+        new InMemoryCachedEngineStore(10),
+        H,
+        new SimulationEngineConfiguration(Map.of(), Instant.EPOCH, new MissionModelId(1)),
+        () -> false,
+        3);
+    parallelFacade.addActivityTypes(activityTypes.values());
+
+    final var sequential = newSimulationFacade.simulateCandidatesUntilEndAct(plan, candidates);
+    final var parallel = parallelFacade.simulateCandidatesUntilEndAct(plan, candidates);
+
+    assertEquals(3, parallelFacade.candidateParallelism());
+    assertEquals(sequential, parallel);
+    assertTrue(parallel.stream().allMatch(Optional::isPresent));
+    assertEquals(3, plan.getActivities().size());
+  }
+
+  /**
+   * The resources an activity type may affect are only known once an activity of that type has been simulated to completion
+   */
+  @Test
+  public void resourcesAffectedByTypesSimulatedToCompletion() throws SchedulingInterruptedException, SimulationFacade.SimulationException {
+    final var plan = makePlanA012(activityTypes);
+    assertTrue(newSimulationFacade.resourcesAffectedBy(Set.of("BasicActivity")).isEmpty());
+
+    newSimulationFacade.simulateNoResultsAllActivities(plan);
+    assertTrue(newSimulationFacade.resourcesAffectedBy(Set.of("BasicActivity")).isPresent());
+    assertTrue(newSimulationFacade.resourcesAffectedBy(Set.of("BasicActivity", "ControllableDurationActivity")).isEmpty());
+  }
+
+  /**
+   * An activity type affects the resources computed from the cells its effect model emits to, and no other
+   */
+  @Test
+  public void resourcesAffectedByTheCellsTypesEmitTo() throws SchedulingInterruptedException, SimulationFacade.SimulationException {
+    final var plan = makePlanA012(activityTypes);
+    final var actTypeFoo = activityTypes.get("BasicFooActivity");
+    plan.add(SchedulingActivity.of(idGenerator.next(), actTypeFoo, t1hr, Duration.of(2, Duration.SECONDS), null, true, false));
+
+    newSimulationFacade.simulateNoResultsAllActivities(plan);
+
+    assertEquals(Optional.of(Set.of("/activitiesExecuted")), newSimulationFacade.resourcesAffectedBy(Set.of("BasicFooActivity")));
+    assertEquals(Optional.of(Set.of()), newSimulationFacade.resourcesAffectedBy(Set.of("BasicActivity")));
+    assertEquals(
+        Optional.of(Set.of("/activitiesExecuted")),
+        newSimulationFacade.resourcesAffectedBy(Set.of("BasicActivity", "BasicFooActivity")));
+  }
+
+  /**
+   * An activity which has not finished may not have had all of its effects yet, so its type is not learned from it
+   */
+  @Test
+  public void unfinishedActivitiesAreNotLearnedFrom() throws SchedulingInterruptedException, SimulationFacade.SimulationException {
+    final var plan = new PlanInMemory();
+    final var actTypeA = activityTypes.get("ControllableDurationActivity");
+    plan.add(SchedulingActivity.of(idGenerator.next(), actTypeA, t0, HOUR.times(200), null, true, false));
+
+    newSimulationFacade.simulateNoResultsAllActivities(plan);
+
+    assertTrue(newSimulationFacade.resourcesAffectedBy(Set.of("ControllableDurationActivity")).isEmpty());
+  }
 }
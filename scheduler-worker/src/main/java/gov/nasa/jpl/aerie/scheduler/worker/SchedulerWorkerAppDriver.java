@@ -38,7 +38,7 @@ public final class SchedulerWorkerAppDriver {
 
     final SchedulingDSLCompilationService schedulingDSLCompilationService;
     try {
-      schedulingDSLCompilationService = new SchedulingDSLCompilationService();
+      schedulingDSLCompilationService = new SchedulingDSLCompilationService(config.schedulingDslCompilerProcesses());
     } catch (final IOException e) {
       throw new Error("Failed to start SchedulingDSLCompilationService", e);
     }
@@ -72,7 +72,10 @@ public final class SchedulerWorkerAppDriver {
         merlinDatabaseService,
         config.merlinFileStore(),
         config.outputMode(),
-        schedulingDSLCompilationService);
+        schedulingDSLCompilationService,
+        config.rootFindingProbes(),
+        config.conflictDetectionParallelism(),
+        config.skipUnaffectedSimulations());
 
     final var notificationQueue = new LinkedBlockingQueue<PostgresSchedulingRequestNotificationPayload>();
     final var listenAction = new ListenSchedulerCapability(hikariDataSource, notificationQueue);
@@ -135,6 +138,21 @@ public final class SchedulerWorkerAppDriver {
       logger.warn("MAX_NB_CACHED_SIMULATION_ENGINES is " + maxNbCachedSimulationEngine + " but minimum is 1. Setting to 1.");
       maxNbCachedSimulationEngine = 1;
     }
+    int schedulingDslCompilerProcesses = Integer.parseInt(getEnv("SCHEDULING_DSL_COMPILER_PROCESSES", "1"));
+    if (schedulingDslCompilerProcesses < 1) {
+      logger.warn("SCHEDULING_DSL_COMPILER_PROCESSES is " + schedulingDslCompilerProcesses + " but minimum is 1. Setting to 1.");
+      schedulingDslCompilerProcesses = 1;
+    }
+    int rootFindingProbes = Integer.parseInt(getEnv("SCHEDULING_ROOT_FINDING_PROBES", "1"));
+    if (rootFindingProbes < 1) {
+      logger.warn("SCHEDULING_ROOT_FINDING_PROBES is " + rootFindingProbes + " but minimum is 1. Setting to 1.");
+      rootFindingProbes = 1;
+    }
+    int conflictDetectionParallelism = Integer.parseInt(getEnv("SCHEDULING_CONFLICT_DETECTION_PARALLELISM", "1"));
+    if (conflictDetectionParallelism < 1) {
+      logger.warn("SCHEDULING_CONFLICT_DETECTION_PARALLELISM is " + conflictDetectionParallelism + " but minimum is 1. Setting to 1.");
+      conflictDetectionParallelism = 1;
+    }
     return new WorkerAppConfiguration(
         new PostgresStore(getEnv("AERIE_DB_HOST", "postgres"),
                           getEnv("SCHEDULER_DB_USER", ""),
@@ -145,7 +163,11 @@ public final class SchedulerWorkerAppDriver {
         Path.of(getEnv("MERLIN_LOCAL_STORE", "/usr/src/app/merlin_file_store")),
         PlanOutputMode.valueOf((getEnv("SCHEDULER_OUTPUT_MODE", "CreateNewOutputPlan"))),
         getEnv("HASURA_GRAPHQL_ADMIN_SECRET", ""),
-        maxNbCachedSimulationEngine
+        maxNbCachedSimulationEngine,
+        schedulingDslCompilerProcesses,
+        rootFindingProbes,
+        conflictDetectionParallelism,
+        Boolean.parseBoolean(getEnv("SCHEDULING_SKIP_UNAFFECTED_SIMULATIONS", "false"))
     );
   }
 }
@@ -11,5 +11,9 @@ public record WorkerAppConfiguration(
     Path merlinFileStore,
     PlanOutputMode outputMode,
     String hasuraGraphQlAdminSecret,
-    int maxCachedSimulationEngines
+    int maxCachedSimulationEngines,
+    int schedulingDslCompilerProcesses,
+    int rootFindingProbes,
+    int conflictDetectionParallelism,
+    boolean skipUnaffectedSimulations
 ) { }
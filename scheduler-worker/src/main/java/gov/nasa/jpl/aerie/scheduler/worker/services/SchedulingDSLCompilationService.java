@@ -1,5 +1,6 @@
 package gov.nasa.jpl.aerie.scheduler.worker.services;
 
+import gov.nasa.jpl.aerie.dsl.NodeCompilerPool;
 import gov.nasa.jpl.aerie.json.JsonParser;
 import gov.nasa.jpl.aerie.scheduler.server.http.InvalidEntityException;
 import gov.nasa.jpl.aerie.scheduler.server.http.InvalidJsonException;
@@ -21,14 +22,22 @@ import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
-import java.util.Objects;
 
 public class SchedulingDSLCompilationService {
 
-  private final Process nodeProcess;
+  private final NodeCompilerPool compilers;
 
   public SchedulingDSLCompilationService()
   throws IOException
+  {
+    this(1);
+  }
+
+  /**
+   * @param processes the number of compilations that may run at once, each in its own Node subprocess
+   */
+  public SchedulingDSLCompilationService(final int processes)
+  throws IOException
   {
     final var schedulingDslCompilerRoot = System.getenv("SCHEDULING_DSL_COMPILER_ROOT");
     final var schedulingDslCompilerCommand = System.getenv("SCHEDULING_DSL_COMPILER_COMMAND");
@@ -37,18 +46,11 @@ public class SchedulingDSLCompilationService {
         .redirectError(ProcessBuilder.Redirect.INHERIT)
         .directory(new File(schedulingDslCompilerRoot));
     processBuilder.environment().put("NODE_NO_WARNINGS", "1");
-    this.nodeProcess = processBuilder.start();
-
-    final var inputStream = this.nodeProcess.outputWriter();
-    inputStream.write("ping\n");
-    inputStream.flush();
-    if (!Objects.equals(this.nodeProcess.inputReader().readLine(), "pong")) {
-      throw new Error("Could not create node subprocess");
-    }
+    this.compilers = new NodeCompilerPool(processBuilder, processes, NodeCompilerPool.DEFAULT_CACHE_CAPACITY);
   }
 
   public void close() {
-    this.nodeProcess.destroy();
+    this.compilers.close();
   }
 
   public SchedulingDSLCompilationResult<SchedulingDSL.ConditionSpecifier> compileGlobalSchedulingCondition(final MerlinDatabaseService.ReaderRole merlinDatabaseService, final PlanId planId, final String conditionTypescript, final
@@ -72,7 +74,7 @@ public class SchedulingDSLCompilationService {
   }
 
   /**
-   * NOTE: This method is not re-entrant (assumes only one call to this method is running at any given time)
+   * Compiling the same goal against unchanged types is answered from cache, without invoking Node.
    */
   public SchedulingDSLCompilationResult<SchedulingDSL.GoalSpecifier> compileSchedulingGoalDSL(
       final MerlinDatabaseService.ReaderRole merlinDatabaseService,
@@ -116,41 +118,32 @@ public class SchedulingDSLCompilationService {
     *   NODE -- stdout --> JAVA: one of "success\n", "error\n", or "panic\n"
     *   NODE -- stdout --> JAVA: payload associated with success, error, or panic, must be exactly one line terminated with \n
     * */
-    final var inputWriter = this.nodeProcess.outputWriter();
-    final var outputReader = this.nodeProcess.inputReader();
-    try {
-      inputWriter.write(messageJson+"\n");
-      inputWriter.flush();
-      final var status = outputReader.readLine();
-      return switch (status) {
-        case "panic" -> throw new Error(outputReader.readLine());
-        case "error" -> {
-          final var output = outputReader.readLine();
-          try {
-            yield new SchedulingDSLCompilationResult.Error<>(parseJson(
-                output,
-                SchedulingCompilationError.schedulingErrorJsonP));
-          } catch (InvalidJsonException e) {
-            throw new Error("Could not parse JSON returned from typescript: ", e);
-          } catch (InvalidEntityException e) {
-            throw new Error("Could not parse JSON returned from typescript: " + e.failures + "\n" + output);
-          }
+    final var response = this.compilers.request(messageJson.toString());
+    final var output = response.payload();
+    return switch (response.status()) {
+      case "panic" -> throw new Error(output);
+      case "error" -> {
+        try {
+          yield new SchedulingDSLCompilationResult.Error<>(parseJson(
+              output,
+              SchedulingCompilationError.schedulingErrorJsonP));
+        } catch (InvalidJsonException e) {
+          throw new Error("Could not parse JSON returned from typescript: ", e);
+        } catch (InvalidEntityException e) {
+          throw new Error("Could not parse JSON returned from typescript: " + e.failures + "\n" + output);
         }
-        case "success" -> {
-          final var output = outputReader.readLine();
-          try {
-            yield new SchedulingDSLCompilationResult.Success<>(parseJson(output, parser));
-          } catch (InvalidJsonException e) {
-            throw new Error("Could not parse JSON returned from typescript: " + output, e);
-          } catch (InvalidEntityException e) {
-            throw new Error("Could not parse JSON returned from typescript: " + e.failures + "\n" + output, e);
-          }
+      }
+      case "success" -> {
+        try {
+          yield new SchedulingDSLCompilationResult.Success<>(parseJson(output, parser));
+        } catch (InvalidJsonException e) {
+          throw new Error("Could not parse JSON returned from typescript: " + output, e);
+        } catch (InvalidEntityException e) {
+          throw new Error("Could not parse JSON returned from typescript: " + e.failures + "\n" + output, e);
         }
-        default -> throw new Error("scheduling dsl compiler returned unexpected status: " + status);
-      };
-    } catch (IOException e) {
-      throw new Error(e);
-    }
+      }
+      default -> throw new Error("scheduling dsl compiler returned unexpected status: " + response.status());
+    };
   }
 
   private static <T> T parseJson(final String jsonStr, final JsonParser<T> parser)
@@ -89,7 +89,10 @@ public record SynchronousSchedulerAgent(
     MerlinDatabaseService.OwnerRole merlinDatabaseService,
     Path modelJarsDir,
     PlanOutputMode outputMode,
-    SchedulingDSLCompilationService schedulingDSLCompilationService
+    SchedulingDSLCompilationService schedulingDSLCompilationService,
+    int rootFindingProbes,
+    int conflictDetectionParallelism,
+    boolean skipUnaffectedSimulations
 )
     implements SchedulerAgent
 {
@@ -101,6 +104,16 @@ public record SynchronousSchedulerAgent(
     Objects.requireNonNull(schedulingDSLCompilationService);
   }
 
+  public SynchronousSchedulerAgent(
+      final SpecificationService specificationService,
+      final MerlinDatabaseService.OwnerRole merlinDatabaseService,
+      final Path modelJarsDir,
+      final PlanOutputMode outputMode,
+      final SchedulingDSLCompilationService schedulingDSLCompilationService)
+  {
+    this(specificationService, merlinDatabaseService, modelJarsDir, outputMode, schedulingDSLCompilationService, 1, 1, false);
+  }
+
   /**
    * {@inheritDoc}
    *
@@ -139,7 +152,8 @@ public record SynchronousSchedulerAgent(
               planMetadata.modelConfiguration(),
               planMetadata.horizon().getStartInstant(),
               new MissionModelId(planMetadata.modelId())),
-          canceledListener);
+          canceledListener,
+          rootFindingProbes);
         final var problem = new Problem(
             schedulerMissionModel.missionModel(),
             planningHorizon,
@@ -233,7 +247,7 @@ public record SynchronousSchedulerAgent(
         }
         problem.setGoals(orderedGoals);
 
-      final var scheduler = new PrioritySolver(problem, specification.analysisOnly());
+      final var scheduler = new PrioritySolver(problem, specification.analysisOnly(), conflictDetectionParallelism, skipUnaffectedSimulations);
       //run the scheduler to find a solution to the posed problem, if any
       final var solutionPlan = scheduler.getNextSolution().orElseThrow(
           () -> new ResultsProtocolFailure("scheduler returned no solution"));
@@ -8,6 +8,8 @@ import gov.nasa.jpl.aerie.orchestration.simulation.SimulationResultsWriter;
 import gov.nasa.jpl.aerie.merlin.driver.MissionModel;
 import gov.nasa.jpl.aerie.merlin.driver.MissionModelLoader;
 import gov.nasa.jpl.aerie.merlin.driver.SimulationException;
+import gov.nasa.jpl.aerie.merlin.driver.SimulationMetrics;
+import gov.nasa.jpl.aerie.merlin.driver.engine.SimulationEngine;
 
 import java.nio.file.Path;
 import java.util.Map;
@@ -33,7 +35,8 @@ public class Main {
         Plan plan,
         boolean verbose,
         Optional<Path> outputFilePath,
-        long extentUpdatePeriod
+        long extentUpdatePeriod,
+        boolean reportMetrics
     ) implements Arguments {}
   }
 
@@ -65,6 +68,7 @@ public class Main {
     final boolean verbose;
     final Optional<Path> outputFilePath;
     final long extentUpdatePeriod;
+    final boolean reportMetrics;
 
     // Parse the command line arguments
     final Options simulationOptions = createSimulationOptions();
@@ -81,6 +85,7 @@ public class Main {
       configJsonPath = cmd.getParsedOptionValue('s', Optional.empty());
       outputFilePath = cmd.getParsedOptionValue('f', Optional.empty());
       extentUpdatePeriod = cmd.getParsedOptionValue('i', 500L);
+      reportMetrics = cmd.hasOption("metrics");
     } catch (ParseException e) {
       simulationOptions.addOption(HELP_OPTION);
       new HelpFormatter().printHelp(
@@ -112,7 +117,7 @@ public class Main {
           plan.simulationConfiguration()
       );
 
-      return new Arguments.SimulationArguments<>(model, plan, verbose, outputFilePath, extentUpdatePeriod);
+      return new Arguments.SimulationArguments<>(model, plan, verbose, outputFilePath, extentUpdatePeriod, reportMetrics);
     } catch (MissionModelLoader.MissionModelLoadException | MissionModelLoader.MissionModelInstantiationException e) {
       throw new RuntimeException("Error while loading mission model: "+modelJarPath, e);
     }
@@ -124,6 +129,10 @@ public class Main {
     Thread shutdownHook = null;
     final var rfs = new ResourceFileStreamer();
     final var canceledListener = new CanceledListener();
+    final var metrics = new SimulationMetrics();
+    final var engineOptions = simArgs.reportMetrics()
+        ? SimulationEngine.Options.DEFAULT.withMetrics(metrics)
+        : SimulationEngine.Options.DEFAULT;
 
     // Cancel support
     try (final var extentConsumer = simArgs.verbose
@@ -135,7 +144,8 @@ public class Main {
           simArgs.missionModel(),
           simArgs.plan(),
           canceledListener,
-          extentConsumer
+          extentConsumer,
+          engineOptions
       );
 
       shutdownHook = new Thread(() -> {
@@ -159,6 +169,7 @@ public class Main {
       // Surround awaiting sim results in a thread to output partial results during SIGINT
       Runtime.getRuntime().addShutdownHook(shutdownHook);
       final var results = resultsFuture.get();
+      if (simArgs.reportMetrics()) System.err.print(metrics.report().format());
       if (!canceledListener.get()) {
         // Avoid two threads writing to the output file at the same time
         Runtime.getRuntime().removeShutdownHook(shutdownHook);
@@ -231,12 +242,15 @@ public class Main {
     // Other Optional Args
     final Option verbose = new Option("v", "verbose", false, "verbosity of simulation");
 
+    final Option metrics = new Option("M", "metrics", false, "print simulation engine metrics to stderr after simulating");
+
     final Option extentUpdateFrequency = new Option("i", "update_interval", true, "minimum interval that simulation extent updates are posted, in milliseconds" );
     extentUpdateFrequency.setRequired(false);
     extentUpdateFrequency.setConverter(Long::parseLong);
 
     final Options simulationOptions = new Options();
     simulationOptions.addOption(verbose);
+    simulationOptions.addOption(metrics);
     simulationOptions.addOption(modelPath);
     simulationOptions.addOption(planPath);
     simulationOptions.addOption(simConfigPath);